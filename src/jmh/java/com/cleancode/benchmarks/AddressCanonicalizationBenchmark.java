@@ -0,0 +1,121 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longparameterlist.AddressCanonicalizer;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.Address;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.UserRegistrationData;
+import com.cleancode.bloaters.longparameterlist.RegistrationServices;
+import com.cleancode.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and keeps a few million users, as a user directory would, with and without an
+ * {@link AddressCanonicalizer}, and prints the heap they retain after a full GC (the
+ * canonicalizer's own caches included). Every row gets freshly allocated strings, as parsed
+ * input does. Addresses follow a skewed distribution over 40,000 zip codes, 8,000 cities and
+ * 50 states, with a random street each; the score is the build time.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class AddressCanonicalizationBenchmark {
+
+    private static final int ZIP_CODES = 40_000;
+    private static final String[] STATES = {
+        "AL", "AK", "AZ", "AR", "CA", "CO", "CT", "DE", "FL", "GA", "HI", "ID", "IL", "IN", "IA", "KS", "KY",
+        "LA", "ME", "MD", "MA", "MI", "MN", "MS", "MO", "MT", "NE", "NV", "NH", "NJ", "NM", "NY", "NC", "ND",
+        "OH", "OK", "OR", "PA", "RI", "SC", "SD", "TN", "TX", "UT", "VT", "VA", "WA", "WV", "WI", "WY"
+    };
+    private static final String[] STREETS = {
+        "Main St", "Oak Ave", "Maple Dr", "Cedar Ln", "Pine St", "Elm St", "Washington Blvd", "Park Ave",
+        "Lake Rd", "Hill St", "River Rd", "Church St", "Spring St", "Center St", "Highland Ave", "Sunset Blvd"
+    };
+
+    @Param({"false", "true"})
+    private boolean canonicalize;
+
+    @Param({"5000000"})
+    private int userCount;
+
+    private LongParameterListRefactored processor;
+    private AddressCanonicalizer addresses;
+    private User[] users;
+    private long baselineBytes;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        addresses = canonicalize ? new AddressCanonicalizer() : null;
+        processor = new LongParameterListRefactored(RegistrationServices.builder().addresses(addresses).build());
+        baselineBytes = usedHeapAfterGc();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        long retained = usedHeapAfterGc() - baselineBytes;
+        System.out.println();
+        System.out.printf("%,d users retain %,d MB, %d bytes per user%n",
+            users.length, retained >> 20, retained / users.length);
+        if (addresses != null) {
+            System.out.println("addresses:  " + addresses.getAddressStats());
+            System.out.println("localities: " + addresses.getLocalityStats());
+            System.out.println("strings:    " + addresses.getStringStats());
+        }
+        users = null;
+    }
+
+    @Benchmark
+    public User[] buildUsers() {
+        Random random = new Random(BenchmarkData.SEED);
+        users = new User[userCount];
+        for (int i = 0; i < userCount; i++) {
+            users[i] = processor.buildUser(registration(random, i));
+        }
+        return users;
+    }
+
+    private static UserRegistrationData registration(Random random, int i) {
+        // Cubing a uniform value gives a few large zip codes and a long tail of small ones
+        double skew = random.nextDouble();
+        int zip = (int) (ZIP_CODES * skew * skew * skew);
+        Address address = new Address(
+            (1 + random.nextInt(9_999)) + " " + STREETS[random.nextInt(STREETS.length)],
+            "City " + zip / 5,
+            copyOf(STATES[zip % STATES.length]),
+            Integer.toString(10_000 + zip),
+            copyOf("USA"));
+        return new UserRegistrationData("First" + i % 5_000, "Last" + i % 20_000, "user" + i + "@example.com",
+            "555-" + (1_000_000 + i), address, LocalDate.of(1950 + i % 50, 1 + i % 12, 1 + i % 28),
+            "password" + i, true);
+    }
+
+    private static String copyOf(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,110 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Seeded generators for realistic benchmark datasets, so every run and every
+ * compared implementation sees exactly the same inputs.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    private static final String[] PRODUCTS = {
+        "Laptop", "Mouse", "Monitor", "Keyboard", "Headset", "Webcam", "Dock", "Cable", "Chair", "Desk"
+    };
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Carol", "Dave", "Erin", "Frank", "Grace", "Heidi"};
+    private static final String[] LAST_NAMES = {"Johnson", "Wilson", "Smith", "Brown", "Taylor", "Lee", "Martin"};
+    private static final String[][] CITIES = {
+        {"New York", "NY", "10001"}, {"Los Angeles", "CA", "90210"}, {"Chicago", "IL", "60601"},
+        {"Houston", "TX", "77001"}, {"Seattle", "WA", "98101"}, {"Boston", "MA", "02108"}
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Orders with 1-20 lines, prices from $1 to $500 and roughly 30% premium customers.
+     */
+    static Order[] orders(int count) {
+        Random random = new Random(SEED);
+        Order[] orders = new Order[count];
+        for (int i = 0; i < count; i++) {
+            Customer customer = new Customer("C" + random.nextInt(count), "Customer " + i,
+                "customer" + i + "@example.com", random.nextInt(10) < 3);
+            Order order = new Order("O" + i, customer);
+            int lines = 1 + random.nextInt(20);
+            for (int line = 0; line < lines; line++) {
+                int product = random.nextInt(PRODUCTS.length * 100);
+                order.addItem(new OrderItem("P" + product, PRODUCTS[product % PRODUCTS.length],
+                    1 + random.nextInt(50_000) / 100.0, 1 + random.nextInt(5)));
+            }
+            orders[i] = order;
+        }
+        return orders;
+    }
+
+    /**
+     * Customer type strings as they arrive from ingestion: mostly regular, some premium and VIP,
+     * and a few unknown types.
+     */
+    static String[] customerTypes(int count) {
+        Random random = new Random(SEED);
+        String[] types = new String[count];
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(100);
+            types[i] = roll < 70 ? "REGULAR" : roll < 90 ? "PREMIUM" : roll < 98 ? "VIP" : "GUEST";
+        }
+        return types;
+    }
+
+    static double[] amounts(int count) {
+        Random random = new Random(SEED);
+        double[] amounts = new double[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = 5 + random.nextInt(100_000) / 100.0;
+        }
+        return amounts;
+    }
+
+    static LongParameterListRefactored.UserRegistrationData[] registrations(int count) {
+        Random random = new Random(SEED);
+        LongParameterListRefactored.UserRegistrationData[] registrations =
+            new LongParameterListRefactored.UserRegistrationData[count];
+        for (int i = 0; i < count; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String[] city = CITIES[random.nextInt(CITIES.length)];
+            LongParameterListRefactored.Address address = new LongParameterListRefactored.Address(
+                (100 + random.nextInt(9900)) + " Main St", city[0], city[1], city[2], "USA");
+            registrations[i] = new LongParameterListRefactored.UserRegistrationData(
+                firstName,
+                lastName,
+                firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@example.com",
+                "555-" + (100 + random.nextInt(900)) + "-" + (1000 + random.nextInt(9000)),
+                address,
+                LocalDate.of(1950 + random.nextInt(55), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                "password" + random.nextInt(1_000_000),
+                random.nextBoolean()
+            );
+        }
+        return registrations;
+    }
+
+    /**
+     * The demo classes print to the console; benchmarks measure the code, not the terminal.
+     */
+    static PrintStream silenceStandardOut() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+}
@@ -0,0 +1,75 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.Money;
+import com.cleancode.pricing.CustomerTier;
+import com.cleancode.pricing.DiscountRuleEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders discounted per millisecond: the compiled rule table against the former
+ * hardcoded branches in LongMethodRefactored.applyDiscounts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DiscountRuleEngineBenchmark {
+
+    private static final int ORDERS = 10_000;
+
+    private final DiscountRuleEngine engine = DiscountRuleEngine.fromClasspath("discounts/order-discounts.rules");
+    private final CustomerTier[] tiers = new CustomerTier[ORDERS];
+    private final long[] totals = new long[ORDERS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        for (int i = 0; i < ORDERS; i++) {
+            tiers[i] = random.nextInt(10) < 3 ? CustomerTier.PREMIUM : CustomerTier.REGULAR;
+            totals[i] = 100 + random.nextInt(50_000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long ruleEngine() {
+        long sum = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            sum += engine.apply(tiers[i], totals[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long hardcodedBranches() {
+        long sum = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            long total = totals[i];
+            if (tiers[i] == CustomerTier.PREMIUM) {
+                total = Money.applyBasisPoints(total, 9000, RoundingMode.HALF_EVEN);
+            }
+            if (total > 10000) {
+                total = Money.applyBasisPoints(total, 9500, RoundingMode.HALF_EVEN);
+            }
+            sum += total;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,128 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.codec.BinaryReader;
+import com.cleancode.domain.codec.BinaryWriter;
+import com.cleancode.domain.codec.DomainCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DomainCodec} against Java serialization for a 100-order message.
+ *
+ * The domain classes are not {@link Serializable}, so the Java serialization side uses
+ * serializable records with the same fields, which is what a reflection-based DTO
+ * layer sends today. Encoded sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DomainCodecBenchmark {
+
+    record CustomerDto(String customerId, String name, String email, boolean premium) implements Serializable {
+    }
+
+    record OrderItemDto(String productId, String productName, double price, int quantity) implements Serializable {
+    }
+
+    record OrderDto(String orderId, String status, double total, CustomerDto customer, List<OrderItemDto> items)
+        implements Serializable {
+    }
+
+    private static final int MESSAGE_SIZE = 100;
+
+    private List<Order> orders;
+    private ArrayList<OrderDto> dtos;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+    private final BinaryWriter writer = new BinaryWriter(buffer);
+    private final BinaryReader reader = new BinaryReader(buffer);
+    private ByteBuffer encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        orders = Arrays.asList(BenchmarkData.orders(MESSAGE_SIZE));
+        dtos = new ArrayList<>();
+        for (Order order : orders) {
+            dtos.add(toDto(order));
+        }
+        DomainCodec.writeOrders(writer.reset(buffer.clear()), orders);
+        encoded = ByteBuffer.allocate(buffer.flip().remaining()).put(buffer).flip();
+        serialized = javaSerialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void reportSizes() {
+        System.err.printf("%n%d orders: codec %d bytes, java serialization %d bytes%n",
+            MESSAGE_SIZE, encoded.remaining(), serialized.length);
+    }
+
+    private static OrderDto toDto(Order order) {
+        Customer customer = order.getCustomer();
+        List<OrderItemDto> items = new ArrayList<>();
+        for (OrderItem item : order.getItemsView()) {
+            items.add(new OrderItemDto(item.getProductId(), item.getProductName(), item.getPrice(), item.getQuantity()));
+        }
+        return new OrderDto(order.getOrderId(), order.getStatus().name(), order.getTotal(),
+            new CustomerDto(customer.getCustomerId(), customer.getName(), customer.getEmail(), customer.isPremium()),
+            items);
+    }
+
+    private byte[] javaSerialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(dtos);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public int codecEncode() {
+        DomainCodec.writeOrders(writer.reset(buffer.clear()), orders);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public List<Order> codecDecode() {
+        return DomainCodec.readOrders(reader.reset(encoded.duplicate()));
+    }
+
+    @Benchmark
+    public byte[] javaSerializationEncode() throws IOException {
+        return javaSerialize();
+    }
+
+    @Benchmark
+    public Object javaSerializationDecode() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+}
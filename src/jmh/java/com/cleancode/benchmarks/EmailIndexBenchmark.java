@@ -0,0 +1,79 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.index.EmailIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a not-yet-registered email against a million registered ones: {@link EmailIndex}
+ * (Bloom filter, then the set on a "maybe") against a bare concurrent hash set. Both sides
+ * normalize the address first. The trial prints the index's size and accuracy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class EmailIndexBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000000"})
+    private int registeredEmails;
+
+    private EmailIndex index;
+    private Set<String> set;
+    private String[] newEmails;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        index = new EmailIndex(registeredEmails);
+        set = ConcurrentHashMap.newKeySet(registeredEmails);
+        for (int i = 0; i < registeredEmails; i++) {
+            String email = "user" + i + "@example.com";
+            index.register(email);
+            set.add(email);
+        }
+        newEmails = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            newEmails[i] = "signup" + i + "@example.org";
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println(index.stats() + ", filterBytesPerMillionEmails=" + index.stats().getFilterBytesPerMillionEmails());
+    }
+
+    @Benchmark
+    public boolean emailIndex() {
+        return index.isRegistered(next());
+    }
+
+    @Benchmark
+    public boolean concurrentSetOnly() {
+        return set.contains(next().strip().toLowerCase(Locale.ROOT));
+    }
+
+    private String next() {
+        return newEmails[cursor++ & (PROBES - 1)];
+    }
+}
@@ -0,0 +1,74 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.bloaters.longmethod.LongMethodSmell;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long Method smell vs Extract Method refactoring on the same generated orders.
+ * Throughput plus sampled latency percentiles; add {@code -prof gc} for allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LongMethodBenchmark {
+
+    private static final int DATASET_SIZE = 10_000;
+
+    private final LongMethodSmell smell = new LongMethodSmell();
+    private final LongMethodRefactored refactored = new LongMethodRefactored();
+
+    private Order[] orders;
+    private int cursor;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkData.orders(DATASET_SIZE);
+        originalOut = BenchmarkData.silenceStandardOut();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Order nextOrder() {
+        Order order = orders[cursor];
+        cursor = (cursor + 1) % orders.length;
+        order.restoreStatus(OrderStatus.PENDING); // processOrder only claims pending orders
+        return order;
+    }
+
+    @Benchmark
+    public double smell() {
+        Order order = nextOrder();
+        smell.processOrder(order);
+        return order.getTotal();
+    }
+
+    @Benchmark
+    public double refactored() {
+        Order order = nextOrder();
+        refactored.processOrder(order);
+        return order.getTotal();
+    }
+}
@@ -0,0 +1,82 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.LongParameterListSmell;
+import com.cleancode.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Twelve-argument createUser vs the parameter-object version on the same registrations.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LongParameterListBenchmark {
+
+    private static final int DATASET_SIZE = 10_000;
+
+    private final LongParameterListSmell smell = new LongParameterListSmell();
+    private final LongParameterListRefactored refactored = new LongParameterListRefactored();
+
+    private LongParameterListRefactored.UserRegistrationData[] registrations;
+    private int cursor;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        registrations = BenchmarkData.registrations(DATASET_SIZE);
+        originalOut = BenchmarkData.silenceStandardOut();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private LongParameterListRefactored.UserRegistrationData next() {
+        LongParameterListRefactored.UserRegistrationData data = registrations[cursor];
+        cursor = (cursor + 1) % registrations.length;
+        return data;
+    }
+
+    @Benchmark
+    public User smell() {
+        LongParameterListRefactored.UserRegistrationData data = next();
+        LongParameterListRefactored.Address address = data.getAddress();
+        return smell.createUser(
+            data.getFirstName(),
+            data.getLastName(),
+            data.getEmail(),
+            data.getPhoneNumber(),
+            address.getStreet(),
+            address.getCity(),
+            address.getState(),
+            address.getZipCode(),
+            address.getCountry(),
+            data.getDateOfBirth(),
+            data.getPassword(),
+            data.isActive()
+        );
+    }
+
+    @Benchmark
+    public User refactored() {
+        return refactored.createUser(next());
+    }
+}
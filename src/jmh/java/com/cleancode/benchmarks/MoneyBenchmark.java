@@ -0,0 +1,139 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.Money;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders totalled and discounted per millisecond with the three money representations:
+ * {@code double} as the domain used before, {@code long} cents through {@link Money}, and
+ * {@link BigDecimal}. The cents and BigDecimal variants round each discount to the cent with
+ * HALF_EVEN and agree to the cent; the double variant does not round at all. Run with
+ * {@code -prof gc} to see that only BigDecimal allocates:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar MoneyBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private static final int ORDERS = 1_000;
+    private static final BigDecimal PREMIUM_MULTIPLIER = new BigDecimal("0.90");
+    private static final BigDecimal LARGE_ORDER_MULTIPLIER = new BigDecimal("0.95");
+    private static final BigDecimal LARGE_ORDER_THRESHOLD = new BigDecimal("100.00");
+
+    // Order i has lines lineStart[i] until lineStart[i + 1]
+    private final int[] lineStart = new int[ORDERS + 1];
+    private final boolean[] premium = new boolean[ORDERS];
+    private int[] quantities;
+    private double[] doublePrices;
+    private long[] centPrices;
+    private BigDecimal[] decimalPrices;
+
+    @Setup
+    public void setUp() {
+        Order[] orders = BenchmarkData.orders(ORDERS);
+        int lines = 0;
+        for (Order order : orders) {
+            lines += order.itemCount();
+        }
+        quantities = new int[lines];
+        doublePrices = new double[lines];
+        centPrices = new long[lines];
+        decimalPrices = new BigDecimal[lines];
+        int line = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            lineStart[i] = line;
+            premium[i] = orders[i].getCustomer().isPremium();
+            for (int j = 0; j < orders[i].itemCount(); j++, line++) {
+                OrderItem item = orders[i].getItem(j);
+                quantities[line] = item.getQuantity();
+                doublePrices[line] = item.getPrice();
+                centPrices[line] = item.getPriceCents();
+                decimalPrices[line] = BigDecimal.valueOf(item.getPriceCents(), 2);
+            }
+        }
+        lineStart[ORDERS] = line;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public double doubles() {
+        double sum = 0.0;
+        for (int i = 0; i < ORDERS; i++) {
+            double total = 0.0;
+            for (int line = lineStart[i]; line < lineStart[i + 1]; line++) {
+                total += doublePrices[line] * quantities[line];
+            }
+            if (premium[i]) {
+                total *= 0.9;
+            }
+            if (total > 100.0) {
+                total *= 0.95;
+            }
+            sum += total;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long longCents() {
+        long sum = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            long total = 0;
+            for (int line = lineStart[i]; line < lineStart[i + 1]; line++) {
+                total = Money.add(total, Money.times(centPrices[line], quantities[line]));
+            }
+            if (premium[i]) {
+                total = Money.applyBasisPoints(total, 9000, RoundingMode.HALF_EVEN);
+            }
+            if (total > 10000) {
+                total = Money.applyBasisPoints(total, 9500, RoundingMode.HALF_EVEN);
+            }
+            sum = Money.add(sum, total);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public BigDecimal bigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < ORDERS; i++) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int line = lineStart[i]; line < lineStart[i + 1]; line++) {
+                total = total.add(decimalPrices[line].multiply(BigDecimal.valueOf(quantities[line])));
+            }
+            if (premium[i]) {
+                total = total.multiply(PREMIUM_MULTIPLIER).setScale(2, RoundingMode.HALF_EVEN);
+            }
+            if (total.compareTo(LARGE_ORDER_THRESHOLD) > 0) {
+                total = total.multiply(LARGE_ORDER_MULTIPLIER).setScale(2, RoundingMode.HALF_EVEN);
+            }
+            sum = sum.add(total);
+        }
+        return sum;
+    }
+}
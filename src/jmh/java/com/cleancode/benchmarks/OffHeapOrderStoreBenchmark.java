@@ -0,0 +1,73 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.store.OffHeapOrderStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing every resident open order, held either as heap objects or in the off-heap store
+ * and read through its flyweight cursor. Both use {@link LongMethodRefactored#priceOrder}.
+ * Run with {@code -prof gc} and GC logging to compare heap occupancy and pause times:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar OffHeapOrderStoreBenchmark -prof gc -jvmArgsAppend -Xlog:gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OffHeapOrderStoreBenchmark {
+
+    @Param({"200000"})
+    private int orderCount;
+
+    private final LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+
+    private Order[] heapOrders;
+    private OffHeapOrderStore store;
+    private OffHeapOrderStore.OrderCursor cursor;
+
+    @Setup
+    public void setUp() {
+        heapOrders = BenchmarkData.orders(orderCount);
+        store = new OffHeapOrderStore(orderCount, orderCount * 11);
+        for (Order order : heapOrders) {
+            store.add(order);
+        }
+        cursor = store.cursor();
+    }
+
+    @Benchmark
+    public long heapObjects() {
+        long sum = 0;
+        for (Order order : heapOrders) {
+            sum += processor.priceOrder(order);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long offHeapCursor() {
+        long sum = 0;
+        for (int slot = 0; slot < orderCount; slot++) {
+            sum += processor.priceOrder(cursor.moveTo(slot));
+        }
+        return sum;
+    }
+}
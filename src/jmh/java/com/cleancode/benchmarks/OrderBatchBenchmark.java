@@ -0,0 +1,110 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.batch.BatchKernels;
+import com.cleancode.domain.batch.OrderBatch;
+import com.cleancode.pricing.CustomerTier;
+import com.cleancode.pricing.DiscountRuleEngine;
+import com.cleancode.pricing.DiscountTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repricing a large set of open orders: walking the order objects against the columnar
+ * {@link OrderBatch} with scalar and Vector API kernels. The default of 100,000 generated
+ * orders has about 1.05 million lines. The fork adds the incubator vector module; build with
+ * {@code -P benchmarks,vector} so the vector kernels are included, otherwise both sides run the
+ * scalar loops. The {@code lineTotals} pair isolates the kernel the Vector API speeds up.
+ *
+ * <pre>
+ * mvn -P benchmarks,vector package -DskipTests
+ * java -jar target/benchmarks.jar OrderBatchBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class OrderBatchBenchmark {
+
+    @Param({"100000"})
+    private int orderCount;
+
+    private final DiscountTable discounts =
+        DiscountRuleEngine.fromClasspath("discounts/order-discounts.rules").currentTable();
+
+    private Order[] orders;
+    private long[] totals;
+    private OrderBatch batch;
+    private long[] prices;
+    private int[] quantities;
+    private long[] lineTotals;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkData.orders(orderCount);
+        totals = new long[orderCount];
+        batch = OrderBatch.of(Arrays.asList(orders));
+        prices = new long[batch.lineCount()];
+        quantities = new int[batch.lineCount()];
+        lineTotals = new long[batch.lineCount()];
+        for (int line = 0; line < batch.lineCount(); line++) {
+            prices[line] = batch.getPriceCents(line);
+            quantities[line] = batch.getQuantity(line);
+        }
+    }
+
+    @Benchmark
+    public long[] objectGraph() {
+        for (int i = 0; i < orders.length; i++) {
+            Order order = orders[i];
+            long subtotal = 0;
+            for (int j = 0; j < order.itemCount(); j++) {
+                OrderItem item = order.getItem(j);
+                subtotal = Math.addExact(subtotal, Math.multiplyExact(item.getPriceCents(), (long) item.getQuantity()));
+            }
+            CustomerTier tier = order.getCustomer().isPremium() ? CustomerTier.PREMIUM : CustomerTier.REGULAR;
+            totals[i] = discounts.apply(tier, subtotal);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public OrderBatch columnarScalar() {
+        batch.calculateTotals(discounts, BatchKernels.scalar());
+        return batch;
+    }
+
+    @Benchmark
+    public OrderBatch columnarBest() {
+        batch.calculateTotals(discounts, BatchKernels.best());
+        return batch;
+    }
+
+    @Benchmark
+    public long[] lineTotalsScalar() {
+        BatchKernels.scalar().lineTotals(prices, quantities, lineTotals, lineTotals.length);
+        return lineTotals;
+    }
+
+    @Benchmark
+    public long[] lineTotalsBest() {
+        BatchKernels.best().lineTotals(prices, quantities, lineTotals, lineTotals.length);
+        return lineTotals;
+    }
+}
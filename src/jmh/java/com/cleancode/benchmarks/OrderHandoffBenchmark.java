@@ -0,0 +1,139 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.processing.ring.RingOrderProcessor;
+import com.cleancode.processing.ring.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One producer handing a burst of orders to {@code workers} threads that run processOrder,
+ * through the ring buffer with each wait strategy or through a blocking queue. The burst
+ * counts as done when every order has been processed.
+ *
+ * Busy-spin needs a core per spinning thread; with fewer cores than producer plus workers it
+ * degrades badly, which is the point of offering the other strategies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderHandoffBenchmark {
+
+    private static final Order STOP = new Order("STOP", new Customer("C0", "Stop", "stop@example.com", false));
+
+    @Param({"100000"})
+    private int orderCount;
+
+    @Param({"1"})
+    private int workers;
+
+    @Param({"RING_BUSY_SPIN", "RING_YIELD", "RING_PARK", "ARRAY_BLOCKING_QUEUE", "LINKED_TRANSFER_QUEUE"})
+    private String handoff;
+
+    private Order[] orders;
+    private List<Order> orderList;
+    private LongMethodRefactored processor;
+    private RingOrderProcessor ring;
+    private BlockingQueue<Order> queue;
+    private final List<Thread> queueWorkers = new ArrayList<>();
+    private final AtomicLong queueProcessed = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkData.orders(orderCount);
+        orderList = List.of(orders);
+        processor = new LongMethodRefactored(1, order -> { });
+        if (handoff.startsWith("RING_")) {
+            ring = new RingOrderProcessor(processor, 1024, workers, WaitStrategy.valueOf(handoff.substring(5)));
+            return;
+        }
+        queue = handoff.equals("ARRAY_BLOCKING_QUEUE") ? new ArrayBlockingQueue<>(1024) : new LinkedTransferQueue<>();
+        for (int i = 0; i < workers; i++) {
+            Thread worker = new Thread(this::drainQueue, "queue-worker-" + i);
+            worker.setDaemon(true);
+            queueWorkers.add(worker);
+            worker.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (ring != null) {
+            ring.close();
+            return;
+        }
+        for (int i = 0; i < workers; i++) {
+            queue.put(STOP);
+        }
+        for (Thread worker : queueWorkers) {
+            worker.join();
+        }
+    }
+
+    @Benchmark
+    public long handOffBurst() throws InterruptedException {
+        resetOrders();
+        if (ring != null) {
+            ring.publishAll(orderList);
+            ring.awaitProcessed();
+            return ring.getProcessed();
+        }
+        long target = queueProcessed.get() + orders.length;
+        for (Order order : orders) {
+            queue.put(order);
+        }
+        while (queueProcessed.get() < target) {
+            Thread.yield();
+        }
+        return target;
+    }
+
+    private void drainQueue() {
+        try {
+            while (true) {
+                Order order = queue.take();
+                if (order == STOP) {
+                    return;
+                }
+                try {
+                    processor.processOrder(order);
+                } catch (RuntimeException ignored) {
+                    // counted like a processed order, as the ring does
+                }
+                queueProcessed.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void resetOrders() {
+        for (Order order : orders) {
+            order.restoreStatus(OrderStatus.PENDING);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.domain.index.OrderIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Processed orders of premium customers" answered by scanning every order versus
+ * intersecting the status and premium bitmaps of an {@link OrderIndex}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderIndexBenchmark {
+
+    @Param({"100000"})
+    private int orderCount;
+
+    private Order[] orders;
+    private OrderIndex index;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkData.orders(orderCount);
+        index = new OrderIndex();
+        Random random = new Random(BenchmarkData.SEED);
+        OrderStatus[] statuses = OrderStatus.values();
+        for (Order order : orders) {
+            order.restoreStatus(statuses[random.nextInt(statuses.length)]);
+            index.add(order);
+        }
+    }
+
+    @Benchmark
+    public List<Order> fullScan() {
+        List<Order> result = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getStatus() == OrderStatus.PROCESSED && order.isPremiumCustomer()) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Order> bitmapIntersection() {
+        return index.orders(index.withStatus(OrderStatus.PROCESSED).and(index.premium()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Money;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.processing.ingest.OrderFormat;
+import com.cleancode.processing.ingest.OrderIngestionPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams a generated order dump through the ingestion pipeline into a repository that
+ * drops the orders. Divide the order count by the score for records per second; run with
+ * {@code -prof gc} and a small {@code -Xmx} to see that the heap stays flat.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@State(Scope.Benchmark)
+public class OrderIngestionBenchmark {
+
+    @Param({"100000"})
+    private int orderCount;
+
+    @Param({"NDJSON", "CSV"})
+    private OrderFormat format;
+
+    private Path file;
+    private OrderIngestionPipeline pipeline;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("orders", format == OrderFormat.CSV ? ".csv" : ".ndjson");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            if (format == OrderFormat.CSV) {
+                writer.write("orderId,customerId,customerName,customerEmail,premium,productId,productName,price,quantity\n");
+            }
+            for (Order order : BenchmarkData.orders(orderCount)) {
+                writer.write(format == OrderFormat.CSV ? csv(order) : ndjson(order));
+            }
+        }
+        pipeline = new OrderIngestionPipeline(new LongMethodRefactored(1, order -> { }));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long ingest() throws IOException {
+        return pipeline.ingest(file, format).getOrdersProcessed();
+    }
+
+    private static String ndjson(Order order) {
+        StringBuilder line = new StringBuilder("{\"orderId\":\"").append(order.getOrderId())
+            .append("\",\"customer\":{\"customerId\":\"").append(order.getCustomer().getCustomerId())
+            .append("\",\"name\":\"").append(order.getCustomer().getName())
+            .append("\",\"email\":\"").append(order.getCustomer().getEmail())
+            .append("\",\"premium\":").append(order.isPremiumCustomer())
+            .append("},\"items\":[");
+        for (int i = 0; i < order.itemCount(); i++) {
+            OrderItem item = order.getItem(i);
+            line.append(i == 0 ? "" : ",")
+                .append("{\"productId\":\"").append(item.getProductId())
+                .append("\",\"productName\":\"").append(item.getProductName())
+                .append("\",\"price\":").append(Money.format(item.getPriceCents()))
+                .append(",\"quantity\":").append(item.getQuantity()).append('}');
+        }
+        return line.append("]}\n").toString();
+    }
+
+    private static String csv(Order order) {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < order.itemCount(); i++) {
+            OrderItem item = order.getItem(i);
+            rows.append(order.getOrderId()).append(',')
+                .append(order.getCustomer().getCustomerId()).append(',')
+                .append(order.getCustomer().getName()).append(',')
+                .append(order.getCustomer().getEmail()).append(',')
+                .append(order.isPremiumCustomer()).append(',')
+                .append(item.getProductId()).append(',')
+                .append(item.getProductName()).append(',')
+                .append(Money.format(item.getPriceCents())).append(',')
+                .append(item.getQuantity()).append('\n');
+        }
+        return rows.toString();
+    }
+}
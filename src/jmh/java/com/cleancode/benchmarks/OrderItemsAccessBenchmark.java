@@ -0,0 +1,86 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the defensive copy returned by {@link Order#getItems()} with the
+ * non-copying read surface. Run with {@code -prof gc} to see the allocation rate:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar OrderItemsAccessBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderItemsAccessBenchmark {
+
+    @Param({"3", "50"})
+    private int itemCount;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = new Order("O1", new Customer("C1", "Jane Smith", "jane@example.com", true));
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(new OrderItem("P" + i, "Product " + i, 9.99 + i, 1 + i % 3));
+        }
+    }
+
+    @Benchmark
+    public double defensiveCopy() {
+        double total = 0.0;
+        if (order.getItems().isEmpty()) {
+            return total;
+        }
+        for (OrderItem item : order.getItems()) {
+            total += item.getPrice() * item.getQuantity();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double unmodifiableView() {
+        double total = 0.0;
+        for (OrderItem item : order.getItemsView()) {
+            total += item.getPrice() * item.getQuantity();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double indexedAccess() {
+        double total = 0.0;
+        for (int i = 0; i < order.itemCount(); i++) {
+            OrderItem item = order.getItem(i);
+            total += item.getPrice() * item.getQuantity();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double visitor() {
+        double[] total = new double[1];
+        order.forEachItem(item -> total[0] += item.getPrice() * item.getQuantity());
+        return total[0];
+    }
+}
@@ -0,0 +1,90 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.Order;
+import com.cleancode.persistence.OrderJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Replay throughput of the order journal in records per second, plus the append
+ * rate with one commit per 256-record batch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderJournalBenchmark {
+
+    private static final int RECORDS = 100_000;
+    private static final int BATCH_SIZE = 256;
+
+    private Order[] orders;
+    private Path replayDirectory;
+    private Path appendDirectory;
+    private OrderJournal appendJournal;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        orders = BenchmarkData.orders(10_000);
+        replayDirectory = Files.createTempDirectory("journal-replay");
+        try (OrderJournal journal = new OrderJournal(replayDirectory)) {
+            for (int i = 0; i < RECORDS; i++) {
+                journal.append(orders[i % orders.length]);
+            }
+        }
+        appendDirectory = Files.createTempDirectory("journal-append");
+        appendJournal = new OrderJournal(appendDirectory);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        appendJournal.close();
+        deleteRecursively(replayDirectory);
+        deleteRecursively(appendDirectory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long replay(Blackhole blackhole) {
+        return OrderJournal.replay(replayDirectory, blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void appendBatchAndCommit() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            appendJournal.append(orders[cursor]);
+            cursor = (cursor + 1) % orders.length;
+        }
+        appendJournal.commit();
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
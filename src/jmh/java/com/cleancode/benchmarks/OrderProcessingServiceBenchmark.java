@@ -0,0 +1,106 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.processing.OrderProcessingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator: a burst of orders whose save blocks for {@code saveMicros}, as a remote
+ * repository would, processed either by the virtual-thread service or by a fixed pool of
+ * platform threads. With blocking I/O the platform pool is capped at one order per thread,
+ * while the service is capped only by its concurrency limit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderProcessingServiceBenchmark {
+
+    @Param({"2000"})
+    private int orderCount;
+
+    @Param({"1000"})
+    private int saveMicros;
+
+    @Param({"64"})
+    private int platformThreads;
+
+    @Param({"1000"})
+    private int maxConcurrency;
+
+    private Order[] orders;
+    private LongMethodRefactored processor;
+    private OrderProcessingService service;
+    private ExecutorService platformPool;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkData.orders(orderCount);
+        long saveNanos = TimeUnit.MICROSECONDS.toNanos(saveMicros);
+        processor = new LongMethodRefactored(1, order -> LockSupport.parkNanos(saveNanos));
+        service = new OrderProcessingService(processor, maxConcurrency, Duration.ofMinutes(1));
+        platformPool = Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+        platformPool.shutdownNow();
+    }
+
+    @Benchmark
+    public int virtualThreadService() throws InterruptedException {
+        try (OrderProcessingService.Batch batch = service.submitAll(resetOrders())) {
+            return batch.await().getSuccessCount();
+        }
+    }
+
+    @Benchmark
+    public int platformThreadPool() throws Exception {
+        List<Callable<Order>> tasks = new ArrayList<>(orderCount);
+        for (Order order : resetOrders()) {
+            tasks.add(() -> {
+                processor.processOrder(order);
+                return order;
+            });
+        }
+        int processed = 0;
+        for (Future<Order> future : platformPool.invokeAll(tasks)) {
+            future.get();
+            processed++;
+        }
+        return processed;
+    }
+
+    private List<Order> resetOrders() {
+        for (Order order : orders) {
+            order.restoreStatus(OrderStatus.PENDING);
+        }
+        return List.of(orders);
+    }
+}
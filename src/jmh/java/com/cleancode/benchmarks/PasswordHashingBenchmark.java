@@ -0,0 +1,84 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.UserRegistrationData;
+import com.cleancode.bloaters.longparameterlist.RegistrationServices;
+import com.cleancode.domain.User;
+import com.cleancode.security.PasswordHasher;
+import com.cleancode.security.PasswordHashingStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registrations with PBKDF2 password hashing from eight request threads: createUser hashing
+ * inline on the request thread against createUserAsync handing the hash to the one-thread-per-core
+ * pool. Throughput is registrations per second; sample time gives the latency percentiles
+ * (p0.99) of a registration as its caller sees it. The work factor is pinned (the minimum is
+ * the starting count and the target lies below it) so that both variants do the same work.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PasswordHashingBenchmark {
+
+    private static final int DATASET_SIZE = 1_000;
+
+    @Param({"5000"})
+    private int iterations;
+
+    private UserRegistrationData[] registrations;
+    private PasswordHashingStage hashing;
+    private LongParameterListRefactored processor;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        registrations = BenchmarkData.registrations(DATASET_SIZE);
+        int cores = Runtime.getRuntime().availableProcessors();
+        hashing = new PasswordHashingStage(new PasswordHasher(iterations), Duration.ofNanos(1), iterations, cores, cores * 64);
+        processor = new LongParameterListRefactored(RegistrationServices.builder().passwordHashing(hashing).build());
+        originalOut = BenchmarkData.silenceStandardOut();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        System.out.println();
+        System.out.println("Rejected by a full hashing queue: " + hashing.getRejected());
+        hashing.close();
+    }
+
+    @Benchmark
+    public User inlineHashing() {
+        return processor.createUser(next());
+    }
+
+    @Benchmark
+    public User asyncHashing() {
+        return processor.createUserAsync(next()).join();
+    }
+
+    private UserRegistrationData next() {
+        return registrations[ThreadLocalRandom.current().nextInt(DATASET_SIZE)];
+    }
+}
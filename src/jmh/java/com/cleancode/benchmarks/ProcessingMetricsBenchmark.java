@@ -0,0 +1,69 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.metrics.ProcessingMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the stage metrics on processOrder with a no-op repository: disabled (one volatile
+ * read per stage) against enabled (a clock read and a histogram update per stage). The
+ * enabled trial prints the collected stage latencies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessingMetricsBenchmark {
+
+    private static final int DATASET_SIZE = 10_000;
+
+    @Param({"false", "true"})
+    private boolean metricsEnabled;
+
+    private final LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+
+    private Order[] orders;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkData.orders(DATASET_SIZE);
+        ProcessingMetrics.global().reset();
+        ProcessingMetrics.global().setEnabled(metricsEnabled);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (metricsEnabled) {
+            System.out.println();
+            System.out.print(ProcessingMetrics.global().snapshot().toText());
+        }
+        ProcessingMetrics.global().setEnabled(false);
+    }
+
+    @Benchmark
+    public long processOrder() {
+        Order order = orders[cursor];
+        cursor = (cursor + 1) % orders.length;
+        order.restoreStatus(OrderStatus.PENDING);
+        processor.processOrder(order);
+        return order.getTotalCents();
+    }
+}
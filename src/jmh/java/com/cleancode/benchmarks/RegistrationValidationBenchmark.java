@@ -0,0 +1,65 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.RegistrationValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registrations validated per second: the previous regex and trim based checks
+ * against {@link RegistrationValidator}. Run with {@code -prof gc} to compare allocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RegistrationValidationBenchmark {
+
+    private static final int DATASET_SIZE = 10_000;
+
+    private final RegistrationValidator validator = new RegistrationValidator();
+
+    private LongParameterListRefactored.UserRegistrationData[] registrations;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        registrations = BenchmarkData.registrations(DATASET_SIZE);
+    }
+
+    private LongParameterListRefactored.UserRegistrationData next() {
+        LongParameterListRefactored.UserRegistrationData data = registrations[cursor];
+        cursor = (cursor + 1) % registrations.length;
+        return data;
+    }
+
+    @Benchmark
+    public boolean regexAndTrim() {
+        LongParameterListRefactored.UserRegistrationData data = next();
+        return data.getFirstName() != null && !data.getFirstName().trim().isEmpty()
+            && data.getLastName() != null && !data.getLastName().trim().isEmpty()
+            && data.getEmail() != null && data.getEmail().matches("^[A-Za-z0-9+_.-]+@(.+)$")
+            && data.getPhoneNumber() != null && !data.getPhoneNumber().trim().isEmpty()
+            && data.getAddress() != null
+            && data.getDateOfBirth() != null
+            && data.getPassword() != null && data.getPassword().length() >= 8;
+    }
+
+    @Benchmark
+    public List<String> validator() {
+        return validator.validate(next());
+    }
+}
@@ -0,0 +1,91 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.Step;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.processing.StagedOrderPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A burst of orders whose save blocks for {@code saveMicros}, processed back-to-back on the
+ * calling thread or by the staged pipeline with {@code saveWorkers} threads on the SAVE stage
+ * and one on each CPU-bound stage. The per-stage statistics are printed after each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StagedOrderPipelineBenchmark {
+
+    @Param({"500"})
+    private int orderCount;
+
+    @Param({"200"})
+    private int saveMicros;
+
+    @Param({"1", "16"})
+    private int saveWorkers;
+
+    private Order[] orders;
+    private LongMethodRefactored processor;
+    private StagedOrderPipeline pipeline;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkData.orders(orderCount);
+        long saveNanos = TimeUnit.MICROSECONDS.toNanos(saveMicros);
+        processor = new LongMethodRefactored(1, order -> LockSupport.parkNanos(saveNanos));
+        pipeline = new StagedOrderPipeline(processor, 256, Map.of(Step.SAVE, saveWorkers));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.close();
+        pipeline.stats().forEach(System.out::println);
+    }
+
+    @Benchmark
+    public int sequential() {
+        resetOrders();
+        for (Order order : orders) {
+            processor.processOrder(order);
+        }
+        return orders.length;
+    }
+
+    @Benchmark
+    public int staged() throws Exception {
+        resetOrders();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[orders.length];
+        for (int i = 0; i < orders.length; i++) {
+            futures[i] = pipeline.submit(orders[i]);
+        }
+        CompletableFuture.allOf(futures).get();
+        return orders.length;
+    }
+
+    private void resetOrders() {
+        for (Order order : orders) {
+            order.restoreStatus(OrderStatus.PENDING);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.objectorientedabusers.switchstatements.CustomerType;
+import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsRefactored;
+import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsSmell;
+import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsTableDriven;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * String switch vs polymorphic dispatch vs the enum lookup table over a realistic mix of
+ * customer types. The Refactored customers are built up front from the same type strings,
+ * as a caller holding domain objects would have them; the table-driven version starts
+ * from the raw strings, like the switch.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwitchStatementsBenchmark {
+
+    private static final int DATASET_SIZE = 10_000;
+
+    private final SwitchStatementsSmell smell = new SwitchStatementsSmell();
+    private final SwitchStatementsRefactored refactored = new SwitchStatementsRefactored();
+    private final SwitchStatementsTableDriven tableDriven = new SwitchStatementsTableDriven();
+
+    private String[] customerTypes;
+    private SwitchStatementsRefactored.Customer[] customers;
+    private double[] amounts;
+    private int cursor;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        customerTypes = BenchmarkData.customerTypes(DATASET_SIZE);
+        amounts = BenchmarkData.amounts(DATASET_SIZE);
+        customers = new SwitchStatementsRefactored.Customer[DATASET_SIZE];
+        for (int i = 0; i < DATASET_SIZE; i++) {
+            customers[i] = toCustomer(customerTypes[i]);
+        }
+        originalOut = BenchmarkData.silenceStandardOut();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static SwitchStatementsRefactored.Customer toCustomer(String customerType) {
+        switch (customerType) {
+            case "PREMIUM":
+                return new SwitchStatementsRefactored.PremiumCustomer("Customer");
+            case "VIP":
+                return new SwitchStatementsRefactored.VipCustomer("Customer");
+            default:
+                return new SwitchStatementsRefactored.RegularCustomer("Customer");
+        }
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = (cursor + 1) % DATASET_SIZE;
+        return index;
+    }
+
+    @Benchmark
+    public void smellDiscountAndMessage(Blackhole blackhole) {
+        int i = next();
+        blackhole.consume(smell.calculateDiscount(customerTypes[i], amounts[i]));
+        blackhole.consume(smell.getWelcomeMessage(customerTypes[i]));
+    }
+
+    @Benchmark
+    public void refactoredDiscountAndMessage(Blackhole blackhole) {
+        int i = next();
+        blackhole.consume(refactored.calculateDiscount(customers[i], amounts[i]));
+        blackhole.consume(refactored.getWelcomeMessage(customers[i]));
+    }
+
+    @Benchmark
+    public void tableDrivenDiscountAndMessage(Blackhole blackhole) {
+        int i = next();
+        CustomerType type = CustomerType.resolve(customerTypes[i]);
+        blackhole.consume(tableDriven.calculateDiscount(type, amounts[i]));
+        blackhole.consume(tableDriven.getWelcomeMessage(type));
+    }
+
+    @Benchmark
+    public void smellProcessCustomer() {
+        int i = next();
+        smell.processCustomer(customerTypes[i], amounts[i]);
+    }
+
+    @Benchmark
+    public void refactoredProcessCustomer() {
+        int i = next();
+        refactored.processCustomer(customers[i], amounts[i]);
+    }
+
+    @Benchmark
+    public void tableDrivenProcessCustomer() {
+        int i = next();
+        tableDriven.processCustomer(customerTypes[i], amounts[i]);
+    }
+}
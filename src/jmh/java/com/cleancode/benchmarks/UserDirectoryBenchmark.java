@@ -0,0 +1,195 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.domain.User;
+import com.cleancode.domain.index.UserDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in a {@link UserDirectory} of ten million users: by email, by zip code, by city and
+ * by last-name prefix, and a profile update that moves a user to another zip code. The
+ * {@code scan*} benchmarks answer the same email and zip code questions by walking a list of
+ * the users, as the endpoints did before the directory. Zip codes, cities and last names follow
+ * a skewed distribution; the trial prints how long the directory took to build and the heap it
+ * retains on top of the users.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class UserDirectoryBenchmark {
+
+    private static final int PROBES = 1 << 12;
+    private static final int ZIP_CODES = 40_000;
+    private static final String[] SYLLABLES = {
+        "an", "ber", "cal", "dor", "el", "fen", "gar", "hol", "is", "jen", "kin", "lam", "mor", "nel", "ol",
+        "par", "quin", "ros", "sen", "tor", "ul", "van", "wil", "xan", "yor", "zel", "bro", "chen", "sch", "ton"
+    };
+    private static final String[] STATES = {"CA", "NY", "TX", "FL", "IL", "PA", "OH", "GA", "NC", "MI"};
+
+    @Param({"10000000"})
+    private int userCount;
+
+    private UserDirectory directory;
+    private List<User> list;
+    private String[] emails;
+    private String[] zipCodes;
+    private String[] cities;
+    private String[] states;
+    private String[] prefixes;
+    private long[] ids;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        String[] zipStrings = new String[ZIP_CODES];
+        String[] cityStrings = new String[ZIP_CODES / 5];
+        for (int zip = 0; zip < ZIP_CODES; zip++) {
+            zipStrings[zip] = Integer.toString(10_000 + zip);
+        }
+        for (int city = 0; city < cityStrings.length; city++) {
+            cityStrings[city] = "City " + city;
+        }
+        String[] lastNames = new String[SYLLABLES.length * SYLLABLES.length * SYLLABLES.length];
+        for (int i = 0; i < lastNames.length; i++) {
+            String name = SYLLABLES[i % SYLLABLES.length] + SYLLABLES[i / SYLLABLES.length % SYLLABLES.length]
+                + SYLLABLES[i / (SYLLABLES.length * SYLLABLES.length)];
+            lastNames[i] = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+
+        long baseline = usedHeapAfterGc();
+        list = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            int zip = skewed(random, ZIP_CODES);
+            User user = new User();
+            user.setFirstName("First");
+            user.setLastName(lastNames[skewed(random, lastNames.length)]);
+            user.setEmail("user" + i + "@example.com");
+            user.setZipCode(zipStrings[zip]);
+            user.setCity(cityStrings[zip / 5]);
+            user.setState(STATES[zip / 5 % STATES.length]);
+            list.add(user);
+        }
+        long usersBytes = usedHeapAfterGc() - baseline;
+
+        long start = System.nanoTime();
+        directory = new UserDirectory();
+        ids = new long[PROBES];
+        for (int i = 0; i < userCount; i++) {
+            long id = directory.add(list.get(i));
+            // The directory holds copies; keep those, so the originals can be collected
+            list.set(i, directory.get(id));
+            if (i % (userCount / PROBES) == 0 && i / (userCount / PROBES) < PROBES) {
+                ids[i / (userCount / PROBES)] = id;
+            }
+        }
+        long buildNanos = System.nanoTime() - start;
+        long directoryBytes = usedHeapAfterGc() - baseline - usersBytes;
+        System.out.println();
+        System.out.printf("%,d users (%,d MB) indexed in %,d ms; the directory retains %,d MB, %d bytes per user%n",
+            userCount, usersBytes >> 20, buildNanos / 1_000_000, directoryBytes >> 20, directoryBytes / userCount);
+
+        emails = new String[PROBES];
+        zipCodes = new String[PROBES];
+        cities = new String[PROBES];
+        states = new String[PROBES];
+        prefixes = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            User user = list.get(random.nextInt(userCount));
+            emails[i] = "User" + random.nextInt(userCount) + "@Example.com";
+            zipCodes[i] = zipStrings[random.nextInt(ZIP_CODES)];
+            int city = random.nextInt(cityStrings.length);
+            cities[i] = cityStrings[city];
+            states[i] = STATES[city % STATES.length];
+            prefixes[i] = user.getLastName().substring(0, 3);
+        }
+    }
+
+    @Benchmark
+    public User findByEmail() {
+        return directory.findByEmail(emails[next()]);
+    }
+
+    @Benchmark
+    public int withZipCode() {
+        return directory.withZipCode(zipCodes[next()]).size();
+    }
+
+    @Benchmark
+    public int inCity() {
+        int i = next();
+        return directory.inCity(cities[i], states[i]).size();
+    }
+
+    @Benchmark
+    public int withLastNamePrefix() {
+        return directory.withLastNamePrefix(prefixes[next()], 20).size();
+    }
+
+    @Benchmark
+    public User updateZipCode() {
+        int i = next();
+        String zipCode = zipCodes[(i + 1) & (PROBES - 1)];
+        return directory.update(ids[i], user -> user.setZipCode(zipCode));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 1, time = 2)
+    public User scanForEmail() {
+        String email = emails[next()];
+        for (User user : list) {
+            if (user.getEmail().equalsIgnoreCase(email)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 1, time = 2)
+    public int scanForZipCode() {
+        String zipCode = zipCodes[next()];
+        int count = 0;
+        for (User user : list) {
+            if (zipCode.equals(user.getZipCode())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int next() {
+        return cursor++ & (PROBES - 1);
+    }
+
+    private static int skewed(Random random, int bound) {
+        // Cubing a uniform value gives a few large groups and a long tail of small ones
+        double skew = random.nextDouble();
+        return (int) (bound * skew * skew * skew);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,99 @@
+package com.cleancode.benchmarks;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.Address;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.UserRegistrationData;
+import com.cleancode.processing.ingest.UserFormat;
+import com.cleancode.processing.ingest.UserImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing a generated user file with {@link UserImporter} against parsing the same rows
+ * and calling createUser for each (console output discarded). Divide the user count by the
+ * score for rows per second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@State(Scope.Benchmark)
+public class UserImportBenchmark {
+
+    private static final String HEADER =
+        "firstName,lastName,email,phoneNumber,street,city,state,zipCode,country,dateOfBirth,password,active";
+
+    @Param({"100000"})
+    private int userCount;
+
+    private Path file;
+    private LongParameterListRefactored registrations;
+    private UserImporter importer;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("users", ".csv");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write(HEADER + "\n");
+            for (UserRegistrationData data : BenchmarkData.registrations(userCount)) {
+                writer.write(csv(data));
+            }
+        }
+        registrations = new LongParameterListRefactored();
+        importer = new UserImporter(registrations, user -> { });
+        originalOut = BenchmarkData.silenceStandardOut();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long bulkImport() throws IOException {
+        return importer.importFile(file, UserFormat.CSV).getUsersImported();
+    }
+
+    @Benchmark
+    public long createUserPerRow() throws IOException {
+        long created = 0;
+        try (var lines = Files.lines(file)) {
+            for (String line : (Iterable<String>) lines.skip(1)::iterator) {
+                String[] fields = line.split(",");
+                Address address = new Address(fields[4], fields[5], fields[6], fields[7], fields[8]);
+                registrations.createUser(new UserRegistrationData(fields[0], fields[1], fields[2], fields[3], address,
+                    LocalDate.parse(fields[9]), fields[10], Boolean.parseBoolean(fields[11])));
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private static String csv(UserRegistrationData data) {
+        Address address = data.getAddress();
+        return String.join(",", data.getFirstName(), data.getLastName(), data.getEmail(), data.getPhoneNumber(),
+            address.getStreet(), address.getCity(), address.getState(), address.getZipCode(), address.getCountry(),
+            data.getDateOfBirth().toString(), data.getPassword(), Boolean.toString(data.isActive())) + "\n";
+    }
+}
@@ -1,8 +1,20 @@
 package com.cleancode.bloaters.longmethod;
 
 import com.cleancode.domain.Order;
-import com.cleancode.domain.OrderItem;
 import com.cleancode.domain.OrderStatus;
+import com.cleancode.domain.OrderView;
+import com.cleancode.metrics.ProcessingMetrics;
+import com.cleancode.metrics.Stage;
+import com.cleancode.persistence.ConsoleOrderRepository;
+import com.cleancode.persistence.OrderRepository;
+import com.cleancode.pricing.CustomerTier;
+import com.cleancode.pricing.DiscountRuleEngine;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * Demonstrates the Extract Method refactoring solution.
@@ -14,87 +26,353 @@ import com.cleancode.domain.OrderStatus;
  */
 public class LongMethodRefactored {
     
+    private static final String DEFAULT_DISCOUNT_RULES = "discounts/order-discounts.rules";
+    private static final ProcessingMetrics METRICS = ProcessingMetrics.global();
+    
+    private final int parallelism;
+    private final OrderRepository orderRepository;
+    private final DiscountRuleEngine discountRules;
+    
+    public LongMethodRefactored() {
+        this(ForkJoinPool.getCommonPoolParallelism());
+    }
+    
+    /**
+     * @param parallelism number of worker threads used by the batch entry points
+     */
+    public LongMethodRefactored(int parallelism) {
+        this(parallelism, new ConsoleOrderRepository());
+    }
+    
+    public LongMethodRefactored(OrderRepository orderRepository) {
+        this(ForkJoinPool.getCommonPoolParallelism(), orderRepository);
+    }
+    
+    /**
+     * @param parallelism number of worker threads used by the batch entry points
+     * @param orderRepository where processed orders are saved
+     */
+    public LongMethodRefactored(int parallelism, OrderRepository orderRepository) {
+        this(parallelism, orderRepository, DiscountRuleEngine.fromClasspath(DEFAULT_DISCOUNT_RULES));
+    }
+    
+    /**
+     * @param parallelism number of worker threads used by the batch entry points
+     * @param orderRepository where processed orders are saved
+     * @param discountRules discount rules applied to order totals; can be reloaded while running
+     */
+    public LongMethodRefactored(int parallelism, OrderRepository orderRepository, DiscountRuleEngine discountRules) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (orderRepository == null) {
+            throw new IllegalArgumentException("Order repository cannot be null");
+        }
+        if (discountRules == null) {
+            throw new IllegalArgumentException("Discount rules cannot be null");
+        }
+        this.parallelism = parallelism;
+        this.orderRepository = orderRepository;
+        this.discountRules = discountRules;
+    }
+    
+    /**
+     * Outcome of processing a single order in a batch.
+     * A failed result carries the exception instead of aborting the whole batch.
+     */
+    public static class OrderResult {
+        private final Order order;
+        private final RuntimeException failure;
+        
+        private OrderResult(Order order, RuntimeException failure) {
+            this.order = order;
+            this.failure = failure;
+        }
+        
+        public static OrderResult success(Order order) {
+            return new OrderResult(order, null);
+        }
+        
+        public static OrderResult failure(Order order, RuntimeException failure) {
+            return new OrderResult(order, failure);
+        }
+        
+        // Getters
+        public Order getOrder() { return order; }
+        public RuntimeException getFailure() { return failure; }
+        public boolean isSuccess() { return failure == null; }
+        
+        @Override
+        public String toString() {
+            String orderId = order == null ? null : order.getOrderId();
+            return isSuccess()
+                ? "OrderResult{orderId='" + orderId + "', success}"
+                : "OrderResult{orderId='" + orderId + "', failure=" + failure.getMessage() + "}";
+        }
+    }
+    
+    /**
+     * Per-order results of a batch run, in the same order as the input.
+     */
+    public static class BatchResult {
+        private final List<OrderResult> results;
+        private final int successCount;
+        
+        public BatchResult(List<OrderResult> results) {
+            this.results = results;
+            this.successCount = (int) results.stream().filter(OrderResult::isSuccess).count();
+        }
+        
+        // Getters
+        public List<OrderResult> getResults() { return results; }
+        public int getSuccessCount() { return successCount; }
+        public int getFailureCount() { return results.size() - successCount; }
+        
+        public List<OrderResult> getFailures() {
+            return results.stream().filter(result -> !result.isSuccess()).toList();
+        }
+        
+        @Override
+        public String toString() {
+            return "BatchResult{processed=" + results.size() +
+                    ", succeeded=" + successCount +
+                    ", failed=" + getFailureCount() + "}";
+        }
+    }
+    
+    /**
+     * The extracted methods that {@link #processOrder(Order)} runs back to back, for callers
+     * that run them as separate pipeline stages. Running every step in declaration order on
+     * one {@link OrderWork} has the same effect as {@code processOrder}.
+     */
+    public enum Step {
+        VALIDATE(Stage.ORDER_VALIDATION) {
+            @Override
+            void apply(LongMethodRefactored processor, OrderWork work) {
+                processor.validateOrder(work.order);
+            }
+        },
+        TOTAL(Stage.ORDER_TOTAL) {
+            @Override
+            void apply(LongMethodRefactored processor, OrderWork work) {
+                work.totalCents = processor.calculateOrderTotal(work.order);
+            }
+        },
+        DISCOUNT(Stage.ORDER_DISCOUNT) {
+            @Override
+            void apply(LongMethodRefactored processor, OrderWork work) {
+                work.totalCents = processor.applyDiscounts(work.order, work.totalCents);
+            }
+        },
+        STATUS(Stage.ORDER_STATUS) {
+            @Override
+            void apply(LongMethodRefactored processor, OrderWork work) {
+                processor.updateOrderStatus(work.order, work.totalCents);
+            }
+        },
+        SAVE(Stage.ORDER_SAVE) {
+            @Override
+            void apply(LongMethodRefactored processor, OrderWork work) {
+                processor.saveOrder(work.order);
+            }
+        };
+        
+        private final Stage stage;
+        
+        Step(Stage stage) {
+            this.stage = stage;
+        }
+        
+        /**
+         * The stage this step is timed as in {@link ProcessingMetrics}.
+         */
+        public Stage stage() {
+            return stage;
+        }
+        
+        abstract void apply(LongMethodRefactored processor, OrderWork work);
+    }
+    
+    /**
+     * An order on its way through the {@link Step}s, carrying the total computed so far.
+     */
+    public static class OrderWork {
+        private final Order order;
+        private long totalCents;
+        
+        public OrderWork(Order order) {
+            this.order = order;
+        }
+        
+        // Getters
+        public Order getOrder() { return order; }
+        public long getTotalCents() { return totalCents; }
+    }
+    
     /**
      * REFACTORED VERSION - EXTRACT METHOD PATTERN
      * 
      * This method now reads like a high-level workflow, making it easy to understand
      * the overall process. Each step is delegated to a focused method.
+     *
+     * The order is claimed by moving it from PENDING to PROCESSED atomically, so when several
+     * workers are handed the same order exactly one prices and saves it.
+     *
+     * Each step is timed in {@link ProcessingMetrics#global()} when metrics are enabled.
+     *
+     * @throws IllegalStateException if the order is no longer pending
      */
     public void processOrder(Order order) {
+        long start = METRICS.start();
         validateOrder(order);
-        double total = calculateOrderTotal(order);
-        double discountedTotal = applyDiscounts(order, total);
+        start = METRICS.lap(Stage.ORDER_VALIDATION, start);
+        long total = calculateOrderTotal(order);
+        start = METRICS.lap(Stage.ORDER_TOTAL, start);
+        long discountedTotal = applyDiscounts(order, total);
+        start = METRICS.lap(Stage.ORDER_DISCOUNT, start);
         updateOrderStatus(order, discountedTotal);
+        start = METRICS.lap(Stage.ORDER_STATUS, start);
         saveOrder(order);
+        METRICS.lap(Stage.ORDER_SAVE, start);
+    }
+    
+    /**
+     * Runs a single step of {@link #processOrder(Order)} on the work item.
+     */
+    public void runStep(Step step, OrderWork work) {
+        if (step == null || work == null) {
+            throw new IllegalArgumentException("Step and work cannot be null");
+        }
+        long start = METRICS.start();
+        step.apply(this, work);
+        METRICS.lap(step.stage(), start);
+    }
+    
+    /**
+     * Calculates the discounted total in cents without changing or saving the order.
+     * Takes any {@link OrderView}, such as a cursor over an off-heap order store, so
+     * the order does not need to exist as heap objects.
+     */
+    public long priceOrder(OrderView order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        return applyDiscounts(order, calculateOrderTotal(order));
+    }
+    
+    /**
+     * Batch entry point: processes every order on a dedicated fork-join pool
+     * sized by the configured parallelism. A bad order is reported in its
+     * {@link OrderResult} instead of aborting the rest of the batch.
+     */
+    public BatchResult processOrders(Collection<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        return processOrders(orders.stream());
+    }
+    
+    /**
+     * Stream variant of {@link #processOrders(Collection)}; the stream is
+     * consumed in parallel on the batch pool.
+     */
+    public BatchResult processOrders(Stream<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Parallel streams run on the pool that invokes the terminal operation
+            return pool.submit(() -> new BatchResult(orders.parallel()
+                    .map(this::processOrderSafely)
+                    .toList()))
+                .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch processing was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch processing failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Extracted method: Processes one order of a batch
+     * Single responsibility: Turn a processing failure into a result
+     */
+    private OrderResult processOrderSafely(Order order) {
+        try {
+            processOrder(order);
+            return OrderResult.success(order);
+        } catch (RuntimeException e) {
+            return OrderResult.failure(order, e);
+        }
     }
     
     /**
      * Extracted method: Handles order validation
      * Single responsibility: Validate order data
+     *
+     * An order that is no longer pending fails here, before any pricing work is spent on it.
      */
     private void validateOrder(Order order) {
         if (order == null) {
             throw new IllegalArgumentException("Order cannot be null");
         }
-        if (order.getItems().isEmpty()) {
+        if (order.itemCount() == 0) {
             throw new IllegalArgumentException("Order must contain at least one item");
         }
         if (order.getCustomer() == null) {
             throw new IllegalArgumentException("Order must have a customer");
         }
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw notPending(order);
+        }
     }
     
     /**
      * Extracted method: Calculates order total
      * Single responsibility: Calculate total from order items
+     *
+     * The order keeps its subtotal in cents up to date as lines change, so this no longer walks the items.
      */
-    private double calculateOrderTotal(Order order) {
-        double total = 0.0;
-        for (OrderItem item : order.getItems()) {
-            total += calculateItemTotal(item);
-        }
-        return total;
-    }
-    
-    /**
-     * Extracted method: Calculates individual item total
-     * Single responsibility: Calculate total for a single item
-     */
-    private double calculateItemTotal(OrderItem item) {
-        return item.getPrice() * item.getQuantity();
+    private long calculateOrderTotal(OrderView order) {
+        return order.getSubtotalCents();
     }
     
     /**
      * Extracted method: Applies discounts
      * Single responsibility: Apply discount rules
+     *
+     * The rules come from the configured engine; the bundled defaults give premium customers
+     * 10% off and then take 5% off totals over $100, each rounded to whole cents.
      */
-    private double applyDiscounts(Order order, double total) {
-        double discountedTotal = total;
-        
-        if (order.getCustomer().isPremium()) {
-            discountedTotal *= 0.9; // 10% discount for premium customers
-        }
-        if (discountedTotal > 100.0) {
-            discountedTotal *= 0.95; // 5% discount for orders over $100
-        }
-        
-        return discountedTotal;
+    private long applyDiscounts(OrderView order, long total) {
+        CustomerTier tier = order.isPremiumCustomer() ? CustomerTier.PREMIUM : CustomerTier.REGULAR;
+        return discountRules.apply(tier, total);
     }
     
     /**
      * Extracted method: Updates order status
-     * Single responsibility: Update order with final total and status
+     * Single responsibility: Claim the order and record its final total
      */
-    private void updateOrderStatus(Order order, double total) {
-        order.setTotal(total);
-        order.setStatus(OrderStatus.PROCESSED);
+    private void updateOrderStatus(Order order, long total) {
+        // Only the worker that claims the order writes its total, before PROCESSED is published
+        if (!order.markProcessed(total)) {
+            throw notPending(order);
+        }
+    }
+    
+    private static IllegalStateException notPending(Order order) {
+        return new IllegalStateException("Order " + order.getOrderId() + " is not pending: " + order.getStatus());
     }
     
     /**
      * Extracted method: Saves order
-     * Single responsibility: Persist order to database
+     * Single responsibility: Persist order through the repository
      */
     private void saveOrder(Order order) {
-        System.out.println("Order processed and saved: " + order.getOrderId());
+        orderRepository.save(order);
     }
 }
@@ -1,8 +1,13 @@
 package com.cleancode.bloaters.longmethod;
 
+import com.cleancode.domain.Money;
 import com.cleancode.domain.Order;
 import com.cleancode.domain.OrderItem;
 import com.cleancode.domain.OrderStatus;
+import com.cleancode.persistence.ConsoleOrderRepository;
+import com.cleancode.persistence.OrderRepository;
+
+import java.math.RoundingMode;
 
 /**
  * Demonstrates the Long Method code smell.
@@ -14,6 +19,19 @@ import com.cleancode.domain.OrderStatus;
  */
 public class LongMethodSmell {
     
+    private final OrderRepository orderRepository;
+    
+    public LongMethodSmell() {
+        this(new ConsoleOrderRepository());
+    }
+    
+    public LongMethodSmell(OrderRepository orderRepository) {
+        if (orderRepository == null) {
+            throw new IllegalArgumentException("Order repository cannot be null");
+        }
+        this.orderRepository = orderRepository;
+    }
+    
     /**
      * LONG METHOD CODE SMELL EXAMPLE
      * 
@@ -34,35 +52,41 @@ public class LongMethodSmell {
         if (order == null) {
             throw new IllegalArgumentException("Order cannot be null");
         }
-        if (order.getItems().isEmpty()) {
+        if (order.itemCount() == 0) {
             throw new IllegalArgumentException("Order must contain at least one item");
         }
         if (order.getCustomer() == null) {
             throw new IllegalArgumentException("Order must have a customer");
         }
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw new IllegalStateException("Order " + order.getOrderId() + " is not pending: " + order.getStatus());
+        }
         
         // Calculate total
-        double total = 0.0;
-        for (OrderItem item : order.getItems()) {
-            double itemPrice = item.getPrice();
+        long total = 0;
+        for (int i = 0; i < order.itemCount(); i++) {
+            OrderItem item = order.getItem(i);
+            long itemPrice = item.getPriceCents();
             int quantity = item.getQuantity();
-            double itemTotal = itemPrice * quantity;
-            total += itemTotal;
+            long itemTotal = Money.times(itemPrice, quantity);
+            total = Money.add(total, itemTotal);
         }
         
         // Apply discounts
         if (order.getCustomer().isPremium()) {
-            total = total * 0.9; // 10% discount for premium customers
+            total = Money.applyBasisPoints(total, 9000, RoundingMode.HALF_EVEN); // 10% discount for premium customers
         }
-        if (total > 100.0) {
-            total = total * 0.95; // 5% discount for orders over $100
+        if (total > 10000) {
+            total = Money.applyBasisPoints(total, 9500, RoundingMode.HALF_EVEN); // 5% discount for orders over $100
         }
         
-        // Update order
-        order.setTotal(total);
-        order.setStatus(OrderStatus.PROCESSED);
+        // Update order: claim it so a concurrent worker cannot process it again; only the
+        // claiming worker writes its total, and whoever sees PROCESSED also sees that total
+        if (!order.markProcessed(total)) {
+            throw new IllegalStateException("Order " + order.getOrderId() + " is not pending: " + order.getStatus());
+        }
         
-        // Simulate saving to database
-        System.out.println("Order processed and saved: " + order.getOrderId());
+        // Save to database
+        orderRepository.save(order);
     }
 }
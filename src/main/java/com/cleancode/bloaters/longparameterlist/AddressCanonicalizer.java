@@ -0,0 +1,73 @@
+package com.cleancode.bloaters.longparameterlist;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.Address;
+import com.cleancode.domain.store.CanonicalCache;
+
+/**
+ * Shares {@link Address} instances, and the strings inside them, between users.
+ *
+ * Many users live in the same city, state and zip code, but each parsed registration carries
+ * its own copies of those strings. {@link #canonicalize} returns a shared address equal to the
+ * given one. On a miss it rebuilds the address from a shared locality (city, state, zip code
+ * and country, looked up as one unit) and a shared street string, so even a one-off address
+ * shares everything but its own object. All three caches are bounded {@link CanonicalCache}s.
+ * Thread-safe.
+ */
+public class AddressCanonicalizer {
+
+    public static final int DEFAULT_MAX_ADDRESSES = 16_384;
+    public static final int DEFAULT_MAX_LOCALITIES = 65_536;
+    public static final int DEFAULT_MAX_STRINGS = 131_072;
+
+    private final CanonicalCache<Address> addresses;
+    private final CanonicalCache<Address> localities;
+    private final CanonicalCache<String> strings;
+
+    public AddressCanonicalizer() {
+        this(DEFAULT_MAX_ADDRESSES, DEFAULT_MAX_LOCALITIES, DEFAULT_MAX_STRINGS);
+    }
+
+    /**
+     * @param maxAddresses whole addresses kept, for households and offices shared by several users
+     * @param maxLocalities city, state, zip code and country combinations kept; should cover
+     *                      the zip codes the users live in
+     * @param maxStrings component strings kept, streets included
+     */
+    public AddressCanonicalizer(int maxAddresses, int maxLocalities, int maxStrings) {
+        this.addresses = new CanonicalCache<>(maxAddresses);
+        this.localities = new CanonicalCache<>(maxLocalities);
+        this.strings = new CanonicalCache<>(maxStrings);
+    }
+
+    /**
+     * @return a shared address equal to the given one, or null for null
+     */
+    public Address canonicalize(Address address) {
+        return addresses.canonicalize(address, this::withSharedParts);
+    }
+
+    /**
+     * @return a shared string equal to the given one, or null for null
+     */
+    public String canonicalize(String value) {
+        return strings.canonicalize(value);
+    }
+
+    private Address withSharedParts(Address address) {
+        Address locality = localities.canonicalize(
+            new Address(null, address.getCity(), address.getState(), address.getZipCode(), address.getCountry()),
+            this::withSharedStrings);
+        return new Address(strings.canonicalize(address.getStreet()), locality.getCity(), locality.getState(),
+            locality.getZipCode(), locality.getCountry());
+    }
+
+    private Address withSharedStrings(Address locality) {
+        return new Address(null, strings.canonicalize(locality.getCity()), strings.canonicalize(locality.getState()),
+            strings.canonicalize(locality.getZipCode()), strings.canonicalize(locality.getCountry()));
+    }
+
+    // Getters
+    public CanonicalCache.Stats getAddressStats() { return addresses.stats(); }
+    public CanonicalCache.Stats getLocalityStats() { return localities.stats(); }
+    public CanonicalCache.Stats getStringStats() { return strings.stats(); }
+}
@@ -1,8 +1,17 @@
 package com.cleancode.bloaters.longparameterlist;
 
 import com.cleancode.domain.User;
+import com.cleancode.domain.index.EmailIndex;
+import com.cleancode.domain.index.UserDirectory;
+import com.cleancode.metrics.ProcessingMetrics;
+import com.cleancode.metrics.Stage;
+import com.cleancode.security.PasswordHashingStage;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Demonstrates the refactored solution for Long Parameter List code smell.
@@ -14,6 +23,32 @@ import java.time.LocalDate;
  */
 public class LongParameterListRefactored {
     
+    private static final ProcessingMetrics METRICS = ProcessingMetrics.global();
+    
+    private final RegistrationValidator validator = new RegistrationValidator();
+    private final EmailIndex emailIndex;
+    private final PasswordHashingStage passwordHashing;
+    private final AddressCanonicalizer addresses;
+    private final UserDirectory directory;
+    
+    public LongParameterListRefactored() {
+        this(RegistrationServices.builder().build());
+    }
+    
+    /**
+     * @param services the email index, password hashing stage, address canonicalizer and user
+     *                 directory to use; any of them may be left out
+     */
+    public LongParameterListRefactored(RegistrationServices services) {
+        if (services == null) {
+            throw new IllegalArgumentException("Registration services cannot be null");
+        }
+        this.emailIndex = services.getEmailIndex();
+        this.passwordHashing = services.getPasswordHashing();
+        this.addresses = services.getAddresses();
+        this.directory = services.getDirectory();
+    }
+    
     /**
      * Parameter object for user registration data
      */
@@ -83,6 +118,27 @@ public class LongParameterListRefactored {
         public String getZipCode() { return zipCode; }
         public String getCountry() { return country; }
         
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Address)) {
+                return false;
+            }
+            Address other = (Address) o;
+            return Objects.equals(street, other.street) &&
+                   Objects.equals(city, other.city) &&
+                   Objects.equals(state, other.state) &&
+                   Objects.equals(zipCode, other.zipCode) &&
+                   Objects.equals(country, other.country);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(street, city, state, zipCode, country);
+        }
+        
         @Override
         public String toString() {
             return street + ", " + city + ", " + state + " " + zipCode + ", " + country;
@@ -102,33 +158,170 @@ public class LongParameterListRefactored {
      * - Clear intent through parameter object name
      */
     public User createUser(UserRegistrationData registrationData) {
+        long start = METRICS.start();
         validateRegistrationData(registrationData);
+        if (!reserveEmail(registrationData)) {
+            throw new IllegalArgumentException("Email is already registered: " + registrationData.getEmail());
+        }
+        start = METRICS.lap(Stage.USER_VALIDATION, start);
         
-        User user = new User();
-        user.setFirstName(registrationData.getFirstName());
-        user.setLastName(registrationData.getLastName());
-        user.setEmail(registrationData.getEmail());
-        user.setPhoneNumber(registrationData.getPhoneNumber());
-        user.setAddress(registrationData.getAddress().getStreet());
-        user.setCity(registrationData.getAddress().getCity());
-        user.setState(registrationData.getAddress().getState());
-        user.setZipCode(registrationData.getAddress().getZipCode());
-        user.setCountry(registrationData.getAddress().getCountry());
-        user.setDateOfBirth(registrationData.getDateOfBirth());
-        user.setPassword(registrationData.getPassword());
-        user.setActive(registrationData.isActive());
+        User user;
+        try {
+            user = buildUser(registrationData);
+            addToDirectory(user);
+        } catch (RuntimeException e) {
+            releaseEmail(registrationData);
+            throw e;
+        }
         
         // Simulate saving to database
         System.out.println("User created: " + user.getFirstName() + " " + user.getLastName());
         
+        METRICS.lap(Stage.USER_CREATION, start);
         return user;
     }
     
+    /**
+     * Like {@link #createUser}, but the password is hashed on the password hashing stage, so the
+     * calling thread only validates and returns. Validation problems, a full hashing queue and
+     * an email registered in the meantime all complete the future exceptionally.
+     *
+     * @throws IllegalStateException if no password hashing stage is configured
+     */
+    public CompletableFuture<User> createUserAsync(UserRegistrationData registrationData) {
+        if (passwordHashing == null) {
+            throw new IllegalStateException("No password hashing stage configured");
+        }
+        long start = METRICS.start();
+        List<String> errors = validator.validate(registrationData);
+        if (!errors.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(String.join("; ", errors)));
+        }
+        // Fail fast on a taken email, but claim it only after hashing, so that a rejected
+        // hash does not leave the email reserved
+        if (emailIndex != null && emailIndex.isRegistered(registrationData.getEmail())) {
+            return CompletableFuture.failedFuture(
+                new IllegalArgumentException("Email is already registered: " + registrationData.getEmail()));
+        }
+        METRICS.lap(Stage.USER_VALIDATION, start);
+        
+        return passwordHashing.hash(registrationData.getPassword()).thenApply(passwordHash -> {
+            // Timed from here, so the hashing queue and the hash itself are not counted twice
+            long created = METRICS.start();
+            if (!reserveEmail(registrationData)) {
+                throw new IllegalArgumentException("Email is already registered: " + registrationData.getEmail());
+            }
+            User user;
+            try {
+                user = newUser(registrationData, passwordHash);
+                addToDirectory(user);
+            } catch (RuntimeException e) {
+                releaseEmail(registrationData);
+                throw e;
+            }
+            System.out.println("User created: " + user.getFirstName() + " " + user.getLastName());
+            METRICS.lap(Stage.USER_CREATION, created);
+            return user;
+        });
+    }
+    
+    /**
+     * Checks the registration data without creating anything.
+     *
+     * @return every problem found, in field order; an empty list if the data is valid
+     */
+    public List<String> validateRegistration(UserRegistrationData registrationData) {
+        return validator.validate(registrationData);
+    }
+    
+    /**
+     * Claims the email of validated registration data in the email index, if there is one.
+     *
+     * @return false if the email is already registered
+     */
+    public boolean reserveEmail(UserRegistrationData registrationData) {
+        return emailIndex == null || emailIndex.register(registrationData.getEmail());
+    }
+    
+    /**
+     * Gives back an email claimed by {@link #reserveEmail} when the user is not created after all.
+     */
+    public void releaseEmail(UserRegistrationData registrationData) {
+        if (emailIndex != null) {
+            emailIndex.unregister(registrationData.getEmail());
+        }
+    }
+    
+    /**
+     * Adds a built user to the user directory, if there is one, and sets the id it was given.
+     *
+     * @throws IllegalArgumentException if the directory already holds a user with the email
+     */
+    public void addToDirectory(User user) {
+        if (directory != null) {
+            user.setId(directory.add(user));
+        }
+    }
+    
+    /**
+     * Takes a user added by {@link #addToDirectory} out of the directory again when it is not
+     * created after all, and clears its id.
+     */
+    public void removeFromDirectory(User user) {
+        if (directory != null && user.getId() != null) {
+            directory.remove(user.getId());
+            user.setId(null);
+        }
+    }
+    
+    /**
+     * Extracted method: Maps validated registration data onto a new user
+     * Single responsibility: Build the user; no validation, saving or output,
+     * so bulk imports can create users without the per-user overhead.
+     * The password is hashed inline if a password hashing stage is configured.
+     */
+    public User buildUser(UserRegistrationData registrationData) {
+        String password = registrationData.getPassword();
+        return newUser(registrationData, passwordHashing == null ? password : passwordHashing.hashNow(password));
+    }
+    
+    private User newUser(UserRegistrationData registrationData, String password) {
+        User user = new User();
+        applyProfile(user, registrationData);
+        user.setPassword(password);
+        return user;
+    }
+    
+    /**
+     * Copies every field but the password, which a profile update leaves alone.
+     */
+    private void applyProfile(User user, UserRegistrationData profileData) {
+        Address address = addresses == null
+            ? profileData.getAddress()
+            : addresses.canonicalize(profileData.getAddress());
+        user.setFirstName(profileData.getFirstName());
+        user.setLastName(profileData.getLastName());
+        user.setEmail(profileData.getEmail());
+        user.setPhoneNumber(profileData.getPhoneNumber());
+        user.setAddress(address.getStreet());
+        user.setCity(address.getCity());
+        user.setState(address.getState());
+        user.setZipCode(address.getZipCode());
+        user.setCountry(address.getCountry());
+        user.setDateOfBirth(profileData.getDateOfBirth());
+        user.setActive(profileData.isActive());
+    }
+    
     /**
      * REFACTORED SOLUTION: INTRODUCE PARAMETER OBJECT
      * 
      * This method now takes parameter objects instead of individual parameters.
      * The method signature is much cleaner and easier to understand.
+     * 
+     * With a user directory, the profile replaces every field of the user but the password,
+     * and the directory reindexes the fields that changed. A new email is claimed in the
+     * email index first; the old one is released once the update succeeds, and the new one
+     * if it fails.
      */
     public void updateUserProfile(Long userId, UserRegistrationData profileData) {
         // Similar refactored logic
@@ -136,32 +329,42 @@ public class LongParameterListRefactored {
         System.out.println("Name: " + profileData.getFirstName() + " " + profileData.getLastName());
         System.out.println("Email: " + profileData.getEmail());
         System.out.println("Address: " + profileData.getAddress());
+        if (directory == null) {
+            return;
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User id cannot be null");
+        }
+        validateRegistrationData(profileData);
+        boolean emailChanged = !userId.equals(directory.findIdByEmail(profileData.getEmail()));
+        if (emailChanged && !reserveEmail(profileData)) {
+            throw new IllegalArgumentException("Email is already registered: " + profileData.getEmail());
+        }
+        AtomicReference<String> previousEmail = new AtomicReference<>();
+        try {
+            directory.update(userId, user -> {
+                previousEmail.set(user.getEmail());
+                applyProfile(user, profileData);
+            });
+        } catch (RuntimeException e) {
+            if (emailChanged) {
+                releaseEmail(profileData);
+            }
+            throw e;
+        }
+        if (emailChanged && emailIndex != null && previousEmail.get() != null) {
+            emailIndex.unregister(previousEmail.get());
+        }
     }
     
     /**
      * Validation method for registration data
+     * Reports every invalid field in a single exception message.
      */
     private void validateRegistrationData(UserRegistrationData data) {
-        if (data.getFirstName() == null || data.getFirstName().trim().isEmpty()) {
-            throw new IllegalArgumentException("First name is required");
-        }
-        if (data.getLastName() == null || data.getLastName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Last name is required");
-        }
-        if (data.getEmail() == null || !data.getEmail().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
-            throw new IllegalArgumentException("Valid email is required");
-        }
-        if (data.getPhoneNumber() == null || data.getPhoneNumber().trim().isEmpty()) {
-            throw new IllegalArgumentException("Phone number is required");
-        }
-        if (data.getAddress() == null) {
-            throw new IllegalArgumentException("Address is required");
-        }
-        if (data.getDateOfBirth() == null) {
-            throw new IllegalArgumentException("Date of birth is required");
-        }
-        if (data.getPassword() == null || data.getPassword().length() < 8) {
-            throw new IllegalArgumentException("Password must be at least 8 characters");
+        List<String> errors = validator.validate(data);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.cleancode.bloaters.longparameterlist;
 
 import com.cleancode.domain.User;
+import com.cleancode.domain.index.EmailIndex;
 
 import java.time.LocalDate;
 
@@ -14,6 +15,19 @@ import java.time.LocalDate;
  */
 public class LongParameterListSmell {
     
+    private final EmailIndex emailIndex;
+    
+    public LongParameterListSmell() {
+        this(null);
+    }
+    
+    /**
+     * @param emailIndex registered emails checked by createUser; null skips the check
+     */
+    public LongParameterListSmell(EmailIndex emailIndex) {
+        this.emailIndex = emailIndex;
+    }
+    
     /**
      * LONG PARAMETER LIST CODE SMELL EXAMPLE
      * 
@@ -42,31 +56,31 @@ public class LongParameterListSmell {
         boolean isActive
     ) {
         // Validate all parameters
-        if (firstName == null || firstName.trim().isEmpty()) {
+        if (RegistrationValidator.isBlank(firstName)) {
             throw new IllegalArgumentException("First name is required");
         }
-        if (lastName == null || lastName.trim().isEmpty()) {
+        if (RegistrationValidator.isBlank(lastName)) {
             throw new IllegalArgumentException("Last name is required");
         }
-        if (email == null || !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (!RegistrationValidator.isValidEmail(email)) {
             throw new IllegalArgumentException("Valid email is required");
         }
-        if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
+        if (RegistrationValidator.isBlank(phoneNumber)) {
             throw new IllegalArgumentException("Phone number is required");
         }
-        if (address == null || address.trim().isEmpty()) {
+        if (RegistrationValidator.isBlank(address)) {
             throw new IllegalArgumentException("Address is required");
         }
-        if (city == null || city.trim().isEmpty()) {
+        if (RegistrationValidator.isBlank(city)) {
             throw new IllegalArgumentException("City is required");
         }
-        if (state == null || state.trim().isEmpty()) {
+        if (RegistrationValidator.isBlank(state)) {
             throw new IllegalArgumentException("State is required");
         }
-        if (zipCode == null || zipCode.trim().isEmpty()) {
+        if (RegistrationValidator.isBlank(zipCode)) {
             throw new IllegalArgumentException("Zip code is required");
         }
-        if (country == null || country.trim().isEmpty()) {
+        if (RegistrationValidator.isBlank(country)) {
             throw new IllegalArgumentException("Country is required");
         }
         if (dateOfBirth == null) {
@@ -75,6 +89,9 @@ public class LongParameterListSmell {
         if (password == null || password.length() < 8) {
             throw new IllegalArgumentException("Password must be at least 8 characters");
         }
+        if (emailIndex != null && !emailIndex.register(email)) {
+            throw new IllegalArgumentException("Email is already registered: " + email);
+        }
         
         // Create user object
         User user = new User();
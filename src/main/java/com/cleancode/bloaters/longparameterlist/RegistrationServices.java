@@ -0,0 +1,93 @@
+package com.cleancode.bloaters.longparameterlist;
+
+import com.cleancode.domain.index.EmailIndex;
+import com.cleancode.domain.index.UserDirectory;
+import com.cleancode.security.PasswordHashingStage;
+
+/**
+ * The optional collaborators of {@link LongParameterListRefactored}, grouped into one parameter
+ * object so that adding another does not add another constructor. Every service left unset is
+ * null, and the processor skips what that service would do.
+ *
+ * <pre>
+ * new LongParameterListRefactored(RegistrationServices.builder()
+ *     .emailIndex(new EmailIndex(1_000_000))
+ *     .directory(new UserDirectory())
+ *     .build());
+ * </pre>
+ */
+public final class RegistrationServices {
+
+    private final EmailIndex emailIndex;
+    private final PasswordHashingStage passwordHashing;
+    private final AddressCanonicalizer addresses;
+    private final UserDirectory directory;
+
+    private RegistrationServices(Builder builder) {
+        this.emailIndex = builder.emailIndex;
+        this.passwordHashing = builder.passwordHashing;
+        this.addresses = builder.addresses;
+        this.directory = builder.directory;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Getters
+    public EmailIndex getEmailIndex() { return emailIndex; }
+    public PasswordHashingStage getPasswordHashing() { return passwordHashing; }
+    public AddressCanonicalizer getAddresses() { return addresses; }
+    public UserDirectory getDirectory() { return directory; }
+
+    public static final class Builder {
+        private EmailIndex emailIndex;
+        private PasswordHashingStage passwordHashing;
+        private AddressCanonicalizer addresses;
+        private UserDirectory directory;
+
+        private Builder() {
+        }
+
+        /**
+         * Registered emails; createUser rejects an email already in it and adds the new ones.
+         * Without one, emails are not checked for uniqueness.
+         */
+        public Builder emailIndex(EmailIndex emailIndex) {
+            this.emailIndex = emailIndex;
+            return this;
+        }
+
+        /**
+         * Hashes the passwords of new users, inline in createUser and on its own threads in
+         * createUserAsync. Without one, the raw password is kept.
+         */
+        public Builder passwordHashing(PasswordHashingStage passwordHashing) {
+            this.passwordHashing = passwordHashing;
+            return this;
+        }
+
+        /**
+         * Shares the address strings of new users with earlier ones. Without one, every user
+         * has its own copies.
+         */
+        public Builder addresses(AddressCanonicalizer addresses) {
+            this.addresses = addresses;
+            return this;
+        }
+
+        /**
+         * Receives a copy of every user createUser, createUserAsync and the bulk importer create,
+         * whose id is set on the user returned, and is where updateUserProfile finds and updates
+         * them. Without one, no users are kept and no ids assigned.
+         */
+        public Builder directory(UserDirectory directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public RegistrationServices build() {
+            return new RegistrationServices(this);
+        }
+    }
+}
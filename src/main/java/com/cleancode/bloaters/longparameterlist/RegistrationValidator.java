@@ -0,0 +1,109 @@
+package com.cleancode.bloaters.longparameterlist;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates user registration data without regex compilation or substring allocation.
+ *
+ * The email check is a hand-written scanner equivalent to the pattern
+ * {@code ^[A-Za-z0-9+_.-]+@(.+)$} previously passed to {@link String#matches(String)},
+ * which compiled a new {@link java.util.regex.Pattern} on every call.
+ * Blank checks scan the characters with {@link String#trim()} semantics instead of trimming.
+ */
+public final class RegistrationValidator {
+
+    /**
+     * Checks every field and reports all problems at once.
+     *
+     * @return the error messages in field order; an empty list if the data is valid
+     */
+    public List<String> validate(LongParameterListRefactored.UserRegistrationData data) {
+        if (data == null) {
+            return List.of("Registration data is required");
+        }
+        List<String> errors = List.of();
+        if (isBlank(data.getFirstName())) {
+            errors = addError(errors, "First name is required");
+        }
+        if (isBlank(data.getLastName())) {
+            errors = addError(errors, "Last name is required");
+        }
+        if (!isValidEmail(data.getEmail())) {
+            errors = addError(errors, "Valid email is required");
+        }
+        if (isBlank(data.getPhoneNumber())) {
+            errors = addError(errors, "Phone number is required");
+        }
+        if (data.getAddress() == null) {
+            errors = addError(errors, "Address is required");
+        }
+        if (data.getDateOfBirth() == null) {
+            errors = addError(errors, "Date of birth is required");
+        }
+        if (!isValidPassword(data.getPassword())) {
+            errors = addError(errors, "Password must be at least 8 characters");
+        }
+        return errors;
+    }
+
+    /**
+     * True for null or for strings whose characters are all whitespace as defined by
+     * {@link String#trim()}, i.e. {@code value == null || value.trim().isEmpty()}.
+     */
+    public static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same result as {@code email.matches("^[A-Za-z0-9+_.-]+@(.+)$")}: a non-empty local part of
+     * letters, digits and {@code + _ . -}, an {@code @}, and a non-empty rest without line terminators.
+     */
+    public static boolean isValidEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        int at = 0;
+        while (at < email.length() && isLocalPartChar(email.charAt(at))) {
+            at++;
+        }
+        if (at == 0 || at == email.length() || email.charAt(at) != '@' || at == email.length() - 1) {
+            return false;
+        }
+        for (int i = at + 1; i < email.length(); i++) {
+            if (isLineTerminator(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isValidPassword(String password) {
+        return password != null && password.length() >= 8;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+            || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    // Characters the regex '.' does not match without DOTALL
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static List<String> addError(List<String> errors, String error) {
+        // Only invalid registrations pay for a list
+        List<String> result = errors.isEmpty() ? new ArrayList<>(4) : errors;
+        result.add(error);
+        return result;
+    }
+}
@@ -0,0 +1,200 @@
+package com.cleancode.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free money arithmetic on amounts held as a {@code long} number of cents.
+ *
+ * Every operation that can produce a fraction of a cent takes an explicit {@link RoundingMode}.
+ * Rates are expressed in basis points (1/100 of a percent), so 10% off is a multiplier of
+ * {@code 9000} and every intermediate result stays an exact integer. Overflow throws
+ * {@link ArithmeticException} instead of wrapping.
+ */
+public final class Money {
+
+    public static final int CENTS_PER_UNIT = 100;
+    public static final int BASIS_POINTS_PER_UNIT = 10_000;
+
+    /**
+     * Rounding used where the domain does not ask for a specific mode.
+     */
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_EVEN;
+
+    // Above this many cents a double no longer resolves fractions of a cent reliably
+    private static final double EXACT_DOUBLE_LIMIT = 1e9;
+    private static final double TIE_TOLERANCE = 1e-6;
+
+    private Money() {
+    }
+
+    /**
+     * Converts an amount in major units, such as 999.99, to cents. The double is read as the
+     * decimal it prints as, so 1.005 is treated as exactly halfway between 100 and 101 cents.
+     */
+    public static long ofMajor(double amount, RoundingMode roundingMode) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Not a finite amount: " + amount);
+        }
+        double scaled = amount * CENTS_PER_UNIT;
+        if (Math.abs(scaled) >= EXACT_DOUBLE_LIMIT) {
+            return BigDecimal.valueOf(amount).setScale(2, roundingMode).unscaledValue().longValueExact();
+        }
+        double nearest = Math.rint(scaled);
+        if (Math.abs(scaled - nearest) < TIE_TOLERANCE) {
+            return (long) nearest;
+        }
+        double floor = Math.floor(scaled);
+        long down = (long) floor;
+        double fraction = scaled - floor;
+        int tie = Math.abs(fraction - 0.5) < TIE_TOLERANCE ? 0 : (fraction < 0.5 ? -1 : 1);
+        return down + roundUp(down, tie, scaled >= 0, roundingMode);
+    }
+
+    public static long ofMajor(double amount) {
+        return ofMajor(amount, DEFAULT_ROUNDING);
+    }
+
+    /**
+     * Parses a decimal amount in major units, such as {@code "999.99"} or {@code "-5"}, into
+     * cents without going through a double. More than two decimals are rounded with the given mode.
+     *
+     * @throws NumberFormatException if the text is not a plain decimal number
+     */
+    public static long parse(String text, RoundingMode roundingMode) {
+        if (text == null || text.isEmpty()) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        int length = text.length();
+        int i = 0;
+        boolean negative = text.charAt(0) == '-';
+        if (negative || text.charAt(0) == '+') {
+            i++;
+        }
+        int start = i;
+        long units = 0;
+        while (i < length && isDigit(text.charAt(i))) {
+            units = Math.addExact(Math.multiplyExact(units, 10), text.charAt(i++) - '0');
+        }
+        boolean hasUnits = i > start;
+        long cents = 0;
+        int decimals = 0;
+        if (i < length && text.charAt(i) == '.') {
+            i++;
+            while (i < length && decimals < 2 && isDigit(text.charAt(i))) {
+                cents = cents * 10 + (text.charAt(i++) - '0');
+                decimals++;
+            }
+            if (i < length && isDigit(text.charAt(i))) {
+                return parseRounded(text, roundingMode);
+            }
+        }
+        if (i != length || (!hasUnits && decimals == 0)) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        long amount = Math.addExact(Math.multiplyExact(units, CENTS_PER_UNIT), decimals == 1 ? cents * 10 : cents);
+        return negative ? -amount : amount;
+    }
+
+    public static long parse(String text) {
+        return parse(text, DEFAULT_ROUNDING);
+    }
+
+    private static long parseRounded(String text, RoundingMode roundingMode) {
+        try {
+            return new BigDecimal(text).setScale(2, roundingMode).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public static double toMajor(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long times(long cents, int quantity) {
+        return Math.multiplyExact(cents, (long) quantity);
+    }
+
+    /**
+     * Multiplies by a rate in basis points: {@code applyBasisPoints(1000, 9500, mode)} is 95% of $10.00.
+     */
+    public static long applyBasisPoints(long cents, int basisPoints, RoundingMode roundingMode) {
+        return divide(Math.multiplyExact(cents, (long) basisPoints), BASIS_POINTS_PER_UNIT, roundingMode);
+    }
+
+    /**
+     * The part of the amount that a rate in basis points represents, e.g. the 5% discount itself.
+     */
+    public static long percentageOf(long cents, int basisPoints, RoundingMode roundingMode) {
+        return applyBasisPoints(cents, basisPoints, roundingMode);
+    }
+
+    /**
+     * Integer division with an explicit rounding mode; the divisor must be positive.
+     */
+    public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        if (divisor <= 0) {
+            throw new ArithmeticException("Divisor must be positive: " + divisor);
+        }
+        long quotient = Math.floorDiv(dividend, divisor);
+        long remainder = dividend - quotient * divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // Compare the remainder with half the divisor without overflowing
+        long rest = divisor - remainder;
+        int tie = remainder > rest ? 1 : (remainder == rest ? 0 : -1);
+        return quotient + roundUp(quotient, tie, dividend >= 0, roundingMode);
+    }
+
+    /**
+     * Formats cents as a plain decimal string such as {@code -12.05}.
+     */
+    public static String format(long cents) {
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        long fraction = Math.abs(cents % CENTS_PER_UNIT);
+        return (cents < 0 ? "-" : "") + units + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * Decides whether a value strictly between {@code floor} and {@code floor + 1} rounds up.
+     *
+     * @param tie -1 if the fraction is below one half, 0 if exactly one half, 1 if above
+     * @param positive whether the exact value is non-negative
+     * @return 1 to round up to {@code floor + 1}, 0 to keep {@code floor}
+     */
+    private static int roundUp(long floor, int tie, boolean positive, RoundingMode roundingMode) {
+        switch (roundingMode) {
+            case FLOOR:
+                return 0;
+            case CEILING:
+                return 1;
+            case DOWN:
+                return positive ? 0 : 1;
+            case UP:
+                return positive ? 1 : 0;
+            case HALF_UP:
+                return tie > 0 || (tie == 0 && positive) ? 1 : 0;
+            case HALF_DOWN:
+                return tie > 0 || (tie == 0 && !positive) ? 1 : 0;
+            case HALF_EVEN:
+                return tie > 0 || (tie == 0 && (floor & 1) != 0) ? 1 : 0;
+            case UNNECESSARY:
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+    }
+}
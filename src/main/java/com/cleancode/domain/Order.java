@@ -1,27 +1,56 @@
 package com.cleancode.domain;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Domain class representing an order in the e-commerce system.
  * Used to demonstrate code smells and refactoring techniques.
+ *
+ * The status follows the lifecycle in {@link OrderStatus#canTransitionTo} and is changed
+ * atomically, so concurrent workers can race to move an order and exactly one wins.
+ * The other fields are not thread-safe.
  */
-public class Order {
+public class Order implements OrderView {
+    private static final VarHandle STATUS;
+    private static final VarHandle CLAIMED;
+    
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            STATUS = lookup.findVarHandle(Order.class, "status", OrderStatus.class);
+            CLAIMED = lookup.findVarHandle(Order.class, "claimed", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
     private String orderId;
     private Customer customer;
     private List<OrderItem> items;
-    private double total;
-    private OrderStatus status;
+    private List<OrderItem> itemsView;
+    private long subtotalCents;
+    private long totalCents;
+    private volatile OrderStatus status;
+    // Set by the one worker allowed to price the order, before it writes the total
+    private volatile boolean claimed;
+    private volatile OrderListener[] listeners;
     
     public Order(String orderId, Customer customer) {
         this.orderId = orderId;
         this.customer = customer;
         this.items = new ArrayList<>();
+        this.itemsView = Collections.unmodifiableList(items);
         this.status = OrderStatus.PENDING;
     }
     
     // Getters and Setters
+    @Override
     public String getOrderId() {
         return orderId;
     }
@@ -35,31 +64,287 @@ public class Order {
     }
     
     public void setCustomer(Customer customer) {
+        Customer previous = this.customer;
         this.customer = customer;
+        OrderListener[] current = listeners;
+        if (current != null && previous != customer) {
+            for (OrderListener listener : current) {
+                listener.customerChanged(this, previous, customer);
+            }
+        }
     }
     
     public List<OrderItem> getItems() {
         return new ArrayList<>(items); // Return defensive copy
     }
     
+    /**
+     * Read-only live view of the items; unlike {@link #getItems()} it does not
+     * copy, so it is the one to use on hot read paths.
+     */
+    public List<OrderItem> getItemsView() {
+        return itemsView;
+    }
+    
+    @Override
+    public int itemCount() {
+        return items.size();
+    }
+    
+    public OrderItem getItem(int index) {
+        return items.get(index);
+    }
+    
+    @Override
+    public String getItemProductId(int index) {
+        return items.get(index).getProductId();
+    }
+    
+    @Override
+    public long getItemPriceCents(int index) {
+        return items.get(index).getPriceCents();
+    }
+    
+    @Override
+    public int getItemQuantity(int index) {
+        return items.get(index).getQuantity();
+    }
+    
+    @Override
+    public boolean isPremiumCustomer() {
+        return customer != null && customer.isPremium();
+    }
+    
+    public void forEachItem(Consumer<? super OrderItem> action) {
+        for (int i = 0; i < items.size(); i++) {
+            action.accept(items.get(i));
+        }
+    }
+    
     public void addItem(OrderItem item) {
+        attach(item);
         this.items.add(item);
+        this.subtotalCents = Money.add(subtotalCents, item.getLineTotalCents());
+    }
+    
+    /**
+     * Removes the given item and takes its line total off the subtotal.
+     *
+     * @return true if the item belonged to this order
+     */
+    public boolean removeItem(OrderItem item) {
+        if (item == null || item.getOrder() != this) {
+            return false;
+        }
+        items.remove(item);
+        detach(item);
+        return true;
+    }
+    
+    /**
+     * Replaces the item at the given position, adjusting the subtotal by the difference.
+     *
+     * @return the replaced item
+     */
+    public OrderItem replaceItem(int index, OrderItem item) {
+        OrderItem previous = items.get(index);
+        if (item == previous) {
+            return previous;
+        }
+        attach(item);
+        items.set(index, item);
+        this.subtotalCents = Money.add(subtotalCents, item.getLineTotalCents());
+        detach(previous);
+        return previous;
+    }
+    
+    /**
+     * Sum of price times quantity over all items, maintained as items are
+     * added, removed, replaced or changed, so reading it is O(1).
+     */
+    public double getSubtotal() {
+        return Money.toMajor(subtotalCents);
+    }
+    
+    /**
+     * The subtotal in cents. Being an exact integer, it never drifts however often items change.
+     */
+    @Override
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+    
+    /**
+     * Called by an attached item when its price or quantity changes.
+     */
+    void itemChanged(long oldLineTotalCents, long newLineTotalCents) {
+        this.subtotalCents = Money.add(subtotalCents, Money.subtract(newLineTotalCents, oldLineTotalCents));
+    }
+    
+    private void attach(OrderItem item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Order item cannot be null");
+        }
+        if (item.getOrder() != null) {
+            throw new IllegalArgumentException("Order item already belongs to an order");
+        }
+        item.setOrder(this);
+    }
+    
+    private void detach(OrderItem item) {
+        item.setOrder(null);
+        this.subtotalCents = Money.subtract(subtotalCents, item.getLineTotalCents());
     }
     
     public double getTotal() {
-        return total;
+        return Money.toMajor(totalCents);
     }
     
     public void setTotal(double total) {
-        this.total = total;
+        this.totalCents = Money.ofMajor(total);
     }
     
+    @Override
+    public long getTotalCents() {
+        return totalCents;
+    }
+    
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
+    }
+    
+    @Override
     public OrderStatus getStatus() {
         return status;
     }
     
+    /**
+     * Moves the order to the given status, which must be allowed from the current one.
+     * Setting the current status again is a no-op.
+     *
+     * @throws IllegalStateException if the lifecycle does not allow the transition
+     */
     public void setStatus(OrderStatus status) {
-        this.status = status;
+        if (status == null) {
+            throw new IllegalArgumentException("Order status cannot be null");
+        }
+        while (true) {
+            OrderStatus current = this.status;
+            if (current == status) {
+                return;
+            }
+            if (!current.canTransitionTo(status)) {
+                throw new IllegalStateException(
+                    "Order " + orderId + " cannot move from " + current + " to " + status);
+            }
+            if (compareAndSetStatus(current, status)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Atomically moves the order from {@code expected} to {@code next} if it is still in
+     * {@code expected}. Of several threads making the same transition, exactly one succeeds.
+     *
+     * @return true if this call made the transition
+     * @throws IllegalArgumentException if the lifecycle never allows the transition
+     */
+    public boolean compareAndSetStatus(OrderStatus expected, OrderStatus next) {
+        if (expected == null || !expected.canTransitionTo(next)) {
+            throw new IllegalArgumentException("Invalid order status transition: " + expected + " to " + next);
+        }
+        if (!STATUS.compareAndSet(this, expected, next)) {
+            return false;
+        }
+        statusChanged(expected, next);
+        return true;
+    }
+    
+    /**
+     * Moves a pending order to PROCESSED with its final total. Of several workers processing
+     * the order at once, exactly one wins, and only the winner writes its total. The total is
+     * written before PROCESSED is published, so listeners and readers that see PROCESSED see
+     * the winner's total. If the order is cancelled before the claim, the total is left as it was.
+     *
+     * @return true if this call processed the order; false if it was not pending or another
+     *         worker claimed it first
+     */
+    public boolean markProcessed(long totalCents) {
+        if (status != OrderStatus.PENDING || !CLAIMED.compareAndSet(this, false, true)) {
+            return false;
+        }
+        long previousTotal = this.totalCents;
+        this.totalCents = totalCents;
+        if (compareAndSetStatus(OrderStatus.PENDING, OrderStatus.PROCESSED)) {
+            return true;
+        }
+        // Cancelled between the claim and the transition
+        this.totalCents = previousTotal;
+        return false;
+    }
+    
+    /**
+     * Sets the status without consulting the lifecycle, for rebuilding an order from a
+     * stored record or resetting test and benchmark data.
+     */
+    public void restoreStatus(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Order status cannot be null");
+        }
+        claimed = false;
+        OrderStatus previous = (OrderStatus) STATUS.getAndSet(this, status);
+        if (previous != status) {
+            statusChanged(previous, status);
+        }
+    }
+    
+    private void statusChanged(OrderStatus from, OrderStatus to) {
+        OrderListener[] current = listeners;
+        if (current != null) {
+            for (OrderListener listener : current) {
+                listener.statusChanged(this, from, to);
+            }
+        }
+    }
+    
+    /**
+     * Registers a listener for status and customer changes. Orders without listeners
+     * pay only a null check per change.
+     */
+    public synchronized void addListener(OrderListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Order listener cannot be null");
+        }
+        if (listeners == null) {
+            listeners = new OrderListener[] {listener};
+        } else {
+            listeners = Arrays.copyOf(listeners, listeners.length + 1);
+            listeners[listeners.length - 1] = listener;
+        }
+    }
+    
+    /**
+     * @return true if the listener was registered
+     */
+    public synchronized boolean removeListener(OrderListener listener) {
+        if (listeners == null) {
+            return false;
+        }
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                if (listeners.length == 1) {
+                    listeners = null;
+                } else {
+                    OrderListener[] remaining = new OrderListener[listeners.length - 1];
+                    System.arraycopy(listeners, 0, remaining, 0, i);
+                    System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                    listeners = remaining;
+                }
+                return true;
+            }
+        }
+        return false;
     }
     
     @Override
@@ -68,7 +353,7 @@ public class Order {
                 "orderId='" + orderId + '\'' +
                 ", customer=" + customer +
                 ", items=" + items +
-                ", total=" + total +
+                ", total=" + Money.format(totalCents) +
                 ", status=" + status +
                 '}';
     }
@@ -7,16 +7,29 @@ package com.cleancode.domain;
 public class OrderItem {
     private String productId;
     private String productName;
-    private double price;
+    private long priceCents;
     private int quantity;
+    private Order order;
     
+    /**
+     * Creates an item from a price in major units, rounded to whole cents with {@link Money#DEFAULT_ROUNDING}.
+     */
     public OrderItem(String productId, String productName, double price, int quantity) {
         this.productId = productId;
         this.productName = productName;
-        this.price = price;
+        this.priceCents = Money.ofMajor(price);
         this.quantity = quantity;
     }
     
+    /**
+     * Creates an item whose price is already given in cents.
+     */
+    public static OrderItem ofCents(String productId, String productName, long priceCents, int quantity) {
+        OrderItem item = new OrderItem(productId, productName, 0.0, quantity);
+        item.priceCents = priceCents;
+        return item;
+    }
+    
     // Getters and Setters
     public String getProductId() {
         return productId;
@@ -35,11 +48,21 @@ public class OrderItem {
     }
     
     public double getPrice() {
-        return price;
+        return Money.toMajor(priceCents);
     }
     
     public void setPrice(double price) {
-        this.price = price;
+        setPriceCents(Money.ofMajor(price));
+    }
+    
+    public long getPriceCents() {
+        return priceCents;
+    }
+    
+    public void setPriceCents(long priceCents) {
+        long oldLineTotal = getLineTotalCents();
+        this.priceCents = priceCents;
+        notifyOrder(oldLineTotal);
     }
     
     public int getQuantity() {
@@ -47,7 +70,37 @@ public class OrderItem {
     }
     
     public void setQuantity(int quantity) {
+        long oldLineTotal = getLineTotalCents();
         this.quantity = quantity;
+        notifyOrder(oldLineTotal);
+    }
+    
+    public double getLineTotal() {
+        return Money.toMajor(getLineTotalCents());
+    }
+    
+    /**
+     * Exact price times quantity in cents; throws {@link ArithmeticException} on overflow.
+     */
+    public long getLineTotalCents() {
+        return Money.times(priceCents, quantity);
+    }
+    
+    /**
+     * The order this item has been added to, or null if it is not part of one.
+     */
+    public Order getOrder() {
+        return order;
+    }
+    
+    void setOrder(Order order) {
+        this.order = order;
+    }
+    
+    private void notifyOrder(long oldLineTotal) {
+        if (order != null) {
+            order.itemChanged(oldLineTotal, getLineTotalCents());
+        }
     }
     
     @Override
@@ -55,7 +108,7 @@ public class OrderItem {
         return "OrderItem{" +
                 "productId='" + productId + '\'' +
                 ", productName='" + productName + '\'' +
-                ", price=" + price +
+                ", price=" + Money.format(priceCents) +
                 ", quantity=" + quantity +
                 '}';
     }
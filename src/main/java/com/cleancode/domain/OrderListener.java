@@ -0,0 +1,15 @@
+package com.cleancode.domain;
+
+/**
+ * Callback for changes to an {@link Order}, used to keep derived structures such as
+ * indexes up to date without rescanning. Listeners run synchronously on the thread that
+ * made the change, after the change, and should be cheap.
+ */
+public interface OrderListener {
+
+    default void statusChanged(Order order, OrderStatus from, OrderStatus to) {
+    }
+
+    default void customerChanged(Order order, Customer from, Customer to) {
+    }
+}
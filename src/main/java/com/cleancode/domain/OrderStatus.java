@@ -9,5 +9,35 @@ public enum OrderStatus {
     PROCESSED,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+    
+    // Transition table: bit n of a status' mask is set if it may move to the status with ordinal n
+    private int successors;
+    
+    static {
+        allow(PENDING, PROCESSED, CANCELLED);
+        allow(PROCESSED, SHIPPED, CANCELLED);
+        allow(SHIPPED, DELIVERED);
+    }
+    
+    private static void allow(OrderStatus from, OrderStatus... to) {
+        for (OrderStatus status : to) {
+            from.successors |= 1 << status.ordinal();
+        }
+    }
+    
+    /**
+     * Whether the lifecycle allows moving from this status to the given one:
+     * PENDING to PROCESSED to SHIPPED to DELIVERED, and CANCELLED from PENDING or PROCESSED.
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return next != null && (successors & (1 << next.ordinal())) != 0;
+    }
+    
+    /**
+     * True for DELIVERED and CANCELLED, which allow no further transitions.
+     */
+    public boolean isTerminal() {
+        return successors == 0;
+    }
 }
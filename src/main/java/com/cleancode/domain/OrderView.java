@@ -0,0 +1,32 @@
+package com.cleancode.domain;
+
+/**
+ * Read-only access to the fields order processing looks at, with item fields read by index
+ * so an implementation does not need an {@link OrderItem} object per line.
+ *
+ * {@link Order} implements it directly; {@link com.cleancode.domain.store.OffHeapOrderStore}
+ * implements it with a flyweight cursor over off-heap records.
+ */
+public interface OrderView {
+
+    String getOrderId();
+
+    OrderStatus getStatus();
+
+    long getSubtotalCents();
+
+    long getTotalCents();
+
+    /**
+     * False when the customer is a regular customer or unknown.
+     */
+    boolean isPremiumCustomer();
+
+    int itemCount();
+
+    String getItemProductId(int index);
+
+    long getItemPriceCents(int index);
+
+    int getItemQuantity(int index);
+}
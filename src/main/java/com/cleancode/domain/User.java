@@ -7,6 +7,7 @@ import java.time.LocalDate;
  * Used to demonstrate Long Parameter List code smell and refactoring.
  */
 public class User {
+    private Long id;
     private String firstName;
     private String lastName;
     private String email;
@@ -25,6 +26,17 @@ public class User {
     }
     
     // Getters and Setters
+    /**
+     * @return the id a user directory assigned, or null for a user that was never added to one
+     */
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
     public String getFirstName() {
         return firstName;
     }
@@ -124,7 +136,8 @@ public class User {
     @Override
     public String toString() {
         return "User{" +
-                "firstName='" + firstName + '\'' +
+                "id=" + id +
+                ", firstName='" + firstName + '\'' +
                 ", lastName='" + lastName + '\'' +
                 ", email='" + email + '\'' +
                 ", phoneNumber='" + phoneNumber + '\'' +
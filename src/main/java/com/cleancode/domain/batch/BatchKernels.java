@@ -0,0 +1,55 @@
+package com.cleancode.domain.batch;
+
+/**
+ * The loops {@link OrderBatch} runs over its columns.
+ *
+ * {@link #best()} picks the JDK Vector API implementation when it was built with the
+ * {@code vector} profile and the {@code jdk.incubator.vector} module has been added to the JVM
+ * ({@code --add-modules jdk.incubator.vector}), and the plain scalar loops otherwise.
+ * Both produce identical results.
+ */
+public interface BatchKernels {
+
+    /**
+     * Writes {@code priceCents[i] * quantities[i]} to {@code lineTotals[i]} for the first {@code length} lines.
+     *
+     * @throws ArithmeticException if a line total overflows a long
+     */
+    void lineTotals(long[] priceCents, int[] quantities, long[] lineTotals, int length);
+
+    /**
+     * Sums each order's line totals, where order {@code i} owns lines
+     * {@code orderStart[i]} until {@code orderStart[i + 1]}.
+     *
+     * @throws ArithmeticException if a subtotal overflows a long
+     */
+    default void subtotals(long[] lineTotals, int[] orderStart, long[] subtotals, int orderCount) {
+        for (int order = 0; order < orderCount; order++) {
+            long sum = 0;
+            for (int line = orderStart[order]; line < orderStart[order + 1]; line++) {
+                sum = Math.addExact(sum, lineTotals[line]);
+            }
+            subtotals[order] = sum;
+        }
+    }
+
+    String name();
+
+    static BatchKernels scalar() {
+        return ScalarBatchKernels.INSTANCE;
+    }
+
+    /**
+     * The vectorized kernels if the Vector API is available, otherwise {@link #scalar()}.
+     */
+    static BatchKernels best() {
+        return VectorSupport.KERNELS;
+    }
+
+    /**
+     * Whether {@link #best()} uses the Vector API.
+     */
+    static boolean vectorAvailable() {
+        return VectorSupport.KERNELS != ScalarBatchKernels.INSTANCE;
+    }
+}
@@ -0,0 +1,224 @@
+package com.cleancode.domain.batch;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.pricing.CustomerTier;
+import com.cleancode.pricing.DiscountTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Struct-of-arrays copy of a list of orders for repricing many orders at once.
+ *
+ * Prices, quantities and the owning order of every line sit in primitive arrays, with the
+ * lines of each order stored contiguously, and each order's customer tier is a byte. The
+ * total and discount kernels stream through those arrays instead of following references
+ * from order to item to field, and the line total kernel can use the Vector API
+ * (see {@link BatchKernels}). Identifiers, names and customers are kept only to convert
+ * back to {@link Order} objects.
+ *
+ * A batch is not thread-safe.
+ */
+public final class OrderBatch {
+
+    private static final CustomerTier[] TIERS = CustomerTier.values();
+
+    // Per order
+    private final String[] orderIds;
+    private final Customer[] customers;
+    private final OrderStatus[] statuses;
+    private final byte[] tiers;
+    private final int[] orderStart;
+    private final long[] subtotals;
+    private final long[] totals;
+
+    // Per line
+    private final String[] productIds;
+    private final String[] productNames;
+    private final long[] priceCents;
+    private final int[] quantities;
+    private final int[] orderIndex;
+    private final long[] lineTotals;
+
+    private OrderBatch(int orderCount, int lineCount) {
+        this.orderIds = new String[orderCount];
+        this.customers = new Customer[orderCount];
+        this.statuses = new OrderStatus[orderCount];
+        this.tiers = new byte[orderCount];
+        this.orderStart = new int[orderCount + 1];
+        this.subtotals = new long[orderCount];
+        this.totals = new long[orderCount];
+        this.productIds = new String[lineCount];
+        this.productNames = new String[lineCount];
+        this.priceCents = new long[lineCount];
+        this.quantities = new int[lineCount];
+        this.orderIndex = new int[lineCount];
+        this.lineTotals = new long[lineCount];
+    }
+
+    /**
+     * Copies the orders into columns. Premium customers get the {@link CustomerTier#PREMIUM}
+     * tier and everyone else {@link CustomerTier#REGULAR}, as in order processing.
+     * Subtotals and totals start out as the orders' own.
+     */
+    public static OrderBatch of(List<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        int lineCount = 0;
+        for (Order order : orders) {
+            if (order == null) {
+                throw new IllegalArgumentException("Order cannot be null");
+            }
+            lineCount += order.itemCount();
+        }
+        OrderBatch batch = new OrderBatch(orders.size(), lineCount);
+        int line = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            batch.orderIds[i] = order.getOrderId();
+            batch.customers[i] = order.getCustomer();
+            batch.statuses[i] = order.getStatus();
+            batch.tiers[i] = (byte) tierOf(order.getCustomer()).ordinal();
+            batch.subtotals[i] = order.getSubtotalCents();
+            batch.totals[i] = order.getTotalCents();
+            batch.orderStart[i] = line;
+            for (int j = 0; j < order.itemCount(); j++, line++) {
+                OrderItem item = order.getItem(j);
+                batch.productIds[line] = item.getProductId();
+                batch.productNames[line] = item.getProductName();
+                batch.priceCents[line] = item.getPriceCents();
+                batch.quantities[line] = item.getQuantity();
+                batch.orderIndex[line] = i;
+            }
+        }
+        batch.orderStart[orders.size()] = line;
+        return batch;
+    }
+
+    /**
+     * Builds new orders from the columns, with the batch's current prices, quantities and totals.
+     */
+    public List<Order> toOrders() {
+        List<Order> orders = new ArrayList<>(orderCount());
+        for (int i = 0; i < orderCount(); i++) {
+            Order order = new Order(orderIds[i], customers[i]);
+            for (int line = orderStart[i]; line < orderStart[i + 1]; line++) {
+                order.addItem(OrderItem.ofCents(productIds[line], productNames[line], priceCents[line], quantities[line]));
+            }
+            order.setTotalCents(totals[i]);
+            order.restoreStatus(statuses[i]);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /**
+     * Writes the batch's totals back to the orders it was created from.
+     */
+    public void copyTotalsTo(List<Order> orders) {
+        if (orders == null || orders.size() != orderCount()) {
+            throw new IllegalArgumentException("Expected " + orderCount() + " orders");
+        }
+        for (int i = 0; i < orderCount(); i++) {
+            Order order = orders.get(i);
+            if (!orderIds[i].equals(order.getOrderId())) {
+                throw new IllegalArgumentException("Order " + i + " is " + order.getOrderId() + ", expected " + orderIds[i]);
+            }
+            order.setTotalCents(totals[i]);
+        }
+    }
+
+    /**
+     * Recalculates every subtotal and then every discounted total, using {@link BatchKernels#best()}.
+     */
+    public void calculateTotals(DiscountTable discounts) {
+        calculateTotals(discounts, BatchKernels.best());
+    }
+
+    public void calculateTotals(DiscountTable discounts, BatchKernels kernels) {
+        calculateSubtotals(kernels);
+        applyDiscounts(discounts);
+    }
+
+    /**
+     * Column form of calculateOrderTotal: price times quantity per line, summed per order.
+     */
+    public void calculateSubtotals(BatchKernels kernels) {
+        kernels.lineTotals(priceCents, quantities, lineTotals, lineCount());
+        kernels.subtotals(lineTotals, orderStart, subtotals, orderCount());
+    }
+
+    /**
+     * Column form of applyDiscounts: each order's subtotal run through its tier's rules.
+     */
+    public void applyDiscounts(DiscountTable discounts) {
+        if (discounts == null) {
+            throw new IllegalArgumentException("Discount table cannot be null");
+        }
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = discounts.apply(TIERS[tiers[i]], subtotals[i]);
+        }
+    }
+
+    public int orderCount() {
+        return orderIds.length;
+    }
+
+    public int lineCount() {
+        return priceCents.length;
+    }
+
+    public String getOrderId(int order) {
+        return orderIds[order];
+    }
+
+    public CustomerTier getTier(int order) {
+        return TIERS[tiers[order]];
+    }
+
+    public void setTier(int order, CustomerTier tier) {
+        if (tier == null) {
+            throw new IllegalArgumentException("Customer tier cannot be null");
+        }
+        tiers[order] = (byte) tier.ordinal();
+    }
+
+    public long getSubtotalCents(int order) {
+        return subtotals[order];
+    }
+
+    public long getTotalCents(int order) {
+        return totals[order];
+    }
+
+    /**
+     * The index of the order that owns the line.
+     */
+    public int orderOf(int line) {
+        return orderIndex[line];
+    }
+
+    public long getPriceCents(int line) {
+        return priceCents[line];
+    }
+
+    public void setPriceCents(int line, long cents) {
+        priceCents[line] = cents;
+    }
+
+    public int getQuantity(int line) {
+        return quantities[line];
+    }
+
+    public void setQuantity(int line, int quantity) {
+        quantities[line] = quantity;
+    }
+
+    private static CustomerTier tierOf(Customer customer) {
+        return customer != null && customer.isPremium() ? CustomerTier.PREMIUM : CustomerTier.REGULAR;
+    }
+}
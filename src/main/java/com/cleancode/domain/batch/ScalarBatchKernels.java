@@ -0,0 +1,28 @@
+package com.cleancode.domain.batch;
+
+/**
+ * Plain loops over the columns; used when the Vector API is not available.
+ */
+final class ScalarBatchKernels implements BatchKernels {
+
+    static final ScalarBatchKernels INSTANCE = new ScalarBatchKernels();
+
+    private ScalarBatchKernels() {
+    }
+
+    @Override
+    public void lineTotals(long[] priceCents, int[] quantities, long[] lineTotals, int length) {
+        lineTotals(priceCents, quantities, lineTotals, 0, length);
+    }
+
+    void lineTotals(long[] priceCents, int[] quantities, long[] lineTotals, int from, int to) {
+        for (int i = from; i < to; i++) {
+            lineTotals[i] = Math.multiplyExact(priceCents[i], (long) quantities[i]);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,30 @@
+package com.cleancode.domain.batch;
+
+/**
+ * Chooses the kernels once per JVM. The vector implementation lives in src/vector/java and is
+ * compiled only by the {@code vector} build profile, so it is looked up by name: it is used when
+ * it was built and the incubator module is in the boot layer, and running without either never
+ * touches its classes.
+ */
+final class VectorSupport {
+
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+    static final String VECTOR_KERNELS = "com.cleancode.domain.batch.VectorBatchKernels";
+
+    static final BatchKernels KERNELS = select();
+
+    private VectorSupport() {
+    }
+
+    private static BatchKernels select() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return ScalarBatchKernels.INSTANCE;
+        }
+        try {
+            return (BatchKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not built, or the constructor found no usable vector shape on this platform
+            return ScalarBatchKernels.INSTANCE;
+        }
+    }
+}
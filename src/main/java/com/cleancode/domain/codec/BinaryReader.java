@@ -0,0 +1,121 @@
+package com.cleancode.domain.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads what a {@link BinaryWriter} wrote, rebuilding the writer's string table as it goes.
+ * Malformed input is reported as an {@link IllegalArgumentException}.
+ */
+public final class BinaryReader {
+    
+    private final List<String> stringTable = new ArrayList<>();
+    private ByteBuffer buffer;
+    private byte[] scratch = new byte[0];
+    
+    public BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+    
+    /**
+     * Continues reading from the given buffer with an empty string table.
+     */
+    public BinaryReader reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.stringTable.clear();
+        return this;
+    }
+    
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+    
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+    
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varlong");
+    }
+    
+    public long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+    
+    public double readDouble() {
+        if (buffer.remaining() < Double.BYTES) {
+            throw truncated();
+        }
+        return buffer.getDouble();
+    }
+    
+    public String readString() {
+        int tag = readVarInt();
+        if (tag == BinaryWriter.NULL_STRING) {
+            return null;
+        }
+        if (tag == BinaryWriter.LITERAL_STRING) {
+            String value = readUtf8();
+            stringTable.add(value);
+            return value;
+        }
+        int index = tag - BinaryWriter.FIRST_REFERENCE;
+        if (index < 0 || index >= stringTable.size()) {
+            throw new IllegalArgumentException("Unknown string table reference: " + index);
+        }
+        return stringTable.get(index);
+    }
+    
+    private byte readByte() {
+        if (!buffer.hasRemaining()) {
+            throw truncated();
+        }
+        return buffer.get();
+    }
+    
+    private static IllegalArgumentException truncated() {
+        return new IllegalArgumentException("Truncated input");
+    }
+    
+    private String readUtf8() {
+        int length = readVarInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Malformed string length: " + length);
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,139 @@
+package com.cleancode.domain.codec;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes primitives straight into a {@link ByteBuffer}: varints for integers, raw IEEE bits for
+ * doubles, and strings through an interning table so a repeated string costs a one- or two-byte
+ * reference after its first occurrence.
+ *
+ * The string table lives until {@link #reset(ByteBuffer)}, so everything written between resets
+ * must be read back with a single {@link BinaryReader} in the same order. If the buffer overflows,
+ * the writer is left in an undefined state and must be reset before it is reused.
+ */
+public final class BinaryWriter {
+    
+    // String tags: 0 = null, 1 = literal follows, n >= 2 = table entry n - 2
+    static final int NULL_STRING = 0;
+    static final int LITERAL_STRING = 1;
+    static final int FIRST_REFERENCE = 2;
+    
+    private final Map<String, Integer> stringTable = new HashMap<>();
+    private ByteBuffer buffer;
+    
+    public BinaryWriter(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+    
+    /**
+     * Continues writing into the given buffer with an empty string table.
+     */
+    public BinaryWriter reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.stringTable.clear();
+        return this;
+    }
+    
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+    
+    public void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    public void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    /**
+     * Zig-zag encoded so small negative values stay short.
+     */
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+    
+    public void writeBoolean(boolean value) {
+        buffer.put((byte) (value ? 1 : 0));
+    }
+    
+    public void writeDouble(double value) {
+        buffer.putDouble(value);
+    }
+    
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(NULL_STRING);
+            return;
+        }
+        Integer index = stringTable.get(value);
+        if (index != null) {
+            writeVarInt(index + FIRST_REFERENCE);
+            return;
+        }
+        stringTable.put(value, stringTable.size());
+        writeVarInt(LITERAL_STRING);
+        writeUtf8(value);
+    }
+    
+    /**
+     * Encodes UTF-8 without an intermediate byte array. Unpaired surrogates become '?',
+     * as with {@link String#getBytes(java.nio.charset.Charset)}.
+     */
+    private void writeUtf8(String value) {
+        writeVarInt(utf8Length(value));
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+    
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
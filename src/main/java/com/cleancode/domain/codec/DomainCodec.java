@@ -0,0 +1,169 @@
+package com.cleancode.domain.codec;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.domain.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written binary encoding of the domain classes.
+ *
+ * Field order is the layout; there are no field tags or type names. Integers are varints,
+ * amounts are zig-zag varints of whole cents, enums are written as their ordinal, and strings go through the writer's string table, so
+ * repeated product ids, names, cities and so on are sent once per table.
+ */
+public final class DomainCodec {
+    
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    
+    private DomainCodec() {
+    }
+    
+    public static void writeOrders(BinaryWriter out, List<Order> orders) {
+        out.writeVarInt(orders.size());
+        for (Order order : orders) {
+            writeOrder(out, order);
+        }
+    }
+    
+    public static List<Order> readOrders(BinaryReader in) {
+        int count = readCount(in);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(readOrder(in));
+        }
+        return orders;
+    }
+    
+    public static void writeOrder(BinaryWriter out, Order order) {
+        out.writeString(order.getOrderId());
+        writeStatus(out, order.getStatus());
+        out.writeSignedVarLong(order.getTotalCents());
+        writeCustomer(out, order.getCustomer());
+        out.writeVarInt(order.itemCount());
+        for (int i = 0; i < order.itemCount(); i++) {
+            writeOrderItem(out, order.getItem(i));
+        }
+    }
+    
+    public static Order readOrder(BinaryReader in) {
+        String orderId = in.readString();
+        OrderStatus status = readStatus(in);
+        long totalCents = in.readSignedVarLong();
+        Order order = new Order(orderId, readCustomer(in));
+        int itemCount = readCount(in);
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(readOrderItem(in));
+        }
+        order.setTotalCents(totalCents);
+        if (status != null) {
+            order.restoreStatus(status); // records written before the lifecycle was enforced may lack one
+        }
+        return order;
+    }
+    
+    public static void writeOrderItem(BinaryWriter out, OrderItem item) {
+        out.writeString(item.getProductId());
+        out.writeString(item.getProductName());
+        out.writeSignedVarLong(item.getPriceCents());
+        out.writeVarInt(item.getQuantity());
+    }
+    
+    public static OrderItem readOrderItem(BinaryReader in) {
+        return OrderItem.ofCents(in.readString(), in.readString(), in.readSignedVarLong(), in.readVarInt());
+    }
+    
+    /**
+     * Writes a nullable customer.
+     */
+    public static void writeCustomer(BinaryWriter out, Customer customer) {
+        out.writeBoolean(customer != null);
+        if (customer != null) {
+            out.writeString(customer.getCustomerId());
+            out.writeString(customer.getName());
+            out.writeString(customer.getEmail());
+            out.writeBoolean(customer.isPremium());
+        }
+    }
+    
+    public static Customer readCustomer(BinaryReader in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return new Customer(in.readString(), in.readString(), in.readString(), in.readBoolean());
+    }
+    
+    public static void writeStatus(BinaryWriter out, OrderStatus status) {
+        out.writeVarInt(status == null ? 0 : status.ordinal() + 1);
+    }
+    
+    public static OrderStatus readStatus(BinaryReader in) {
+        int value = in.readVarInt();
+        if (value == 0) {
+            return null;
+        }
+        if (value > STATUSES.length) {
+            throw new IllegalArgumentException("Unknown order status ordinal: " + (value - 1));
+        }
+        return STATUSES[value - 1];
+    }
+    
+    public static void writeUser(BinaryWriter out, User user) {
+        Long id = user.getId();
+        out.writeBoolean(id != null);
+        if (id != null) {
+            out.writeSignedVarLong(id);
+        }
+        out.writeString(user.getFirstName());
+        out.writeString(user.getLastName());
+        out.writeString(user.getEmail());
+        out.writeString(user.getPhoneNumber());
+        out.writeString(user.getAddress());
+        out.writeString(user.getCity());
+        out.writeString(user.getState());
+        out.writeString(user.getZipCode());
+        out.writeString(user.getCountry());
+        LocalDate dateOfBirth = user.getDateOfBirth();
+        out.writeBoolean(dateOfBirth != null);
+        if (dateOfBirth != null) {
+            out.writeSignedVarLong(dateOfBirth.toEpochDay());
+        }
+        out.writeString(user.getPassword());
+        out.writeBoolean(user.isActive());
+    }
+    
+    public static User readUser(BinaryReader in) {
+        User user = new User();
+        if (in.readBoolean()) {
+            user.setId(in.readSignedVarLong());
+        }
+        user.setFirstName(in.readString());
+        user.setLastName(in.readString());
+        user.setEmail(in.readString());
+        user.setPhoneNumber(in.readString());
+        user.setAddress(in.readString());
+        user.setCity(in.readString());
+        user.setState(in.readString());
+        user.setZipCode(in.readString());
+        user.setCountry(in.readString());
+        if (in.readBoolean()) {
+            user.setDateOfBirth(LocalDate.ofEpochDay(in.readSignedVarLong()));
+        }
+        user.setPassword(in.readString());
+        user.setActive(in.readBoolean());
+        return user;
+    }
+    
+    private static int readCount(BinaryReader in) {
+        int count = in.readVarInt();
+        if (count < 0 || count > in.buffer().remaining()) {
+            throw new IllegalArgumentException("Malformed element count: " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,156 @@
+package com.cleancode.domain.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, cache-line blocked Bloom filter of strings.
+ *
+ * A string sets {@code k} bits of a {@code long[]}. All of them lie in one 512-bit block,
+ * picked by the string's hash, so a lookup touches a single cache line instead of {@code k}
+ * random ones; the price is a slightly higher false positive rate than a classic filter of
+ * the same size. The hash is a 64-bit FNV-1a of the characters, spread by the MurmurHash3
+ * finalizer. {@link String#hashCode()} would be cached, but strings sharing its 32 bits, such
+ * as "Aa" and "BB", would set the same bits, which puts a floor of about n / 2^32 under the
+ * false positive rate however large the filter.
+ *
+ * {@link #mightContain} is false only if the string was never added; it can be true for a
+ * string that was not, with about the probability reported by
+ * {@link #expectedFalsePositiveRate()}.
+ *
+ * Bits are only ever set, with an atomic OR on the word, so concurrent writers never lose
+ * each other's bits and readers need no lock. A reader racing with {@link #put} of the same
+ * string may see it either way.
+ */
+public final class BloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final double LN2 = Math.log(2);
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * 64;
+    private static final int MAX_HASH_FUNCTIONS = 64 / 9;
+
+    private final long[] words;
+    private final long blocks;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * Sizes the filter so that it holds {@code expectedInsertions} strings at the given false
+     * positive rate; it keeps working beyond that, with a rising rate.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be at least 1");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long bits = optimalBits(expectedInsertions, falsePositiveRate);
+        long blockCount = (bits + BLOCK_BITS - 1) / BLOCK_BITS;
+        if (blockCount * BLOCK_WORDS > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bloom filter would need " + bits + " bits");
+        }
+        this.words = new long[(int) (blockCount * BLOCK_WORDS)];
+        this.blocks = blockCount;
+        this.bitSize = blockCount * BLOCK_BITS;
+        int optimal = (int) Math.round((double) bitSize / expectedInsertions * LN2);
+        this.hashFunctions = Math.max(1, Math.min(MAX_HASH_FUNCTIONS, optimal));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Bytes of bit array needed for {@code insertions} strings at the given false positive rate.
+     */
+    public static long bytesFor(long insertions, double falsePositiveRate) {
+        return (optimalBits(insertions, falsePositiveRate) + BLOCK_BITS - 1) / BLOCK_BITS * BLOCK_WORDS * 8;
+    }
+
+    private static long optimalBits(long insertions, double falsePositiveRate) {
+        return (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+    }
+
+    /**
+     * @return true if this changed the filter, in which case the string was certainly not in it
+     */
+    public boolean put(String value) {
+        long hash = mix(hash64(value));
+        int base = blockOf(hash);
+        long bits = mix(hash);
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++, bits >>>= 9) {
+            int word = base + (int) (bits >>> 6 & (BLOCK_WORDS - 1));
+            long mask = 1L << bits;
+            if (((long) WORDS.getAcquire(words, word) & mask) == 0) {
+                long previous = (long) WORDS.getAndBitwiseOr(words, word, mask);
+                changed |= (previous & mask) == 0;
+            }
+        }
+        if (changed) {
+            insertions.increment();
+        }
+        return changed;
+    }
+
+    public boolean mightContain(String value) {
+        long hash = mix(hash64(value));
+        int base = blockOf(hash);
+        long bits = mix(hash);
+        for (int i = 0; i < hashFunctions; i++, bits >>>= 9) {
+            int word = base + (int) (bits >>> 6 & (BLOCK_WORDS - 1));
+            if (((long) WORDS.getAcquire(words, word) & (1L << bits)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * First word of the block for the hash, by multiply-shift rather than a division.
+     */
+    private int blockOf(long hash) {
+        return (int) (((hash >>> 32) * blocks) >>> 32) * BLOCK_WORDS;
+    }
+
+    /**
+     * The false positive rate predicted for the strings added so far,
+     * {@code (1 - e^(-k n / m))^k}. Strings that were already (apparently) present are not counted.
+     */
+    public double expectedFalsePositiveRate() {
+        double fill = 1 - Math.exp(-(double) hashFunctions * insertions.sum() / bitSize);
+        return Math.pow(fill, hashFunctions);
+    }
+
+    // Getters
+    public long getBitSize() { return bitSize; }
+    public int getHashFunctions() { return hashFunctions; }
+    public long getExpectedInsertions() { return expectedInsertions; }
+    public long getInsertions() { return insertions.sum(); }
+    public long getMemoryBytes() { return words.length * 8L; }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 characters.
+     */
+    private static long hash64(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * The MurmurHash3 finalizer, which spreads every input bit over the whole 64 bits.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,398 @@
+package com.cleancode.domain.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints in the style of a roaring bitmap.
+ *
+ * Values are split by their high 16 bits into chunks. A chunk with at most 4096 values is a
+ * sorted {@code char[]}; a denser chunk is a 65536-bit {@code long[]}. Sparse sets therefore
+ * cost two bytes per value, dense sets one bit, and intersections work chunk by chunk with
+ * merges or word-wise ANDs instead of testing values one at a time.
+ *
+ * The set operations return new bitmaps and leave their operands unchanged. Only the index
+ * in this package modifies bitmaps, so the ones handed out are read-only. Not thread-safe.
+ */
+public final class CompressedBitmap {
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys;
+    private Object[] chunks; // char[] or long[]
+    private int[] cardinalities;
+    private int size;
+
+    public CompressedBitmap() {
+        this(4);
+    }
+
+    private CompressedBitmap(int capacity) {
+        this.keys = new char[capacity];
+        this.chunks = new Object[capacity];
+        this.cardinalities = new int[capacity];
+    }
+
+    public static CompressedBitmap of(int... values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, high(value));
+        return index >= 0 && chunkContains(index, low(value));
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits the values in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            int base = keys[i] << 16;
+            if (chunks[i] instanceof char[] values) {
+                for (int j = 0; j < cardinalities[i]; j++) {
+                    action.accept(base | values[j]);
+                }
+            } else {
+                long[] words = (long[]) chunks[i];
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] next = {0};
+        forEach(value -> values[next[0]++] = value);
+        return values;
+    }
+
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap(Math.min(size, other.size) + 1);
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendIntersection(keys[i], this, i, other, j);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap(size + other.size + 1);
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendCopy(this, i++);
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.appendCopy(other, j++);
+            } else {
+                long[] words = toWords(i);
+                long[] otherWords = other.toWords(j);
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    words[w] |= otherWords[w];
+                }
+                result.appendWords(keys[i], words);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public CompressedBitmap andNot(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap(size + 1);
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i] && chunks[i] instanceof char[] values) {
+                char[] kept = new char[cardinalities[i]];
+                int count = 0;
+                for (int k = 0; k < cardinalities[i]; k++) {
+                    if (!other.chunkContains(j, values[k])) {
+                        kept[count++] = values[k];
+                    }
+                }
+                if (count > 0) {
+                    result.appendValues(keys[i], kept, count);
+                }
+            } else if (j < other.size && other.keys[j] == keys[i]) {
+                long[] words = toWords(i);
+                long[] otherWords = other.toWords(j);
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    words[w] &= ~otherWords[w];
+                }
+                result.appendWords(keys[i], words);
+            } else {
+                result.appendCopy(this, i);
+            }
+        }
+        return result;
+    }
+
+    public CompressedBitmap copy() {
+        CompressedBitmap copy = new CompressedBitmap(size + 1);
+        for (int i = 0; i < size; i++) {
+            copy.appendCopy(this, i);
+        }
+        return copy;
+    }
+
+    /**
+     * @return true if the value was not present
+     */
+    boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must not be negative: " + value);
+        }
+        char key = high(value);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, key, new char[4], 0);
+        }
+        char low = low(value);
+        if (chunks[index] instanceof char[] values) {
+            int position = Arrays.binarySearch(values, 0, cardinalities[index], low);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            int cardinality = cardinalities[index];
+            if (cardinality == ARRAY_LIMIT) {
+                chunks[index] = toWords(index);
+                return add(value);
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+                chunks[index] = values;
+            }
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = low;
+        } else {
+            long[] words = (long[]) chunks[index];
+            long before = words[low >>> 6];
+            words[low >>> 6] = before | (1L << low);
+            if (before == words[low >>> 6]) {
+                return false;
+            }
+        }
+        cardinalities[index]++;
+        return true;
+    }
+
+    /**
+     * @return true if the value was present
+     */
+    boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, high(value));
+        if (index < 0) {
+            return false;
+        }
+        char low = low(value);
+        if (chunks[index] instanceof char[] values) {
+            int position = Arrays.binarySearch(values, 0, cardinalities[index], low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, cardinalities[index] - position - 1);
+        } else {
+            long[] words = (long[]) chunks[index];
+            long before = words[low >>> 6];
+            words[low >>> 6] = before & ~(1L << low);
+            if (before == words[low >>> 6]) {
+                return false;
+            }
+        }
+        if (--cardinalities[index] == 0) {
+            removeChunk(index);
+        } else if (cardinalities[index] == ARRAY_LIMIT && chunks[index] instanceof long[] words) {
+            chunks[index] = toValues(words, ARRAY_LIMIT);
+        }
+        return true;
+    }
+
+    /**
+     * Appends the intersection of two chunks with the same key. Sorted arrays are merged,
+     * an array is filtered against a bitmap, and two bitmaps are ANDed word by word.
+     */
+    private void appendIntersection(char key, CompressedBitmap a, int i, CompressedBitmap b, int j) {
+        if (!(a.chunks[i] instanceof char[]) && b.chunks[j] instanceof char[]) {
+            appendIntersection(key, b, j, a, i);
+            return;
+        }
+        if (a.chunks[i] instanceof char[] x) {
+            char[] common = new char[a.cardinalities[i]];
+            int count = 0;
+            if (b.chunks[j] instanceof char[] y) {
+                int p = 0;
+                int q = 0;
+                while (p < a.cardinalities[i] && q < b.cardinalities[j]) {
+                    if (x[p] < y[q]) {
+                        p++;
+                    } else if (x[p] > y[q]) {
+                        q++;
+                    } else {
+                        common[count++] = x[p];
+                        p++;
+                        q++;
+                    }
+                }
+            } else {
+                long[] words = (long[]) b.chunks[j];
+                for (int p = 0; p < a.cardinalities[i]; p++) {
+                    if ((words[x[p] >>> 6] & (1L << x[p])) != 0) {
+                        common[count++] = x[p];
+                    }
+                }
+            }
+            if (count > 0) {
+                appendValues(key, common, count);
+            }
+            return;
+        }
+        long[] words = a.toWords(i);
+        long[] otherWords = (long[]) b.chunks[j];
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            words[w] &= otherWords[w];
+        }
+        appendWords(key, words);
+    }
+
+    private void appendValues(char key, char[] values, int cardinality) {
+        insertChunk(size, key, values, cardinality);
+    }
+
+    private boolean chunkContains(int index, char low) {
+        if (chunks[index] instanceof char[] values) {
+            return Arrays.binarySearch(values, 0, cardinalities[index], low) >= 0;
+        }
+        return (((long[]) chunks[index])[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * A fresh 65536-bit copy of the chunk.
+     */
+    private long[] toWords(int index) {
+        if (chunks[index] instanceof long[] words) {
+            return words.clone();
+        }
+        long[] words = new long[BITMAP_WORDS];
+        char[] values = (char[]) chunks[index];
+        for (int j = 0; j < cardinalities[index]; j++) {
+            words[values[j] >>> 6] |= 1L << values[j];
+        }
+        return words;
+    }
+
+    private static char[] toValues(long[] words, int cardinality) {
+        char[] values = new char[cardinality];
+        int next = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[next++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Appends a chunk computed as words, choosing the compact form; empty chunks are dropped.
+     */
+    private void appendWords(char key, long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        if (cardinality == 0) {
+            return;
+        }
+        insertChunk(size, key, cardinality <= ARRAY_LIMIT ? toValues(words, cardinality) : words, cardinality);
+    }
+
+    private void appendCopy(CompressedBitmap source, int index) {
+        Object chunk = source.chunks[index];
+        Object copy = chunk instanceof char[] values
+            ? Arrays.copyOf(values, source.cardinalities[index])
+            : ((long[]) chunk).clone();
+        insertChunk(size, source.keys[index], copy, source.cardinalities[index]);
+    }
+
+    private void insertChunk(int index, char key, Object chunk, int cardinality) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(chunks, index, chunks, index + 1, size - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, size - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        cardinalities[index] = cardinality;
+        size++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, size - index - 1);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, size - index - 1);
+        chunks[--size] = null;
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        forEach(value -> text.append(text.length() > 1 ? ", " : "").append(value));
+        return text.append('}').toString();
+    }
+}
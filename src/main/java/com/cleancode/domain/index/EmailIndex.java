@@ -0,0 +1,157 @@
+package com.cleancode.domain.index;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Set of registered email addresses, for rejecting a second registration with the same email.
+ *
+ * Emails are compared case-insensitively and without surrounding whitespace. A
+ * {@link BloomFilter} sits in front of a concurrent hash set: {@link #isRegistered} answers
+ * the common "never seen" case from the filter alone, with a few bit reads and no hash table
+ * probe, and only asks the set when the filter says "maybe". {@link #register} always goes
+ * through the set, whose {@code add} makes insert-if-absent atomic, so of several concurrent
+ * registrations of one email exactly one succeeds.
+ *
+ * The filter is written before the set, so an email the set holds is never missing from the
+ * filter. {@link #unregister} removes an email from the set only; a filter cannot forget it,
+ * so lookups of released emails keep reaching the set, as false positives would. Thread-safe.
+ */
+public final class EmailIndex {
+
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private final BloomFilter filter;
+    private final Set<String> emails;
+    private final LongAdder definitelyNew = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmailIndex(long expectedEmails) {
+        this(expectedEmails, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * @param expectedEmails number of emails the filter is sized for; more still work, at a
+     *                       rising false positive rate
+     * @param falsePositiveRate how often the filter should send a new email on to the set
+     */
+    public EmailIndex(long expectedEmails, double falsePositiveRate) {
+        this.filter = new BloomFilter(expectedEmails, falsePositiveRate);
+        this.emails = ConcurrentHashMap.newKeySet((int) Math.min(expectedEmails, 1 << 24));
+    }
+
+    /**
+     * Records the email unless it is already registered.
+     *
+     * @return true if this call registered it, false if it was already taken
+     */
+    public boolean register(String email) {
+        String normalized = normalize(email);
+        filter.put(normalized);
+        return emails.add(normalized);
+    }
+
+    /**
+     * Releases the email, for example when the registration that claimed it fails.
+     *
+     * @return true if the email was registered
+     */
+    public boolean unregister(String email) {
+        return emails.remove(normalize(email));
+    }
+
+    public boolean isRegistered(String email) {
+        String normalized = normalize(email);
+        if (!filter.mightContain(normalized)) {
+            definitelyNew.increment();
+            return false;
+        }
+        if (emails.contains(normalized)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    public int size() {
+        return emails.size();
+    }
+
+    public Stats stats() {
+        return new Stats(emails.size(), filter, definitelyNew.sum(), falsePositives.sum());
+    }
+
+    static String normalize(String email) {
+        if (email == null) {
+            throw new IllegalArgumentException("Email cannot be null");
+        }
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Size and accuracy of the index at one point in time.
+     */
+    public static class Stats {
+        private final int emails;
+        private final long filterBytes;
+        private final long filterBits;
+        private final long expectedEmails;
+        private final int hashFunctions;
+        private final double expectedFalsePositiveRate;
+        private final long definitelyNew;
+        private final long falsePositives;
+
+        private Stats(int emails, BloomFilter filter, long definitelyNew, long falsePositives) {
+            this.emails = emails;
+            this.filterBytes = filter.getMemoryBytes();
+            this.filterBits = filter.getBitSize();
+            this.expectedEmails = filter.getExpectedInsertions();
+            this.hashFunctions = filter.getHashFunctions();
+            this.expectedFalsePositiveRate = filter.expectedFalsePositiveRate();
+            this.definitelyNew = definitelyNew;
+            this.falsePositives = falsePositives;
+        }
+
+        // Getters
+        public int getEmails() { return emails; }
+        public long getFilterBytes() { return filterBytes; }
+        public int getHashFunctions() { return hashFunctions; }
+        public double getExpectedFalsePositiveRate() { return expectedFalsePositiveRate; }
+        public long getDefinitelyNew() { return definitelyNew; }
+        public long getFalsePositives() { return falsePositives; }
+
+        /**
+         * Filter bits per email the index was sized for.
+         */
+        public double getBitsPerEmail() {
+            return (double) filterBits / expectedEmails;
+        }
+
+        /**
+         * Filter bytes per million emails at the configured false positive rate.
+         */
+        public long getFilterBytesPerMillionEmails() {
+            return Math.round(getBitsPerEmail() * 1_000_000 / 8);
+        }
+
+        /**
+         * Share of lookups for unregistered emails that the filter passed on to the set.
+         */
+        public double getObservedFalsePositiveRate() {
+            long negatives = definitelyNew + falsePositives;
+            return negatives == 0 ? 0 : (double) falsePositives / negatives;
+        }
+
+        @Override
+        public String toString() {
+            return "EmailIndex.Stats{emails=" + emails +
+                    ", filterBytes=" + filterBytes +
+                    ", bitsPerEmail=" + String.format("%.2f", getBitsPerEmail()) +
+                    ", hashFunctions=" + hashFunctions +
+                    ", expectedFpp=" + String.format("%.4f", expectedFalsePositiveRate) +
+                    ", observedFpp=" + String.format("%.4f", getObservedFalsePositiveRate()) + "}";
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.cleancode.domain.index;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderListener;
+import com.cleancode.domain.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory secondary index of orders by status, customer and premium flag.
+ *
+ * Each indexed order gets a dense ordinal, and every predicate is a {@link CompressedBitmap}
+ * of ordinals, so a question like "processed orders of premium customers" is one bitmap
+ * intersection instead of a scan over every order:
+ *
+ * <pre>
+ * List&lt;Order&gt; result = index.orders(index.withStatus(OrderStatus.PROCESSED).and(index.premium()));
+ * </pre>
+ *
+ * The index registers an {@link OrderListener} on each order and moves the ordinal between
+ * status bitmaps as the order changes status. Customer ids map to dense codes through an
+ * open-addressing table of {@code long}s holding the id's hash next to its code, so lookups
+ * box nothing, and the codes index an array of bitmaps. The premium flag is read when the
+ * customer is attached; call {@link #refresh(Order)} after changing {@link Customer#setPremium}
+ * in place.
+ *
+ * Ordinals are not reused after {@link #remove(Order)}. Queries return copies, so they stay
+ * valid while the index changes. Thread-safe: a status change, by far the most frequent
+ * update, holds only the monitors of the two status bitmaps it touches, so it waits neither
+ * for changes between other statuses nor for customer updates and queries, which take the
+ * index's own monitor.
+ */
+public final class OrderIndex {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int NO_CUSTOMER = -1;
+
+    private final CompressedBitmap[] byStatus = new CompressedBitmap[STATUSES.length];
+    private final CompressedBitmap premium = new CompressedBitmap();
+    private final Map<Order, Registration> registrations = new IdentityHashMap<>();
+    private CompressedBitmap[] byCustomer = new CompressedBitmap[16];
+    private Order[] orders = new Order[16];
+    private int[] customerCodes = new int[16];
+    private int nextOrdinal;
+
+    // Entries are the id's hash in the high half and its code plus one in the low half
+    private long[] customerTable = new long[32];
+    private String[] customerIds = new String[16];
+    private int customerCount;
+
+    public OrderIndex() {
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new CompressedBitmap();
+        }
+    }
+
+    /**
+     * Indexes the order and starts tracking its changes.
+     *
+     * @return the ordinal assigned to the order
+     */
+    public synchronized int add(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        if (registrations.containsKey(order)) {
+            throw new IllegalArgumentException("Order already indexed: " + order.getOrderId());
+        }
+        int ordinal = nextOrdinal++;
+        if (ordinal == orders.length) {
+            orders = Arrays.copyOf(orders, ordinal * 2);
+            customerCodes = Arrays.copyOf(customerCodes, ordinal * 2);
+        }
+        orders[ordinal] = order;
+        customerCodes[ordinal] = NO_CUSTOMER;
+        Registration registration = new Registration(ordinal);
+        registrations.put(order, registration);
+        // Listen before reading the order: a change made in between is then either seen here
+        // or delivered afterwards, and the listener re-reads the order's current status
+        order.addListener(registration);
+        indexStatus(registration, order);
+        indexCustomer(ordinal, order.getCustomer());
+        return ordinal;
+    }
+
+    /**
+     * @return true if the order was indexed
+     */
+    public synchronized boolean remove(Order order) {
+        Registration registration = registrations.remove(order);
+        if (registration == null) {
+            return false;
+        }
+        order.removeListener(registration);
+        int ordinal = registration.ordinal;
+        unindexStatus(registration, STATUSES.length - 1);
+        unindexCustomer(ordinal);
+        orders[ordinal] = null;
+        return true;
+    }
+
+    /**
+     * Re-reads the customer of an indexed order, for changes made to the customer itself.
+     */
+    public synchronized void refresh(Order order) {
+        Registration registration = registrations.get(order);
+        if (registration == null) {
+            throw new IllegalArgumentException("Order not indexed: " + order.getOrderId());
+        }
+        unindexCustomer(registration.ordinal);
+        indexCustomer(registration.ordinal, order.getCustomer());
+    }
+
+    public CompressedBitmap withStatus(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Order status cannot be null");
+        }
+        CompressedBitmap bitmap = byStatus[status.ordinal()];
+        synchronized (bitmap) {
+            return bitmap.copy();
+        }
+    }
+
+    public synchronized CompressedBitmap forCustomer(String customerId) {
+        int code = customerId == null ? NO_CUSTOMER : findCustomerCode(customerId);
+        if (code == NO_CUSTOMER || byCustomer[code] == null) {
+            return new CompressedBitmap();
+        }
+        return byCustomer[code].copy();
+    }
+
+    public synchronized CompressedBitmap premium() {
+        return premium.copy();
+    }
+
+    /**
+     * The orders behind the ordinals, in ordinal order. Ordinals of removed orders are skipped.
+     */
+    public synchronized List<Order> orders(CompressedBitmap ordinals) {
+        List<Order> result = new ArrayList<>(ordinals.cardinality());
+        ordinals.forEach(ordinal -> {
+            if (ordinal < nextOrdinal && orders[ordinal] != null) {
+                result.add(orders[ordinal]);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return the ordinal of the order, or -1 if it is not indexed
+     */
+    public synchronized int ordinalOf(Order order) {
+        Registration registration = registrations.get(order);
+        return registration == null ? -1 : registration.ordinal;
+    }
+
+    public synchronized int size() {
+        return registrations.size();
+    }
+
+    /**
+     * Moves the ordinal from the bitmap of its indexed status to that of the order's current
+     * status, holding the monitors of just those two bitmaps, the higher status first. If
+     * another change moved the ordinal in the meantime, it starts over from there.
+     */
+    private void indexStatus(Registration registration, Order order) {
+        while (true) {
+            OrderStatus indexed = registration.indexedStatus;
+            OrderStatus status = order.getStatus();
+            if (indexed == status || registration.removed) {
+                return;
+            }
+            int from = indexed == null ? -1 : indexed.ordinal();
+            int to = status == null ? -1 : status.ordinal();
+            synchronized (byStatus[Math.max(from, to)]) {
+                if (Math.min(from, to) < 0) {
+                    if (moveStatus(registration, indexed, status)) {
+                        return;
+                    }
+                } else {
+                    synchronized (byStatus[Math.min(from, to)]) {
+                        if (moveStatus(registration, indexed, status)) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Called with the monitors of the bitmaps of both statuses held.
+     *
+     * @return false if the ordinal is no longer in the bitmap of {@code indexed}
+     */
+    private boolean moveStatus(Registration registration, OrderStatus indexed, OrderStatus status) {
+        if (registration.removed) {
+            return true;
+        }
+        if (registration.indexedStatus != indexed) {
+            return false;
+        }
+        if (indexed != null) {
+            byStatus[indexed.ordinal()].remove(registration.ordinal);
+        }
+        if (status != null) {
+            byStatus[status.ordinal()].add(registration.ordinal);
+        }
+        registration.indexedStatus = status;
+        return true;
+    }
+
+    /**
+     * Marks the registration removed and takes its ordinal out of the status bitmaps, holding
+     * the monitors of every status from {@code status} down, so no change in flight can put
+     * it back.
+     */
+    private void unindexStatus(Registration registration, int status) {
+        if (status < 0) {
+            registration.removed = true;
+            OrderStatus indexed = registration.indexedStatus;
+            if (indexed != null) {
+                byStatus[indexed.ordinal()].remove(registration.ordinal);
+                registration.indexedStatus = null;
+            }
+            return;
+        }
+        synchronized (byStatus[status]) {
+            unindexStatus(registration, status - 1);
+        }
+    }
+
+    private void indexCustomer(int ordinal, Customer customer) {
+        if (customer == null) {
+            customerCodes[ordinal] = NO_CUSTOMER;
+            return;
+        }
+        String customerId = customer.getCustomerId();
+        int code = customerId == null ? NO_CUSTOMER : customerCode(customerId);
+        customerCodes[ordinal] = code;
+        if (code != NO_CUSTOMER) {
+            if (code >= byCustomer.length) {
+                byCustomer = Arrays.copyOf(byCustomer, Math.max(code + 1, byCustomer.length * 2));
+            }
+            if (byCustomer[code] == null) {
+                byCustomer[code] = new CompressedBitmap();
+            }
+            byCustomer[code].add(ordinal);
+        }
+        if (customer.isPremium()) {
+            premium.add(ordinal);
+        }
+    }
+
+    private void unindexCustomer(int ordinal) {
+        int code = customerCodes[ordinal];
+        if (code != NO_CUSTOMER) {
+            byCustomer[code].remove(ordinal);
+        }
+        customerCodes[ordinal] = NO_CUSTOMER;
+        premium.remove(ordinal);
+    }
+
+    /**
+     * @return the code of the customer id, or {@link #NO_CUSTOMER} if it has none yet
+     */
+    private int findCustomerCode(String customerId) {
+        int hash = customerId.hashCode();
+        int mask = customerTable.length - 1;
+        for (int slot = home(hash, mask); customerTable[slot] != 0; slot = (slot + 1) & mask) {
+            long entry = customerTable[slot];
+            if ((int) (entry >>> 32) == hash && customerIds[(int) entry - 1].equals(customerId)) {
+                return (int) entry - 1;
+            }
+        }
+        return NO_CUSTOMER;
+    }
+
+    /**
+     * The code of the customer id, assigning the next one if it is new. Codes are never freed.
+     */
+    private int customerCode(String customerId) {
+        int code = findCustomerCode(customerId);
+        if (code != NO_CUSTOMER) {
+            return code;
+        }
+        code = customerCount++;
+        if (code == customerIds.length) {
+            customerIds = Arrays.copyOf(customerIds, code * 2);
+        }
+        customerIds[code] = customerId;
+        if (2L * customerCount > customerTable.length) {
+            long[] old = customerTable;
+            customerTable = new long[old.length * 2];
+            for (long entry : old) {
+                if (entry != 0) {
+                    insertCustomer(entry);
+                }
+            }
+        }
+        insertCustomer((long) customerId.hashCode() << 32 | (code + 1L));
+        return code;
+    }
+
+    private void insertCustomer(long entry) {
+        int mask = customerTable.length - 1;
+        int slot = home((int) (entry >>> 32), mask);
+        while (customerTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        customerTable[slot] = entry;
+    }
+
+    private static int home(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    private final class Registration implements OrderListener {
+        private final int ordinal;
+        // Guarded by the monitors of the status bitmaps; read first without them
+        private volatile OrderStatus indexedStatus;
+        private volatile boolean removed;
+
+        Registration(int ordinal) {
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public void statusChanged(Order order, OrderStatus from, OrderStatus to) {
+            // Notifications of racing transitions can arrive out of order, so index the
+            // current status rather than the reported one
+            indexStatus(this, order);
+        }
+
+        @Override
+        public void customerChanged(Order order, Customer from, Customer to) {
+            synchronized (OrderIndex.this) {
+                if (removed) {
+                    return; // removed while the change was being made
+                }
+                unindexCustomer(ordinal);
+                indexCustomer(ordinal, order.getCustomer());
+            }
+        }
+    }
+}
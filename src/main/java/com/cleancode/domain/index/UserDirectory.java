@@ -0,0 +1,447 @@
+package com.cleancode.domain.index;
+
+import com.cleancode.domain.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory directory of users, keyed by generated ids, with secondary indexes by email, zip
+ * code, city and state, and last name.
+ *
+ * Each user gets a dense ordinal, and its id is the ordinal plus one. Emails map to ordinals in
+ * an open-addressing table of {@code long}s holding the email's hash next to the ordinal, so a
+ * lookup mostly touches one slot and one string, and ten million users need no boxed entries.
+ * Zip codes and city/state pairs group ordinals in {@link CompressedBitmap}s, and last names are
+ * kept in a sorted map, so a prefix search walks only the names that start with the prefix.
+ * Emails, cities, states and last names are matched case-insensitively.
+ *
+ * Lookups share a read lock and run concurrently; adding, updating and removing users take the
+ * write lock. Users in the directory are never changed in place: {@link #add} stores a copy of
+ * the user it is given, and {@link #update} applies the change to a copy, swaps it in and moves
+ * the ordinal only between the groups whose key changed. A user handed out therefore stays
+ * consistent while the directory changes, and must not be changed by its holder. Ids are not
+ * reused after {@link #remove}.
+ */
+public final class UserDirectory {
+
+    private static final long EMPTY = 0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Group> byZipCode = new HashMap<>();
+    private final Map<String, Group> byCity = new HashMap<>();
+    private final TreeMap<String, Group> byLastName = new TreeMap<>();
+    private User[] users = new User[16];
+    private String[] emails = new String[16];
+    private Group[] zipCodeGroups = new Group[16];
+    private Group[] cityGroups = new Group[16];
+    private Group[] lastNameGroups = new Group[16];
+    private long[] emailTable = new long[32];
+    private int nextOrdinal;
+    private int size;
+
+    /**
+     * Indexes a copy of the user under a new id, which is set on the copy. The user passed in
+     * is left as it was.
+     *
+     * @return the id assigned to the user
+     * @throws IllegalArgumentException if another user in the directory has the same email
+     */
+    public long add(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        String email = normalize(user.getEmail());
+        lock.writeLock().lock();
+        try {
+            if (email != null && findOrdinal(email) >= 0) {
+                throw new IllegalArgumentException("Email already in directory: " + user.getEmail());
+            }
+            int ordinal = nextOrdinal++;
+            if (ordinal == users.length) {
+                grow();
+            }
+            long id = ordinal + 1L;
+            User stored = copyOf(user);
+            stored.setId(id);
+            users[ordinal] = stored;
+            indexEmail(ordinal, email);
+            index(ordinal, stored);
+            size++;
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the user with the id, or null if there is none
+     */
+    public User get(long id) {
+        lock.readLock().lock();
+        try {
+            int ordinal = ordinalOf(id);
+            return ordinal < 0 ? null : users[ordinal];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the id of the user with the email, or null if there is none
+     */
+    public Long findIdByEmail(String email) {
+        String normalized = normalize(email);
+        if (normalized == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int ordinal = findOrdinal(normalized);
+            return ordinal < 0 ? null : ordinal + 1L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the user with the email, or null if there is none
+     */
+    public User findByEmail(String email) {
+        String normalized = normalize(email);
+        if (normalized == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int ordinal = findOrdinal(normalized);
+            return ordinal < 0 ? null : users[ordinal];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the users in the zip code, in id order
+     */
+    public List<User> withZipCode(String zipCode) {
+        return members(byZipCode, normalizeZipCode(zipCode));
+    }
+
+    /**
+     * @return the users in the city of the state, in id order
+     */
+    public List<User> inCity(String city, String state) {
+        return members(byCity, cityKey(city, state));
+    }
+
+    /**
+     * Case-insensitive last-name prefix search, for type-ahead lookups.
+     *
+     * @return at most {@code limit} users whose last name starts with the prefix, ordered by
+     *         last name and then by id
+     */
+    public List<User> withLastNamePrefix(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        List<User> result = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            for (Group group : byLastName.tailMap(normalized, true).values()) {
+                if (result.size() == limit || !group.key.startsWith(normalized)) {
+                    break;
+                }
+                group.members.forEach(ordinal -> {
+                    if (result.size() < limit) {
+                        result.add(users[ordinal]);
+                    }
+                });
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the change to a copy of the user and replaces the user with it, reindexing only
+     * the keys that changed. If the change throws, or gives the user the email of another
+     * user, the directory is left as it was.
+     *
+     * @return the updated user
+     * @throws IllegalArgumentException if there is no user with the id, or the new email
+     *                                  belongs to another user
+     */
+    public User update(long id, Consumer<User> change) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalOf(id);
+            if (ordinal < 0) {
+                throw new IllegalArgumentException("Unknown user id: " + id);
+            }
+            User updated = copyOf(users[ordinal]);
+            change.accept(updated);
+            String email = normalize(updated.getEmail());
+            if (!Objects.equals(email, emails[ordinal])) {
+                if (email != null && findOrdinal(email) >= 0) {
+                    throw new IllegalArgumentException("Email already in directory: " + updated.getEmail());
+                }
+                unindexEmail(ordinal);
+                indexEmail(ordinal, email);
+            }
+            users[ordinal] = updated;
+            reindex(ordinal, updated);
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the removed user, or null if there was no user with the id
+     */
+    public User remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalOf(id);
+            if (ordinal < 0) {
+                return null;
+            }
+            User user = users[ordinal];
+            unindexEmail(ordinal);
+            zipCodeGroups[ordinal] = leave(byZipCode, zipCodeGroups[ordinal], ordinal);
+            cityGroups[ordinal] = leave(byCity, cityGroups[ordinal], ordinal);
+            lastNameGroups[ordinal] = leave(byLastName, lastNameGroups[ordinal], ordinal);
+            users[ordinal] = null;
+            size--;
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<User> members(Map<String, Group> groups, String key) {
+        if (key == null) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            Group group = groups.get(key);
+            if (group == null) {
+                return new ArrayList<>();
+            }
+            List<User> result = new ArrayList<>(group.members.cardinality());
+            group.members.forEach(ordinal -> result.add(users[ordinal]));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int ordinalOf(long id) {
+        if (id < 1 || id > nextOrdinal || users[(int) (id - 1)] == null) {
+            return -1;
+        }
+        return (int) (id - 1);
+    }
+
+    private void index(int ordinal, User user) {
+        zipCodeGroups[ordinal] = join(byZipCode, normalizeZipCode(user.getZipCode()), ordinal);
+        cityGroups[ordinal] = join(byCity, cityKey(user.getCity(), user.getState()), ordinal);
+        lastNameGroups[ordinal] = join(byLastName, normalize(user.getLastName()), ordinal);
+    }
+
+    private void reindex(int ordinal, User user) {
+        zipCodeGroups[ordinal] = move(byZipCode, zipCodeGroups[ordinal], normalizeZipCode(user.getZipCode()), ordinal);
+        cityGroups[ordinal] = move(byCity, cityGroups[ordinal], cityKey(user.getCity(), user.getState()), ordinal);
+        lastNameGroups[ordinal] = move(byLastName, lastNameGroups[ordinal], normalize(user.getLastName()), ordinal);
+    }
+
+    private static Group move(Map<String, Group> groups, Group from, String key, int ordinal) {
+        if (from == null ? key == null : from.key.equals(key)) {
+            return from;
+        }
+        leave(groups, from, ordinal);
+        return join(groups, key, ordinal);
+    }
+
+    private static Group join(Map<String, Group> groups, String key, int ordinal) {
+        if (key == null) {
+            return null;
+        }
+        Group group = groups.computeIfAbsent(key, Group::new);
+        group.members.add(ordinal);
+        return group;
+    }
+
+    private static Group leave(Map<String, Group> groups, Group group, int ordinal) {
+        if (group != null) {
+            group.members.remove(ordinal);
+            if (group.members.isEmpty()) {
+                groups.remove(group.key);
+            }
+        }
+        return null;
+    }
+
+    private void grow() {
+        int length = users.length * 2;
+        users = Arrays.copyOf(users, length);
+        emails = Arrays.copyOf(emails, length);
+        zipCodeGroups = Arrays.copyOf(zipCodeGroups, length);
+        cityGroups = Arrays.copyOf(cityGroups, length);
+        lastNameGroups = Arrays.copyOf(lastNameGroups, length);
+    }
+
+    /**
+     * @return the ordinal of the user with the normalized email, or -1
+     */
+    private int findOrdinal(String email) {
+        int hash = email.hashCode();
+        int mask = emailTable.length - 1;
+        for (int slot = home(hash, mask); emailTable[slot] != EMPTY; slot = (slot + 1) & mask) {
+            long entry = emailTable[slot];
+            if ((int) (entry >>> 32) == hash) {
+                int ordinal = (int) entry - 1;
+                if (emails[ordinal].equals(email)) {
+                    return ordinal;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void indexEmail(int ordinal, String email) {
+        emails[ordinal] = email;
+        if (email == null) {
+            return;
+        }
+        // Keep the table at most half full, so probe runs stay short
+        if (2L * (size + 1) > emailTable.length) {
+            long[] old = emailTable;
+            emailTable = new long[old.length * 2];
+            for (long entry : old) {
+                if (entry != EMPTY) {
+                    insert(entry);
+                }
+            }
+        }
+        insert((long) email.hashCode() << 32 | (ordinal + 1L));
+    }
+
+    private void insert(long entry) {
+        int mask = emailTable.length - 1;
+        int slot = home((int) (entry >>> 32), mask);
+        while (emailTable[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        emailTable[slot] = entry;
+    }
+
+    /**
+     * Empties the email's slot and moves later entries of the probe run back into the gap, so
+     * that no lookup stops early at it.
+     */
+    private void unindexEmail(int ordinal) {
+        String email = emails[ordinal];
+        emails[ordinal] = null;
+        if (email == null) {
+            return;
+        }
+        int mask = emailTable.length - 1;
+        int gap = home(email.hashCode(), mask);
+        while ((int) emailTable[gap] - 1 != ordinal) {
+            gap = (gap + 1) & mask;
+        }
+        int next = gap;
+        while (true) {
+            emailTable[gap] = EMPTY;
+            while (true) {
+                next = (next + 1) & mask;
+                if (emailTable[next] == EMPTY) {
+                    return;
+                }
+                int home = home((int) (emailTable[next] >>> 32), mask);
+                boolean homeAfterGap = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+                if (!homeAfterGap) {
+                    break;
+                }
+            }
+            emailTable[gap] = emailTable[next];
+            gap = next;
+        }
+    }
+
+    private static int home(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeZipCode(String zipCode) {
+        return zipCode == null ? null : zipCode.strip();
+    }
+
+    private static String cityKey(String city, String state) {
+        if (city == null || state == null) {
+            return null;
+        }
+        // A control character cannot occur in either part, so distinct pairs give distinct keys
+        return normalize(city) + '\u0000' + normalize(state);
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setEmail(user.getEmail());
+        copy.setPhoneNumber(user.getPhoneNumber());
+        copy.setAddress(user.getAddress());
+        copy.setCity(user.getCity());
+        copy.setState(user.getState());
+        copy.setZipCode(user.getZipCode());
+        copy.setCountry(user.getCountry());
+        copy.setDateOfBirth(user.getDateOfBirth());
+        copy.setPassword(user.getPassword());
+        copy.setActive(user.isActive());
+        return copy;
+    }
+
+    /**
+     * The ordinals sharing one normalized key. The key is held once here, not per user.
+     */
+    private static final class Group {
+        private final String key;
+        private final CompressedBitmap members = new CompressedBitmap();
+
+        Group(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.cleancode.domain.store;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded cache of canonical instances: {@link #canonicalize} returns the cached instance
+ * equal to its argument, so that equal values held by many objects share one copy.
+ *
+ * Each segment counts how often values are asked for in a small count-min sketch whose
+ * counters are halved periodically, so the counts favour recent popularity (TinyLFU). When a
+ * segment is full, a new value only replaces the least frequently used of a few sampled
+ * entries, and only if it has been asked for more often. A scan of one-off values, such as
+ * street addresses, therefore passes through without flushing the popular ones, such as city
+ * names. A value that is not admitted is returned uncached. Hits update nothing but the
+ * sketch, unlike a strict LRU list, which would rewrite its neighbours on every hit.
+ *
+ * Values are spread over independently locked segments, so concurrent callers mostly do not
+ * contend. Values must be immutable with consistent {@code equals} and {@code hashCode}.
+ */
+public final class CanonicalCache<T> {
+
+    private final Segment<T>[] segments;
+    private final int segmentMask;
+    private final int capacity;
+
+    /**
+     * @param capacity most values kept; spread evenly over the segments
+     */
+    @SuppressWarnings("unchecked")
+    public CanonicalCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        int segmentCount = Math.min(16, Integer.highestOneBit(Math.max(1, capacity / 64)));
+        this.segments = (Segment<T>[]) new Segment<?>[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        this.capacity = capacity;
+        int perSegment = (capacity + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * @return the cached value equal to {@code value}, or {@code value} itself if there is none
+     */
+    public T canonicalize(T value) {
+        return canonicalize(value, UnaryOperator.identity());
+    }
+
+    /**
+     * Like {@link #canonicalize(Object)}, but a miss returns, and possibly caches,
+     * {@code canonicalCopy.apply(value)}: an equal value built from shared parts. The copy
+     * is made under the segment's lock and must not call back into this cache.
+     */
+    public T canonicalize(T value, UnaryOperator<T> canonicalCopy) {
+        if (value == null) {
+            return null;
+        }
+        int hash = spread(value.hashCode());
+        Segment<T> segment = segments[hash & segmentMask];
+        synchronized (segment) {
+            return segment.canonicalize(value, hash, canonicalCopy);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    public Stats stats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        long rejections = 0;
+        for (Segment<T> segment : segments) {
+            synchronized (segment) {
+                hits += segment.hits;
+                misses += segment.misses;
+                evictions += segment.evictions;
+                rejections += segment.rejections;
+            }
+        }
+        return new Stats(size(), capacity, hits, misses, evictions, rejections);
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Open-addressing table of canonical values with linear probing and their hashes alongside,
+     * so probing and eviction sampling compare ints and only a likely match is dereferenced.
+     */
+    private static final class Segment<T> {
+        private static final int SAMPLE = 5;
+
+        private final Object[] values;
+        private final int[] hashes;
+        private final int mask;
+        private final int capacity;
+        private final FrequencySketch sketch;
+        private int size;
+        private int random = 0x2545F491;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long rejections;
+
+        private Segment(int capacity) {
+            int length = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            this.values = new Object[length];
+            this.hashes = new int[length];
+            this.mask = length - 1;
+            this.capacity = capacity;
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        @SuppressWarnings("unchecked")
+        private T canonicalize(T value, int hash, UnaryOperator<T> canonicalCopy) {
+            sketch.increment(hash);
+            int slot = find(value, hash);
+            if (values[slot] != null) {
+                hits++;
+                return (T) values[slot];
+            }
+            misses++;
+            T copy = canonicalCopy.apply(value);
+            if (size >= capacity) {
+                int victim = sampleLeastFrequent();
+                if (sketch.frequency(hash) <= sketch.frequency(hashes[victim])) {
+                    rejections++;
+                    return copy;
+                }
+                remove(victim);
+                evictions++;
+                slot = find(value, hash);
+            }
+            values[slot] = copy;
+            hashes[slot] = hash;
+            size++;
+            return copy;
+        }
+
+        /**
+         * @return the slot holding the value, or the empty slot where it belongs
+         */
+        private int find(T value, int hash) {
+            int slot = home(hash);
+            while (values[slot] != null) {
+                if (hashes[slot] == hash && values[slot].equals(value)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private int home(int hash) {
+            // The low bits chose the segment, so take the slot from the high ones
+            return (hash * 0x9E3779B9 >>> 7) & mask;
+        }
+
+        /**
+         * The least frequently used of a few entries found from a random slot on.
+         */
+        private int sampleLeastFrequent() {
+            random ^= random << 13;
+            random ^= random >>> 17;
+            random ^= random << 5;
+            int slot = random & mask;
+            int victim = -1;
+            int victimFrequency = Integer.MAX_VALUE;
+            for (int seen = 0; seen < SAMPLE; slot = (slot + 1) & mask) {
+                if (values[slot] != null) {
+                    int frequency = sketch.frequency(hashes[slot]);
+                    if (frequency < victimFrequency) {
+                        victim = slot;
+                        victimFrequency = frequency;
+                    }
+                    seen++;
+                }
+            }
+            return victim;
+        }
+
+        /**
+         * Empties the slot and moves later entries of the probe run back into the gap, so
+         * that no lookup stops early at it.
+         */
+        private void remove(int slot) {
+            size--;
+            int gap = slot;
+            int next = slot;
+            while (true) {
+                values[gap] = null;
+                while (true) {
+                    next = (next + 1) & mask;
+                    if (values[next] == null) {
+                        return;
+                    }
+                    int home = home(hashes[next]);
+                    boolean homeAfterGap = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+                    if (!homeAfterGap) {
+                        break;
+                    }
+                }
+                values[gap] = values[next];
+                hashes[gap] = hashes[next];
+                gap = next;
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of counters up to 15, four rows deep. The four counters of a value lie
+     * in one 64-byte block, so counting touches a single cache line. After ten increments per
+     * cached entry every counter is halved, so old popularity fades.
+     */
+    static final class FrequencySketch {
+        private static final int ROWS = 4;
+        private static final int BLOCK_BYTES = 64;
+        private static final int ROW_BYTES = BLOCK_BYTES / ROWS;
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] counters;
+        private final int blockMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int blocks = Integer.highestOneBit(Math.max(1, capacity * 8 / BLOCK_BYTES - 1)) << 1;
+            this.counters = new byte[blocks * BLOCK_BYTES];
+            this.blockMask = blocks - 1;
+            this.sampleSize = Math.max(160, capacity * 10);
+        }
+
+        void increment(int hash) {
+            int block = blockOf(hash);
+            int h = rehash(hash);
+            for (int row = 0; row < ROWS; row++, h >>>= 4) {
+                int index = block + row * ROW_BYTES + (h & (ROW_BYTES - 1));
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                }
+            }
+            if (++additions >= sampleSize) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(int hash) {
+            int block = blockOf(hash);
+            int h = rehash(hash);
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < ROWS; row++, h >>>= 4) {
+                frequency = Math.min(frequency, counters[block + row * ROW_BYTES + (h & (ROW_BYTES - 1))]);
+            }
+            return frequency;
+        }
+
+        private int blockOf(int hash) {
+            // The low bits chose the segment, so take the block from the high ones
+            return ((hash >>> 16 ^ hash * 0x85EBCA6B) >>> 8 & blockMask) * BLOCK_BYTES;
+        }
+
+        private static int rehash(int hash) {
+            int h = hash * 0xC2B2AE35;
+            return h ^ (h >>> 15);
+        }
+    }
+
+    /**
+     * Cache counters at one point in time.
+     */
+    public static class Stats {
+        private final int size;
+        private final int capacity;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long rejections;
+
+        private Stats(int size, int capacity, long hits, long misses, long evictions, long rejections) {
+            this.size = size;
+            this.capacity = capacity;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.rejections = rejections;
+        }
+
+        // Getters
+        public int getSize() { return size; }
+        public int getCapacity() { return capacity; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+
+        /**
+         * Misses that were not cached because the sampled eviction candidate was asked for at
+         * least as often.
+         */
+        public long getRejections() { return rejections; }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "CanonicalCache.Stats{size=" + size +
+                    ", capacity=" + capacity +
+                    ", hitRate=" + String.format("%.3f", getHitRate()) +
+                    ", evictions=" + evictions +
+                    ", rejections=" + rejections + "}";
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.cleancode.domain.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Direct buffer helpers shared by the store and its dictionary.
+ */
+final class OffHeap {
+
+    // Largest capacity a ByteBuffer can have on common JVMs
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private OffHeap() {
+    }
+
+    static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns the buffer, or a copy at least twice as large if it cannot hold {@code required} bytes.
+     * The old buffer's memory is released when it is garbage collected.
+     *
+     * @throws IllegalStateException if more than 2 GB would be needed
+     */
+    static ByteBuffer ensureCapacity(ByteBuffer buffer, long required) {
+        if (required <= buffer.capacity()) {
+            return buffer;
+        }
+        if (required > MAX_CAPACITY) {
+            throw new IllegalStateException("Off-heap region cannot grow beyond " + MAX_CAPACITY + " bytes");
+        }
+        int capacity = (int) Math.min(MAX_CAPACITY, Math.max(required, 2L * buffer.capacity()));
+        ByteBuffer grown = allocate(capacity);
+        grown.put(0, buffer, 0, buffer.capacity());
+        return grown;
+    }
+}
@@ -0,0 +1,420 @@
+package com.cleancode.domain.store;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.domain.OrderView;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Keeps open orders in fixed-width records outside the Java heap.
+ *
+ * Three direct buffers hold the records, and every string is a {@link StringDictionary} code:
+ * <pre>
+ * order    (32 bytes): int orderId, int customer, int firstItem, short itemCount,
+ *                      byte status, byte flags, long subtotalCents, long totalCents
+ * item     (24 bytes): int productId, int productName, long priceCents, int quantity, padding
+ * customer (16 bytes): int customerId, int name, int email, byte premium, padding
+ * </pre>
+ * An order's items are stored next to each other. Orders share a customer record as long as
+ * the customer is unchanged; an order whose customer differs from the last stored version, a
+ * premium flag turned on for instance, gets a new record, so every order keeps the customer it
+ * was added with. A million orders with ten items each take about 280 MB off-heap and a few
+ * dozen objects on-heap, so they add almost nothing to garbage collection work.
+ *
+ * Readers use an {@link OrderCursor}, a flyweight {@link OrderView} that is moved from record
+ * to record instead of creating objects; {@link #materialize(int)} builds a real {@link Order}
+ * when one is needed. Removing an order only marks its record, and a region is limited to
+ * 2 GB, i.e. about 67 million orders or 89 million items.
+ *
+ * Not thread-safe.
+ */
+public final class OffHeapOrderStore {
+
+    static final int ORDER_RECORD_SIZE = 32;
+    static final int ITEM_RECORD_SIZE = 24;
+    static final int CUSTOMER_RECORD_SIZE = 16;
+
+    private static final int ORDER_ID = 0;
+    private static final int ORDER_CUSTOMER = 4;
+    private static final int ORDER_FIRST_ITEM = 8;
+    private static final int ORDER_ITEM_COUNT = 12;
+    private static final int ORDER_STATUS = 14;
+    private static final int ORDER_FLAGS = 15;
+    private static final int ORDER_SUBTOTAL = 16;
+    private static final int ORDER_TOTAL = 24;
+
+    private static final int ITEM_PRODUCT_ID = 0;
+    private static final int ITEM_PRODUCT_NAME = 4;
+    private static final int ITEM_PRICE = 8;
+    private static final int ITEM_QUANTITY = 16;
+
+    private static final int CUSTOMER_ID = 0;
+    private static final int CUSTOMER_NAME = 4;
+    private static final int CUSTOMER_EMAIL = 8;
+    private static final int CUSTOMER_PREMIUM = 12;
+
+    // Buffer offsets are ints; regions never grow past 2 GB, so offsets of stored records fit
+    static final int MAX_ORDERS = Integer.MAX_VALUE / ORDER_RECORD_SIZE;
+    static final int MAX_ITEMS = Integer.MAX_VALUE / ITEM_RECORD_SIZE;
+    private static final int MAX_ITEMS_PER_ORDER = 0xFFFF;
+    private static final byte REMOVED = 1;
+    private static final int NONE = -1;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final StringDictionary strings;
+    private ByteBuffer orders;
+    private ByteBuffer items;
+    private ByteBuffer customers;
+    private int orderSlots;
+    private int itemCount;
+    private int customerCount;
+    private int liveOrders;
+
+    // Indexed by dictionary code
+    private int[] orderSlotByCode;
+    private int[] customerSlotByCode;
+
+    public OffHeapOrderStore() {
+        this(1024, 8192);
+    }
+
+    /**
+     * @param expectedOrders initial order capacity; the store grows beyond it, up to about
+     *                       67 million orders
+     * @param expectedItems initial item capacity; the store grows beyond it, up to about
+     *                      89 million items
+     */
+    public OffHeapOrderStore(int expectedOrders, int expectedItems) {
+        if (expectedOrders < 1 || expectedItems < 1) {
+            throw new IllegalArgumentException("Expected capacities must be positive");
+        }
+        if (expectedOrders > MAX_ORDERS || expectedItems > MAX_ITEMS) {
+            throw new IllegalArgumentException("Expected capacities cannot exceed " + MAX_ORDERS
+                + " orders and " + MAX_ITEMS + " items");
+        }
+        this.strings = new StringDictionary(expectedOrders * 2);
+        this.orders = OffHeap.allocate(expectedOrders * ORDER_RECORD_SIZE);
+        this.items = OffHeap.allocate(expectedItems * ITEM_RECORD_SIZE);
+        this.customers = OffHeap.allocate(Math.max(16, expectedOrders / 4) * CUSTOMER_RECORD_SIZE);
+        this.orderSlotByCode = filled(expectedOrders * 2);
+        this.customerSlotByCode = filled(expectedOrders * 2);
+    }
+
+    /**
+     * Copies the order, its items and its customer into the store.
+     *
+     * @return the slot of the stored order
+     * @throws IllegalArgumentException if an order with the same id is already stored
+     * @throws IllegalStateException if a region cannot grow to hold the order; the store is
+     *                               left as it was
+     */
+    public int add(Order order) {
+        if (order == null || order.getOrderId() == null) {
+            throw new IllegalArgumentException("Order and order id cannot be null");
+        }
+        if (order.itemCount() > MAX_ITEMS_PER_ORDER) {
+            throw new IllegalArgumentException("Order " + order.getOrderId() + " has more than "
+                + MAX_ITEMS_PER_ORDER + " items");
+        }
+        if (slotOf(order.getOrderId()) != NONE) {
+            throw new IllegalArgumentException("Order " + order.getOrderId() + " is already stored");
+        }
+        int slot = orderSlots;
+        int firstItem = itemCount;
+        // Grow every region before writing, so an order that does not fit leaves no partial records
+        orders = OffHeap.ensureCapacity(orders, (long) (slot + 1) * ORDER_RECORD_SIZE);
+        items = OffHeap.ensureCapacity(items, (long) (firstItem + order.itemCount()) * ITEM_RECORD_SIZE);
+        if (order.getCustomer() != null) {
+            customers = OffHeap.ensureCapacity(customers, (long) (customerCount + 1) * CUSTOMER_RECORD_SIZE);
+        }
+
+        // Items are written past itemCount and only counted once the order is stored
+        int orderIdCode = strings.intern(order.getOrderId());
+        for (int i = 0; i < order.itemCount(); i++) {
+            OrderItem item = order.getItem(i);
+            int base = (firstItem + i) * ITEM_RECORD_SIZE;
+            items.putInt(base + ITEM_PRODUCT_ID, strings.intern(item.getProductId()));
+            items.putInt(base + ITEM_PRODUCT_NAME, strings.intern(item.getProductName()));
+            items.putLong(base + ITEM_PRICE, item.getPriceCents());
+            items.putInt(base + ITEM_QUANTITY, item.getQuantity());
+        }
+        int customerSlot = putCustomer(order.getCustomer());
+
+        int base = slot * ORDER_RECORD_SIZE;
+        orders.putInt(base + ORDER_ID, orderIdCode);
+        orders.putInt(base + ORDER_CUSTOMER, customerSlot);
+        orders.putInt(base + ORDER_FIRST_ITEM, firstItem);
+        orders.putShort(base + ORDER_ITEM_COUNT, (short) order.itemCount());
+        orders.put(base + ORDER_STATUS, encodeStatus(order.getStatus()));
+        orders.put(base + ORDER_FLAGS, (byte) 0);
+        orders.putLong(base + ORDER_SUBTOTAL, order.getSubtotalCents());
+        orders.putLong(base + ORDER_TOTAL, order.getTotalCents());
+        itemCount += order.itemCount();
+        orderSlots++;
+        liveOrders++;
+        orderSlotByCode = index(orderSlotByCode, orderIdCode, slot);
+        return slot;
+    }
+
+    /**
+     * The slot of the stored order with this id, or -1.
+     */
+    public int slotOf(String orderId) {
+        int code = strings.find(orderId);
+        return code == StringDictionary.NULL || code >= orderSlotByCode.length ? NONE : orderSlotByCode[code];
+    }
+
+    /**
+     * Marks the order as removed; its space is not reused.
+     *
+     * @return true if the order was stored
+     */
+    public boolean remove(String orderId) {
+        int slot = slotOf(orderId);
+        if (slot == NONE) {
+            return false;
+        }
+        orders.put(slot * ORDER_RECORD_SIZE + ORDER_FLAGS, REMOVED);
+        orderSlotByCode[orders.getInt(slot * ORDER_RECORD_SIZE + ORDER_ID)] = NONE;
+        liveOrders--;
+        return true;
+    }
+
+    public void setStatus(int slot, OrderStatus status) {
+        orders.put(liveBase(slot) + ORDER_STATUS, encodeStatus(status));
+    }
+
+    public void setTotalCents(int slot, long totalCents) {
+        orders.putLong(liveBase(slot) + ORDER_TOTAL, totalCents);
+    }
+
+    /**
+     * A new cursor, not yet on any order. Reuse one cursor per thread of readers.
+     */
+    public OrderCursor cursor() {
+        return new OrderCursor();
+    }
+
+    /**
+     * Visits every stored order with one reused cursor. The cursor is only valid
+     * during the call; copy what you need to keep.
+     */
+    public void forEach(Consumer<? super OrderView> action) {
+        OrderCursor cursor = new OrderCursor();
+        for (int slot = 0; slot < orderSlots; slot++) {
+            if (orders.get(slot * ORDER_RECORD_SIZE + ORDER_FLAGS) != REMOVED) {
+                action.accept(cursor.moveTo(slot));
+            }
+        }
+    }
+
+    /**
+     * Builds a heap {@link Order} with its items and customer from the stored records.
+     */
+    public Order materialize(int slot) {
+        OrderCursor cursor = new OrderCursor().moveTo(slot);
+        Order order = new Order(cursor.getOrderId(), cursor.getCustomer());
+        for (int i = 0; i < cursor.itemCount(); i++) {
+            order.addItem(OrderItem.ofCents(cursor.getItemProductId(i), cursor.getItemProductName(i),
+                cursor.getItemPriceCents(i), cursor.getItemQuantity(i)));
+        }
+        order.setTotalCents(cursor.getTotalCents());
+        order.restoreStatus(cursor.getStatus());
+        return order;
+    }
+
+    /**
+     * Number of stored orders that have not been removed.
+     */
+    public int size() {
+        return liveOrders;
+    }
+
+    public StringDictionary strings() {
+        return strings;
+    }
+
+    /**
+     * Off-heap bytes reserved for records and strings.
+     */
+    public long offHeapBytes() {
+        return (long) orders.capacity() + items.capacity() + customers.capacity() + strings.offHeapBytes();
+    }
+
+    /**
+     * Number of customer records, one per distinct version of each customer.
+     */
+    int customerRecords() {
+        return customerCount;
+    }
+
+    // The customers region must already have room for one more record
+    private int putCustomer(Customer customer) {
+        if (customer == null) {
+            return NONE;
+        }
+        int idCode = strings.intern(customer.getCustomerId());
+        int nameCode = strings.intern(customer.getName());
+        int emailCode = strings.intern(customer.getEmail());
+        byte premium = (byte) (customer.isPremium() ? 1 : 0);
+        int latest = idCode != StringDictionary.NULL && idCode < customerSlotByCode.length
+            ? customerSlotByCode[idCode] : NONE;
+        if (latest != NONE) {
+            int base = latest * CUSTOMER_RECORD_SIZE;
+            if (customers.getInt(base + CUSTOMER_NAME) == nameCode
+                    && customers.getInt(base + CUSTOMER_EMAIL) == emailCode
+                    && customers.get(base + CUSTOMER_PREMIUM) == premium) {
+                return latest;
+            }
+        }
+        // New customer, or a changed one: earlier orders keep pointing at the old record
+        int slot = customerCount++;
+        int base = slot * CUSTOMER_RECORD_SIZE;
+        customers.putInt(base + CUSTOMER_ID, idCode);
+        customers.putInt(base + CUSTOMER_NAME, nameCode);
+        customers.putInt(base + CUSTOMER_EMAIL, emailCode);
+        customers.put(base + CUSTOMER_PREMIUM, premium);
+        if (idCode != StringDictionary.NULL) {
+            customerSlotByCode = index(customerSlotByCode, idCode, slot);
+        }
+        return slot;
+    }
+
+    private int liveBase(int slot) {
+        if (slot < 0 || slot >= orderSlots) {
+            throw new IllegalArgumentException("No order in slot " + slot);
+        }
+        int base = slot * ORDER_RECORD_SIZE;
+        if (orders.get(base + ORDER_FLAGS) == REMOVED) {
+            throw new IllegalStateException("Order in slot " + slot + " has been removed");
+        }
+        return base;
+    }
+
+    private static int[] index(int[] slotsByCode, int code, int slot) {
+        int[] result = slotsByCode;
+        if (code >= result.length) {
+            int oldLength = result.length;
+            result = Arrays.copyOf(result, Math.max(code + 1, oldLength * 2));
+            Arrays.fill(result, oldLength, result.length, NONE);
+        }
+        result[code] = slot;
+        return result;
+    }
+
+    private static int[] filled(int length) {
+        int[] slots = new int[length];
+        Arrays.fill(slots, NONE);
+        return slots;
+    }
+
+    private static byte encodeStatus(OrderStatus status) {
+        return (byte) (status == null ? 0 : status.ordinal() + 1);
+    }
+
+    /**
+     * Flyweight view of one stored order. {@link #moveTo(int)} repositions it, so one cursor
+     * can read any number of orders without allocating. String getters decode a new string;
+     * the numeric getters read straight from the records.
+     */
+    public final class OrderCursor implements OrderView {
+
+        private int slot = NONE;
+        private int base;
+        private int firstItem;
+        private int lineCount;
+
+        private OrderCursor() {
+        }
+
+        public OrderCursor moveTo(int slot) {
+            this.base = liveBase(slot);
+            this.slot = slot;
+            this.firstItem = orders.getInt(base + ORDER_FIRST_ITEM);
+            this.lineCount = Short.toUnsignedInt(orders.getShort(base + ORDER_ITEM_COUNT));
+            return this;
+        }
+
+        public int slot() {
+            return slot;
+        }
+
+        @Override
+        public String getOrderId() {
+            return strings.get(orders.getInt(base + ORDER_ID));
+        }
+
+        @Override
+        public OrderStatus getStatus() {
+            int status = orders.get(base + ORDER_STATUS);
+            return status == 0 ? null : STATUSES[status - 1];
+        }
+
+        @Override
+        public long getSubtotalCents() {
+            return orders.getLong(base + ORDER_SUBTOTAL);
+        }
+
+        @Override
+        public long getTotalCents() {
+            return orders.getLong(base + ORDER_TOTAL);
+        }
+
+        @Override
+        public boolean isPremiumCustomer() {
+            int customer = orders.getInt(base + ORDER_CUSTOMER);
+            return customer != NONE && customers.get(customer * CUSTOMER_RECORD_SIZE + CUSTOMER_PREMIUM) != 0;
+        }
+
+        /**
+         * A new heap copy of the customer, or null.
+         */
+        public Customer getCustomer() {
+            int customer = orders.getInt(base + ORDER_CUSTOMER);
+            if (customer == NONE) {
+                return null;
+            }
+            int customerBase = customer * CUSTOMER_RECORD_SIZE;
+            return new Customer(strings.get(customers.getInt(customerBase + CUSTOMER_ID)),
+                strings.get(customers.getInt(customerBase + CUSTOMER_NAME)),
+                strings.get(customers.getInt(customerBase + CUSTOMER_EMAIL)),
+                customers.get(customerBase + CUSTOMER_PREMIUM) != 0);
+        }
+
+        @Override
+        public int itemCount() {
+            return lineCount;
+        }
+
+        @Override
+        public String getItemProductId(int index) {
+            return strings.get(items.getInt(itemBase(index) + ITEM_PRODUCT_ID));
+        }
+
+        public String getItemProductName(int index) {
+            return strings.get(items.getInt(itemBase(index) + ITEM_PRODUCT_NAME));
+        }
+
+        @Override
+        public long getItemPriceCents(int index) {
+            return items.getLong(itemBase(index) + ITEM_PRICE);
+        }
+
+        @Override
+        public int getItemQuantity(int index) {
+            return items.getInt(itemBase(index) + ITEM_QUANTITY);
+        }
+
+        private int itemBase(int index) {
+            if (index < 0 || index >= lineCount) {
+                throw new IndexOutOfBoundsException("Item " + index + " of " + lineCount);
+            }
+            return (firstItem + index) * ITEM_RECORD_SIZE;
+        }
+    }
+}
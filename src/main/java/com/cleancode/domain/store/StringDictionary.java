@@ -0,0 +1,161 @@
+package com.cleancode.domain.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Assigns each distinct string a dense int code and keeps the characters off-heap.
+ *
+ * Strings are stored once, as a length followed by their UTF-8 bytes, in a direct buffer.
+ * The lookup side is an open-addressing table of codes plus a hash and an offset per code,
+ * all in primitive arrays, so a dictionary of millions of ids costs a handful of heap objects.
+ * {@link #get(int)} decodes a new {@link String} each time; callers on hot paths compare codes.
+ *
+ * Not thread-safe.
+ */
+public final class StringDictionary {
+
+    /** Code used for {@code null}. */
+    public static final int NULL = -1;
+
+    private static final int EMPTY = 0;
+
+    private ByteBuffer bytes;
+    private int[] offsets;
+    private int[] hashes;
+    private int[] table;
+    private int size;
+    private int used;
+
+    public StringDictionary() {
+        this(1024);
+    }
+
+    public StringDictionary(int expectedStrings) {
+        int capacity = Math.max(16, expectedStrings);
+        this.bytes = OffHeap.allocate(capacity * 16);
+        this.offsets = new int[capacity];
+        this.hashes = new int[capacity];
+        this.table = new int[tableSizeFor(capacity)];
+    }
+
+    /**
+     * The code of the string, adding it if it is new.
+     */
+    public int intern(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        int hash = value.hashCode();
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        while (table[slot] != EMPTY) {
+            int code = table[slot] - 1;
+            if (hashes[code] == hash && matches(code, encoded)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int code = append(encoded, hash);
+        table[slot] = code + 1;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return code;
+    }
+
+    /**
+     * The code of the string, or {@link #NULL} if it has never been interned.
+     */
+    public int find(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        int hash = value.hashCode();
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int code = table[slot] - 1;
+            if (hashes[code] == hash && matches(code, encoded)) {
+                return code;
+            }
+        }
+        return NULL;
+    }
+
+    public String get(int code) {
+        if (code == NULL) {
+            return null;
+        }
+        if (code < 0 || code >= size) {
+            throw new IllegalArgumentException("Unknown string code: " + code);
+        }
+        int offset = offsets[code];
+        byte[] encoded = new byte[bytes.getInt(offset)];
+        bytes.get(offset + Integer.BYTES, encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Off-heap bytes reserved for string data.
+     */
+    public long offHeapBytes() {
+        return bytes.capacity();
+    }
+
+    private boolean matches(int code, byte[] encoded) {
+        int offset = offsets[code];
+        if (bytes.getInt(offset) != encoded.length) {
+            return false;
+        }
+        offset += Integer.BYTES;
+        for (int i = 0; i < encoded.length; i++) {
+            if (bytes.get(offset + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int append(byte[] encoded, int hash) {
+        int offset = used;
+        bytes = OffHeap.ensureCapacity(bytes, (long) offset + Integer.BYTES + encoded.length);
+        bytes.putInt(offset, encoded.length);
+        bytes.put(offset + Integer.BYTES, encoded);
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        offsets[size] = offset;
+        hashes[size] = hash;
+        used = offset + Integer.BYTES + encoded.length;
+        return size++;
+    }
+
+    private void rehash(int tableSize) {
+        int[] newTable = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int code = 0; code < size; code++) {
+            int slot = spread(hashes[code]) & mask;
+            while (newTable[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = code + 1;
+        }
+        table = newTable;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
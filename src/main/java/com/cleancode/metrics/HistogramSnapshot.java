@@ -0,0 +1,65 @@
+package com.cleancode.metrics;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time copy of a {@link LatencyHistogram}. Percentiles are reported as the highest
+ * value of the bucket they fall into, capped at the recorded maximum.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    HistogramSnapshot(long[] counts, long totalNanos, long maxNanos) {
+        long sum = 0;
+        for (long bucketCount : counts) {
+            sum += bucketCount;
+        }
+        this.counts = counts;
+        this.count = sum;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * @param percentile from 0 to 100
+     * @return the value in nanoseconds that {@code percentile} percent of the samples do not exceed
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValueIn(bucket), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    // Getters
+    public long getCount() { return count; }
+    public long getTotalNanos() { return totalNanos; }
+    public long getMeanNanos() { return count == 0 ? 0 : totalNanos / count; }
+    public long getMaxNanos() { return maxNanos; }
+    public Duration getMean() { return Duration.ofNanos(getMeanNanos()); }
+    public Duration getMax() { return Duration.ofNanos(maxNanos); }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{count=" + count +
+                ", mean=" + getMeanNanos() + "ns" +
+                ", p50=" + getValueAtPercentile(50) + "ns" +
+                ", p99=" + getValueAtPercentile(99) + "ns" +
+                ", max=" + maxNanos + "ns}";
+    }
+}
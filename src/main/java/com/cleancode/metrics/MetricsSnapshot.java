@@ -0,0 +1,96 @@
+package com.cleancode.metrics;
+
+import java.util.Map;
+
+/**
+ * Point-in-time copy of every stage histogram, exportable as a text table, as JSON or as
+ * Flight Recorder events. Stages that recorded nothing are left out of the text and JSON.
+ */
+public final class MetricsSnapshot {
+
+    private final Map<Stage, HistogramSnapshot> stages;
+
+    MetricsSnapshot(Map<Stage, HistogramSnapshot> stages) {
+        this.stages = stages;
+    }
+
+    public HistogramSnapshot get(Stage stage) {
+        return stages.get(stage);
+    }
+
+    /**
+     * One line per stage, latencies in microseconds.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder(String.format("%-20s %10s %10s %10s %10s %10s %10s%n",
+            "stage", "count", "mean_us", "p50_us", "p99_us", "p99.9_us", "max_us"));
+        stages.forEach((stage, histogram) -> {
+            if (histogram.getCount() > 0) {
+                text.append(String.format("%-20s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    stage.key(), histogram.getCount(),
+                    micros(histogram.getMeanNanos()),
+                    micros(histogram.getValueAtPercentile(50)),
+                    micros(histogram.getValueAtPercentile(99)),
+                    micros(histogram.getValueAtPercentile(99.9)),
+                    micros(histogram.getMaxNanos())));
+            }
+        });
+        return text.toString();
+    }
+
+    /**
+     * A JSON object keyed by stage, latencies in nanoseconds.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        stages.forEach((stage, histogram) -> {
+            if (histogram.getCount() == 0) {
+                return;
+            }
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(stage.key()).append("\":{")
+                .append("\"count\":").append(histogram.getCount())
+                .append(",\"meanNanos\":").append(histogram.getMeanNanos())
+                .append(",\"p50Nanos\":").append(histogram.getValueAtPercentile(50))
+                .append(",\"p90Nanos\":").append(histogram.getValueAtPercentile(90))
+                .append(",\"p99Nanos\":").append(histogram.getValueAtPercentile(99))
+                .append(",\"p999Nanos\":").append(histogram.getValueAtPercentile(99.9))
+                .append(",\"maxNanos\":").append(histogram.getMaxNanos())
+                .append('}');
+        });
+        return json.append('}').toString();
+    }
+
+    /**
+     * Commits one {@link StageLatencyEvent} per stage with samples, if a recording wants them.
+     */
+    public void commitFlightRecorderEvents() {
+        stages.forEach((stage, histogram) -> {
+            if (histogram.getCount() == 0) {
+                return;
+            }
+            StageLatencyEvent event = new StageLatencyEvent();
+            if (!event.isEnabled()) {
+                return;
+            }
+            event.stage = stage.key();
+            event.count = histogram.getCount();
+            event.mean = histogram.getMeanNanos();
+            event.p50 = histogram.getValueAtPercentile(50);
+            event.p99 = histogram.getValueAtPercentile(99);
+            event.max = histogram.getMaxNanos();
+            event.commit();
+        });
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.cleancode.metrics;
+
+import java.util.Locale;
+
+/**
+ * The instrumented stages of order, user and customer processing.
+ */
+public enum Stage {
+    ORDER_VALIDATION,
+    ORDER_TOTAL,
+    ORDER_DISCOUNT,
+    ORDER_STATUS,
+    ORDER_SAVE,
+    USER_VALIDATION,
+    USER_CREATION,
+    PASSWORD_HASHING,
+    CUSTOMER_PROCESSING;
+
+    /**
+     * Lower-case name used in exported snapshots, such as {@code order_validation}.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
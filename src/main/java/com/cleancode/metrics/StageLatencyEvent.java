@@ -0,0 +1,45 @@
+package com.cleancode.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event carrying the latency distribution of one stage, so stage timings
+ * line up with GC, lock and I/O events in the same recording.
+ */
+@Name("com.cleancode.StageLatency")
+@Label("Stage Latency")
+@Category({"Clean Code", "Processing"})
+@Description("Latency distribution of a processing stage since the metrics were last reset")
+@Period("1 s")
+@StackTrace(false)
+public class StageLatencyEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Count")
+    long count;
+
+    @Label("Mean")
+    @Timespan
+    long mean;
+
+    @Label("50th Percentile")
+    @Timespan
+    long p50;
+
+    @Label("99th Percentile")
+    @Timespan
+    long p99;
+
+    @Label("Maximum")
+    @Timespan
+    long max;
+}
@@ -0,0 +1,38 @@
+package com.cleancode.objectorientedabusers.switchstatements;
+
+import com.cleancode.domain.Money;
+
+/**
+ * Customer types with their discount rate and welcome message.
+ * Resolving a type string once gives a constant whose fields replace every later switch.
+ */
+public enum CustomerType {
+    REGULAR(500, "Welcome! Enjoy your shopping."),
+    PREMIUM(1000, "Welcome back! You have premium benefits."),
+    VIP(1500, "Welcome VIP! Exclusive offers await you."),
+    UNKNOWN(0, "Welcome!");
+    
+    private final int discountBasisPoints;
+    private final String welcomeMessage;
+    
+    CustomerType(int discountBasisPoints, String welcomeMessage) {
+        this.discountBasisPoints = discountBasisPoints;
+        this.welcomeMessage = welcomeMessage;
+    }
+    
+    // Getters
+    public int getDiscountBasisPoints() { return discountBasisPoints; }
+    public String getWelcomeMessage() { return welcomeMessage; }
+    
+    public double getDiscountRate() {
+        return discountBasisPoints / (double) Money.BASIS_POINTS_PER_UNIT;
+    }
+    
+    /**
+     * Maps a type string from the ingestion feed to its constant; anything else,
+     * including null, resolves to {@link #UNKNOWN}.
+     */
+    public static CustomerType resolve(String customerType) {
+        return CustomerTypeResolver.resolve(customerType);
+    }
+}
@@ -0,0 +1,59 @@
+package com.cleancode.objectorientedabusers.switchstatements;
+
+/**
+ * Perfect-hash lookup from type string to {@link CustomerType}.
+ *
+ * The table size is the smallest power of two for which the known names land in distinct
+ * slots, so a lookup is one hash, one mask and a single {@code equals} against the only
+ * candidate. {@link String#hashCode()} is cached by the string, so resolving the same
+ * (for example interned) string again does not rehash it.
+ */
+final class CustomerTypeResolver {
+    
+    private static final String[] NAMES;
+    private static final CustomerType[] TYPES;
+    private static final int MASK;
+    
+    static {
+        CustomerType[] known = {CustomerType.REGULAR, CustomerType.PREMIUM, CustomerType.VIP};
+        int size = Integer.highestOneBit(known.length * 2 - 1);
+        while (!isCollisionFree(known, size - 1)) {
+            size <<= 1;
+        }
+        MASK = size - 1;
+        NAMES = new String[size];
+        TYPES = new CustomerType[size];
+        for (CustomerType type : known) {
+            int slot = slot(type.name().hashCode(), MASK);
+            NAMES[slot] = type.name();
+            TYPES[slot] = type;
+        }
+    }
+    
+    private CustomerTypeResolver() {
+    }
+    
+    static CustomerType resolve(String customerType) {
+        if (customerType == null) {
+            return CustomerType.UNKNOWN;
+        }
+        int slot = slot(customerType.hashCode(), MASK);
+        return customerType.equals(NAMES[slot]) ? TYPES[slot] : CustomerType.UNKNOWN;
+    }
+    
+    private static boolean isCollisionFree(CustomerType[] known, int mask) {
+        boolean[] used = new boolean[mask + 1];
+        for (CustomerType type : known) {
+            int slot = slot(type.name().hashCode(), mask);
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+    
+    private static int slot(int hash, int mask) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
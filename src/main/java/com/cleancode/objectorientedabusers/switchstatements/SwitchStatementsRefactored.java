@@ -1,5 +1,11 @@
 package com.cleancode.objectorientedabusers.switchstatements;
 
+import com.cleancode.domain.Money;
+import com.cleancode.metrics.ProcessingMetrics;
+import com.cleancode.metrics.Stage;
+import com.cleancode.pricing.CustomerTier;
+import com.cleancode.pricing.DiscountRuleEngine;
+
 /**
  * Demonstrates the Replace Conditional with Polymorphism refactoring solution.
  * This class shows how to eliminate switch statements using inheritance and polymorphism.
@@ -10,6 +16,27 @@ package com.cleancode.objectorientedabusers.switchstatements;
  */
 public class SwitchStatementsRefactored {
     
+    private static final String DEFAULT_DISCOUNT_RULES = "discounts/customer-discounts.rules";
+    private static final ProcessingMetrics METRICS = ProcessingMetrics.global();
+    
+    private final DiscountRuleEngine discountRules;
+    
+    /**
+     * Uses the customer discounts bundled in {@code discounts/customer-discounts.rules}.
+     */
+    public SwitchStatementsRefactored() {
+        this(DiscountRuleEngine.fromClasspath(DEFAULT_DISCOUNT_RULES));
+    }
+    
+    /**
+     * @param discountRules configurable discounts for the built-in tiers, or null to let
+     *                      each customer type calculate its own discount; can be reloaded
+     *                      while running
+     */
+    public SwitchStatementsRefactored(DiscountRuleEngine discountRules) {
+        this.discountRules = discountRules;
+    }
+    
     /**
      * REFACTORED VERSION - REPLACE CONDITIONAL WITH POLYMORPHISM PATTERN
      * 
@@ -27,6 +54,23 @@ public class SwitchStatementsRefactored {
         
         public abstract double calculateDiscount(double amount);
         public abstract String getWelcomeMessage();
+        
+        /**
+         * The discount in cents. Customer types that only implement the {@code double}
+         * calculation get it rounded to whole cents; the built-in types override this
+         * with exact integer arithmetic.
+         */
+        public long calculateDiscountCents(long amountCents) {
+            return Money.ofMajor(calculateDiscount(Money.toMajor(amountCents)));
+        }
+        
+        /**
+         * Tier used to look up configured discount rules; null for customer types
+         * that are not managed by the rule engine.
+         */
+        public CustomerTier getTier() {
+            return null;
+        }
     }
     
     // Concrete implementation for regular customers
@@ -35,9 +79,19 @@ public class SwitchStatementsRefactored {
             super(name);
         }
         
+        @Override
+        public CustomerTier getTier() {
+            return CustomerTier.REGULAR;
+        }
+        
         @Override
         public double calculateDiscount(double amount) {
-            return amount * 0.05; // 5% discount
+            return Money.toMajor(calculateDiscountCents(Money.ofMajor(amount)));
+        }
+        
+        @Override
+        public long calculateDiscountCents(long amountCents) {
+            return Money.percentageOf(amountCents, 500, Money.DEFAULT_ROUNDING); // 5% discount
         }
         
         @Override
@@ -52,9 +106,19 @@ public class SwitchStatementsRefactored {
             super(name);
         }
         
+        @Override
+        public CustomerTier getTier() {
+            return CustomerTier.PREMIUM;
+        }
+        
         @Override
         public double calculateDiscount(double amount) {
-            return amount * 0.10; // 10% discount
+            return Money.toMajor(calculateDiscountCents(Money.ofMajor(amount)));
+        }
+        
+        @Override
+        public long calculateDiscountCents(long amountCents) {
+            return Money.percentageOf(amountCents, 1000, Money.DEFAULT_ROUNDING); // 10% discount
         }
         
         @Override
@@ -69,9 +133,19 @@ public class SwitchStatementsRefactored {
             super(name);
         }
         
+        @Override
+        public CustomerTier getTier() {
+            return CustomerTier.VIP;
+        }
+        
         @Override
         public double calculateDiscount(double amount) {
-            return amount * 0.15; // 15% discount
+            return Money.toMajor(calculateDiscountCents(Money.ofMajor(amount)));
+        }
+        
+        @Override
+        public long calculateDiscountCents(long amountCents) {
+            return Money.percentageOf(amountCents, 1500, Money.DEFAULT_ROUNDING); // 15% discount
         }
         
         @Override
@@ -85,7 +159,15 @@ public class SwitchStatementsRefactored {
      * instead of switch statements.
      */
     public double calculateDiscount(Customer customer, double amount) {
-        return customer.calculateDiscount(amount);
+        return Money.toMajor(calculateDiscountCents(customer, Money.ofMajor(amount)));
+    }
+    
+    public long calculateDiscountCents(Customer customer, long amountCents) {
+        CustomerTier tier = customer.getTier();
+        if (discountRules != null && tier != null) {
+            return discountRules.discount(tier, amountCents);
+        }
+        return customer.calculateDiscountCents(amountCents);
     }
     
     public String getWelcomeMessage(Customer customer) {
@@ -97,6 +179,7 @@ public class SwitchStatementsRefactored {
      * instead of switch statements.
      */
     public void processCustomer(Customer customer, double amount) {
+        long start = METRICS.start();
         double discount = calculateDiscount(customer, amount);
         String message = getWelcomeMessage(customer);
         
@@ -106,5 +189,6 @@ public class SwitchStatementsRefactored {
         System.out.println("Discount: $" + discount);
         System.out.println("Message: " + message);
         System.out.println("Final Amount: $" + (amount - discount));
+        METRICS.lap(Stage.CUSTOMER_PROCESSING, start);
     }
 }
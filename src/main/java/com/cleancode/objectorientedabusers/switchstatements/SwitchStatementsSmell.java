@@ -1,5 +1,9 @@
 package com.cleancode.objectorientedabusers.switchstatements;
 
+import com.cleancode.domain.Money;
+
+import java.math.RoundingMode;
+
 /**
  * Demonstrates the Switch Statements code smell.
  * This class contains switch statements that handle different object types or behaviors.
@@ -24,15 +28,19 @@ public class SwitchStatementsSmell {
      * - Difficult to extend with new customer types
      */
     public double calculateDiscount(String customerType, double amount) {
+        return Money.toMajor(calculateDiscountCents(customerType, Money.ofMajor(amount)));
+    }
+    
+    public long calculateDiscountCents(String customerType, long amountCents) {
         switch (customerType) {
             case "REGULAR":
-                return amount * 0.05; // 5% discount
+                return Money.percentageOf(amountCents, 500, RoundingMode.HALF_EVEN); // 5% discount
             case "PREMIUM":
-                return amount * 0.10; // 10% discount
+                return Money.percentageOf(amountCents, 1000, RoundingMode.HALF_EVEN); // 10% discount
             case "VIP":
-                return amount * 0.15; // 15% discount
+                return Money.percentageOf(amountCents, 1500, RoundingMode.HALF_EVEN); // 15% discount
             default:
-                return 0.0;
+                return 0;
         }
     }
     
@@ -0,0 +1,56 @@
+package com.cleancode.objectorientedabusers.switchstatements;
+
+import com.cleancode.domain.Money;
+
+/**
+ * Demonstrates the Replace Conditional with Lookup Table refactoring for callers
+ * that only have the customer type as a string, such as an ingestion feed.
+ *
+ * Refactoring: Replace Conditional with Lookup Table
+ * Solution: Resolve the type string once to a {@link CustomerType} and read the behavior from it
+ * Benefits: One lookup instead of a string switch per question, data lives in one place
+ */
+public class SwitchStatementsTableDriven {
+    
+    public double calculateDiscount(String customerType, double amount) {
+        return calculateDiscount(CustomerType.resolve(customerType), amount);
+    }
+    
+    public String getWelcomeMessage(String customerType) {
+        return getWelcomeMessage(CustomerType.resolve(customerType));
+    }
+    
+    public double calculateDiscount(CustomerType customerType, double amount) {
+        return Money.toMajor(calculateDiscountCents(customerType, Money.ofMajor(amount)));
+    }
+    
+    public long calculateDiscountCents(String customerType, long amountCents) {
+        return calculateDiscountCents(CustomerType.resolve(customerType), amountCents);
+    }
+    
+    /**
+     * The discount in cents, rounded with {@link Money#DEFAULT_ROUNDING}.
+     */
+    public long calculateDiscountCents(CustomerType customerType, long amountCents) {
+        return Money.percentageOf(amountCents, customerType.getDiscountBasisPoints(), Money.DEFAULT_ROUNDING);
+    }
+    
+    public String getWelcomeMessage(CustomerType customerType) {
+        return customerType.getWelcomeMessage();
+    }
+    
+    /**
+     * Resolves the type string once and answers both questions from the same constant.
+     */
+    public void processCustomer(String customerType, double amount) {
+        CustomerType type = CustomerType.resolve(customerType);
+        double discount = calculateDiscount(type, amount);
+        String message = getWelcomeMessage(type);
+        
+        System.out.println("Customer Type: " + customerType);
+        System.out.println("Amount: $" + amount);
+        System.out.println("Discount: $" + discount);
+        System.out.println("Message: " + message);
+        System.out.println("Final Amount: $" + (amount - discount));
+    }
+}
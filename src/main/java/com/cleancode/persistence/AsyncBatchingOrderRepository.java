@@ -0,0 +1,223 @@
+package com.cleancode.persistence;
+
+import com.cleancode.domain.Order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decouples callers from a slow repository: {@link #save(Order)} only enqueues,
+ * and a background thread hands batches to the delegate's {@link OrderRepository#saveAll(List)}.
+ *
+ * A batch is written when it reaches {@code batchSize} orders, when its oldest order has waited
+ * {@code maxDelay}, or when {@link #flush()} is called. When the queue is full, {@code save}
+ * blocks until the writer catches up (back-pressure) instead of growing without bound.
+ *
+ * If the delegate fails, the failure is reported by the next {@code save}, {@code flush} or
+ * {@code close}; the affected batch is not retried.
+ *
+ * Instances are created by {@link #start}, which also starts the writer thread.
+ */
+public class AsyncBatchingOrderRepository implements OrderRepository {
+    
+    // How often a waiting writer re-checks for flush and close requests; the writer is never
+    // interrupted because interrupting a thread blocked in channel I/O would close the delegate's channel
+    private static final long FLUSH_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long IDLE_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    
+    private final OrderRepository delegate;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Order> queue;
+    private final Thread writer;
+    
+    // Guarded by this: orders accepted by save() and orders handed to the delegate
+    private long enqueued;
+    private long written;
+    private boolean flushRequested;
+    private RuntimeException failure;
+    
+    // Written under this, together with the enqueued count; read by the writer without the lock
+    private volatile boolean closed;
+    
+    public static AsyncBatchingOrderRepository start(OrderRepository delegate) {
+        return start(delegate, 256, Duration.ofMillis(50), 8192);
+    }
+    
+    public static AsyncBatchingOrderRepository start(OrderRepository delegate, int batchSize, Duration maxDelay,
+                                                     int queueCapacity) {
+        AsyncBatchingOrderRepository repository =
+            new AsyncBatchingOrderRepository(delegate, batchSize, maxDelay, queueCapacity);
+        repository.writer.start();
+        return repository;
+    }
+    
+    private AsyncBatchingOrderRepository(OrderRepository delegate, int batchSize, Duration maxDelay, int queueCapacity) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        if (maxDelay == null || maxDelay.isNegative() || maxDelay.isZero()) {
+            throw new IllegalArgumentException("Max delay must be positive");
+        }
+        if (queueCapacity < batchSize) {
+            throw new IllegalArgumentException("Queue capacity must be at least the batch size");
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeLoop, "order-repository-writer");
+        this.writer.setDaemon(true);
+    }
+    
+    @Override
+    public void save(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        // Checked and counted under the lock close() takes, so once close() has started no order
+        // can slip in uncounted; counted before put so flush() never waits for less than is queued
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Repository is closed");
+            }
+            throwIfFailed();
+            enqueued++;
+        }
+        try {
+            queue.put(order);
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                enqueued--;
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for queue space", e);
+        }
+    }
+    
+    @Override
+    public void flush() {
+        synchronized (this) {
+            long target = enqueued;
+            flushRequested = true;
+            try {
+                while (written < target && writer.isAlive()) {
+                    wait(10);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while flushing orders", e);
+            }
+            throwIfFailed();
+        }
+        delegate.flush();
+    }
+    
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            flush();
+        } finally {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delegate.close();
+        }
+    }
+    
+    /**
+     * Orders accepted but not yet handed to the delegate.
+     */
+    public synchronized long pendingCount() {
+        return enqueued - written;
+    }
+    
+    private void throwIfFailed() {
+        if (failure != null) {
+            RuntimeException reported = failure;
+            failure = null;
+            throw new IllegalStateException("Writing orders failed", reported);
+        }
+    }
+    
+    private void writeLoop() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        while ((!closed || pendingCount() > 0) && !Thread.currentThread().isInterrupted()) {
+            collectBatch(batch);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    private void collectBatch(List<Order> batch) {
+        try {
+            Order first = queue.poll(Math.min(maxDelayNanos, IDLE_CHECK_NANOS), TimeUnit.NANOSECONDS);
+            if (first == null) {
+                clearFlushRequestIfIdle();
+                return;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + maxDelayNanos;
+            while (batch.size() < batchSize && !isFlushRequested()) {
+                queue.drainTo(batch, batchSize - batch.size());
+                long remaining = deadline - System.nanoTime();
+                if (batch.size() >= batchSize || remaining <= 0) {
+                    break;
+                }
+                Order next = queue.poll(Math.min(remaining, FLUSH_CHECK_NANOS), TimeUnit.NANOSECONDS);
+                if (next != null) {
+                    batch.add(next);
+                }
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void writeBatch(List<Order> batch) {
+        RuntimeException error = null;
+        try {
+            delegate.saveAll(batch);
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        synchronized (this) {
+            written += batch.size();
+            if (error != null && failure == null) {
+                failure = error;
+            }
+            if (written == enqueued) {
+                flushRequested = false;
+            }
+            notifyAll();
+        }
+    }
+    
+    private synchronized boolean isFlushRequested() {
+        return flushRequested;
+    }
+    
+    private synchronized void clearFlushRequestIfIdle() {
+        if (written == enqueued) {
+            flushRequested = false;
+        }
+    }
+}
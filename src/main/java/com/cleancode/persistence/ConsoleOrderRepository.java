@@ -0,0 +1,46 @@
+package com.cleancode.persistence;
+
+import com.cleancode.domain.Order;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * The demo "database": prints a line per saved order.
+ * A batch is written with a single print call so the stream lock is taken once per batch.
+ */
+public class ConsoleOrderRepository implements OrderRepository {
+    
+    private final PrintStream out;
+    
+    public ConsoleOrderRepository() {
+        this(System.out);
+    }
+    
+    public ConsoleOrderRepository(PrintStream out) {
+        this.out = out;
+    }
+    
+    @Override
+    public void save(Order order) {
+        out.println(savedLine(order));
+    }
+    
+    @Override
+    public void saveAll(List<Order> orders) {
+        StringBuilder lines = new StringBuilder(orders.size() * 48);
+        for (Order order : orders) {
+            lines.append(savedLine(order)).append(System.lineSeparator());
+        }
+        out.print(lines);
+    }
+    
+    @Override
+    public void flush() {
+        out.flush();
+    }
+    
+    private static String savedLine(Order order) {
+        return "Order processed and saved: " + order.getOrderId();
+    }
+}
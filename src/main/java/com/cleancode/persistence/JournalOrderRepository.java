@@ -0,0 +1,52 @@
+package com.cleancode.persistence;
+
+import com.cleancode.domain.Order;
+
+import java.util.List;
+
+/**
+ * Durable local repository backed by an {@link OrderJournal}.
+ *
+ * {@link #save(Order)} commits each order on its own; {@link #saveAll(List)} commits a whole batch
+ * with a single fsync. Wrap it in an {@link AsyncBatchingOrderRepository} to group-commit saves
+ * coming from many processing threads.
+ */
+public class JournalOrderRepository implements OrderRepository {
+    
+    private final OrderJournal journal;
+    
+    public JournalOrderRepository(OrderJournal journal) {
+        if (journal == null) {
+            throw new IllegalArgumentException("Journal cannot be null");
+        }
+        this.journal = journal;
+    }
+    
+    @Override
+    public void save(Order order) {
+        synchronized (journal) {
+            journal.append(order);
+            journal.commit();
+        }
+    }
+    
+    @Override
+    public void saveAll(List<Order> orders) {
+        synchronized (journal) {
+            for (Order order : orders) {
+                journal.append(order);
+            }
+            journal.commit();
+        }
+    }
+    
+    @Override
+    public void flush() {
+        journal.commit();
+    }
+    
+    @Override
+    public void close() {
+        journal.close();
+    }
+}
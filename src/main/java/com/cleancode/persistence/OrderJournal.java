@@ -0,0 +1,277 @@
+package com.cleancode.persistence;
+
+import com.cleancode.domain.Order;
+import com.cleancode.domain.codec.BinaryReader;
+import com.cleancode.domain.codec.BinaryWriter;
+import com.cleancode.domain.codec.DomainCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal of order snapshots.
+ *
+ * The journal is a directory of fixed-size segment files ({@code orders-00000001.journal}, ...).
+ * Each segment starts with a magic number, followed by records of the form
+ * {@code [int length][int crc32c][payload]}, where the payload is the {@link DomainCodec} encoding
+ * of the order with a fresh string table, so each record decodes on its own. A zero length marks the end of the written data,
+ * since a freshly mapped segment is zero-filled. When a record does not fit into the current
+ * segment, the journal rolls over to a new one.
+ *
+ * {@link #append(Order)} only copies the record into the mapped segment. {@link #commit()} forces
+ * everything appended since the previous commit to disk, so appending a batch and committing once
+ * gives group commit. On replay, a record with a bad checksum ends the segment, which drops a torn
+ * write left by a crash.
+ */
+public class OrderJournal implements AutoCloseable {
+
+    private static final int SEGMENT_MAGIC = 0x4F4A524E; // "OJRN"
+    private static final int SEGMENT_HEADER_SIZE = 4;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "orders-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32C crc = new CRC32C();
+
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+    private final BinaryWriter writer = new BinaryWriter(scratch);
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentNumber;
+    private int committedPosition;
+    private boolean closed;
+
+    public OrderJournal(Path directory) {
+        this(directory, 64 * 1024 * 1024);
+    }
+
+    /**
+     * Opens the journal in the given directory, continuing after the last valid record
+     * of the newest segment if the journal already exists.
+     */
+    public OrderJournal(Path directory, int segmentSize) {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("Segment size must be at least 1024 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = segmentFiles(directory);
+            if (segments.isEmpty()) {
+                openSegment(1);
+            } else {
+                Path last = segments.get(segments.size() - 1);
+                openSegment(segmentNumber(last));
+                segment.position(endOfRecords(segment));
+                committedPosition = segment.position();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open order journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends a snapshot of the order. The record is durable once {@link #commit()} returns.
+     */
+    public synchronized void append(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        ensureOpen();
+        ByteBuffer payload = encode(order);
+        int recordSize = RECORD_HEADER_SIZE + payload.remaining();
+        if (recordSize > segmentSize - SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("Order " + order.getOrderId() + " does not fit into a journal segment");
+        }
+        if (segment.remaining() < recordSize) {
+            rollover();
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        int start = segment.position();
+        // Length goes in last so a reader never sees a length without its payload
+        segment.position(start + 4);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        segment.putInt(start, recordSize - RECORD_HEADER_SIZE);
+    }
+
+    /**
+     * Forces every record appended since the last commit to disk.
+     */
+    public synchronized void commit() {
+        ensureOpen();
+        int position = segment.position();
+        if (position > committedPosition) {
+            segment.force(committedPosition, position - committedPosition);
+            committedPosition = position;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        commit();
+        closed = true;
+        closeChannel();
+    }
+
+    /**
+     * Rebuilds the latest state of every order in the journal directory.
+     * A later snapshot of an order replaces an earlier one.
+     *
+     * @return orders keyed by order id, in order of first appearance
+     */
+    public static Map<String, Order> replay(Path directory) {
+        Map<String, Order> orders = new LinkedHashMap<>();
+        replay(directory, order -> orders.put(order.getOrderId(), order));
+        return orders;
+    }
+
+    /**
+     * Streams every valid record, oldest first, to the consumer.
+     *
+     * @return the number of records read
+     */
+    public static long replay(Path directory, Consumer<Order> consumer) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long count = 0;
+        CRC32C checksum = new CRC32C();
+        BinaryReader reader = new BinaryReader(null);
+        try {
+            for (Path file : segmentFiles(directory)) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    if (buffer.remaining() < SEGMENT_HEADER_SIZE || buffer.getInt() != SEGMENT_MAGIC) {
+                        throw new IllegalStateException("Not an order journal segment: " + file);
+                    }
+                    int end = endOfRecords(buffer, checksum);
+                    while (buffer.position() < end) {
+                        int length = buffer.getInt();
+                        buffer.getInt(); // checksum, verified by endOfRecords
+                        ByteBuffer payload = buffer.slice(buffer.position(), length);
+                        buffer.position(buffer.position() + length);
+                        consumer.accept(DomainCodec.readOrder(reader.reset(payload)));
+                        count++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay order journal in " + directory, e);
+        }
+        return count;
+    }
+
+    private ByteBuffer encode(Order order) {
+        while (true) {
+            try {
+                DomainCodec.writeOrder(writer.reset(scratch.clear()), order);
+                return scratch.flip();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private void rollover() {
+        commit();
+        closeChannel();
+        try {
+            openSegment(segmentNumber + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll over order journal in " + directory, e);
+        }
+    }
+
+    private void openSegment(int number) throws IOException {
+        Path file = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        boolean created = !Files.exists(file);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentNumber = number;
+        if (created) {
+            segment.putInt(SEGMENT_MAGIC);
+            segment.force(0, SEGMENT_HEADER_SIZE);
+        } else if (segment.getInt() != SEGMENT_MAGIC) {
+            throw new IllegalStateException("Not an order journal segment: " + file);
+        }
+        committedPosition = segment.position();
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close order journal segment", e);
+        } finally {
+            segment = null;
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Order journal is closed");
+        }
+    }
+
+    private int endOfRecords(ByteBuffer buffer) {
+        return endOfRecords(buffer, crc);
+    }
+
+    /**
+     * Position after the last record whose checksum is valid, starting at the buffer's position.
+     */
+    private static int endOfRecords(ByteBuffer buffer, CRC32C checksum) {
+        int position = buffer.position();
+        while (buffer.limit() - position >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.limit() - position - RECORD_HEADER_SIZE) {
+                break;
+            }
+            checksum.reset();
+            checksum.update(buffer.slice(position + RECORD_HEADER_SIZE, length));
+            if ((int) checksum.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
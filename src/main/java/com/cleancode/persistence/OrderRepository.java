@@ -0,0 +1,38 @@
+package com.cleancode.persistence;
+
+import com.cleancode.domain.Order;
+
+import java.util.List;
+
+/**
+ * Persistence SPI that order processors write through.
+ * Implementations decide whether a save is synchronous, buffered or durable.
+ */
+public interface OrderRepository extends AutoCloseable {
+    
+    void save(Order order);
+    
+    /**
+     * Saves a batch of orders. Implementations that can write a batch cheaper
+     * than one order at a time should override this.
+     */
+    default void saveAll(List<Order> orders) {
+        for (Order order : orders) {
+            save(order);
+        }
+    }
+    
+    /**
+     * Blocks until every order saved before this call has been written.
+     */
+    default void flush() {
+    }
+    
+    /**
+     * Flushes pending writes and releases resources. Saving after close is an error.
+     */
+    @Override
+    default void close() {
+        flush();
+    }
+}
@@ -0,0 +1,38 @@
+package com.cleancode.persistence;
+
+import com.cleancode.domain.User;
+
+import java.util.List;
+
+/**
+ * Persistence SPI that user registration and bulk import write through.
+ * Implementations decide whether a save is synchronous, buffered or durable.
+ */
+public interface UserRepository extends AutoCloseable {
+
+    void save(User user);
+
+    /**
+     * Saves a batch of users. Implementations that can write a batch cheaper
+     * than one user at a time should override this.
+     */
+    default void saveAll(List<User> users) {
+        for (User user : users) {
+            save(user);
+        }
+    }
+
+    /**
+     * Blocks until every user saved before this call has been written.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Flushes pending writes and releases resources. Saving after close is an error.
+     */
+    @Override
+    default void close() {
+        flush();
+    }
+}
@@ -0,0 +1,10 @@
+package com.cleancode.pricing;
+
+/**
+ * Customer tiers that discount rules are configured for.
+ */
+public enum CustomerTier {
+    REGULAR,
+    PREMIUM,
+    VIP
+}
@@ -0,0 +1,59 @@
+package com.cleancode.pricing;
+
+import com.cleancode.domain.Money;
+
+/**
+ * One step of a tier's discount: take {@code percent}% off the running amount
+ * when it is above {@code threshold}. An unconditional rule has a threshold of
+ * negative infinity.
+ *
+ * Rules are evaluated in whole basis points and cents, so the percent may have at most
+ * two decimals and the threshold is rounded to the cent.
+ */
+public final class DiscountRule {
+    
+    private final double percent;
+    private final double threshold;
+    private final int basisPoints;
+    private final long thresholdCents;
+    
+    public DiscountRule(double percent, double threshold) {
+        if (!(percent >= 0.0 && percent <= 100.0)) {
+            throw new IllegalArgumentException("Discount percent must be between 0 and 100: " + percent);
+        }
+        if (Double.isNaN(threshold)) {
+            throw new IllegalArgumentException("Discount threshold must be a number");
+        }
+        double basisPoints = percent * 100.0;
+        if (Math.abs(basisPoints - Math.rint(basisPoints)) > 1e-6) {
+            throw new IllegalArgumentException("Discount percent must have at most two decimals: " + percent);
+        }
+        this.percent = percent;
+        this.threshold = threshold;
+        this.basisPoints = (int) Math.rint(basisPoints);
+        this.thresholdCents = threshold == Double.NEGATIVE_INFINITY ? Long.MIN_VALUE : Money.ofMajor(threshold);
+    }
+    
+    public static DiscountRule unconditional(double percent) {
+        return new DiscountRule(percent, Double.NEGATIVE_INFINITY);
+    }
+    
+    public static DiscountRule over(double threshold, double percent) {
+        return new DiscountRule(percent, threshold);
+    }
+    
+    // Getters
+    public double getPercent() { return percent; }
+    public double getThreshold() { return threshold; }
+    public int getBasisPoints() { return basisPoints; }
+    
+    /**
+     * The threshold in cents; {@link Long#MIN_VALUE} for an unconditional rule.
+     */
+    public long getThresholdCents() { return thresholdCents; }
+    
+    @Override
+    public String toString() {
+        return threshold == Double.NEGATIVE_INFINITY ? percent + "%" : percent + "% over " + threshold;
+    }
+}
@@ -0,0 +1,86 @@
+package com.cleancode.pricing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Evaluates discounts against the current {@link DiscountTable} and lets the rules be
+ * replaced while the application is running.
+ *
+ * A reload parses and compiles the new rules completely before publishing them with a
+ * single volatile write. Each evaluation reads the table once, so it sees either the old
+ * or the new rule set, never a mix.
+ */
+public class DiscountRuleEngine {
+    
+    private volatile DiscountTable table;
+    
+    public DiscountRuleEngine(DiscountTable table) {
+        if (table == null) {
+            throw new IllegalArgumentException("Discount table cannot be null");
+        }
+        this.table = table;
+    }
+    
+    public static DiscountRuleEngine load(Path rulesFile) {
+        return new DiscountRuleEngine(DiscountRuleParser.parse(read(rulesFile)));
+    }
+    
+    /**
+     * Loads rules bundled on the classpath, such as {@code discounts/order-discounts.rules}.
+     */
+    public static DiscountRuleEngine fromClasspath(String resource) {
+        try (InputStream in = DiscountRuleEngine.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Discount rules not found on classpath: " + resource);
+            }
+            return new DiscountRuleEngine(DiscountRuleParser.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read discount rules " + resource, e);
+        }
+    }
+    
+    /**
+     * @return the amount in cents after all of the tier's discounts
+     */
+    public long apply(CustomerTier tier, long amountCents) {
+        return table.apply(tier, amountCents);
+    }
+    
+    /**
+     * @return how many cents the tier's discounts take off the amount
+     */
+    public long discount(CustomerTier tier, long amountCents) {
+        return amountCents - table.apply(tier, amountCents);
+    }
+    
+    public DiscountTable currentTable() {
+        return table;
+    }
+    
+    /**
+     * Atomically replaces the rules. Invalid rules leave the current ones in place.
+     */
+    public void reload(DiscountTable newTable) {
+        if (newTable == null) {
+            throw new IllegalArgumentException("Discount table cannot be null");
+        }
+        this.table = newTable;
+    }
+    
+    public void reload(Path rulesFile) {
+        reload(DiscountRuleParser.parse(read(rulesFile)));
+    }
+    
+    private static String read(Path rulesFile) {
+        try {
+            return Files.readString(rulesFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read discount rules " + rulesFile, e);
+        }
+    }
+}
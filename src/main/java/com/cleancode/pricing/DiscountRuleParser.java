@@ -0,0 +1,124 @@
+package com.cleancode.pricing;
+
+import com.cleancode.domain.Money;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses the discount rule file format:
+ *
+ * <pre>
+ * # comment
+ * ROUNDING = HALF_EVEN
+ * PREMIUM = 10%, 5% over 100
+ * </pre>
+ *
+ * Each line lists one tier's rules in the order they are applied. A rule is a percentage,
+ * optionally followed by {@code over <amount>} to apply it only above that running amount.
+ * A tier may appear only once. The optional {@code ROUNDING} line names the
+ * {@link RoundingMode} used to round each discount to whole cents.
+ */
+public final class DiscountRuleParser {
+    
+    private static final String ROUNDING_KEY = "ROUNDING";
+    
+    private DiscountRuleParser() {
+    }
+    
+    public static DiscountTable parse(String text) {
+        Map<CustomerTier, List<DiscountRule>> rules = new EnumMap<>(CustomerTier.class);
+        RoundingMode roundingMode = null;
+        String[] lines = text.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            String line = stripComment(lines[i]).strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int lineNumber = i + 1;
+            int equals = line.indexOf('=');
+            if (equals < 0) {
+                throw error(lineNumber, "expected '<TIER> = <rules>'");
+            }
+            String key = line.substring(0, equals).strip();
+            if (key.equalsIgnoreCase(ROUNDING_KEY)) {
+                if (roundingMode != null) {
+                    throw error(lineNumber, "rounding is already defined");
+                }
+                roundingMode = parseRoundingMode(line.substring(equals + 1).strip(), lineNumber);
+                continue;
+            }
+            CustomerTier tier = parseTier(key, lineNumber);
+            if (rules.containsKey(tier)) {
+                throw error(lineNumber, "tier " + tier + " is already defined");
+            }
+            rules.put(tier, parseRules(line.substring(equals + 1), lineNumber));
+        }
+        return DiscountTable.compile(rules, roundingMode == null ? Money.DEFAULT_ROUNDING : roundingMode);
+    }
+    
+    private static String stripComment(String line) {
+        int hash = line.indexOf('#');
+        return hash < 0 ? line : line.substring(0, hash);
+    }
+    
+    private static CustomerTier parseTier(String name, int lineNumber) {
+        try {
+            return CustomerTier.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw error(lineNumber, "unknown customer tier '" + name + "'");
+        }
+    }
+    
+    private static RoundingMode parseRoundingMode(String name, int lineNumber) {
+        try {
+            RoundingMode mode = RoundingMode.valueOf(name.toUpperCase(Locale.ROOT));
+            if (mode != RoundingMode.UNNECESSARY) {
+                return mode;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw error(lineNumber, "unknown rounding mode '" + name + "'");
+    }
+    
+    private static List<DiscountRule> parseRules(String text, int lineNumber) {
+        List<DiscountRule> rules = new ArrayList<>();
+        if (text.isBlank()) {
+            return rules;
+        }
+        for (String part : text.split(",")) {
+            String[] tokens = part.strip().split("\\s+");
+            if (tokens.length != 1 && !(tokens.length == 3 && tokens[1].equalsIgnoreCase("over"))) {
+                throw error(lineNumber, "expected '<percent>%' or '<percent>% over <amount>' but got '" + part.strip() + "'");
+            }
+            if (!tokens[0].endsWith("%")) {
+                throw error(lineNumber, "percentage must end with '%': " + tokens[0]);
+            }
+            double percent = parseNumber(tokens[0].substring(0, tokens[0].length() - 1), lineNumber);
+            double threshold = tokens.length == 3 ? parseNumber(tokens[2], lineNumber) : Double.NEGATIVE_INFINITY;
+            try {
+                rules.add(new DiscountRule(percent, threshold));
+            } catch (IllegalArgumentException e) {
+                throw error(lineNumber, e.getMessage());
+            }
+        }
+        return rules;
+    }
+    
+    private static double parseNumber(String value, int lineNumber) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw error(lineNumber, "not a number: '" + value + "'");
+        }
+    }
+    
+    private static IllegalArgumentException error(int lineNumber, String message) {
+        return new IllegalArgumentException("Discount rules line " + lineNumber + ": " + message);
+    }
+}
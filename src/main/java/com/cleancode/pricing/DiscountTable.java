@@ -0,0 +1,95 @@
+package com.cleancode.pricing;
+
+import com.cleancode.domain.Money;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled form of a rule set: the rules of every tier laid out back to back in
+ * flat threshold and multiplier arrays, with each tier's slice found by its ordinal.
+ * Evaluation is a short loop over amounts in cents with no per-rule object access; each
+ * discount is rounded to whole cents with the table's rounding mode.
+ */
+public final class DiscountTable {
+    
+    private final int[] tierStart;
+    private final long[] thresholds;
+    private final int[] multipliers;
+    private final RoundingMode roundingMode;
+    private final Map<CustomerTier, List<DiscountRule>> rules;
+    
+    private DiscountTable(Map<CustomerTier, List<DiscountRule>> rules, RoundingMode roundingMode) {
+        CustomerTier[] tiers = CustomerTier.values();
+        int ruleCount = rules.values().stream().mapToInt(List::size).sum();
+        this.tierStart = new int[tiers.length + 1];
+        this.thresholds = new long[ruleCount];
+        this.multipliers = new int[ruleCount];
+        int index = 0;
+        for (CustomerTier tier : tiers) {
+            tierStart[tier.ordinal()] = index;
+            for (DiscountRule rule : rules.getOrDefault(tier, List.of())) {
+                thresholds[index] = rule.getThresholdCents();
+                multipliers[index] = Money.BASIS_POINTS_PER_UNIT - rule.getBasisPoints();
+                index++;
+            }
+        }
+        tierStart[tiers.length] = index;
+        this.roundingMode = roundingMode;
+        this.rules = rules;
+    }
+    
+    /**
+     * Compiles the rules with {@link Money#DEFAULT_ROUNDING}; tiers without an entry get no discount.
+     */
+    public static DiscountTable compile(Map<CustomerTier, List<DiscountRule>> rules) {
+        return compile(rules, Money.DEFAULT_ROUNDING);
+    }
+    
+    public static DiscountTable compile(Map<CustomerTier, List<DiscountRule>> rules, RoundingMode roundingMode) {
+        if (roundingMode == null || roundingMode == RoundingMode.UNNECESSARY) {
+            throw new IllegalArgumentException("Discount rounding mode must round: " + roundingMode);
+        }
+        Map<CustomerTier, List<DiscountRule>> copy = new EnumMap<>(CustomerTier.class);
+        rules.forEach((tier, tierRules) -> copy.put(tier, List.copyOf(tierRules)));
+        return new DiscountTable(Collections.unmodifiableMap(copy), roundingMode);
+    }
+    
+    /**
+     * Applies the tier's rules in order to the running amount.
+     *
+     * @return the discounted amount in cents
+     */
+    public long apply(CustomerTier tier, long amountCents) {
+        int end = tierStart[tier.ordinal() + 1];
+        for (int i = tierStart[tier.ordinal()]; i < end; i++) {
+            if (amountCents > thresholds[i]) {
+                amountCents = Money.applyBasisPoints(amountCents, multipliers[i], roundingMode);
+            }
+        }
+        return amountCents;
+    }
+    
+    public List<DiscountRule> rulesFor(CustomerTier tier) {
+        return rules.getOrDefault(tier, List.of());
+    }
+    
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+    
+    public int ruleCount() {
+        return thresholds.length;
+    }
+    
+    @Override
+    public String toString() {
+        List<String> lines = new ArrayList<>();
+        rules.forEach((tier, tierRules) -> lines.add(tier + " = " + tierRules));
+        return "DiscountTable" + lines + " rounded " + roundingMode;
+    }
+}
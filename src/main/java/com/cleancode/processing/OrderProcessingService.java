@@ -0,0 +1,363 @@
+package com.cleancode.processing;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.BatchResult;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.OrderResult;
+import com.cleancode.domain.Order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs {@link LongMethodRefactored#processOrder(Order)} for each submitted order on its own
+ * virtual thread, so an order blocked on repository I/O parks cheaply instead of holding a
+ * platform thread.
+ *
+ * Threads are not the limit; a semaphore is. At most {@code maxConcurrency} orders are inside
+ * {@code processOrder} at once, which protects the repository behind it, while further orders
+ * wait for a permit without occupying a carrier thread.
+ *
+ * Every order has a timeout that covers both the wait for a permit and the processing. When it
+ * expires, or when the returned future is cancelled, the future completes at once. An order still
+ * waiting for a permit is abandoned and its virtual thread interrupted. An order already inside
+ * {@code processOrder} is never interrupted: it may have claimed the order, and interrupting a
+ * thread blocked in channel I/O would close the repository's channel. It finishes, save included,
+ * in the background, and {@link #close()} waits for it.
+ *
+ * {@link #submitAll(Collection)} returns a {@link Batch} that owns its orders: cancelling the
+ * batch, leaving its try-with-resources block or interrupting {@link Batch#await()} cancels
+ * whatever has not finished.
+ */
+public class OrderProcessingService implements AutoCloseable {
+
+    private final LongMethodRefactored processor;
+    private final int maxConcurrency;
+    private final long timeoutNanos;
+    private final Semaphore permits;
+    // Per-order progress: whether the worker entered processOrder or the order was abandoned first
+    private static final int WAITING = 0;
+    private static final int RUNNING = 1;
+    private static final int ABANDONED = 2;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledThreadPoolExecutor timer;
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+
+    private volatile boolean closed;
+
+    /**
+     * @param processor the order processor, typically backed by a blocking repository
+     * @param maxConcurrency how many orders may be processed at the same time
+     * @param orderTimeout how long an order may take from submission to completion
+     */
+    public OrderProcessingService(LongMethodRefactored processor, int maxConcurrency, Duration orderTimeout) {
+        if (processor == null) {
+            throw new IllegalArgumentException("Order processor cannot be null");
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+        if (orderTimeout == null || orderTimeout.isNegative() || orderTimeout.isZero()) {
+            throw new IllegalArgumentException("Order timeout must be positive");
+        }
+        this.processor = processor;
+        this.maxConcurrency = maxConcurrency;
+        this.timeoutNanos = orderTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrency);
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "order-processing-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Processes the order asynchronously. The future completes with the order, with the
+     * processing failure, or with a {@link TimeoutException}. Cancelling it abandons the order
+     * if processing has not started yet.
+     *
+     * @throws IllegalStateException if the service is closed
+     */
+    public CompletableFuture<Order> submit(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Order processing service is closed");
+        }
+        long submittedAt = System.nanoTime();
+        submitted.increment();
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        // Whoever settles the order first counts it, before completing the future, so the
+        // counters are up to date by the time a caller sees the outcome
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicInteger progress = new AtomicInteger(WAITING);
+        Future<?> task;
+        try {
+            task = executor.submit(() -> process(order, submittedAt, result, settled, progress));
+        } catch (RejectedExecutionException e) {
+            // close() ran since the check above
+            submitted.decrement();
+            throw new IllegalStateException("Order processing service is closed", e);
+        }
+        ScheduledFuture<?> deadline;
+        try {
+            deadline = timer.schedule(() -> {
+                if (settled.compareAndSet(false, true)) {
+                    timedOut.increment();
+                    // Abandon first, so an order still waiting cannot start once the caller sees the timeout
+                    abandon(task, progress);
+                    result.completeExceptionally(new TimeoutException(
+                        "Order " + order.getOrderId() + " timed out after " + Duration.ofNanos(timeoutNanos)));
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // The timer stops only after every accepted order has finished, this one included
+            return result;
+        }
+        result.whenComplete((processed, failure) -> {
+            deadline.cancel(false);
+            if (result.isCancelled()) {
+                if (settled.compareAndSet(false, true)) {
+                    cancelled.increment();
+                }
+                abandon(task, progress);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Interrupts an order that is still waiting for a permit. One that has entered processOrder
+     * is left to finish.
+     */
+    private static void abandon(Future<?> task, AtomicInteger progress) {
+        if (progress.compareAndSet(WAITING, ABANDONED)) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Submits every order as one batch.
+     */
+    public Batch submitAll(Collection<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        List<Order> accepted = new ArrayList<>(orders);
+        List<CompletableFuture<Order>> futures = new ArrayList<>(accepted.size());
+        try {
+            for (Order order : accepted) {
+                futures.add(submit(order));
+            }
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return new Batch(accepted, futures);
+    }
+
+    public Stats stats() {
+        return new Stats(this);
+    }
+
+    /**
+     * Stops accepting orders and waits for the submitted ones to finish or time out.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.close();
+        timer.shutdownNow();
+    }
+
+    private void process(Order order, long submittedAt, CompletableFuture<Order> result,
+                         AtomicBoolean settled, AtomicInteger progress) {
+        if (settled.get()) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            return; // timed out or cancelled while waiting; the future is already complete
+        }
+        if (!progress.compareAndSet(WAITING, RUNNING) || settled.get()) {
+            permits.release(); // abandoned, or about to be, just as the permit came through
+            return;
+        }
+        RuntimeException failure = null;
+        try {
+            processor.processOrder(order);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            permits.release();
+        }
+        if (!settled.compareAndSet(false, true)) {
+            return;
+        }
+        if (failure != null) {
+            failed.increment();
+            result.completeExceptionally(failure);
+        } else {
+            long latency = System.nanoTime() - submittedAt;
+            completed.increment();
+            latencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+            result.complete(order);
+        }
+    }
+
+    /**
+     * Orders submitted together. Closing the batch cancels the orders that have not finished;
+     * those still waiting for a permit are dropped, and those already being processed finish
+     * their saves in the background.
+     */
+    public static final class Batch implements AutoCloseable {
+        private final List<Order> orders;
+        private final List<CompletableFuture<Order>> futures;
+
+        private Batch(List<Order> orders, List<CompletableFuture<Order>> futures) {
+            this.orders = orders;
+            this.futures = futures;
+        }
+
+        /**
+         * Waits for every order and reports each outcome in submission order. If the waiting
+         * thread is interrupted, the unfinished orders are cancelled.
+         */
+        public BatchResult await() throws InterruptedException {
+            try {
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .exceptionally(failure -> null)
+                    .get();
+            } catch (InterruptedException e) {
+                cancel();
+                throw e;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Unexpected batch failure", e.getCause());
+            }
+            List<OrderResult> results = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                results.add(resultOf(orders.get(i), futures.get(i)));
+            }
+            return new BatchResult(results);
+        }
+
+        /**
+         * Cancels the orders that have not finished.
+         *
+         * @return how many orders were cancelled
+         */
+        public int cancel() {
+            int count = 0;
+            for (CompletableFuture<Order> future : futures) {
+                if (future.cancel(true)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        public List<CompletableFuture<Order>> futures() {
+            return List.copyOf(futures);
+        }
+
+        @Override
+        public void close() {
+            cancel();
+        }
+
+        private static OrderResult resultOf(Order order, CompletableFuture<Order> future) {
+            try {
+                return OrderResult.success(future.join());
+            } catch (CancellationException e) {
+                return OrderResult.failure(order, e);
+            } catch (CompletionException e) {
+                return OrderResult.failure(order,
+                    e.getCause() instanceof RuntimeException failure ? failure : e);
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the service counters. Latencies run from submission to completion and
+     * cover successfully processed orders only.
+     */
+    public static final class Stats {
+        private final long submitted;
+        private final long completed;
+        private final long failed;
+        private final long timedOut;
+        private final long cancelled;
+        private final int inFlight;
+        private final long meanLatencyNanos;
+        private final long maxLatencyNanos;
+        private final double throughputPerSecond;
+
+        private Stats(OrderProcessingService service) {
+            this.submitted = service.submitted.sum();
+            this.completed = service.completed.sum();
+            this.failed = service.failed.sum();
+            this.timedOut = service.timedOut.sum();
+            this.cancelled = service.cancelled.sum();
+            this.inFlight = service.maxConcurrency - service.permits.availablePermits();
+            this.meanLatencyNanos = completed == 0 ? 0 : service.latencyNanos.sum() / completed;
+            this.maxLatencyNanos = service.maxLatencyNanos.get();
+            long elapsedNanos = Math.max(1, System.nanoTime() - service.startNanos);
+            this.throughputPerSecond = completed * 1e9 / elapsedNanos;
+        }
+
+        // Getters
+        public long getSubmitted() { return submitted; }
+        public long getCompleted() { return completed; }
+        public long getFailed() { return failed; }
+        public long getTimedOut() { return timedOut; }
+        public long getCancelled() { return cancelled; }
+        public int getInFlight() { return inFlight; }
+        public Duration getMeanLatency() { return Duration.ofNanos(meanLatencyNanos); }
+        public Duration getMaxLatency() { return Duration.ofNanos(maxLatencyNanos); }
+        public double getThroughputPerSecond() { return throughputPerSecond; }
+
+        @Override
+        public String toString() {
+            return "Stats{submitted=" + submitted +
+                    ", completed=" + completed +
+                    ", failed=" + failed +
+                    ", timedOut=" + timedOut +
+                    ", cancelled=" + cancelled +
+                    ", inFlight=" + inFlight +
+                    ", meanLatency=" + getMeanLatency() +
+                    ", maxLatency=" + getMaxLatency() +
+                    ", throughput=" + String.format("%.1f/s", throughputPerSecond) + "}";
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.cleancode.processing;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.OrderWork;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.Step;
+import com.cleancode.domain.Order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Runs {@link LongMethodRefactored#processOrder(Order)} as a staged (SEDA) pipeline: each
+ * {@link Step} has its own group of worker threads, and a bounded ring buffer sits in front of
+ * every stage. A slow stage, typically SAVE behind a blocking repository, can be given more
+ * workers without touching the CPU-bound stages, and when it still falls behind its queue fills
+ * and {@link #submit(Order)} blocks instead of letting work pile up in memory.
+ *
+ * Each order passes through the stages in order, but stages with several workers may finish
+ * orders out of submission order. A worker survives whatever its step throws, errors included,
+ * so {@link #close()} always drains the stages. {@link #stats()} reports queue depth, service time, throughput
+ * and utilization per stage; the stage with the highest utilization is the bottleneck.
+ */
+public class StagedOrderPipeline implements AutoCloseable {
+
+    // Passed down the stages on close, one per worker of the receiving stage
+    private static final Job END = new Job(null, null);
+
+    private final LongMethodRefactored processor;
+    private final Stage[] stages;
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final long startNanos = System.nanoTime();
+    private boolean closed;
+
+    /**
+     * Starts one worker per stage.
+     */
+    public StagedOrderPipeline(LongMethodRefactored processor, int queueCapacity) {
+        this(processor, queueCapacity, Map.of());
+    }
+
+    /**
+     * @param processor runs the steps and saves the orders
+     * @param queueCapacity how many orders may wait in front of each stage
+     * @param workers worker count per step; steps not in the map get one worker
+     */
+    public StagedOrderPipeline(LongMethodRefactored processor, int queueCapacity, Map<Step, Integer> workers) {
+        if (processor == null) {
+            throw new IllegalArgumentException("Order processor cannot be null");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        if (workers == null) {
+            throw new IllegalArgumentException("Workers cannot be null");
+        }
+        this.processor = processor;
+        Step[] steps = Step.values();
+        this.stages = new Stage[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            int count = workers.getOrDefault(steps[i], 1);
+            if (count < 1) {
+                throw new IllegalArgumentException("Stage " + steps[i] + " needs at least one worker");
+            }
+            stages[i] = new Stage(steps[i], count, queueCapacity);
+        }
+        for (int i = 0; i < stages.length; i++) {
+            stages[i].start(i + 1 < stages.length ? stages[i + 1] : null);
+        }
+    }
+
+    /**
+     * Queues the order at the first stage, blocking while that stage's buffer is full. The
+     * future completes with the order once it is saved, or with a {@link StepFailedException}
+     * naming the step that rejected it and carrying that step's exception as its cause.
+     */
+    public CompletableFuture<Order> submit(Order order) throws InterruptedException {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Staged order pipeline is closed");
+            }
+            stages[0].queue.put(new Job(new OrderWork(order), result));
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Per-stage statistics, in step order.
+     */
+    public List<StageStats> stats() {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        List<StageStats> stats = new ArrayList<>(stages.length);
+        for (Stage stage : stages) {
+            stats.add(new StageStats(stage, elapsedNanos));
+        }
+        return stats;
+    }
+
+    /**
+     * The stage whose workers have been busy the largest share of the time.
+     */
+    public StageStats bottleneck() {
+        return stats().stream()
+            .max(Comparator.comparingDouble(StageStats::getUtilization))
+            .orElseThrow();
+    }
+
+    /**
+     * Stops accepting orders, lets the queued ones finish and waits for the workers to exit.
+     * If the calling thread is interrupted, returns early with its interrupt flag set.
+     */
+    @Override
+    public void close() {
+        try {
+            closeLock.writeLock().lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                stages[0].stop();
+            } finally {
+                closeLock.writeLock().unlock();
+            }
+            for (Stage stage : stages) {
+                for (Thread worker : stage.threads) {
+                    worker.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Stage stage, Stage next) {
+        try {
+            while (true) {
+                Job job = stage.queue.take();
+                if (job == END) {
+                    if (stage.running.decrementAndGet() == 0 && next != null) {
+                        next.stop();
+                    }
+                    return;
+                }
+                long start = System.nanoTime();
+                Throwable failure = null;
+                try {
+                    processor.runStep(stage.step, job.work);
+                } catch (Throwable e) {
+                    // Not only RuntimeException: a worker killed by an Error would never pass
+                    // END on, and close() would wait for it forever
+                    failure = e;
+                }
+                stage.recordService(System.nanoTime() - start, failure == null);
+                if (failure != null) {
+                    job.result.completeExceptionally(new StepFailedException(stage.step, job.work.getOrder(), failure));
+                } else if (next != null) {
+                    next.queue.put(job);
+                } else {
+                    job.result.complete(job.work.getOrder());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Why an order left the pipeline early: the step that rejected it, with the step's
+     * exception as the cause.
+     */
+    public static final class StepFailedException extends RuntimeException {
+        private final Step step;
+
+        StepFailedException(Step step, Order order, Throwable cause) {
+            super("Order " + order.getOrderId() + " failed at " + step + ": " + cause.getMessage(), cause);
+            this.step = step;
+        }
+
+        public Step getStep() {
+            return step;
+        }
+    }
+
+    private static final class Job {
+        private final OrderWork work;
+        private final CompletableFuture<Order> result;
+
+        private Job(OrderWork work, CompletableFuture<Order> result) {
+            this.work = work;
+            this.result = result;
+        }
+    }
+
+    private final class Stage {
+        private final Step step;
+        private final int workers;
+        private final int capacity;
+        private final BlockingQueue<Job> queue;
+        private final List<Thread> threads;
+        private final AtomicInteger running;
+
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAccumulator maxServiceNanos = new LongAccumulator(Long::max, 0);
+
+        private Stage(Step step, int workers, int capacity) {
+            this.step = step;
+            this.workers = workers;
+            this.capacity = capacity;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.threads = new ArrayList<>(workers);
+            this.running = new AtomicInteger(workers);
+        }
+
+        private void start(Stage next) {
+            String prefix = "stage-" + step.name().toLowerCase(Locale.ROOT) + "-";
+            for (int i = 1; i <= workers; i++) {
+                Thread worker = new Thread(() -> run(this, next), prefix + i);
+                worker.setDaemon(true);
+                threads.add(worker);
+                worker.start();
+            }
+        }
+
+        /**
+         * Queues one END per worker behind the orders already waiting.
+         */
+        private void stop() throws InterruptedException {
+            for (int i = 0; i < workers; i++) {
+                queue.put(END);
+            }
+        }
+
+        private void recordService(long nanos, boolean succeeded) {
+            busyNanos.add(nanos);
+            maxServiceNanos.accumulate(nanos);
+            if (succeeded) {
+                processed.increment();
+            } else {
+                failed.increment();
+            }
+        }
+    }
+
+    /**
+     * Snapshot of one stage. Service times cover the step itself, not the wait in the queue.
+     */
+    public static final class StageStats {
+        private final Step step;
+        private final int workers;
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final long processed;
+        private final long failed;
+        private final long meanServiceNanos;
+        private final long maxServiceNanos;
+        private final double throughputPerSecond;
+        private final double utilization;
+
+        private StageStats(Stage stage, long elapsedNanos) {
+            this.step = stage.step;
+            this.workers = stage.workers;
+            this.queueDepth = stage.queue.size();
+            this.queueCapacity = stage.capacity;
+            this.processed = stage.processed.sum();
+            this.failed = stage.failed.sum();
+            long busy = stage.busyNanos.sum();
+            long served = processed + failed;
+            this.meanServiceNanos = served == 0 ? 0 : busy / served;
+            this.maxServiceNanos = stage.maxServiceNanos.get();
+            this.throughputPerSecond = processed * 1e9 / elapsedNanos;
+            this.utilization = Math.min(1.0, busy / ((double) elapsedNanos * workers));
+        }
+
+        // Getters
+        public Step getStep() { return step; }
+        public int getWorkers() { return workers; }
+        public int getQueueDepth() { return queueDepth; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public long getProcessed() { return processed; }
+        public long getFailed() { return failed; }
+        public Duration getMeanServiceTime() { return Duration.ofNanos(meanServiceNanos); }
+        public Duration getMaxServiceTime() { return Duration.ofNanos(maxServiceNanos); }
+        public double getThroughputPerSecond() { return throughputPerSecond; }
+
+        /**
+         * Share of the workers' time spent running the step, from 0 to 1.
+         */
+        public double getUtilization() { return utilization; }
+
+        @Override
+        public String toString() {
+            return "StageStats{step=" + step +
+                    ", workers=" + workers +
+                    ", queueDepth=" + queueDepth + "/" + queueCapacity +
+                    ", processed=" + processed +
+                    ", failed=" + failed +
+                    ", meanServiceTime=" + getMeanServiceTime() +
+                    ", maxServiceTime=" + getMaxServiceTime() +
+                    ", throughput=" + String.format("%.1f/s", throughputPerSecond) +
+                    ", utilization=" + String.format("%.0f%%", utilization * 100) + "}";
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.cleancode.processing.ingest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Field splitting and header lookup shared by the CSV parsers. Fields may be quoted as in
+ * RFC 4180, with {@code ""} for a quote inside a quoted field, but may not span lines.
+ */
+final class CsvFields {
+
+    private CsvFields() {
+    }
+
+    /**
+     * Maps each wanted column name to its index in the header row.
+     *
+     * @throws IllegalArgumentException if a column is missing
+     */
+    static int[] indexesOf(List<String> header, String[] columns) {
+        int[] indexes = new int[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            indexes[column] = header.indexOf(columns[column]);
+            if (indexes[column] < 0) {
+                throw new IllegalArgumentException("Header has no " + columns[column] + " column");
+            }
+        }
+        return indexes;
+    }
+
+    static String get(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            throw new IllegalArgumentException("Row has " + fields.size() + " fields, expected " + (index + 1) + " or more");
+        }
+        return fields.get(index);
+    }
+
+    static List<String> split(String line, int expectedFields) {
+        List<String> fields = new ArrayList<>(expectedFields);
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            field.setLength(0);
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < line.length() && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quoted field at column " + (i + 1));
+                }
+                fields.add(field.toString());
+            } else {
+                int end = line.indexOf(',', i);
+                if (end < 0) {
+                    end = line.length();
+                }
+                fields.add(line.substring(i, end));
+                i = end;
+            }
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++; // the comma
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Money;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+
+import java.util.List;
+
+/**
+ * One row per order line, after a header naming the columns in any order:
+ *
+ * <pre>
+ * orderId,customerId,customerName,customerEmail,premium,productId,productName,price,quantity
+ * </pre>
+ *
+ * Consecutive rows with the same orderId form one order, which is complete when a row
+ * for another order arrives; the customer is taken from its first row. A row with an empty
+ * productId contributes no item. Fields may be quoted as in RFC 4180, but not span lines.
+ */
+final class CsvOrderParser implements OrderParser {
+
+    static final String[] COLUMNS = {
+        "orderId", "customerId", "customerName", "customerEmail", "premium",
+        "productId", "productName", "price", "quantity"
+    };
+
+    private static final int ORDER_ID = 0;
+    private static final int CUSTOMER_ID = 1;
+    private static final int CUSTOMER_NAME = 2;
+    private static final int CUSTOMER_EMAIL = 3;
+    private static final int PREMIUM = 4;
+    private static final int PRODUCT_ID = 5;
+    private static final int PRODUCT_NAME = 6;
+    private static final int PRICE = 7;
+    private static final int QUANTITY = 8;
+
+    // Field index in a row for each of COLUMNS, from the header
+    private int[] columnIndexes;
+    private Order open;
+
+    @Override
+    public Order parseLine(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        List<String> fields = CsvFields.split(line, COLUMNS.length);
+        if (columnIndexes == null) {
+            columnIndexes = CsvFields.indexesOf(fields, COLUMNS);
+            return null;
+        }
+        String orderId = field(fields, ORDER_ID);
+        if (orderId.isEmpty()) {
+            throw new IllegalArgumentException("Row has no orderId");
+        }
+        OrderItem item = readItem(fields);
+        Order completed = null;
+        if (open == null || !open.getOrderId().equals(orderId)) {
+            Customer customer = readCustomer(fields);
+            completed = open;
+            open = new Order(orderId, customer);
+        }
+        if (item != null) {
+            open.addItem(item);
+        }
+        return completed;
+    }
+
+    @Override
+    public Order finish() {
+        Order last = open;
+        open = null;
+        return last;
+    }
+
+    private Customer readCustomer(List<String> fields) {
+        String customerId = field(fields, CUSTOMER_ID);
+        if (customerId.isEmpty()) {
+            return null;
+        }
+        return new Customer(customerId, field(fields, CUSTOMER_NAME), field(fields, CUSTOMER_EMAIL),
+            Boolean.parseBoolean(field(fields, PREMIUM)));
+    }
+
+    private OrderItem readItem(List<String> fields) {
+        String productId = field(fields, PRODUCT_ID);
+        if (productId.isEmpty()) {
+            return null;
+        }
+        String price = field(fields, PRICE);
+        String quantity = field(fields, QUANTITY);
+        try {
+            return OrderItem.ofCents(productId, field(fields, PRODUCT_NAME), Money.parse(price), Integer.parseInt(quantity));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad price or quantity: '" + price + "', '" + quantity + "'");
+        }
+    }
+
+    private String field(List<String> fields, int column) {
+        return CsvFields.get(fields, columnIndexes[column]);
+    }
+}
@@ -0,0 +1,72 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.Address;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.UserRegistrationData;
+
+import java.util.List;
+
+/**
+ * One user per row, after a header naming the columns in any order:
+ *
+ * <pre>
+ * firstName,lastName,email,phoneNumber,street,city,state,zipCode,country,dateOfBirth,password,active
+ * </pre>
+ *
+ * Empty fields become nulls so that validation reports them; a row whose address fields are
+ * all empty has no address. Dates are ISO-8601 ({@code 1990-05-15}).
+ */
+final class CsvUserParser implements UserRowParser {
+
+    static final String[] COLUMNS = {
+        "firstName", "lastName", "email", "phoneNumber", "street", "city", "state", "zipCode",
+        "country", "dateOfBirth", "password", "active"
+    };
+
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PHONE_NUMBER = 3;
+    private static final int STREET = 4;
+    private static final int CITY = 5;
+    private static final int STATE = 6;
+    private static final int ZIP_CODE = 7;
+    private static final int COUNTRY = 8;
+    private static final int DATE_OF_BIRTH = 9;
+    private static final int PASSWORD = 10;
+    private static final int ACTIVE = 11;
+
+    // Field index in a row for each of COLUMNS, from the header
+    private final int[] columnIndexes;
+
+    CsvUserParser(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("User file has no header");
+        }
+        this.columnIndexes = CsvFields.indexesOf(CsvFields.split(header, COLUMNS.length), COLUMNS);
+    }
+
+    @Override
+    public UserRegistrationData parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        List<String> fields = CsvFields.split(line, COLUMNS.length);
+        String street = field(fields, STREET);
+        String city = field(fields, CITY);
+        String state = field(fields, STATE);
+        String zipCode = field(fields, ZIP_CODE);
+        String country = field(fields, COUNTRY);
+        Address address = street == null && city == null && state == null && zipCode == null && country == null
+            ? null
+            : new Address(street, city, state, zipCode, country);
+        return new UserRegistrationData(field(fields, FIRST_NAME), field(fields, LAST_NAME),
+            field(fields, EMAIL), field(fields, PHONE_NUMBER), address,
+            UserFields.parseDate(field(fields, DATE_OF_BIRTH)), field(fields, PASSWORD),
+            Boolean.parseBoolean(field(fields, ACTIVE)));
+    }
+
+    private String field(List<String> fields, int column) {
+        String value = CsvFields.get(fields, columnIndexes[column]);
+        return value.isEmpty() ? null : value;
+    }
+}
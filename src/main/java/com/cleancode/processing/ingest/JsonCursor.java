@@ -0,0 +1,224 @@
+package com.cleancode.processing.ingest;
+
+/**
+ * Minimal pull parser over one JSON document held in a string, enough to map an order
+ * record onto domain objects without building an intermediate tree.
+ */
+final class JsonCursor {
+
+    private final String text;
+    private int position;
+
+    JsonCursor(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Consumes the character if it is next, ignoring whitespace.
+     */
+    boolean consume(char c) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    void expect(char c) {
+        if (!consume(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    /**
+     * Reads the members of an object whose opening brace was just consumed.
+     */
+    void readObject(MemberReader reader) {
+        if (consume('}')) {
+            return;
+        }
+        do {
+            String name = readString();
+            expect(':');
+            reader.read(name);
+        } while (consume(','));
+        expect('}');
+    }
+
+    /**
+     * Reads the elements of an array whose opening bracket was just consumed.
+     */
+    void readArray(Runnable elementReader) {
+        if (consume(']')) {
+            return;
+        }
+        do {
+            elementReader.run();
+        } while (consume(','));
+        expect(']');
+    }
+
+    String readString() {
+        skipWhitespace();
+        if (position >= text.length() || text.charAt(position) != '"') {
+            throw error("Expected a string");
+        }
+        int start = ++position;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '"') {
+                return text.substring(start, position++);
+            }
+            if (c == '\\') {
+                return readEscapedString(start);
+            }
+            position++;
+        }
+        throw error("Unterminated string");
+    }
+
+    /**
+     * @return null for a JSON null, otherwise the string value
+     */
+    String readNullableString() {
+        return readNull() ? null : readString();
+    }
+
+    /**
+     * The literal text of a number, or of a string holding one, for exact conversion by the caller.
+     */
+    String readNumberText() {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == '"') {
+            return readString();
+        }
+        int start = position;
+        while (position < text.length() && isNumberChar(text.charAt(position))) {
+            position++;
+        }
+        if (start == position) {
+            throw error("Expected a number");
+        }
+        return text.substring(start, position);
+    }
+
+    boolean readBoolean() {
+        if (readLiteral("true")) {
+            return true;
+        }
+        if (readLiteral("false")) {
+            return false;
+        }
+        throw error("Expected a boolean");
+    }
+
+    boolean readNull() {
+        return readLiteral("null");
+    }
+
+    void skipValue() {
+        skipWhitespace();
+        if (consume('{')) {
+            readObject(name -> skipValue());
+        } else if (consume('[')) {
+            readArray(this::skipValue);
+        } else if (position < text.length() && text.charAt(position) == '"') {
+            readString();
+        } else if (!readLiteral("true") && !readLiteral("false") && !readNull()) {
+            readNumberText();
+        }
+    }
+
+    /**
+     * Checks that nothing but whitespace follows.
+     */
+    void end() {
+        skipWhitespace();
+        if (position != text.length()) {
+            throw error("Unexpected trailing content");
+        }
+    }
+
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at column " + (position + 1));
+    }
+
+    private String readEscapedString(int start) {
+        StringBuilder value = new StringBuilder(text.length() - start);
+        value.append(text, start, position);
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(position++);
+            if (escaped == 'u') {
+                if (position + 4 > text.length()) {
+                    throw error("Truncated unicode escape");
+                }
+                try {
+                    value.append((char) Integer.parseInt(text, position, position + 4, 16));
+                } catch (NumberFormatException e) {
+                    throw error("Bad unicode escape");
+                }
+                position += 4;
+            } else {
+                value.append(unescape(escaped));
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private char unescape(char escaped) {
+        if (escaped == 'n') {
+            return '\n';
+        }
+        if (escaped == 't') {
+            return '\t';
+        }
+        if (escaped == 'r') {
+            return '\r';
+        }
+        if (escaped == 'b') {
+            return '\b';
+        }
+        if (escaped == 'f') {
+            return '\f';
+        }
+        if (escaped == '"' || escaped == '\\' || escaped == '/') {
+            return escaped;
+        }
+        throw error("Bad escape '\\" + escaped + "'");
+    }
+
+    private boolean readLiteral(String literal) {
+        skipWhitespace();
+        if (text.startsWith(literal, position)) {
+            position += literal.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    interface MemberReader {
+        void read(String name);
+    }
+}
@@ -0,0 +1,112 @@
+package com.cleancode.processing.ingest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 lines from a channel through one fixed-size buffer, so memory use depends on
+ * the chunk size and the longest line, not on the size of the input. Accepts {@code \n} and
+ * {@code \r\n} line ends. Not thread-safe.
+ */
+final class LineReader implements AutoCloseable {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer chunk;
+    private final int maxLineBytes;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private long lineNumber;
+    private boolean endOfInput;
+
+    LineReader(ReadableByteChannel channel, int chunkBytes, int maxLineBytes) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null");
+        }
+        if (chunkBytes < 1 || maxLineBytes < 1) {
+            throw new IllegalArgumentException("Chunk and line sizes must be positive");
+        }
+        this.channel = channel;
+        this.chunk = ByteBuffer.allocate(chunkBytes).flip();
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * @return the next line without its line end, or null at the end of the input
+     * @throws IllegalArgumentException if the line is longer than the limit; the line is
+     *         skipped, so reading can continue with the next one
+     */
+    String readLine() throws IOException {
+        lineLength = 0;
+        boolean tooLong = false;
+        while (true) {
+            byte[] bytes = chunk.array();
+            int start = chunk.position();
+            int limit = chunk.limit();
+            int end = start;
+            while (end < limit && bytes[end] != '\n') {
+                end++;
+            }
+            chunk.position(end < limit ? end + 1 : limit);
+            if (end < limit && lineLength == 0 && !tooLong) {
+                // The whole line is in this chunk: decode it in place, still within the limit
+                return completeLine(bytes, start, end - start, end - start > maxLineBytes);
+            }
+            int room = maxLineBytes - lineLength;
+            if (end - start > room) {
+                tooLong = true;
+            }
+            append(bytes, start, Math.min(end - start, room));
+            if (end < limit) {
+                return completeLine(line, 0, lineLength, tooLong);
+            }
+            if (endOfInput || !fill()) {
+                endOfInput = true;
+                return lineLength > 0 || tooLong ? completeLine(line, 0, lineLength, tooLong) : null;
+            }
+        }
+    }
+
+    /**
+     * Number of the line last returned, starting at 1.
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean fill() throws IOException {
+        chunk.clear();
+        int read;
+        do {
+            read = channel.read(chunk);
+        } while (read == 0);
+        chunk.flip();
+        return read > 0;
+    }
+
+    private void append(byte[] bytes, int offset, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.min(maxLineBytes, Math.max(lineLength + length, line.length * 2)));
+        }
+        System.arraycopy(bytes, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private String completeLine(byte[] bytes, int offset, int length, boolean tooLong) {
+        lineNumber++;
+        if (tooLong) {
+            throw new IllegalArgumentException("Line " + lineNumber + " is longer than " + maxLineBytes + " bytes");
+        }
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Money;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One JSON object per line. Unknown members are ignored, blank lines are skipped, and
+ * {@code price} may be a number or a string; it is converted to cents without a double.
+ */
+final class NdjsonOrderParser implements OrderParser {
+
+    @Override
+    public Order parseLine(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        JsonCursor json = new JsonCursor(line);
+        OrderRecord record = new OrderRecord();
+        json.expect('{');
+        json.readObject(name -> readOrderMember(json, record, name));
+        json.end();
+        if (record.orderId == null) {
+            throw new IllegalArgumentException("Order record has no orderId");
+        }
+        Order order = new Order(record.orderId, record.customer);
+        for (OrderItem item : record.items) {
+            order.addItem(item);
+        }
+        return order;
+    }
+
+    @Override
+    public Order finish() {
+        return null;
+    }
+
+    private void readOrderMember(JsonCursor json, OrderRecord record, String name) {
+        if (name.equals("orderId")) {
+            record.orderId = json.readString();
+        } else if (name.equals("customer")) {
+            record.customer = json.readNull() ? null : readCustomer(json);
+        } else if (name.equals("items")) {
+            json.expect('[');
+            json.readArray(() -> record.items.add(readItem(json)));
+        } else {
+            json.skipValue();
+        }
+    }
+
+    private Customer readCustomer(JsonCursor json) {
+        Customer customer = new Customer(null, null, null, false);
+        json.expect('{');
+        json.readObject(name -> {
+            if (name.equals("customerId")) {
+                customer.setCustomerId(json.readNullableString());
+            } else if (name.equals("name")) {
+                customer.setName(json.readNullableString());
+            } else if (name.equals("email")) {
+                customer.setEmail(json.readNullableString());
+            } else if (name.equals("premium")) {
+                customer.setPremium(json.readBoolean());
+            } else {
+                json.skipValue();
+            }
+        });
+        return customer;
+    }
+
+    private OrderItem readItem(JsonCursor json) {
+        ItemRecord item = new ItemRecord();
+        json.expect('{');
+        json.readObject(name -> {
+            if (name.equals("productId")) {
+                item.productId = json.readNullableString();
+            } else if (name.equals("productName")) {
+                item.productName = json.readNullableString();
+            } else if (name.equals("price")) {
+                item.priceCents = parseAmount(json, json.readNumberText());
+            } else if (name.equals("quantity")) {
+                item.quantity = parseQuantity(json, json.readNumberText());
+            } else {
+                json.skipValue();
+            }
+        });
+        return OrderItem.ofCents(item.productId, item.productName, item.priceCents, item.quantity);
+    }
+
+    private static long parseAmount(JsonCursor json, String text) {
+        try {
+            return Money.parse(text);
+        } catch (NumberFormatException e) {
+            throw json.error("Bad price '" + text + "'");
+        }
+    }
+
+    private static int parseQuantity(JsonCursor json, String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw json.error("Bad quantity '" + text + "'");
+        }
+    }
+
+    private static final class OrderRecord {
+        private String orderId;
+        private Customer customer;
+        private final List<OrderItem> items = new ArrayList<>();
+    }
+
+    private static final class ItemRecord {
+        private String productId;
+        private String productName;
+        private long priceCents;
+        private int quantity;
+    }
+}
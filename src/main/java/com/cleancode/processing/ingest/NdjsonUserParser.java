@@ -0,0 +1,79 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.Address;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.UserRegistrationData;
+
+/**
+ * One JSON object per line. Unknown members are ignored, missing ones stay null so that
+ * validation reports them, and blank lines are skipped.
+ */
+final class NdjsonUserParser implements UserRowParser {
+
+    @Override
+    public UserRegistrationData parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        JsonCursor json = new JsonCursor(line);
+        UserRecord user = new UserRecord();
+        json.expect('{');
+        json.readObject(name -> readUserMember(json, user, name));
+        json.end();
+        return new UserRegistrationData(user.firstName, user.lastName, user.email, user.phoneNumber,
+            user.address, UserFields.parseDate(user.dateOfBirth), user.password, user.active);
+    }
+
+    private void readUserMember(JsonCursor json, UserRecord user, String name) {
+        if (name.equals("firstName")) {
+            user.firstName = json.readNullableString();
+        } else if (name.equals("lastName")) {
+            user.lastName = json.readNullableString();
+        } else if (name.equals("email")) {
+            user.email = json.readNullableString();
+        } else if (name.equals("phoneNumber")) {
+            user.phoneNumber = json.readNullableString();
+        } else if (name.equals("address")) {
+            user.address = json.readNull() ? null : readAddress(json);
+        } else if (name.equals("dateOfBirth")) {
+            user.dateOfBirth = json.readNullableString();
+        } else if (name.equals("password")) {
+            user.password = json.readNullableString();
+        } else if (name.equals("active")) {
+            user.active = json.readBoolean();
+        } else {
+            json.skipValue();
+        }
+    }
+
+    private Address readAddress(JsonCursor json) {
+        String[] fields = new String[5];
+        json.expect('{');
+        json.readObject(name -> {
+            if (name.equals("street")) {
+                fields[0] = json.readNullableString();
+            } else if (name.equals("city")) {
+                fields[1] = json.readNullableString();
+            } else if (name.equals("state")) {
+                fields[2] = json.readNullableString();
+            } else if (name.equals("zipCode")) {
+                fields[3] = json.readNullableString();
+            } else if (name.equals("country")) {
+                fields[4] = json.readNullableString();
+            } else {
+                json.skipValue();
+            }
+        });
+        return new Address(fields[0], fields[1], fields[2], fields[3], fields[4]);
+    }
+
+    private static final class UserRecord {
+        private String firstName;
+        private String lastName;
+        private String email;
+        private String phoneNumber;
+        private Address address;
+        private String dateOfBirth;
+        private String password;
+        private boolean active;
+    }
+}
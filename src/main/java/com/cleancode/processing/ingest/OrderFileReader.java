@@ -0,0 +1,83 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.domain.Order;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads orders from a dump one at a time. The file is read through a fixed-size buffer and
+ * parsed line by line, so only the current chunk, line and order are ever in memory.
+ *
+ * A malformed record is reported by {@link #next()} and skipped; reading can go on with the
+ * next record. Not thread-safe.
+ */
+public final class OrderFileReader implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_BYTES = 64 * 1024;
+    public static final int DEFAULT_MAX_LINE_BYTES = 1024 * 1024;
+
+    private final LineReader lines;
+    private final OrderParser parser;
+    private boolean finished;
+
+    public OrderFileReader(ReadableByteChannel channel, OrderFormat format) {
+        this(channel, format, DEFAULT_CHUNK_BYTES, DEFAULT_MAX_LINE_BYTES);
+    }
+
+    public OrderFileReader(ReadableByteChannel channel, OrderFormat format, int chunkBytes, int maxLineBytes) {
+        if (format == null) {
+            throw new IllegalArgumentException("Order format cannot be null");
+        }
+        this.lines = new LineReader(channel, chunkBytes, maxLineBytes);
+        this.parser = format.newParser();
+    }
+
+    public static OrderFileReader open(Path file, OrderFormat format) throws IOException {
+        return new OrderFileReader(FileChannel.open(file, StandardOpenOption.READ), format);
+    }
+
+    /**
+     * @return the next order, or null at the end of the input
+     * @throws IllegalArgumentException if a record is malformed; the message names its line
+     */
+    public Order next() throws IOException {
+        while (!finished) {
+            String line;
+            try {
+                line = lines.readLine();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(e.getMessage() + "; skipped", e);
+            }
+            if (line == null) {
+                finished = true;
+                return parser.finish();
+            }
+            Order order;
+            try {
+                order = parser.parseLine(line);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lines.lineNumber() + ": " + e.getMessage(), e);
+            }
+            if (order != null) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Number of the last line read, starting at 1.
+     */
+    public long lineNumber() {
+        return lines.lineNumber();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+}
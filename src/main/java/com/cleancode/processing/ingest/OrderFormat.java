@@ -0,0 +1,50 @@
+package com.cleancode.processing.ingest;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Line-oriented order dump formats. In both, a record never spans lines, so a file can be
+ * read one chunk at a time.
+ */
+public enum OrderFormat {
+    /**
+     * One JSON object per line:
+     * <pre>
+     * {"orderId":"O1","customer":{"customerId":"C1","name":"Jane","email":"jane@example.com","premium":true},
+     *  "items":[{"productId":"P1","productName":"Laptop","price":999.99,"quantity":1}]}
+     * </pre>
+     */
+    NDJSON {
+        @Override
+        OrderParser newParser() {
+            return new NdjsonOrderParser();
+        }
+    },
+    /**
+     * A header, then one row per order line; consecutive rows with the same orderId form an order.
+     */
+    CSV {
+        @Override
+        OrderParser newParser() {
+            return new CsvOrderParser();
+        }
+    };
+
+    abstract OrderParser newParser();
+
+    /**
+     * The format implied by the file extension: {@code .ndjson} or {@code .jsonl} for NDJSON,
+     * {@code .csv} for CSV.
+     */
+    public static OrderFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Unknown order file format: " + file);
+    }
+}
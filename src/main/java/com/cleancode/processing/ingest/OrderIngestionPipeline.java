@@ -0,0 +1,180 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.Step;
+import com.cleancode.domain.Order;
+import com.cleancode.processing.StagedOrderPipeline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams an order dump through the steps of {@link LongMethodRefactored#processOrder}.
+ *
+ * The calling thread reads and parses the file and feeds the orders to a
+ * {@link StagedOrderPipeline}, where each {@link Step} (validate, total, discount, status, save)
+ * runs on its own thread behind a bounded queue. When a later stage falls behind, the queues
+ * fill and the reader blocks, so memory stays flat however large the file is: at most one
+ * chunk, the queued orders and one order per stage are live at a time.
+ *
+ * A malformed record or an order that fails a step is counted and reported in the
+ * {@link IngestionResult}; the rest of the file is still processed.
+ */
+public class OrderIngestionPipeline {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final LongMethodRefactored processor;
+    private final int queueCapacity;
+
+    public OrderIngestionPipeline(LongMethodRefactored processor) {
+        this(processor, 1024);
+    }
+
+    /**
+     * @param processor runs the steps and saves the orders
+     * @param queueCapacity how many orders may wait in front of each stage
+     */
+    public OrderIngestionPipeline(LongMethodRefactored processor, int queueCapacity) {
+        if (processor == null) {
+            throw new IllegalArgumentException("Order processor cannot be null");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.processor = processor;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public IngestionResult ingest(Path file) throws IOException {
+        return ingest(file, OrderFormat.forFile(file));
+    }
+
+    public IngestionResult ingest(Path file, OrderFormat format) throws IOException {
+        try (OrderFileReader reader = OrderFileReader.open(file, format)) {
+            return ingest(reader);
+        }
+    }
+
+    /**
+     * Processes every order the reader yields. The reader is not closed.
+     *
+     * @throws IllegalStateException if the calling thread is interrupted; the orders already
+     *                               queued are still processed first
+     */
+    public IngestionResult ingest(OrderFileReader reader) throws IOException {
+        Counters counters = new Counters();
+        long start = System.nanoTime();
+        boolean interrupted = false;
+        StagedOrderPipeline stages = new StagedOrderPipeline(processor, queueCapacity);
+        try {
+            readAll(reader, stages, counters);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            stages.close();
+        }
+        if (interrupted || Thread.currentThread().isInterrupted()) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order ingestion was interrupted");
+        }
+        return new IngestionResult(counters, System.nanoTime() - start);
+    }
+
+    private void readAll(OrderFileReader reader, StagedOrderPipeline stages, Counters counters)
+            throws IOException, InterruptedException {
+        while (true) {
+            Order order;
+            try {
+                order = reader.next();
+            } catch (IllegalArgumentException e) {
+                counters.rejected.incrementAndGet();
+                counters.report(e.getMessage());
+                continue;
+            }
+            if (order == null) {
+                return;
+            }
+            counters.read.incrementAndGet();
+            stages.submit(order).whenComplete((processed, failure) -> {
+                if (failure == null) {
+                    counters.processed.incrementAndGet();
+                } else {
+                    counters.failed.incrementAndGet();
+                    counters.report(failure.getMessage());
+                }
+            });
+        }
+    }
+
+    private static final class Counters {
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        private void report(String error) {
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+        }
+    }
+
+    /**
+     * Outcome of ingesting one file.
+     */
+    public static class IngestionResult {
+        private final long ordersRead;
+        private final long recordsRejected;
+        private final long ordersProcessed;
+        private final long ordersFailed;
+        private final long elapsedNanos;
+        private final List<String> errors;
+
+        private IngestionResult(Counters counters, long elapsedNanos) {
+            this.ordersRead = counters.read.get();
+            this.recordsRejected = counters.rejected.get();
+            this.ordersProcessed = counters.processed.get();
+            this.ordersFailed = counters.failed.get();
+            this.elapsedNanos = elapsedNanos;
+            this.errors = List.copyOf(counters.errors);
+        }
+
+        // Getters
+        public long getOrdersRead() { return ordersRead; }
+        public long getRecordsRejected() { return recordsRejected; }
+        public long getOrdersProcessed() { return ordersProcessed; }
+        public long getOrdersFailed() { return ordersFailed; }
+        public Duration getElapsed() { return Duration.ofNanos(elapsedNanos); }
+
+        /**
+         * The first {@value OrderIngestionPipeline#MAX_REPORTED_ERRORS} problems, in the order found.
+         */
+        public List<String> getErrors() { return errors; }
+
+        /**
+         * Orders read and records rejected per second of wall-clock time.
+         */
+        public double getRecordsPerSecond() {
+            return (ordersRead + recordsRejected) * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "IngestionResult{read=" + ordersRead +
+                    ", rejected=" + recordsRejected +
+                    ", processed=" + ordersProcessed +
+                    ", failed=" + ordersFailed +
+                    ", elapsed=" + getElapsed() +
+                    ", recordsPerSecond=" + String.format("%.0f", getRecordsPerSecond()) + "}";
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.domain.Order;
+
+/**
+ * Turns the lines of one input into orders. A format may need several lines per order,
+ * so a line does not always complete one. Implementations keep at most one open order.
+ */
+interface OrderParser {
+
+    /**
+     * @return the order completed by this line, or null if none was
+     * @throws IllegalArgumentException if the line is malformed; the parser stays usable
+     */
+    Order parseLine(String line);
+
+    /**
+     * @return the order still open at the end of the input, or null
+     */
+    Order finish();
+}
@@ -0,0 +1,65 @@
+package com.cleancode.processing.ingest;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Line-oriented user file formats, one user per line after an optional header.
+ */
+public enum UserFormat {
+    /**
+     * One JSON object per line:
+     * <pre>
+     * {"firstName":"Jane","lastName":"Smith","email":"jane@example.com","phoneNumber":"555-987-6543",
+     *  "address":{"street":"456 Oak Ave","city":"Los Angeles","state":"CA","zipCode":"90210","country":"USA"},
+     *  "dateOfBirth":"1985-08-20","password":"password456","active":true}
+     * </pre>
+     */
+    NDJSON {
+        @Override
+        boolean hasHeader() {
+            return false;
+        }
+
+        @Override
+        UserRowParser newParser(String header) {
+            return new NdjsonUserParser();
+        }
+    },
+    /**
+     * A header naming the columns, then one row per user.
+     */
+    CSV {
+        @Override
+        boolean hasHeader() {
+            return true;
+        }
+
+        @Override
+        UserRowParser newParser(String header) {
+            return new CsvUserParser(header);
+        }
+    };
+
+    abstract boolean hasHeader();
+
+    /**
+     * @param header the first line when the format {@link #hasHeader() has one}, otherwise null
+     */
+    abstract UserRowParser newParser(String header);
+
+    /**
+     * The format implied by the file extension: {@code .ndjson} or {@code .jsonl} for NDJSON,
+     * {@code .csv} for CSV.
+     */
+    public static UserFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Unknown user file format: " + file);
+    }
+}
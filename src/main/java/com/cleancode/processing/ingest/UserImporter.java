@@ -0,0 +1,332 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.UserRegistrationData;
+import com.cleancode.domain.User;
+import com.cleancode.persistence.UserRepository;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulk import for {@link LongParameterListRefactored#createUser}: streams a CSV or NDJSON user
+ * file and saves the valid users in batches, without the console output and per-user overhead
+ * of calling {@code createUser} once per row.
+ *
+ * The calling thread only reads lines and hands them out in chunks of {@code batchSize}; the
+ * workers parse, validate and build the users of a chunk and pass the valid ones to the
+ * repository as one batch. At most two chunks per worker are in flight, so memory stays flat
+ * however large the file is. The repository receives one batch at a time, in no particular order.
+ *
+ * A malformed or invalid row is counted and reported with its line number and every problem
+ * found in it; so is a row whose email is already in the processor's email index, including
+ * one registered earlier in the same file, and so is a row whose user cannot be built, for
+ * instance because hashing its password failed. The rest of the file is still imported.
+ *
+ * If the processor has a user directory, each user is added to it, and given its id, before
+ * its batch is saved. A failing repository stops the import; the users it did not save are
+ * taken out of the directory and their emails released again.
+ */
+public class UserImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final LongParameterListRefactored registrations;
+    private final UserRepository repository;
+    private final int parallelism;
+    private final int batchSize;
+    private final Object repositoryLock = new Object();
+
+    public UserImporter(LongParameterListRefactored registrations, UserRepository repository) {
+        this(registrations, repository, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param registrations validates registration data and builds the users
+     * @param repository receives the valid users in batches
+     * @param parallelism number of worker threads
+     * @param batchSize rows per chunk, and so the largest batch handed to the repository
+     */
+    public UserImporter(LongParameterListRefactored registrations, UserRepository repository,
+                        int parallelism, int batchSize) {
+        if (registrations == null) {
+            throw new IllegalArgumentException("Registration processor cannot be null");
+        }
+        if (repository == null) {
+            throw new IllegalArgumentException("User repository cannot be null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.registrations = registrations;
+        this.repository = repository;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importFile(Path file) throws IOException {
+        return importFile(file, UserFormat.forFile(file));
+    }
+
+    public ImportResult importFile(Path file, UserFormat format) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importFrom(channel, format);
+        }
+    }
+
+    /**
+     * Imports every user the channel holds. The channel is not closed.
+     *
+     * @throws IllegalArgumentException if the header of a CSV file is missing or malformed
+     * @throws IllegalStateException if the repository fails or the import is interrupted
+     */
+    public ImportResult importFrom(ReadableByteChannel channel, UserFormat format) throws IOException {
+        if (format == null) {
+            throw new IllegalArgumentException("User format cannot be null");
+        }
+        LineReader lines = new LineReader(channel, OrderFileReader.DEFAULT_CHUNK_BYTES, OrderFileReader.DEFAULT_MAX_LINE_BYTES);
+        UserRowParser parser = format.newParser(format.hasHeader() ? lines.readLine() : null);
+        Counters counters = new Counters();
+        long start = System.nanoTime();
+        int maxInFlight = parallelism * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<String> chunk = new ArrayList<>(batchSize);
+            long firstLine = 0;
+            while (counters.repositoryFailure.get() == null) {
+                String line;
+                try {
+                    line = lines.readLine();
+                } catch (IllegalArgumentException e) {
+                    // Chunks hold consecutive lines only, so hand out what came before the skipped one
+                    dispatch(workers, inFlight, parser, chunk, firstLine, counters);
+                    chunk = new ArrayList<>(batchSize);
+                    counters.rowsRead.increment();
+                    counters.reject(lines.lineNumber(), List.of(e.getMessage()));
+                    continue;
+                }
+                if (line == null) {
+                    break;
+                }
+                if (chunk.isEmpty()) {
+                    firstLine = lines.lineNumber();
+                }
+                chunk.add(line);
+                if (chunk.size() == batchSize) {
+                    dispatch(workers, inFlight, parser, chunk, firstLine, counters);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            dispatch(workers, inFlight, parser, chunk, firstLine, counters);
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import was interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+        RuntimeException failure = counters.repositoryFailure.get();
+        if (failure != null) {
+            throw new IllegalStateException("User repository failed after " + counters.usersImported.sum() + " users", failure);
+        }
+        return new ImportResult(counters, System.nanoTime() - start);
+    }
+
+    private void dispatch(ExecutorService workers, Semaphore inFlight, UserRowParser parser,
+                          List<String> chunk, long firstLine, Counters counters) throws InterruptedException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                importChunk(parser, chunk, firstLine, counters);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void importChunk(UserRowParser parser, List<String> chunk, long firstLine, Counters counters) {
+        List<User> valid = new ArrayList<>(chunk.size());
+        List<UserRegistrationData> reserved = new ArrayList<>(chunk.size());
+        int rows = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            long lineNumber = firstLine + i;
+            UserRegistrationData data;
+            try {
+                data = parser.parse(chunk.get(i));
+            } catch (IllegalArgumentException e) {
+                rows++;
+                counters.reject(lineNumber, List.of(e.getMessage()));
+                continue;
+            }
+            if (data == null) {
+                continue;
+            }
+            rows++;
+            List<String> errors = registrations.validateRegistration(data);
+            if (!errors.isEmpty()) {
+                counters.reject(lineNumber, errors);
+                continue;
+            }
+            if (!registrations.reserveEmail(data)) {
+                counters.reject(lineNumber, List.of("Email is already registered"));
+                continue;
+            }
+            User user;
+            try {
+                user = registrations.buildUser(data);
+                registrations.addToDirectory(user);
+            } catch (RuntimeException e) {
+                // A failed hash, or an email the directory holds without an email index in front of it
+                registrations.releaseEmail(data);
+                counters.reject(lineNumber, List.of(e.getMessage() == null ? e.toString() : e.getMessage()));
+                continue;
+            }
+            reserved.add(data);
+            valid.add(user);
+        }
+        counters.rowsRead.add(rows);
+        if (valid.isEmpty()) {
+            return;
+        }
+        if (counters.repositoryFailure.get() != null) {
+            release(reserved, valid);
+            return;
+        }
+        try {
+            synchronized (repositoryLock) {
+                repository.saveAll(valid);
+            }
+            counters.usersImported.add(valid.size());
+        } catch (RuntimeException e) {
+            release(reserved, valid);
+            counters.repositoryFailure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Takes the users of a chunk that was not saved out of the directory and frees their emails,
+     * so a later import can register them.
+     */
+    private void release(List<UserRegistrationData> reserved, List<User> added) {
+        for (User user : added) {
+            registrations.removeFromDirectory(user);
+        }
+        for (UserRegistrationData data : reserved) {
+            registrations.releaseEmail(data);
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder rowsRead = new LongAdder();
+        private final LongAdder rowsRejected = new LongAdder();
+        private final LongAdder usersImported = new LongAdder();
+        private final List<RowError> errors = new ArrayList<>();
+        private final AtomicReference<RuntimeException> repositoryFailure = new AtomicReference<>();
+
+        private void reject(long lineNumber, List<String> messages) {
+            rowsRejected.increment();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new RowError(lineNumber, messages));
+                }
+            }
+        }
+    }
+
+    /**
+     * A rejected row and everything wrong with it.
+     */
+    public static class RowError {
+        private final long lineNumber;
+        private final List<String> messages;
+
+        RowError(long lineNumber, List<String> messages) {
+            this.lineNumber = lineNumber;
+            this.messages = List.copyOf(messages);
+        }
+
+        // Getters
+        public long getLineNumber() { return lineNumber; }
+        public List<String> getMessages() { return messages; }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + String.join("; ", messages);
+        }
+    }
+
+    /**
+     * Outcome of importing one file.
+     */
+    public static class ImportResult {
+        private final long rowsRead;
+        private final long rowsRejected;
+        private final long usersImported;
+        private final long elapsedNanos;
+        private final List<RowError> errors;
+
+        private ImportResult(Counters counters, long elapsedNanos) {
+            this.rowsRead = counters.rowsRead.sum();
+            this.rowsRejected = counters.rowsRejected.sum();
+            this.usersImported = counters.usersImported.sum();
+            this.elapsedNanos = elapsedNanos;
+            List<RowError> sorted = new ArrayList<>(counters.errors);
+            sorted.sort(Comparator.comparingLong(RowError::getLineNumber));
+            this.errors = List.copyOf(sorted);
+        }
+
+        // Getters
+        public long getRowsRead() { return rowsRead; }
+        public long getRowsRejected() { return rowsRejected; }
+        public long getUsersImported() { return usersImported; }
+        public Duration getElapsed() { return Duration.ofNanos(elapsedNanos); }
+
+        /**
+         * Up to {@value UserImporter#MAX_REPORTED_ERRORS} rejected rows, sorted by line. With
+         * several workers these are not necessarily the first rejected rows of the file.
+         */
+        public List<RowError> getErrors() { return errors; }
+
+        /**
+         * Rows read, valid or not, per second of wall-clock time.
+         */
+        public double getRowsPerSecond() {
+            return rowsRead * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "ImportResult{read=" + rowsRead +
+                    ", rejected=" + rowsRejected +
+                    ", imported=" + usersImported +
+                    ", elapsed=" + getElapsed() +
+                    ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) + "}";
+        }
+    }
+}
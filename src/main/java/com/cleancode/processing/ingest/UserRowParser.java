@@ -0,0 +1,17 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored.UserRegistrationData;
+
+/**
+ * Turns one line of a user file into registration data. Unlike {@link OrderParser}, every
+ * record is a single line and a parser keeps no state once created, so one parser is shared
+ * by all import workers.
+ */
+interface UserRowParser {
+
+    /**
+     * @return the registration data, or null for a blank line
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    UserRegistrationData parse(String line);
+}
@@ -0,0 +1,27 @@
+package com.cleancode.processing.ring;
+
+import com.cleancode.domain.Order;
+
+/**
+ * One slot of an {@link OrderRingBuffer}. Slots are allocated with the buffer and reused for
+ * every lap, so handing an order over allocates nothing; the producer fills a claimed slot and
+ * the consumer that handles it clears it again.
+ */
+public final class OrderEvent {
+
+    private Order order;
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+
+    /**
+     * Drops the order so the slot does not keep it reachable until the next lap.
+     */
+    public void clear() {
+        this.order = null;
+    }
+
+    // Getters
+    public Order getOrder() { return order; }
+}
@@ -0,0 +1,126 @@
+package com.cleancode.processing.ring;
+
+import java.util.Arrays;
+
+/**
+ * Pre-allocated ring of {@link OrderEvent} slots for handing orders from one producer thread to
+ * any number of consumer threads, in the manner of the LMAX Disruptor.
+ *
+ * Instead of a lock and a node per element, coordination uses sequences: the producer claims
+ * slots with {@link #next(int)}, fills them and {@link #publish(long) publishes} the highest
+ * one, which moves the cursor; consumers wait on a {@link SequenceBarrier} over that cursor and
+ * advance their own {@link Sequence} once they are done with a slot. The producer never laps
+ * the slowest of the gating sequences registered with {@link #addGatingSequences}.
+ *
+ * Claiming and publishing are single-writer: they must be called from one thread at a time.
+ * Reading slots and barriers is safe from any thread.
+ */
+public final class OrderRingBuffer {
+
+    private final OrderEvent[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor = new Sequence(-1);
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    // Producer-only state
+    private long claimed = -1;
+    private long cachedGatingSequence = -1;
+
+    /**
+     * @param bufferSize number of slots, a power of two
+     * @param waitStrategy how the producer waits for free slots and consumers wait for orders
+     */
+    public OrderRingBuffer(int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of two");
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("Wait strategy cannot be null");
+        }
+        this.slots = new OrderEvent[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            slots[i] = new OrderEvent();
+        }
+        this.mask = bufferSize - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Registers consumer sequences the producer must not overtake.
+     */
+    public synchronized void addGatingSequences(Sequence... sequences) {
+        Sequence[] current = gatingSequences;
+        Sequence[] updated = Arrays.copyOf(current, current.length + sequences.length);
+        System.arraycopy(sequences, 0, updated, current.length, sequences.length);
+        gatingSequences = updated;
+    }
+
+    public SequenceBarrier newBarrier() {
+        return new SequenceBarrier(cursor, waitStrategy);
+    }
+
+    /**
+     * Claims the next slot, waiting while the ring is full.
+     */
+    public long next() {
+        return next(1);
+    }
+
+    /**
+     * Claims the next {@code n} slots at once, waiting while there is not room for all of them.
+     *
+     * @return the highest claimed sequence; the batch is {@code [result - n + 1, result]}
+     */
+    public long next(int n) {
+        if (n < 1 || n > slots.length) {
+            throw new IllegalArgumentException("Can only claim between 1 and " + slots.length + " slots");
+        }
+        long next = claimed + n;
+        long wrapPoint = next - slots.length;
+        if (wrapPoint > cachedGatingSequence) {
+            // Only look at the consumers again when the cached position says the ring may be full
+            long minimum;
+            int attempt = 0;
+            while (wrapPoint > (minimum = minimumGatingSequence(claimed))) {
+                waitStrategy.idle(attempt++);
+            }
+            cachedGatingSequence = minimum;
+        }
+        claimed = next;
+        return next;
+    }
+
+    public OrderEvent get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    /**
+     * Makes every slot up to and including {@code sequence} visible to the consumers.
+     */
+    public void publish(long sequence) {
+        cursor.set(sequence);
+    }
+
+    /**
+     * The highest published sequence, or -1 before the first publish.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getBufferSize() {
+        return slots.length;
+    }
+
+    /**
+     * The position of the slowest gating sequence, or {@code whenNone} if there are none.
+     */
+    public long minimumGatingSequence(long whenNone) {
+        long minimum = Long.MAX_VALUE;
+        for (Sequence sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum == Long.MAX_VALUE ? whenNone : minimum;
+    }
+}
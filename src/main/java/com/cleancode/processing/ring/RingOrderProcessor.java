@@ -0,0 +1,213 @@
+package com.cleancode.processing.ring;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Feeds {@link LongMethodRefactored#processOrder(Order)} from an {@link OrderRingBuffer}: one
+ * producer thread publishes orders, and a fixed set of worker threads process them.
+ *
+ * Every worker reads every published slot through the same barrier but handles only the
+ * sequences in its own stripe ({@code sequence % workers}), so the workers never contend with
+ * each other for an order. A worker handles everything published since its last wait as one
+ * batch and then advances its sequence once, which frees the slots for the producer.
+ *
+ * {@link #publish(Order)}, {@link #publishAll(List)} and {@link #close()} belong to the
+ * producer and must be called from one thread at a time.
+ */
+public class RingOrderProcessor implements AutoCloseable {
+
+    private final LongMethodRefactored processor;
+    private final OrderRingBuffer ring;
+    private final SequenceBarrier barrier;
+    private final WaitStrategy waitStrategy;
+    private final Sequence[] workerSequences;
+    private final List<Thread> workers;
+    private final int batchSize;
+    private final BiConsumer<Order, RuntimeException> failureHandler;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean closed;
+
+    public RingOrderProcessor(LongMethodRefactored processor, int bufferSize, int workerCount,
+                              WaitStrategy waitStrategy) {
+        this(processor, bufferSize, workerCount, waitStrategy, (order, failure) -> { });
+    }
+
+    /**
+     * @param processor runs and saves the orders
+     * @param bufferSize number of ring slots, a power of two
+     * @param workerCount number of worker threads
+     * @param waitStrategy how idle workers and a blocked producer wait
+     * @param failureHandler told about each order whose processing threw, on the worker thread
+     */
+    public RingOrderProcessor(LongMethodRefactored processor, int bufferSize, int workerCount,
+                              WaitStrategy waitStrategy, BiConsumer<Order, RuntimeException> failureHandler) {
+        if (processor == null) {
+            throw new IllegalArgumentException("Order processor cannot be null");
+        }
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1");
+        }
+        if (failureHandler == null) {
+            throw new IllegalArgumentException("Failure handler cannot be null");
+        }
+        this.processor = processor;
+        this.ring = new OrderRingBuffer(bufferSize, waitStrategy);
+        this.barrier = ring.newBarrier();
+        this.waitStrategy = waitStrategy;
+        this.failureHandler = failureHandler;
+        // The producer refills a quarter of the ring at a time while the workers drain the rest
+        this.batchSize = Math.max(1, bufferSize / 4);
+        this.workerSequences = new Sequence[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workerSequences[i] = new Sequence(-1);
+        }
+        ring.addGatingSequences(workerSequences);
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            int stripe = i;
+            Thread worker = new Thread(() -> run(stripe), "ring-order-worker-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Hands the order to the workers, waiting while the ring is full.
+     */
+    public void publish(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        ensureOpen();
+        long sequence = ring.next();
+        ring.get(sequence).setOrder(order);
+        ring.publish(sequence);
+    }
+
+    /**
+     * Hands the orders over in batches, claiming and publishing many slots at a time.
+     */
+    public void publishAll(List<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        for (Order order : orders) {
+            if (order == null) {
+                throw new IllegalArgumentException("Order cannot be null");
+            }
+        }
+        ensureOpen();
+        int index = 0;
+        while (index < orders.size()) {
+            int n = Math.min(batchSize, orders.size() - index);
+            long high = ring.next(n);
+            for (long sequence = high - n + 1; sequence <= high; sequence++) {
+                ring.get(sequence).setOrder(orders.get(index++));
+            }
+            ring.publish(high);
+        }
+    }
+
+    /**
+     * Waits until every order published so far has been processed or has failed.
+     */
+    public void awaitProcessed() {
+        long target = ring.getCursor();
+        int attempt = 0;
+        while (ring.minimumGatingSequence(target) < target) {
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Orders published but not yet handled by the slowest worker.
+     */
+    public long getBacklog() {
+        long cursor = ring.getCursor();
+        return cursor - ring.minimumGatingSequence(cursor);
+    }
+
+    /**
+     * Stops accepting orders, waits for the published ones and stops the workers.
+     * If the calling thread is interrupted, returns early with its interrupt flag set.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        awaitProcessed();
+        barrier.alert();
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Ring order processor is closed");
+        }
+    }
+
+    private void run(int stripe) {
+        Sequence sequence = workerSequences[stripe];
+        int stripes = workerSequences.length;
+        long next = sequence.get() + 1;
+        while (true) {
+            long available = barrier.waitFor(next);
+            if (available < next) {
+                return; // alerted, and everything published has been handled
+            }
+            long succeeded = 0;
+            for (long s = next + Math.floorMod(stripe - next, stripes); s <= available; s += stripes) {
+                OrderEvent event = ring.get(s);
+                Order order = event.getOrder();
+                event.clear();
+                if (process(order)) {
+                    succeeded++;
+                }
+            }
+            processed.add(succeeded);
+            sequence.set(available);
+            next = available + 1;
+        }
+    }
+
+    private boolean process(Order order) {
+        try {
+            processor.processOrder(order);
+            return true;
+        } catch (RuntimeException e) {
+            failed.increment();
+            try {
+                failureHandler.accept(order, e);
+            } catch (RuntimeException ignored) {
+                // a failing handler must not stop the worker
+            }
+            return false;
+        }
+    }
+}
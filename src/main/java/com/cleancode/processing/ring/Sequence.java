@@ -0,0 +1,57 @@
+package com.cleancode.processing.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A position in an {@link OrderRingBuffer}, written by one thread and read by others.
+ *
+ * The value is padded on both sides to a cache line of its own, so the producer's cursor and
+ * the consumers' sequences do not invalidate each other's lines on every update (false
+ * sharing). The padding lives in superclasses because the JVM keeps a superclass's fields
+ * ahead of a subclass's, whereas fields of one class may be reordered.
+ */
+public final class Sequence extends SequenceRightPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * Publishes the value; everything the writer did before is visible to a reader that sees it.
+     */
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
+
+abstract class SequenceLeftPadding {
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SequenceValue extends SequenceLeftPadding {
+    long value;
+}
+
+abstract class SequenceRightPadding extends SequenceValue {
+    long p11, p12, p13, p14, p15, p16, p17;
+}
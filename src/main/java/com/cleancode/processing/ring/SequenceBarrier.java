@@ -0,0 +1,47 @@
+package com.cleancode.processing.ring;
+
+/**
+ * What a consumer waits on: the producer's cursor. Created by {@link OrderRingBuffer#newBarrier()}.
+ *
+ * Waiting returns the highest published sequence, which may be well past the one asked for;
+ * the consumer can then handle that whole batch without touching the cursor again.
+ */
+public final class SequenceBarrier {
+
+    private final Sequence cursor;
+    private final WaitStrategy waitStrategy;
+    private volatile boolean alerted;
+
+    SequenceBarrier(Sequence cursor, WaitStrategy waitStrategy) {
+        this.cursor = cursor;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Waits until {@code sequence} is published or the barrier is alerted.
+     *
+     * @return the highest published sequence; less than {@code sequence} only when alerted
+     */
+    public long waitFor(long sequence) {
+        long available;
+        int attempt = 0;
+        while ((available = cursor.get()) < sequence) {
+            if (alerted) {
+                return available;
+            }
+            waitStrategy.idle(attempt++);
+        }
+        return available;
+    }
+
+    /**
+     * Releases the consumers waiting on this barrier, typically to shut them down.
+     */
+    public void alert() {
+        alerted = true;
+    }
+
+    public boolean isAlerted() {
+        return alerted;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cleancode.processing.ring;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits for a sequence to advance: for a consumer, for the producer to publish;
+ * for the producer, for the slowest consumer to free a slot. The choice trades CPU for
+ * hand-off latency.
+ */
+public enum WaitStrategy {
+
+    /**
+     * Spins on the sequence. Lowest latency, but each waiting thread burns a whole core, so
+     * use it only with fewer threads than cores.
+     */
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /**
+     * Spins briefly, then yields the core to other runnable threads between checks.
+     */
+    YIELD {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * Spins briefly, then parks for a few microseconds between checks. Nearly idle when there
+     * is no work, at the cost of waking up to one timer slack later than the other strategies.
+     */
+    PARK {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 1_000;
+
+    /**
+     * Called between checks of the awaited sequence; {@code attempt} counts the checks that
+     * failed so far.
+     */
+    abstract void idle(int attempt);
+}
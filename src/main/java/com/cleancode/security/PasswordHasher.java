@@ -0,0 +1,155 @@
+package com.cleancode.security;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * PBKDF2-HMAC-SHA256 password hashing with the JDK's own provider.
+ *
+ * A hash is stored as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>} with Base64 salt and
+ * hash, so it can still be verified after the work factor changes; {@link #needsRehash} tells
+ * when a stored hash is weaker than this hasher. Every hash gets a fresh 16-byte salt.
+ *
+ * The work factor is the iteration count. {@link #calibrated(Duration)} measures this machine
+ * and picks the count that makes one hash take about the target CPU time, but never fewer than
+ * {@link #DEFAULT_MIN_ITERATIONS}. Immutable and thread-safe.
+ */
+public final class PasswordHasher {
+
+    /**
+     * Security floor for stored passwords, in line with current guidance for PBKDF2-HMAC-SHA256.
+     * Calibration and the default {@link PasswordHashingStage} never go below it, however slow
+     * the machine.
+     */
+    public static final int DEFAULT_MIN_ITERATIONS = 600_000;
+
+    /**
+     * Lowest iteration count the constructor accepts, so tests and benchmarks can hash quickly
+     * by asking for it explicitly. Far too weak for stored passwords.
+     */
+    public static final int MIN_ITERATIONS = 1_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int CALIBRATION_ITERATIONS = 20_000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int iterations;
+
+    public PasswordHasher(int iterations) {
+        if (iterations < MIN_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations must be at least " + MIN_ITERATIONS);
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * A hasher whose hashes take about {@code targetTime} of CPU on this machine, measured on
+     * the calling thread after a warm-up. Never below {@link #DEFAULT_MIN_ITERATIONS}, even if
+     * hashes then take longer than the target.
+     */
+    public static PasswordHasher calibrated(Duration targetTime) {
+        if (targetTime == null || targetTime.isNegative() || targetTime.isZero()) {
+            throw new IllegalArgumentException("Target hashing time must be positive");
+        }
+        PasswordHasher probe = new PasswordHasher(CALIBRATION_ITERATIONS);
+        byte[] salt = new byte[SALT_BYTES];
+        long best = Long.MAX_VALUE;
+        // A cold JVM hashes several times slower; the fastest of the later runs is the
+        // steady state
+        for (int i = 0; i < 15; i++) {
+            long start = threadTimeNanos();
+            derive("calibration".toCharArray(), salt, CALIBRATION_ITERATIONS);
+            if (i >= 10) {
+                best = Math.min(best, threadTimeNanos() - start);
+            }
+        }
+        return new PasswordHasher(Math.max(DEFAULT_MIN_ITERATIONS, probe.iterationsFor(targetTime.toNanos(), best)));
+    }
+
+    /**
+     * CPU time of the current thread, so that time spent descheduled on a busy machine does not
+     * count as hashing; wall-clock time where the JVM cannot measure it.
+     */
+    static long threadTimeNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * The iteration count that would have made a hash measured at {@code measuredNanos} with
+     * this hasher take {@code targetNanos} instead.
+     */
+    int iterationsFor(long targetNanos, long measuredNanos) {
+        double scaled = (double) iterations * targetNanos / Math.max(1, measuredNanos);
+        return (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, Math.round(scaled)));
+    }
+
+    public String hash(String password) {
+        if (password == null) {
+            throw new IllegalArgumentException("Password cannot be null");
+        }
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password.toCharArray(), salt, iterations);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    /**
+     * Checks the password against a hash from any {@code PasswordHasher}, whatever its work factor.
+     *
+     * @throws IllegalArgumentException if the stored value is not such a hash
+     */
+    public boolean verify(String password, String storedHash) {
+        if (password == null) {
+            throw new IllegalArgumentException("Password cannot be null");
+        }
+        String[] parts = split(storedHash);
+        Base64.Decoder base64 = Base64.getDecoder();
+        byte[] expected = base64.decode(parts[3]);
+        byte[] actual = derive(password.toCharArray(), base64.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * @return true if the stored hash used fewer iterations than this hasher, and should be
+     *         replaced the next time the password is available
+     */
+    public boolean needsRehash(String storedHash) {
+        return Integer.parseInt(split(storedHash)[1]) < iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    private static String[] split(String storedHash) {
+        String[] parts = storedHash == null ? new String[0] : storedHash.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(PREFIX) || !parts[1].chars().allMatch(Character::isDigit)
+                || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("Not a " + PREFIX + " password hash");
+        }
+        return parts;
+    }
+
+    private static byte[] derive(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
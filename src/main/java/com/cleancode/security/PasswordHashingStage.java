@@ -0,0 +1,193 @@
+package com.cleancode.security;
+
+import com.cleancode.metrics.ProcessingMetrics;
+import com.cleancode.metrics.Stage;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashes passwords on a dedicated pool, so that registration threads hand the key derivation
+ * off instead of spending milliseconds of CPU on it.
+ *
+ * The pool has one thread per core by default, since hashing is pure CPU work and more
+ * threads would only time-slice it, and a bounded queue. When the queue is full,
+ * {@link #hash} fails fast with a {@link RejectedExecutionException} rather than queueing
+ * without limit, and the caller can shed or retry the registration.
+ *
+ * The work factor adapts towards {@code targetTime}: every {@value #ADAPT_INTERVAL} hashes
+ * the mean CPU time of a hash is compared with the target, and the iteration count is scaled
+ * to match, by at most a factor of two per step. {@code minIterations} is a security policy,
+ * not a tuning knob: adaptation only moves the work factor above it, raising it as hashes get
+ * cheaper and never lowering it past the floor however slow they get. The default floor is
+ * {@link PasswordHasher#DEFAULT_MIN_ITERATIONS}. CPU time rather than wall-clock time is used,
+ * so a busy machine does not read as a slow hash. Earlier hashes stay verifiable since each
+ * records its own count.
+ */
+public class PasswordHashingStage implements AutoCloseable {
+
+    static final int ADAPT_INTERVAL = 64;
+
+    private static final ProcessingMetrics METRICS = ProcessingMetrics.global();
+
+    private final long targetNanos;
+    private final int minIterations;
+    private final ThreadPoolExecutor pool;
+    private final LongAdder hashed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Object adaptLock = new Object();
+    private volatile PasswordHasher hasher;
+    private long windowNanos;
+    private int windowCount;
+
+    /**
+     * Calibrates a hasher for the target time and runs it on one thread per core, with
+     * {@link PasswordHasher#DEFAULT_MIN_ITERATIONS} as the floor.
+     */
+    public PasswordHashingStage(Duration targetTime) {
+        this(PasswordHasher.calibrated(targetTime), targetTime, PasswordHasher.DEFAULT_MIN_ITERATIONS,
+            Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors() * 64);
+    }
+
+    /**
+     * @param hasher the starting work factor
+     * @param targetTime CPU time one hash should take
+     * @param minIterations lowest iteration count adaptation may choose; below
+     *                      {@link PasswordHasher#DEFAULT_MIN_ITERATIONS} only for tests and benchmarks
+     * @param threads number of hashing threads
+     * @param queueCapacity passwords that may wait for a thread
+     */
+    public PasswordHashingStage(PasswordHasher hasher, Duration targetTime, int minIterations,
+                                int threads, int queueCapacity) {
+        if (hasher == null) {
+            throw new IllegalArgumentException("Password hasher cannot be null");
+        }
+        if (targetTime == null || targetTime.isNegative() || targetTime.isZero()) {
+            throw new IllegalArgumentException("Target hashing time must be positive");
+        }
+        if (minIterations < PasswordHasher.MIN_ITERATIONS) {
+            throw new IllegalArgumentException("Minimum iterations must be at least " + PasswordHasher.MIN_ITERATIONS);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.hasher = hasher;
+        this.targetNanos = targetTime.toNanos();
+        this.minIterations = minIterations;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Hashes the password on the pool.
+     *
+     * @return a future completing with the encoded hash, or with a
+     *         {@link RejectedExecutionException} if the queue is full
+     * @throws IllegalStateException if the stage is closed
+     */
+    public CompletableFuture<String> hash(String password) {
+        if (password == null) {
+            throw new IllegalArgumentException("Password cannot be null");
+        }
+        if (pool.isShutdown()) {
+            throw new IllegalStateException("Password hashing stage is closed");
+        }
+        CompletableFuture<String> result = new CompletableFuture<>();
+        try {
+            pool.execute(() -> {
+                try {
+                    result.complete(hashNow(password));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (pool.isShutdown()) {
+                throw new IllegalStateException("Password hashing stage is closed");
+            }
+            rejected.increment();
+            result.completeExceptionally(new RejectedExecutionException("Password hashing queue is full", e));
+        }
+        return result;
+    }
+
+    /**
+     * Hashes the password on the calling thread, with the same work factor and adaptation.
+     */
+    public String hashNow(String password) {
+        long start = System.nanoTime();
+        long cpuStart = PasswordHasher.threadTimeNanos();
+        PasswordHasher current = hasher;
+        String hash = current.hash(password);
+        long cpuNanos = PasswordHasher.threadTimeNanos() - cpuStart;
+        hashed.increment();
+        METRICS.record(Stage.PASSWORD_HASHING, System.nanoTime() - start);
+        adapt(current, cpuNanos);
+        return hash;
+    }
+
+    private void adapt(PasswordHasher used, long nanos) {
+        synchronized (adaptLock) {
+            if (used != hasher) {
+                // Measured with a work factor that has since been replaced
+                return;
+            }
+            windowNanos += nanos;
+            if (++windowCount < ADAPT_INTERVAL) {
+                return;
+            }
+            long mean = windowNanos / windowCount;
+            windowNanos = 0;
+            windowCount = 0;
+            int iterations = used.getIterations();
+            int wanted = used.iterationsFor(targetNanos, mean);
+            wanted = (int) Math.max(minIterations, Math.min(wanted, iterations * 2L));
+            wanted = Math.max(wanted, iterations / 2);
+            // Ignore drift within 10% so the factor does not jitter
+            if (Math.abs(wanted - iterations) > iterations / 10) {
+                hasher = new PasswordHasher(wanted);
+            }
+        }
+    }
+
+    public PasswordHasher getHasher() {
+        return hasher;
+    }
+
+    public long getHashed() {
+        return hashed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Passwords waiting for a hashing thread.
+     */
+    public int getBacklog() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * Stops accepting passwords; the ones already queued are still hashed.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -5,12 +5,21 @@ import com.cleancode.bloaters.longmethod.LongMethodRefactored;
 import com.cleancode.domain.Customer;
 import com.cleancode.domain.Order;
 import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderListener;
 import com.cleancode.domain.OrderStatus;
+import com.cleancode.pricing.DiscountRuleEngine;
+import com.cleancode.pricing.DiscountRuleParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Long Method Code Smell Tests")
@@ -61,6 +70,7 @@ class LongMethodTest {
             assertThrows(IllegalArgumentException.class, () -> {
                 longMethodSmell.processOrder(null);
             });
+            assertThrows(IllegalArgumentException.class, () -> new LongMethodSmell(null));
         }
     }
     
@@ -101,5 +111,148 @@ class LongMethodTest {
                 longMethodRefactored.processOrder(null);
             });
         }
+        
+        @Test
+        @DisplayName("Should save processed order through the repository")
+        void shouldSaveProcessedOrderThroughRepository() {
+            List<Order> saved = new ArrayList<>();
+            LongMethodRefactored processor = new LongMethodRefactored(saved::add);
+            Customer customer = new Customer("C010", "John Doe", "john@example.com", false);
+            Order order = new Order("O011", customer);
+            order.addItem(new OrderItem("P011", "Cable", 9.99, 1));
+            
+            processor.processOrder(order);
+            
+            assertEquals(List.of(order), saved);
+        }
+        
+        @Test
+        @DisplayName("Should publish the final total no later than the PROCESSED status")
+        void shouldWriteTotalBeforePublishingStatus() {
+            Customer customer = new Customer("C012", "John Doe", "john@example.com", false);
+            Order order = new Order("O013", customer);
+            order.addItem(new OrderItem("P013", "Cable", 9.99, 2));
+            List<Long> totalsSeen = new ArrayList<>();
+            order.addListener(new OrderListener() {
+                @Override
+                public void statusChanged(Order changed, OrderStatus from, OrderStatus to) {
+                    totalsSeen.add(changed.getTotalCents());
+                }
+            });
+            
+            longMethodRefactored.processOrder(order);
+            
+            assertEquals(List.of(1998L), totalsSeen);
+            assertThrows(IllegalStateException.class, () -> longMethodRefactored.processOrder(order));
+        }
+        
+        @Test
+        @DisplayName("Should keep the total of the worker that won a race to process an order")
+        void shouldKeepWinningTotalWhenWorkersRace() throws InterruptedException {
+            // The two workers price the same order differently, as after a rules reload
+            List<Order> saved = new CopyOnWriteArrayList<>();
+            LongMethodRefactored fivePercent = new LongMethodRefactored(1, saved::add,
+                new DiscountRuleEngine(DiscountRuleParser.parse("REGULAR = 5%")));
+            LongMethodRefactored halfPrice = new LongMethodRefactored(1, saved::add,
+                new DiscountRuleEngine(DiscountRuleParser.parse("REGULAR = 50%")));
+            Customer customer = new Customer("C013", "John Doe", "john@example.com", false);
+            for (int round = 0; round < 200; round++) {
+                Order order = new Order("O" + round, customer);
+                order.addItem(new OrderItem("P014", "Cable", 10.00, 1));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Long> winningTotals = new CopyOnWriteArrayList<>();
+                Thread first = racer(start, () -> fivePercent.processOrder(order), 950L, winningTotals);
+                Thread second = racer(start, () -> halfPrice.processOrder(order), 500L, winningTotals);
+                start.countDown();
+                first.join();
+                second.join();
+                
+                assertEquals(1, winningTotals.size());
+                assertEquals(winningTotals.get(0), order.getTotalCents());
+            }
+            assertEquals(200, saved.size());
+        }
+        
+        private Thread racer(CountDownLatch start, Runnable process, long total, List<Long> winningTotals) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    process.run();
+                    winningTotals.add(total);
+                } catch (IllegalStateException e) {
+                    // Lost the race
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            return thread;
+        }
+    }
+    
+    @Nested
+    @DisplayName("Batch Processing Tests")
+    class BatchProcessingTests {
+        
+        @Test
+        @DisplayName("Should process every order in a batch")
+        void shouldProcessEveryOrderInBatch() {
+            LongMethodRefactored processor = new LongMethodRefactored(4);
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                Customer customer = new Customer("C" + i, "Customer " + i, "c" + i + "@example.com", i % 2 == 0);
+                Order order = new Order("O" + i, customer);
+                order.addItem(new OrderItem("P" + i, "Product " + i, 10.0, 2));
+                orders.add(order);
+            }
+            
+            LongMethodRefactored.BatchResult result = processor.processOrders(orders);
+            
+            assertEquals(100, result.getSuccessCount());
+            assertEquals(0, result.getFailureCount());
+            assertEquals(orders.get(0), result.getResults().get(0).getOrder());
+            assertEquals(18.0, orders.get(0).getTotal(), 0.01);
+            assertEquals(20.0, orders.get(1).getTotal(), 0.01);
+            assertTrue(orders.stream().allMatch(order -> order.getStatus() == OrderStatus.PROCESSED));
+        }
+        
+        @Test
+        @DisplayName("Should report bad orders without aborting the batch")
+        void shouldReportBadOrdersWithoutAbortingBatch() {
+            Customer customer = new Customer("C009", "John Doe", "john@example.com", false);
+            Order valid = new Order("O009", customer);
+            valid.addItem(new OrderItem("P010", "Laptop", 999.99, 1));
+            Order empty = new Order("O010", customer);
+            
+            LongMethodRefactored.BatchResult result = longMethodRefactored.processOrders(Stream.of(valid, empty, null));
+            
+            assertEquals(1, result.getSuccessCount());
+            assertEquals(2, result.getFailureCount());
+            assertTrue(result.getResults().get(0).isSuccess());
+            assertInstanceOf(IllegalArgumentException.class, result.getResults().get(1).getFailure());
+            assertEquals(OrderStatus.PENDING, empty.getStatus());
+        }
+        
+        @Test
+        @DisplayName("Should process an order listed twice in a batch only once")
+        void shouldProcessDuplicateOrderOnce() {
+            List<Order> saved = new ArrayList<>();
+            LongMethodRefactored processor = new LongMethodRefactored(2, saved::add);
+            Customer customer = new Customer("C011", "John Doe", "john@example.com", false);
+            Order order = new Order("O012", customer);
+            order.addItem(new OrderItem("P012", "Cable", 9.99, 1));
+            
+            LongMethodRefactored.BatchResult result = processor.processOrders(List.of(order, order));
+            
+            assertEquals(1, result.getSuccessCount());
+            assertInstanceOf(IllegalStateException.class, result.getFailures().get(0).getFailure());
+            assertEquals(List.of(order), saved);
+        }
+        
+        @Test
+        @DisplayName("Should reject invalid parallelism")
+        void shouldRejectInvalidParallelism() {
+            assertThrows(IllegalArgumentException.class, () -> new LongMethodRefactored(0));
+        }
     }
 }
@@ -1,12 +1,22 @@
 package com.cleancode.bloaters;
 
+import com.cleancode.bloaters.longparameterlist.AddressCanonicalizer;
 import com.cleancode.bloaters.longparameterlist.LongParameterListSmell;
 import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.RegistrationServices;
 import com.cleancode.domain.User;
+import com.cleancode.domain.index.EmailIndex;
+import com.cleancode.domain.index.UserDirectory;
+import com.cleancode.security.PasswordHasher;
+import com.cleancode.security.PasswordHashingStage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -123,6 +133,150 @@ public class LongParameterListTest {
         });
     }
     
+    @Test
+    void testDuplicateEmailRejectedWithEmailIndex() {
+        // Both versions share one index of registered emails
+        EmailIndex emails = new EmailIndex(100);
+        LongParameterListSmell smell = new LongParameterListSmell(emails);
+        LongParameterListRefactored refactored = new LongParameterListRefactored(
+            RegistrationServices.builder().emailIndex(emails).build());
+        LongParameterListRefactored.Address address = new LongParameterListRefactored.Address(
+            "456 Oak Ave", "Los Angeles", "CA", "90210", "USA"
+        );
+        LongParameterListRefactored.UserRegistrationData userData =
+            new LongParameterListRefactored.UserRegistrationData(
+                "Jane", "Smith", "jane@example.com", "555-987-6543", address,
+                LocalDate.of(1985, 8, 20), "password456", false
+            );
+        
+        assertNotNull(refactored.createUser(userData));
+        
+        IllegalArgumentException duplicate = assertThrows(IllegalArgumentException.class, () -> {
+            smell.createUser("Janet", "Smith", "JANE@example.com", "555-987-6543", "1 Elm St",
+                "Chicago", "IL", "60601", "USA", LocalDate.of(1990, 1, 1), "password789", true);
+        });
+        assertEquals("Email is already registered: JANE@example.com", duplicate.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> refactored.createUser(userData));
+        assertEquals(1, emails.size());
+    }
+    
+    @Test
+    void testCreateUserAsyncHashesPasswordOffThread() {
+        // The password is hashed on the stage's threads; the raw password is never stored
+        try (PasswordHashingStage hashing = new PasswordHashingStage(
+                new PasswordHasher(1_000), Duration.ofMillis(1), 1_000, 2, 16)) {
+            LongParameterListRefactored refactored = new LongParameterListRefactored(
+                RegistrationServices.builder().emailIndex(new EmailIndex(100)).passwordHashing(hashing).build());
+            LongParameterListRefactored.Address address = new LongParameterListRefactored.Address(
+                "456 Oak Ave", "Los Angeles", "CA", "90210", "USA"
+            );
+            LongParameterListRefactored.UserRegistrationData userData =
+                new LongParameterListRefactored.UserRegistrationData(
+                    "Jane", "Smith", "jane@example.com", "555-987-6543", address,
+                    LocalDate.of(1985, 8, 20), "password456", false
+                );
+            
+            CompletableFuture<User> pending = refactored.createUserAsync(userData);
+            User user = pending.join();
+            
+            assertEquals("Jane", user.getFirstName());
+            assertNotEquals("password456", user.getPassword());
+            assertTrue(hashing.getHasher().verify("password456", user.getPassword()));
+            CompletionException duplicate = assertThrows(CompletionException.class,
+                () -> refactored.createUserAsync(userData).join());
+            assertInstanceOf(IllegalArgumentException.class, duplicate.getCause());
+            assertTrue(hashing.getHasher().verify("password456", refactored.createUser(
+                new LongParameterListRefactored.UserRegistrationData("John", "Doe", "john@example.com",
+                    "555-123-4567", address, LocalDate.of(1990, 5, 15), "password456", true)).getPassword()));
+        }
+        assertThrows(IllegalStateException.class, () -> refactoredProcessor.createUserAsync(null));
+    }
+    
+    @Test
+    void testUsersShareCanonicalAddressStrings() {
+        // Each registration arrives with its own copies of the address strings
+        AddressCanonicalizer addresses = new AddressCanonicalizer();
+        LongParameterListRefactored refactored = new LongParameterListRefactored(
+            RegistrationServices.builder().addresses(addresses).build());
+        
+        User first = refactored.buildUser(registrationIn(new String("Los Angeles".toCharArray()), "1 Oak Ave"));
+        User second = refactored.buildUser(registrationIn(new String("Los Angeles".toCharArray()), "2 Elm St"));
+        
+        assertSame(first.getCity(), second.getCity());
+        assertSame(first.getZipCode(), second.getZipCode());
+        assertEquals("2 Elm St", second.getAddress());
+        assertEquals(new LongParameterListRefactored.Address("1 Oak Ave", "Los Angeles", "CA", "90210", "USA"),
+            addresses.canonicalize(new LongParameterListRefactored.Address("1 Oak Ave", "Los Angeles", "CA", "90210", "USA")));
+        assertEquals(1, addresses.getAddressStats().getHits());
+    }
+    
+    @Test
+    void testUpdateUserProfileReindexesDirectory() {
+        EmailIndex emails = new EmailIndex(100);
+        UserDirectory directory = new UserDirectory();
+        LongParameterListRefactored refactored = new LongParameterListRefactored(
+            RegistrationServices.builder().emailIndex(emails).directory(directory).build());
+        User created = refactored.createUser(registrationIn("Los Angeles", "1 Oak Ave"));
+        Long id = created.getId();
+        assertEquals(id, directory.findIdByEmail("jane@example.com"));
+        assertNotSame(created, directory.get(id));
+        created.setZipCode("10001");
+        assertEquals("90210", directory.get(id).getZipCode());
+        
+        LongParameterListRefactored.Address moved = new LongParameterListRefactored.Address(
+            "5 Bay St", "San Francisco", "CA", "94102", "USA"
+        );
+        refactored.updateUserProfile(id, new LongParameterListRefactored.UserRegistrationData(
+            "Jane", "Doe", "jane.doe@example.com", "555-987-6543", moved,
+            LocalDate.of(1985, 8, 20), "newPassword1", true
+        ));
+        
+        User updated = directory.get(id);
+        assertEquals("Doe", updated.getLastName());
+        assertEquals("password456", updated.getPassword());
+        assertSame(updated, directory.findByEmail("Jane.Doe@example.com"));
+        assertNull(directory.findByEmail("jane@example.com"));
+        assertEquals(List.of(updated), directory.withZipCode("94102"));
+        assertTrue(directory.inCity("Los Angeles", "CA").isEmpty());
+        assertEquals(List.of(updated), directory.withLastNamePrefix("do", 10));
+        
+        // The old email is free again; the new one stays taken
+        assertEquals(1, emails.size());
+        assertFalse(emails.isRegistered("jane@example.com"));
+        assertThrows(IllegalArgumentException.class, () -> refactored.createUser(
+            new LongParameterListRefactored.UserRegistrationData("Janet", "Doe", "JANE.DOE@example.com",
+                "555-987-6543", moved, LocalDate.of(1990, 1, 1), "password789", true)));
+        User again = refactored.createUser(registrationIn("Los Angeles", "1 Oak Ave"));
+        assertEquals(id + 1, again.getId());
+    }
+    
+    @Test
+    void testFailedCreateUserReleasesEmail() {
+        // The directory already holds the email, so adding the new user fails after the index claimed it
+        EmailIndex emails = new EmailIndex(100);
+        UserDirectory directory = new UserDirectory();
+        LongParameterListRefactored refactored = new LongParameterListRefactored(
+            RegistrationServices.builder().emailIndex(emails).directory(directory).build());
+        directory.add(new LongParameterListRefactored().buildUser(registrationIn("Los Angeles", "1 Oak Ave")));
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> refactored.createUser(registrationIn("Los Angeles", "2 Elm St")));
+        
+        assertFalse(emails.isRegistered("jane@example.com"));
+        assertEquals(0, emails.size());
+        assertTrue(refactored.reserveEmail(registrationIn("Los Angeles", "2 Elm St")));
+    }
+    
+    private static LongParameterListRefactored.UserRegistrationData registrationIn(String city, String street) {
+        LongParameterListRefactored.Address address = new LongParameterListRefactored.Address(
+            street, city, new String("CA".toCharArray()), new String("90210".toCharArray()), "USA"
+        );
+        return new LongParameterListRefactored.UserRegistrationData(
+            "Jane", "Smith", "jane@example.com", "555-987-6543", address,
+            LocalDate.of(1985, 8, 20), "password456", false
+        );
+    }
+    
     @Test
     void testParameterObjectBenefits() {
         // Demonstrate the benefits of parameter objects
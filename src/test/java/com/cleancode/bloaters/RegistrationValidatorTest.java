@@ -0,0 +1,94 @@
+package com.cleancode.bloaters;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.RegistrationValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Registration Validator Tests")
+class RegistrationValidatorTest {
+    
+    private static final Pattern LEGACY_EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    
+    private final RegistrationValidator validator = new RegistrationValidator();
+    
+    @Test
+    @DisplayName("Should accept exactly the emails the legacy regex accepted")
+    void shouldMatchLegacyEmailRegex() {
+        String[] emails = {
+            "john@example.com", "a@b", "first.last+tag@sub.example.org", "x_y-z@host",
+            "", "@example.com", "john@", "john", "jo hn@example.com", "john@exa mple.com",
+            "john@@example.com", "john@example.com\n", "john@exa\rmple.com", "jöhn@example.com",
+            "john@example .com", "john.doe@", "+@+"
+        };
+        
+        for (String email : emails) {
+            assertEquals(LEGACY_EMAIL_PATTERN.matcher(email).matches(), RegistrationValidator.isValidEmail(email),
+                () -> "Mismatch for '" + email + "'");
+        }
+        assertFalse(RegistrationValidator.isValidEmail(null));
+    }
+    
+    @Test
+    @DisplayName("Should treat blank values like trim().isEmpty()")
+    void shouldTreatBlankValuesLikeTrim() {
+        String[] values = {"", " ", "\t\n", "\u0000 ", "a", " a ", " "};
+        
+        for (String value : values) {
+            assertEquals(value.trim().isEmpty(), RegistrationValidator.isBlank(value));
+        }
+        assertTrue(RegistrationValidator.isBlank(null));
+    }
+    
+    @Test
+    @DisplayName("Should report all field errors in one pass")
+    void shouldReportAllFieldErrorsInOnePass() {
+        LongParameterListRefactored.UserRegistrationData data =
+            new LongParameterListRefactored.UserRegistrationData(
+                " ", "Smith", "not-an-email", "555-987-6543", null, LocalDate.of(1985, 8, 20), "short", true
+            );
+        
+        List<String> errors = validator.validate(data);
+        
+        assertEquals(List.of(
+            "First name is required",
+            "Valid email is required",
+            "Address is required",
+            "Password must be at least 8 characters"
+        ), errors);
+    }
+    
+    @Test
+    @DisplayName("Should return no errors for valid data")
+    void shouldReturnNoErrorsForValidData() {
+        LongParameterListRefactored.Address address = new LongParameterListRefactored.Address(
+            "456 Oak Ave", "Los Angeles", "CA", "90210", "USA"
+        );
+        LongParameterListRefactored.UserRegistrationData data =
+            new LongParameterListRefactored.UserRegistrationData(
+                "Jane", "Smith", "jane@example.com", "555-987-6543", address, LocalDate.of(1985, 8, 20), "password456", true
+            );
+        
+        assertTrue(validator.validate(data).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should surface every error from createUser")
+    void shouldSurfaceEveryErrorFromCreateUser() {
+        LongParameterListRefactored.UserRegistrationData data =
+            new LongParameterListRefactored.UserRegistrationData(
+                null, null, "jane@example.com", "555-987-6543", null, LocalDate.of(1985, 8, 20), "password456", true
+            );
+        
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> new LongParameterListRefactored().createUser(data));
+        
+        assertEquals("First name is required; Last name is required; Address is required", exception.getMessage());
+    }
+}
@@ -0,0 +1,103 @@
+package com.cleancode.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should convert major units to cents as the decimal they print as")
+    void shouldConvertMajorUnitsToCents() {
+        assertEquals(99999, Money.ofMajor(999.99));
+        assertEquals(2999, Money.ofMajor(29.99));
+        assertEquals(-1205, Money.ofMajor(-12.05));
+        assertEquals(0, Money.ofMajor(0.0));
+
+        // 1.005 is stored as 1.00499999999999989..., but reads as a tie
+        assertEquals(100, Money.ofMajor(1.005, RoundingMode.HALF_EVEN));
+        assertEquals(101, Money.ofMajor(1.005, RoundingMode.HALF_UP));
+        assertEquals(101, Money.ofMajor(1.015, RoundingMode.HALF_DOWN));
+        assertEquals(102, Money.ofMajor(1.015, RoundingMode.HALF_EVEN));
+        assertEquals(-101, Money.ofMajor(-1.005, RoundingMode.HALF_UP));
+        assertEquals(-100, Money.ofMajor(-1.005, RoundingMode.HALF_DOWN));
+
+        assertEquals(123456789012L, Money.ofMajor(1234567890.12));
+        assertThrows(ArithmeticException.class, () -> Money.ofMajor(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Money.ofMajor(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    @DisplayName("Should round like BigDecimal in every rounding mode")
+    void shouldRoundLikeBigDecimal() {
+        Random random = new Random(42);
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (int i = 0; i < 10_000; i++) {
+                long dividend = random.nextInt(2_000_001) - 1_000_000;
+                long divisor = 1 + random.nextInt(10_000);
+                long expected = BigDecimal.valueOf(dividend)
+                    .divide(BigDecimal.valueOf(divisor), 0, mode)
+                    .longValueExact();
+                assertEquals(expected, Money.divide(dividend, divisor, mode), dividend + " / " + divisor + " " + mode);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply rates in basis points")
+    void shouldApplyBasisPoints() {
+        assertEquals(950, Money.applyBasisPoints(1000, 9500, RoundingMode.HALF_EVEN));
+        assertEquals(26999, Money.applyBasisPoints(29999, 9000, RoundingMode.HALF_EVEN));
+        assertEquals(25649, Money.applyBasisPoints(26999, 9500, RoundingMode.HALF_EVEN));
+        assertEquals(1500, Money.percentageOf(10000, 1500, RoundingMode.HALF_EVEN));
+        // 10% of 25 cents is exactly 2.5 cents
+        assertEquals(2, Money.percentageOf(25, 1000, RoundingMode.HALF_EVEN));
+        assertEquals(3, Money.percentageOf(25, 1000, RoundingMode.HALF_UP));
+        assertEquals(-2, Money.percentageOf(-25, 1000, RoundingMode.HALF_EVEN));
+        assertEquals(-3, Money.percentageOf(-25, 1000, RoundingMode.UP));
+        assertThrows(ArithmeticException.class, () -> Money.percentageOf(25, 1000, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    @DisplayName("Should throw instead of overflowing")
+    void shouldThrowInsteadOfOverflowing() {
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.applyBasisPoints(Long.MAX_VALUE / 100, 9500, RoundingMode.HALF_EVEN));
+        assertThrows(ArithmeticException.class, () -> Money.divide(100, 0, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    @DisplayName("Should format cents as a plain decimal")
+    void shouldFormatCents() {
+        assertEquals("1006.97", Money.format(100697));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("-12.50", Money.format(-1250));
+        assertEquals(1006.97, Money.toMajor(100697));
+    }
+    
+    @Test
+    @DisplayName("Should parse decimal text into cents without a double")
+    void shouldParseDecimalText() {
+        assertEquals(99999, Money.parse("999.99"));
+        assertEquals(500, Money.parse("5"));
+        assertEquals(-150, Money.parse("-1.5"));
+        assertEquals(50, Money.parse(".50"));
+        assertEquals(101, Money.parse("1.005", RoundingMode.HALF_UP));
+        assertEquals(100, Money.parse("1.005", RoundingMode.HALF_EVEN));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12a"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("."));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+    }
+}
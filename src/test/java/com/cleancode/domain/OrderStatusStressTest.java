@@ -0,0 +1,157 @@
+package com.cleancode.domain;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Races actors on a fresh order many times over and checks that only the outcomes allowed
+ * by the status lifecycle are ever observed, in the manner of a jcstress test.
+ */
+@DisplayName("Order Status Stress Tests")
+class OrderStatusStressTest {
+
+    private static final int ACTORS = 4;
+    private static final int ROUNDS = 2_000;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(ACTORS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of several racing workers claim an order")
+    void shouldLetExactlyOneWorkerClaim() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Order order = newOrder(round);
+
+            List<Boolean> claims = race(actor ->
+                () -> order.compareAndSetStatus(OrderStatus.PENDING, OrderStatus.PROCESSED));
+
+            assertEquals(1, Collections.frequency(claims, true), "round " + round);
+            assertEquals(OrderStatus.PROCESSED, order.getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Should let either processing or cancellation win, never both")
+    void shouldLetProcessingOrCancellationWin() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Order order = newOrder(round);
+
+            List<Boolean> wins = race(actor -> () -> order.compareAndSetStatus(OrderStatus.PENDING,
+                actor % 2 == 0 ? OrderStatus.PROCESSED : OrderStatus.CANCELLED));
+
+            int winner = wins.indexOf(true);
+            assertEquals(1, Collections.frequency(wins, true), "round " + round);
+            assertEquals(winner % 2 == 0 ? OrderStatus.PROCESSED : OrderStatus.CANCELLED, order.getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Should not lose or repeat transitions when workers advance an order concurrently")
+    void shouldNotLoseOrRepeatTransitions() throws Exception {
+        OrderStatus[] lifecycle = {OrderStatus.PROCESSED, OrderStatus.SHIPPED, OrderStatus.DELIVERED};
+        for (int round = 0; round < ROUNDS; round++) {
+            Order order = newOrder(round);
+            List<OrderStatus> observed = Collections.synchronizedList(new ArrayList<>());
+            order.addListener(new OrderListener() {
+                @Override
+                public void statusChanged(Order changed, OrderStatus from, OrderStatus to) {
+                    observed.add(to);
+                }
+            });
+
+            race(actor -> () -> {
+                for (OrderStatus next : lifecycle) {
+                    OrderStatus current = order.getStatus();
+                    if (current.canTransitionTo(next)) {
+                        order.compareAndSetStatus(current, next);
+                    }
+                }
+                return null;
+            });
+
+            // Each transition happens exactly once; notifications of racing transitions may
+            // still arrive out of order
+            observed.sort(null);
+            assertEquals(OrderStatus.DELIVERED, order.getStatus(), "round " + round);
+            assertEquals(List.of(lifecycle), observed, "round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Should process and save an order once when several workers are handed it")
+    void shouldProcessOrderOnce() throws Exception {
+        AtomicInteger saves = new AtomicInteger();
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> saves.incrementAndGet());
+        for (int round = 0; round < ROUNDS / 4; round++) {
+            Order order = newOrder(round);
+
+            List<Boolean> processed = race(actor -> () -> {
+                try {
+                    processor.processOrder(order);
+                    return true;
+                } catch (IllegalStateException alreadyClaimed) {
+                    return false;
+                }
+            });
+
+            assertEquals(1, Collections.frequency(processed, true), "round " + round);
+            assertEquals(round + 1, saves.get());
+            assertEquals(6000, order.getTotalCents());
+        }
+    }
+
+    /**
+     * Starts every actor at the same moment and collects their results in actor order.
+     */
+    private <T> List<T> race(Function<Integer, Callable<T>> actors)
+            throws InterruptedException, ExecutionException {
+        CyclicBarrier start = new CyclicBarrier(ACTORS);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int actor = 0; actor < ACTORS; actor++) {
+            Callable<T> body = actors.apply(actor);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return body.call();
+            }));
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static Order newOrder(int round) {
+        Order order = new Order("O" + round, new Customer("C1", "John Doe", "john@example.com", false));
+        order.addItem(new OrderItem("P1", "Cable", 20.00, 3));
+        return order;
+    }
+}
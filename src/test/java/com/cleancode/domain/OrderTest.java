@@ -0,0 +1,173 @@
+package com.cleancode.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Domain Tests")
+class OrderTest {
+    
+    private Order order;
+    
+    @BeforeEach
+    void setUp() {
+        order = new Order("O001", new Customer("C001", "John Doe", "john@example.com", false));
+        order.addItem(new OrderItem("P001", "Laptop", 999.99, 1));
+        order.addItem(new OrderItem("P002", "Mouse", 29.99, 2));
+    }
+    
+    @Test
+    @DisplayName("Should expose items without copying")
+    void shouldExposeItemsWithoutCopying() {
+        List<OrderItem> view = order.getItemsView();
+        
+        assertSame(view, order.getItemsView());
+        assertEquals(2, order.itemCount());
+        assertEquals("P002", order.getItem(1).getProductId());
+        
+        order.addItem(new OrderItem("P003", "Keyboard", 89.99, 1));
+        assertEquals(3, view.size());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new OrderItem("P004", "Cable", 5.0, 1)));
+    }
+    
+    @Test
+    @DisplayName("Should visit items in insertion order")
+    void shouldVisitItemsInInsertionOrder() {
+        List<String> productIds = new ArrayList<>();
+        
+        order.forEachItem(item -> productIds.add(item.getProductId()));
+        
+        assertEquals(List.of("P001", "P002"), productIds);
+    }
+    
+    @Test
+    @DisplayName("Should still return a defensive copy from getItems")
+    void shouldReturnDefensiveCopyFromGetItems() {
+        List<OrderItem> copy = order.getItems();
+        copy.clear();
+        
+        assertEquals(2, order.itemCount());
+    }
+    
+    @Test
+    @DisplayName("Should maintain subtotal as items are added and removed")
+    void shouldMaintainSubtotalAsItemsAreAddedAndRemoved() {
+        assertEquals(105997, order.getSubtotalCents());
+        
+        OrderItem mouse = order.getItem(1);
+        assertTrue(order.removeItem(mouse));
+        assertNull(mouse.getOrder());
+        assertEquals(99999, order.getSubtotalCents());
+        assertFalse(order.removeItem(mouse));
+        
+        order.removeItem(order.getItem(0));
+        assertEquals(0, order.getSubtotalCents());
+    }
+    
+    @Test
+    @DisplayName("Should adjust subtotal when an item changes or is replaced")
+    void shouldAdjustSubtotalWhenItemChangesOrIsReplaced() {
+        order.getItem(1).setQuantity(3);
+        assertEquals(108996, order.getSubtotalCents());
+        
+        order.getItem(0).setPrice(899.99);
+        assertEquals(98996, order.getSubtotalCents());
+        
+        OrderItem previous = order.replaceItem(0, new OrderItem("P005", "Tablet", 500.0, 1));
+        assertEquals("P001", previous.getProductId());
+        assertEquals(58997, order.getSubtotalCents());
+        
+        previous.setPrice(1.0);
+        assertEquals(58997, order.getSubtotalCents());
+    }
+    
+    @Test
+    @DisplayName("Should keep the subtotal exact through many small price changes")
+    void shouldKeepSubtotalExactThroughManyPriceChanges() {
+        OrderItem cable = new OrderItem("P010", "Cable", 0.10, 1);
+        order.addItem(cable);
+        for (int i = 0; i < 10_000; i++) {
+            cable.setPrice(i % 2 == 0 ? 0.20 : 0.10);
+        }
+        
+        assertEquals(106007, order.getSubtotalCents());
+        assertEquals(1060.07, order.getSubtotal());
+        assertEquals(1000, OrderItem.ofCents("P011", "Gift card", 1000, 1).getLineTotalCents());
+    }
+    
+    @Test
+    @DisplayName("Should reject an item that already belongs to an order")
+    void shouldRejectItemThatAlreadyBelongsToAnOrder() {
+        Order other = new Order("O002", order.getCustomer());
+        
+        assertThrows(IllegalArgumentException.class, () -> other.addItem(order.getItem(0)));
+        assertThrows(IllegalArgumentException.class, () -> order.addItem(null));
+    }
+    
+    @Test
+    @DisplayName("Should follow the status lifecycle and reject illegal transitions")
+    void shouldFollowStatusLifecycle() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.CANCELLED));
+        assertTrue(OrderStatus.DELIVERED.isTerminal());
+        assertFalse(OrderStatus.PROCESSED.isTerminal());
+        
+        assertThrows(IllegalStateException.class, () -> order.setStatus(OrderStatus.SHIPPED));
+        order.setStatus(OrderStatus.PROCESSED);
+        order.setStatus(OrderStatus.PROCESSED);
+        assertFalse(order.compareAndSetStatus(OrderStatus.PENDING, OrderStatus.PROCESSED));
+        assertTrue(order.compareAndSetStatus(OrderStatus.PROCESSED, OrderStatus.SHIPPED));
+        assertThrows(IllegalArgumentException.class,
+            () -> order.compareAndSetStatus(OrderStatus.SHIPPED, OrderStatus.PENDING));
+        order.setStatus(OrderStatus.DELIVERED);
+        assertThrows(IllegalStateException.class, () -> order.setStatus(OrderStatus.CANCELLED));
+        
+        order.restoreStatus(OrderStatus.PENDING);
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+    }
+    
+    @Test
+    @DisplayName("Should write the total of the first worker to process the order only")
+    void shouldKeepTotalOfWinningWorker() {
+        assertTrue(order.markProcessed(5_000));
+        assertFalse(order.markProcessed(7_000));
+        assertEquals(5_000, order.getTotalCents());
+        assertEquals(OrderStatus.PROCESSED, order.getStatus());
+        
+        Order cancelled = new Order("O002", new Customer("C001", "John Doe", "john@example.com", false));
+        cancelled.setTotalCents(100);
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        assertFalse(cancelled.markProcessed(5_000));
+        assertEquals(100, cancelled.getTotalCents());
+        
+        order.restoreStatus(OrderStatus.PENDING);
+        assertTrue(order.markProcessed(6_000));
+        assertEquals(6_000, order.getTotalCents());
+    }
+    
+    @Test
+    @DisplayName("Should notify listeners of status transitions")
+    void shouldNotifyListenersOfStatusTransitions() {
+        List<String> changes = new ArrayList<>();
+        OrderListener listener = new OrderListener() {
+            @Override
+            public void statusChanged(Order changed, OrderStatus from, OrderStatus to) {
+                changes.add(from + "->" + to);
+            }
+        };
+        order.addListener(listener);
+        
+        order.setStatus(OrderStatus.PROCESSED);
+        order.compareAndSetStatus(OrderStatus.PENDING, OrderStatus.PROCESSED);
+        order.setStatus(OrderStatus.CANCELLED);
+        assertTrue(order.removeListener(listener));
+        order.restoreStatus(OrderStatus.PENDING);
+        
+        assertEquals(List.of("PENDING->PROCESSED", "PROCESSED->CANCELLED"), changes);
+    }
+}
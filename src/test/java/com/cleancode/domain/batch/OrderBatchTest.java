@@ -0,0 +1,137 @@
+package com.cleancode.domain.batch;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.pricing.CustomerTier;
+import com.cleancode.pricing.DiscountRuleEngine;
+import com.cleancode.pricing.DiscountTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Batch Tests")
+class OrderBatchTest {
+
+    private final DiscountRuleEngine engine = DiscountRuleEngine.fromClasspath("discounts/order-discounts.rules");
+
+    @Test
+    @DisplayName("Should compute the same totals as order processing with both kernels")
+    void shouldMatchOrderProcessing() {
+        List<Order> orders = randomOrders(500);
+        // Taken before processing, so the batches start without totals
+        OrderBatch scalar = OrderBatch.of(orders);
+        OrderBatch best = OrderBatch.of(orders);
+        new LongMethodRefactored(1, order -> { }, engine).processOrders(orders);
+
+        scalar.calculateTotals(engine.currentTable(), BatchKernels.scalar());
+        best.calculateTotals(engine.currentTable(), BatchKernels.best());
+
+        for (int i = 0; i < orders.size(); i++) {
+            assertEquals(orders.get(i).getSubtotalCents(), scalar.getSubtotalCents(i));
+            assertEquals(orders.get(i).getTotalCents(), scalar.getTotalCents(i));
+            assertEquals(orders.get(i).getSubtotalCents(), best.getSubtotalCents(i));
+            assertEquals(orders.get(i).getTotalCents(), best.getTotalCents(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should use the Vector API when the module is present")
+    void shouldUseVectorApiWhenModuleIsPresent() {
+        boolean modulePresent = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+        assertEquals(modulePresent, BatchKernels.vectorAvailable());
+        assertEquals(modulePresent, BatchKernels.best().name().startsWith("vector"));
+    }
+
+    @Test
+    @DisplayName("Should agree with the scalar kernel on every lane, tail and out-of-range price")
+    void shouldAgreeWithScalarKernel() {
+        Random random = new Random(7);
+        for (int length = 0; length < 40; length++) {
+            long[] prices = new long[length];
+            int[] quantities = new int[length];
+            for (int i = 0; i < length; i++) {
+                prices[i] = random.nextInt(10) == 0 ? (1L << 40) + i : random.nextInt(1_000_000) - 1000;
+                quantities[i] = random.nextInt(1000);
+            }
+            long[] expected = new long[length];
+            long[] actual = new long[length];
+            BatchKernels.scalar().lineTotals(prices, quantities, expected, length);
+            BatchKernels.best().lineTotals(prices, quantities, actual, length);
+
+            assertArrayEquals(expected, actual, "length " + length);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a line total that overflows")
+    void shouldRejectOverflow() {
+        Order order = new Order("O1", new Customer("C1", "John Doe", "john@example.com", false));
+        order.addItem(OrderItem.ofCents("P1", "Yacht", Long.MAX_VALUE / 2, 1));
+        OrderBatch batch = OrderBatch.of(List.of(order));
+        batch.setQuantity(0, 3);
+
+        DiscountTable table = engine.currentTable();
+        assertThrows(ArithmeticException.class, () -> batch.calculateTotals(table, BatchKernels.scalar()));
+        assertThrows(ArithmeticException.class, () -> batch.calculateTotals(table, BatchKernels.best()));
+    }
+
+    @Test
+    @DisplayName("Should convert back to orders with repriced lines")
+    void shouldConvertBackToOrders() {
+        Order order = new Order("O1", new Customer("C1", "Jane Smith", "jane@example.com", true));
+        order.addItem(new OrderItem("P1", "Laptop", 999.99, 1));
+        order.addItem(new OrderItem("P2", "Mouse", 29.99, 2));
+        order.setStatus(OrderStatus.PROCESSED);
+        order.setStatus(OrderStatus.SHIPPED);
+        Order empty = new Order("O2", new Customer("C2", "John Doe", "john@example.com", false));
+        List<Order> orders = List.of(order, empty);
+
+        OrderBatch batch = OrderBatch.of(orders);
+        assertEquals(2, batch.orderCount());
+        assertEquals(2, batch.lineCount());
+        assertEquals(0, batch.orderOf(1));
+        assertEquals(CustomerTier.PREMIUM, batch.getTier(0));
+        assertEquals(CustomerTier.REGULAR, batch.getTier(1));
+
+        batch.setPriceCents(0, 89999);
+        batch.calculateTotals(engine.currentTable());
+        List<Order> repriced = batch.toOrders();
+
+        assertEquals("O1", repriced.get(0).getOrderId());
+        assertEquals(OrderStatus.SHIPPED, repriced.get(0).getStatus());
+        assertEquals(89999, repriced.get(0).getItem(0).getPriceCents());
+        assertEquals(95997, repriced.get(0).getSubtotalCents());
+        assertEquals(engine.apply(CustomerTier.PREMIUM, 95997), repriced.get(0).getTotalCents());
+        assertEquals(0, repriced.get(1).itemCount());
+        assertEquals(0, repriced.get(1).getTotalCents());
+
+        batch.copyTotalsTo(orders);
+        assertEquals(repriced.get(0).getTotalCents(), order.getTotalCents());
+        assertThrows(IllegalArgumentException.class, () -> batch.copyTotalsTo(List.of(order)));
+    }
+
+    private static List<Order> randomOrders(int count) {
+        Random random = new Random(42);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("O" + i, new Customer("C" + i, "Customer " + i, "c" + i + "@example.com",
+                random.nextInt(10) < 3));
+            int lines = 1 + random.nextInt(20);
+            for (int line = 0; line < lines; line++) {
+                order.addItem(OrderItem.ofCents("P" + line, "Product " + line,
+                    100 + random.nextInt(50_000), 1 + random.nextInt(5)));
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,169 @@
+package com.cleancode.domain.codec;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.domain.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Domain Codec Tests")
+class DomainCodecTest {
+    
+    private static Order sampleOrder(String orderId) {
+        Order order = new Order(orderId, new Customer("C001", "Jane Smith", "jane@example.com", true));
+        order.addItem(new OrderItem("P003", "Monitor", 299.99, 1));
+        order.addItem(new OrderItem("P004", "Keyboard", 89.99, 3));
+        order.setTotal(499.95);
+        order.setStatus(OrderStatus.PROCESSED);
+        order.setStatus(OrderStatus.SHIPPED);
+        return order;
+    }
+    
+    private static void assertSameOrder(Order expected, Order actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.getSubtotal(), actual.getSubtotal(), 0.0001);
+    }
+    
+    @Test
+    @DisplayName("Should round-trip an order through a heap buffer")
+    void shouldRoundTripOrder() {
+        Order order = sampleOrder("O001");
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        
+        DomainCodec.writeOrder(new BinaryWriter(buffer), order);
+        Order decoded = DomainCodec.readOrder(new BinaryReader(buffer.flip()));
+        
+        assertSameOrder(order, decoded);
+        assertFalse(buffer.hasRemaining());
+    }
+    
+    @Test
+    @DisplayName("Should round-trip nulls and non-ASCII strings through a direct buffer")
+    void shouldRoundTripNullsAndUnicodeThroughDirectBuffer() {
+        Order order = new Order("Ö-𝄞-\uD800", null);
+        order.addItem(new OrderItem(null, "Café ☕", 0.0, 0));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        
+        DomainCodec.writeOrder(new BinaryWriter(buffer), order);
+        Order decoded = DomainCodec.readOrder(new BinaryReader(buffer.flip()));
+        
+        String expectedId = new String(order.getOrderId().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        assertEquals(expectedId, decoded.getOrderId());
+        assertNull(decoded.getCustomer());
+        assertNull(decoded.getItem(0).getProductId());
+        assertEquals("Café ☕", decoded.getItem(0).getProductName());
+    }
+    
+    @Test
+    @DisplayName("Should send repeated strings once per string table")
+    void shouldSendRepeatedStringsOnce() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            orders.add(sampleOrder("O" + i));
+        }
+        ByteBuffer batch = ByteBuffer.allocate(64 * 1024);
+        ByteBuffer single = ByteBuffer.allocate(1024);
+        
+        DomainCodec.writeOrders(new BinaryWriter(batch), orders);
+        DomainCodec.writeOrder(new BinaryWriter(single), orders.get(0));
+        
+        assertTrue(batch.position() < single.position() * 50 / 2,
+            "batch of 50 took " + batch.position() + " bytes, one order takes " + single.position());
+        List<Order> decoded = DomainCodec.readOrders(new BinaryReader(batch.flip()));
+        assertEquals(50, decoded.size());
+        assertSameOrder(orders.get(49), decoded.get(49));
+    }
+    
+    @Test
+    @DisplayName("Should round-trip a user")
+    void shouldRoundTripUser() {
+        User user = new User();
+        user.setId(42L);
+        user.setFirstName("Alice");
+        user.setLastName("Johnson");
+        user.setEmail("alice@example.com");
+        user.setPhoneNumber("555-123-4567");
+        user.setAddress("123 Main St");
+        user.setCity("New York");
+        user.setState("NY");
+        user.setZipCode("10001");
+        user.setCountry("USA");
+        user.setDateOfBirth(LocalDate.of(1890, 5, 15));
+        user.setPassword("password123");
+        user.setActive(true);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        
+        DomainCodec.writeUser(new BinaryWriter(buffer), user);
+        User decoded = DomainCodec.readUser(new BinaryReader(buffer.flip()));
+        
+        assertEquals(user.toString(), decoded.toString());
+        assertEquals(42L, decoded.getId());
+        assertEquals("password123", decoded.getPassword());
+        
+        User empty = new User();
+        buffer.clear();
+        DomainCodec.writeUser(new BinaryWriter(buffer), empty);
+        User decodedEmpty = DomainCodec.readUser(new BinaryReader(buffer.flip()));
+        assertEquals(empty.toString(), decodedEmpty.toString());
+        assertNull(decodedEmpty.getId());
+    }
+    
+    @Test
+    @DisplayName("Should reject a truncated record with IllegalArgumentException")
+    void shouldRejectTruncatedRecord() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        DomainCodec.writeOrder(new BinaryWriter(buffer), sampleOrder("O1"));
+        buffer.flip();
+        
+        for (int length = 0; length < buffer.limit(); length++) {
+            ByteBuffer truncated = buffer.duplicate().limit(length);
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> DomainCodec.readOrder(new BinaryReader(truncated)), "length " + length);
+            assertNotNull(exception.getMessage());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should encode varints at their boundaries")
+    void shouldEncodeVarintsAtBoundaries() {
+        int[] ints = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        long[] longs = {0L, -1L, 63L, -64L, 64L, Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        BinaryWriter writer = new BinaryWriter(buffer);
+        
+        for (int value : ints) {
+            writer.writeVarInt(value);
+        }
+        for (long value : longs) {
+            writer.writeSignedVarLong(value);
+        }
+        
+        BinaryReader reader = new BinaryReader(buffer.flip());
+        for (int value : ints) {
+            assertEquals(value, reader.readVarInt());
+        }
+        for (long value : longs) {
+            assertEquals(value, reader.readSignedVarLong());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should reject malformed input")
+    void shouldRejectMalformedInput() {
+        ByteBuffer badStatus = ByteBuffer.wrap(new byte[] {1, 1, 'O', 42});
+        assertThrows(IllegalArgumentException.class, () -> DomainCodec.readOrder(new BinaryReader(badStatus)));
+        
+        ByteBuffer badReference = ByteBuffer.wrap(new byte[] {7});
+        assertThrows(IllegalArgumentException.class, () -> new BinaryReader(badReference).readString());
+    }
+}
@@ -0,0 +1,129 @@
+package com.cleancode.domain.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Email Index Tests")
+class EmailIndexTest {
+
+    @Test
+    @DisplayName("Bloom filter should never miss an added email and stay near its false positive rate")
+    void bloomFilterShouldHaveNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(7, filter.getHashFunctions());
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.002);
+        assertEquals(BloomFilter.bytesFor(100_000, 0.01), filter.getMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("Bloom filter should tell apart strings with the same hashCode")
+    void bloomFilterShouldSeparateEqualHashCodes() {
+        // "Aa" and "BB" share a hashCode, so every string of ten such pairs has the same one
+        List<String> colliding = new ArrayList<>();
+        for (int mask = 0; mask < 1024; mask++) {
+            StringBuilder value = new StringBuilder();
+            for (int bit = 0; bit < 10; bit++) {
+                value.append((mask >>> bit & 1) == 0 ? "Aa" : "BB");
+            }
+            colliding.add(value.toString());
+        }
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        filter.put(colliding.get(0));
+
+        int falsePositives = 0;
+        for (String value : colliding.subList(1, colliding.size())) {
+            assertEquals(colliding.get(0).hashCode(), value.hashCode());
+            if (filter.mightContain(value)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 10, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of several concurrent registrations of an email succeed")
+    void shouldRegisterEachEmailOnceUnderContention() throws InterruptedException {
+        EmailIndex index = new EmailIndex(10_000);
+        AtomicInteger registered = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 2_000; i++) {
+                    if (index.register("user" + i + "@example.com")) {
+                        registered.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2_000, registered.get());
+        assertEquals(2_000, index.size());
+    }
+
+    @Test
+    @DisplayName("Should compare emails case-insensitively and report its size and accuracy")
+    void shouldNormalizeAndReportStats() {
+        EmailIndex index = new EmailIndex(1_000);
+
+        assertTrue(index.register("Jane.Smith@Example.com"));
+        assertFalse(index.register("  jane.smith@example.COM "));
+        assertTrue(index.isRegistered("JANE.SMITH@EXAMPLE.COM"));
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(index.isRegistered("new" + i + "@example.com"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> index.register(null));
+
+        EmailIndex.Stats stats = index.stats();
+        assertEquals(1, stats.getEmails());
+        assertEquals(1_000, stats.getDefinitelyNew() + stats.getFalsePositives());
+        assertTrue(stats.getObservedFalsePositiveRate() < 0.01, stats.toString());
+        assertEquals(9.6, stats.getBitsPerEmail(), 0.2);
+        assertEquals(1_200_000, stats.getFilterBytesPerMillionEmails(), 25_000);
+    }
+
+    @Test
+    @DisplayName("Should let a released email be registered again")
+    void shouldRegisterReleasedEmailAgain() {
+        EmailIndex index = new EmailIndex(1_000);
+        index.register("Jane.Smith@Example.com");
+
+        assertTrue(index.unregister(" jane.smith@example.com"));
+        assertFalse(index.unregister("jane.smith@example.com"));
+        assertFalse(index.isRegistered("Jane.Smith@Example.com"));
+        assertEquals(0, index.size());
+        assertTrue(index.register("jane.smith@example.com"));
+        assertEquals(1, index.stats().getFalsePositives());
+    }
+}
@@ -0,0 +1,230 @@
+package com.cleancode.domain.index;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Index Tests")
+class OrderIndexTest {
+
+    @Nested
+    @DisplayName("Compressed Bitmap")
+    class CompressedBitmapTests {
+
+        @Test
+        @DisplayName("Should match BitSet for sparse and dense chunks")
+        void shouldMatchBitSet() {
+            Random random = new Random(42);
+            for (int round = 0; round < 20; round++) {
+                BitSet expectedA = new BitSet();
+                BitSet expectedB = new BitSet();
+                CompressedBitmap a = new CompressedBitmap();
+                CompressedBitmap b = new CompressedBitmap();
+                // Chunk 0 dense in both, chunk 1 sparse in both, chunk 2 mixed
+                fill(random, a, expectedA, 0, 30000);
+                fill(random, b, expectedB, 0, 20000);
+                fill(random, a, expectedA, 65536, 100);
+                fill(random, b, expectedB, 65536, 200);
+                fill(random, a, expectedA, 2 * 65536, 10000);
+                fill(random, b, expectedB, 2 * 65536, 300);
+
+                assertEquals(expectedA.cardinality(), a.cardinality());
+                assertArrayEquals(expectedA.stream().toArray(), a.toArray());
+
+                BitSet and = (BitSet) expectedA.clone();
+                and.and(expectedB);
+                assertArrayEquals(and.stream().toArray(), a.and(b).toArray());
+                assertArrayEquals(and.stream().toArray(), b.and(a).toArray());
+
+                BitSet or = (BitSet) expectedA.clone();
+                or.or(expectedB);
+                assertArrayEquals(or.stream().toArray(), a.or(b).toArray());
+
+                BitSet andNot = (BitSet) expectedA.clone();
+                andNot.andNot(expectedB);
+                assertArrayEquals(andNot.stream().toArray(), a.andNot(b).toArray());
+                BitSet notAnd = (BitSet) expectedB.clone();
+                notAnd.andNot(expectedA);
+                assertArrayEquals(notAnd.stream().toArray(), b.andNot(a).toArray());
+            }
+        }
+
+        @Test
+        @DisplayName("Should switch chunk representation as values are added and removed")
+        void shouldSwitchRepresentation() {
+            CompressedBitmap bitmap = new CompressedBitmap();
+            for (int value = 0; value < 5000; value++) {
+                assertTrue(bitmap.add(value * 2));
+            }
+            assertFalse(bitmap.add(0));
+            for (int value = 0; value < 5000; value += 2) {
+                assertTrue(bitmap.remove(value * 2));
+            }
+            assertFalse(bitmap.remove(0));
+            assertEquals(2500, bitmap.cardinality());
+            assertTrue(bitmap.contains(2));
+            assertFalse(bitmap.contains(4));
+            assertFalse(bitmap.contains(-1));
+            assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+
+            for (int value = 1; value < 5000; value += 2) {
+                bitmap.remove(value * 2);
+            }
+            assertTrue(bitmap.isEmpty());
+            assertEquals("{1, 70000}", CompressedBitmap.of(70000, 1).toString());
+        }
+
+        private void fill(Random random, CompressedBitmap bitmap, BitSet expected, int base, int count) {
+            for (int i = 0; i < count; i++) {
+                int value = base + random.nextInt(65536);
+                bitmap.add(value);
+                expected.set(value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer processed premium orders by bitmap intersection")
+    void shouldAnswerProcessedPremiumOrders() {
+        OrderIndex index = new OrderIndex();
+        Customer regular = new Customer("C1", "John Doe", "john@example.com", false);
+        Customer premium = new Customer("C2", "Jane Smith", "jane@example.com", true);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Order order = new Order("O" + i, i % 3 == 0 ? premium : regular);
+            index.add(order);
+            orders.add(order);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            orders.get(i).setStatus(OrderStatus.PROCESSED);
+        }
+
+        List<Order> result = index.orders(index.withStatus(OrderStatus.PROCESSED).and(index.premium()));
+
+        List<Order> expected = orders.stream()
+            .filter(order -> order.getStatus() == OrderStatus.PROCESSED && order.getCustomer().isPremium())
+            .toList();
+        assertEquals(expected, result);
+        assertEquals(17, result.size());
+        assertEquals(50, index.withStatus(OrderStatus.PENDING).cardinality());
+        assertEquals(34, index.forCustomer("C2").cardinality());
+        assertTrue(index.forCustomer("C9").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should follow status and customer changes incrementally")
+    void shouldFollowChanges() {
+        OrderIndex index = new OrderIndex();
+        Customer regular = new Customer("C1", "John Doe", "john@example.com", false);
+        Customer premium = new Customer("C2", "Jane Smith", "jane@example.com", true);
+        Order order = new Order("O1", regular);
+        int ordinal = index.add(order);
+        CompressedBitmap before = index.withStatus(OrderStatus.PENDING);
+
+        order.setStatus(OrderStatus.PROCESSED);
+        order.setStatus(OrderStatus.SHIPPED);
+        order.setCustomer(premium);
+
+        assertTrue(before.contains(ordinal));
+        assertTrue(index.withStatus(OrderStatus.PENDING).isEmpty());
+        assertTrue(index.withStatus(OrderStatus.SHIPPED).contains(ordinal));
+        assertTrue(index.forCustomer("C1").isEmpty());
+        assertTrue(index.forCustomer("C2").contains(ordinal));
+        assertTrue(index.premium().contains(ordinal));
+
+        premium.setPremium(false);
+        index.refresh(order);
+        assertTrue(index.premium().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.add(order));
+    }
+
+    @Test
+    @DisplayName("Should not miss a status change made while the order is being added")
+    void shouldIndexStatusChangedDuringAdd() throws InterruptedException {
+        OrderIndex index = new OrderIndex();
+        Customer customer = new Customer("C1", "John Doe", "john@example.com", false);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            orders.add(new Order("O" + i, customer));
+        }
+        Thread processor = new Thread(() -> orders.forEach(order -> order.setStatus(OrderStatus.PROCESSED)));
+        processor.start();
+        orders.forEach(index::add);
+        processor.join();
+
+        assertEquals(20_000, index.withStatus(OrderStatus.PROCESSED).cardinality());
+        assertTrue(index.withStatus(OrderStatus.PENDING).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should index concurrent status changes of many orders and customers")
+    void shouldIndexConcurrentStatusChanges() throws InterruptedException {
+        OrderIndex index = new OrderIndex();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 4_000; i++) {
+            Order order = new Order("O" + i, new Customer("C" + i % 1_000, "John Doe", "john@example.com", false));
+            index.add(order);
+            orders.add(order);
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t;
+            threads.add(new Thread(() -> {
+                for (int i = first; i < orders.size(); i += 4) {
+                    Order order = orders.get(i);
+                    if (i % 2 == 0) {
+                        order.setStatus(OrderStatus.PROCESSED);
+                        order.setStatus(OrderStatus.SHIPPED);
+                    } else {
+                        order.setStatus(OrderStatus.CANCELLED);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(index.withStatus(OrderStatus.PENDING).isEmpty());
+        assertTrue(index.withStatus(OrderStatus.PROCESSED).isEmpty());
+        assertEquals(2_000, index.withStatus(OrderStatus.SHIPPED).cardinality());
+        assertEquals(2_000, index.withStatus(OrderStatus.CANCELLED).cardinality());
+        assertEquals(4, index.forCustomer("C999").cardinality());
+        assertEquals(List.of(orders.get(8), orders.get(1_008), orders.get(2_008), orders.get(3_008)),
+            index.orders(index.forCustomer("C8").and(index.withStatus(OrderStatus.SHIPPED))));
+        assertTrue(index.forCustomer("C8").and(index.withStatus(OrderStatus.CANCELLED)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stop tracking removed orders")
+    void shouldStopTrackingRemovedOrders() {
+        OrderIndex index = new OrderIndex();
+        Order kept = new Order("O1", new Customer("C1", "John Doe", "john@example.com", true));
+        Order removed = new Order("O2", new Customer("C1", "John Doe", "john@example.com", true));
+        index.add(kept);
+        index.add(removed);
+        CompressedBitmap all = index.withStatus(OrderStatus.PENDING);
+
+        assertTrue(index.remove(removed));
+        assertFalse(index.remove(removed));
+        removed.setStatus(OrderStatus.CANCELLED);
+
+        assertEquals(1, index.size());
+        assertEquals(-1, index.ordinalOf(removed));
+        assertTrue(index.withStatus(OrderStatus.CANCELLED).isEmpty());
+        assertEquals(List.of(kept), index.orders(all));
+        assertEquals(1, index.forCustomer("C1").cardinality());
+        assertEquals(1, index.premium().cardinality());
+    }
+}
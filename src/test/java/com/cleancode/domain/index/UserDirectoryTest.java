@@ -0,0 +1,138 @@
+package com.cleancode.domain.index;
+
+import com.cleancode.domain.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("User Directory Tests")
+class UserDirectoryTest {
+
+    @Test
+    @DisplayName("Should find users by id, email, zip code, city and last-name prefix")
+    void shouldFindUsersThroughEachIndex() {
+        UserDirectory directory = new UserDirectory();
+        User jane = user("Jane", "Smith", "jane@example.com", "Los Angeles", "CA", "90210");
+        User john = user("John", "Smithers", "john@example.com", "Los Angeles", "CA", "90001");
+        User ann = user("Ann", "Jones", "ann@example.com", "Portland", "OR", "97201");
+        long janeId = directory.add(jane);
+        long johnId = directory.add(john);
+        directory.add(ann);
+        User storedJane = directory.get(janeId);
+        User storedJohn = directory.get(johnId);
+
+        assertEquals(1, janeId);
+        assertNotSame(john, storedJohn);
+        assertEquals(johnId, storedJohn.getId());
+        assertEquals("Smithers", storedJohn.getLastName());
+        assertNull(john.getId());
+        assertNull(directory.get(4));
+        assertSame(storedJane, directory.findByEmail(" JANE@example.com"));
+        assertEquals(johnId, directory.findIdByEmail("john@example.com"));
+        assertNull(directory.findByEmail("nobody@example.com"));
+        assertEquals(List.of(storedJane), directory.withZipCode("90210"));
+        assertEquals(List.of(storedJane, storedJohn), directory.inCity("los angeles", "ca"));
+        assertEquals(List.of(storedJane, storedJohn), directory.withLastNamePrefix("SMI", 10));
+        assertEquals(List.of(storedJane), directory.withLastNamePrefix("smith", 1));
+        jane.setZipCode("10001");
+        assertEquals(List.of(storedJane), directory.withZipCode("90210"));
+        assertEquals(List.of(), directory.withLastNamePrefix("smz", 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> directory.add(user("Other", "Person", "Jane@Example.com", "Austin", "TX", "73301")));
+    }
+
+    @Test
+    @DisplayName("Should move an updated user between groups and leave the directory unchanged on conflicts")
+    void shouldReindexChangedFieldsOnly() {
+        UserDirectory directory = new UserDirectory();
+        User jane = user("Jane", "Smith", "jane@example.com", "Los Angeles", "CA", "90210");
+        long janeId = directory.add(jane);
+        long johnId = directory.add(user("John", "Jones", "john@example.com", "Los Angeles", "CA", "90210"));
+
+        User moved = directory.update(janeId, user -> {
+            user.setCity("Portland");
+            user.setState("OR");
+            user.setZipCode("97201");
+        });
+
+        assertNotSame(jane, moved);
+        assertEquals(janeId, moved.getId());
+        assertEquals("Los Angeles", jane.getCity());
+        assertEquals(List.of(moved), directory.withZipCode("97201"));
+        assertEquals(List.of(directory.get(johnId)), directory.withZipCode("90210"));
+        assertEquals(List.of(moved), directory.withLastNamePrefix("smith", 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> directory.update(janeId, user -> user.setEmail("john@example.com")));
+        assertSame(moved, directory.get(janeId));
+        assertThrows(IllegalArgumentException.class, () -> directory.update(99, user -> { }));
+
+        assertSame(moved, directory.remove(janeId));
+        assertNull(directory.findByEmail("jane@example.com"));
+        assertTrue(directory.withZipCode("97201").isEmpty());
+        assertEquals(1, directory.size());
+        assertEquals(3, directory.add(user("Jane", "Smith", "jane@example.com", "Portland", "OR", "97201")));
+    }
+
+    @Test
+    @DisplayName("Should keep every email findable while users are added and renamed concurrently")
+    void shouldIndexConcurrently() throws InterruptedException {
+        UserDirectory directory = new UserDirectory();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 2_000; i++) {
+                        String email = "user" + thread + "-" + i + "@example.com";
+                        String renamed = "renamed." + email;
+                        long id = directory.add(user("First", "Last" + i, email, "City", "ST", "1" + i % 10));
+                        if (i % 2 == 0) {
+                            directory.update(id, user -> user.setEmail(renamed));
+                        }
+                        Long found = directory.findIdByEmail(i % 2 == 0 ? renamed : email);
+                        if (found == null || found != id) {
+                            throw new AssertionError("lost " + email);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            worker.start();
+            threads.add(worker);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertEquals(8_000, directory.size());
+        assertEquals(800, directory.withZipCode("13").size());
+        assertEquals(8_000, directory.inCity("city", "st").size());
+        assertNotNull(directory.findByEmail("renamed.user3-10@example.com"));
+        assertNull(directory.findByEmail("user3-10@example.com"));
+    }
+
+    private static User user(String firstName, String lastName, String email, String city, String state,
+                             String zipCode) {
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(email);
+        user.setCity(city);
+        user.setState(state);
+        user.setZipCode(zipCode);
+        return user;
+    }
+}
@@ -0,0 +1,95 @@
+package com.cleancode.domain.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Canonical Cache Tests")
+class CanonicalCacheTest {
+
+    @Test
+    @DisplayName("Should return one shared instance per value and stay within its capacity")
+    void shouldShareInstancesWithinCapacity() {
+        CanonicalCache<String> cache = new CanonicalCache<>(1_000);
+        String first = new String("Los Angeles".toCharArray());
+        String second = new String("Los Angeles".toCharArray());
+
+        assertSame(first, cache.canonicalize(first));
+        assertSame(first, cache.canonicalize(second));
+        assertNull(cache.canonicalize(null));
+        for (int i = 0; i < 10_000; i++) {
+            cache.canonicalize("street " + i);
+        }
+
+        CanonicalCache.Stats stats = cache.stats();
+        assertTrue(cache.size() <= 1_000, stats.toString());
+        assertEquals(10_002, stats.getHits() + stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertTrue(stats.getRejections() > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep frequently used values through a scan of one-off values")
+    void shouldKeepPopularValuesThroughScan() {
+        CanonicalCache<String> cache = new CanonicalCache<>(256);
+        List<String> cities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            cities.add("City " + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            cities.forEach(cache::canonicalize);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            cache.canonicalize(i + " Main St");
+            cache.canonicalize(cities.get(i % cities.size()));
+        }
+
+        for (String city : cities) {
+            assertSame(city, cache.canonicalize(new String(city.toCharArray())), city);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand concurrent callers the same instance for equal values")
+    void shouldCanonicalizeConcurrently() throws InterruptedException {
+        CanonicalCache<String> cache = new CanonicalCache<>(4_096);
+        ConcurrentHashMap<String, String> seen = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        String value = new String(("zip " + i % 1_000).toCharArray());
+                        String canonical = cache.canonicalize(value);
+                        String previous = seen.putIfAbsent(value, canonical);
+                        if (previous != null && previous != canonical) {
+                            throw new AssertionError("two instances of " + value);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertEquals(1_000, cache.size());
+    }
+}
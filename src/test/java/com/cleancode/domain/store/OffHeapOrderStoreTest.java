@@ -0,0 +1,160 @@
+package com.cleancode.domain.store;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.domain.OrderView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Off-Heap Order Store Tests")
+class OffHeapOrderStoreTest {
+
+    @Test
+    @DisplayName("Should read stored orders through a flyweight cursor")
+    void shouldReadStoredOrdersThroughCursor() {
+        OffHeapOrderStore store = new OffHeapOrderStore();
+        Order order = sampleOrder("O1", true);
+        order.setStatus(OrderStatus.PROCESSED);
+        order.setStatus(OrderStatus.SHIPPED);
+        order.setTotalCents(96000);
+
+        int slot = store.add(order);
+        OffHeapOrderStore.OrderCursor cursor = store.cursor().moveTo(slot);
+
+        assertEquals("O1", cursor.getOrderId());
+        assertEquals(OrderStatus.SHIPPED, cursor.getStatus());
+        assertEquals(105997, cursor.getSubtotalCents());
+        assertEquals(96000, cursor.getTotalCents());
+        assertTrue(cursor.isPremiumCustomer());
+        assertEquals(2, cursor.itemCount());
+        assertEquals("P002", cursor.getItemProductId(1));
+        assertEquals("Mouse", cursor.getItemProductName(1));
+        assertEquals(2999, cursor.getItemPriceCents(1));
+        assertEquals(2, cursor.getItemQuantity(1));
+        assertEquals("jane@example.com", cursor.getCustomer().getEmail());
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.getItemQuantity(2));
+    }
+
+    @Test
+    @DisplayName("Should materialize an equal heap order")
+    void shouldMaterializeEqualHeapOrder() {
+        OffHeapOrderStore store = new OffHeapOrderStore();
+        Order order = sampleOrder("O1", false);
+        order.setTotalCents(100697);
+
+        Order copy = store.materialize(store.add(order));
+
+        assertEquals(order.toString(), copy.toString());
+        assertEquals(order.getSubtotalCents(), copy.getSubtotalCents());
+        assertEquals("C1", copy.getCustomer().getCustomerId());
+    }
+
+    @Test
+    @DisplayName("Should price stored orders without materializing them")
+    void shouldPriceStoredOrdersWithoutMaterializing() {
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+        OffHeapOrderStore store = new OffHeapOrderStore();
+        store.add(sampleOrder("O1", new Customer("C1", "John Doe", "john@example.com", false)));
+        store.add(sampleOrder("O2", new Customer("C2", "Jane Smith", "jane@example.com", true)));
+
+        List<Long> prices = new ArrayList<>();
+        store.forEach(view -> prices.add(processor.priceOrder(view)));
+
+        assertEquals(List.of(100697L, 90627L), prices);
+        Order processed = sampleOrder("O2", true);
+        processor.processOrder(processed);
+        assertEquals(processed.getTotalCents(), prices.get(1));
+    }
+
+    @Test
+    @DisplayName("Should store each distinct string and customer once")
+    void shouldDeduplicateStringsAndCustomers() {
+        OffHeapOrderStore store = new OffHeapOrderStore(4, 4);
+        for (int i = 0; i < 1000; i++) {
+            store.add(sampleOrder("O" + i, i >= 500));
+        }
+
+        // 1000 order ids plus customer id, name, email and two products with names
+        assertEquals(1000 + 3 + 4, store.strings().size());
+        assertEquals(1000, store.size());
+        // One record before the customer turned premium and one after
+        assertEquals(2, store.customerRecords());
+        OffHeapOrderStore.OrderCursor cursor = store.cursor().moveTo(store.slotOf("O998"));
+        assertEquals("O998", cursor.getOrderId());
+        assertTrue(cursor.isPremiumCustomer());
+    }
+
+    @Test
+    @DisplayName("Should keep the customer each order was added with")
+    void shouldKeepCustomerOfEachOrder() {
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+        OffHeapOrderStore store = new OffHeapOrderStore();
+        int regular = store.add(sampleOrder("O1", false));
+        int premium = store.add(sampleOrder("O2", true));
+        int regularAgain = store.add(sampleOrder("O3", false));
+
+        assertFalse(store.cursor().moveTo(regular).isPremiumCustomer());
+        assertTrue(store.cursor().moveTo(premium).isPremiumCustomer());
+        assertFalse(store.materialize(regularAgain).getCustomer().isPremium());
+        assertEquals(100697, processor.priceOrder(store.cursor().moveTo(regular)));
+        assertEquals(90627, processor.priceOrder(store.cursor().moveTo(premium)));
+        assertEquals(3, store.customerRecords());
+    }
+
+    @Test
+    @DisplayName("Should update, remove and reject duplicate orders")
+    void shouldUpdateRemoveAndRejectDuplicates() {
+        OffHeapOrderStore store = new OffHeapOrderStore();
+        int slot = store.add(sampleOrder("O1", false));
+        Order orphan = new Order("O2", null);
+        int orphanSlot = store.add(orphan);
+
+        store.setStatus(slot, OrderStatus.PROCESSED);
+        store.setTotalCents(slot, 100697);
+        OrderView view = store.cursor().moveTo(slot);
+        assertEquals(OrderStatus.PROCESSED, view.getStatus());
+        assertEquals(100697, view.getTotalCents());
+        assertFalse(store.cursor().moveTo(orphanSlot).isPremiumCustomer());
+        assertNull(store.materialize(orphanSlot).getCustomer());
+
+        assertThrows(IllegalArgumentException.class, () -> store.add(sampleOrder("O1", false)));
+        assertTrue(store.remove("O1"));
+        assertFalse(store.remove("O1"));
+        assertEquals(-1, store.slotOf("O1"));
+        assertEquals(1, store.size());
+        assertThrows(IllegalStateException.class, () -> store.cursor().moveTo(slot));
+
+        List<String> ids = new ArrayList<>();
+        store.forEach(order -> ids.add(order.getOrderId()));
+        assertEquals(List.of("O2"), ids);
+    }
+
+    @Test
+    @DisplayName("Should reject capacities whose byte offsets would overflow an int")
+    void shouldRejectOversizedCapacities() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapOrderStore(OffHeapOrderStore.MAX_ORDERS + 1, 16));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapOrderStore(16, OffHeapOrderStore.MAX_ITEMS + 1));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapOrderStore(0, 16));
+    }
+
+    private static Order sampleOrder(String orderId, boolean premium) {
+        return sampleOrder(orderId, new Customer("C1", "Jane Smith", "jane@example.com", premium));
+    }
+
+    private static Order sampleOrder(String orderId, Customer customer) {
+        Order order = new Order(orderId, customer);
+        order.addItem(new OrderItem("P001", "Laptop", 999.99, 1));
+        order.addItem(new OrderItem("P002", "Mouse", 29.99, 2));
+        return order;
+    }
+}
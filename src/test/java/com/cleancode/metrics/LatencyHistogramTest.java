@@ -0,0 +1,68 @@
+package com.cleancode.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Latency Histogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should place every value in a bucket whose range holds it within 1/16")
+    void shouldBucketWithBoundedError() {
+        for (long value = 0; value < 1_000_000; value = value < 64 ? value + 1 : value * 11 / 10) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long highest = LatencyHistogram.highestValueIn(bucket);
+            assertTrue(highest >= value, "value " + value);
+            assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKETS, "value " + value);
+            assertEquals(bucket, LatencyHistogram.bucketOf(highest));
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should report percentiles, mean and maximum of the recorded values")
+    void shouldReportPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1_000; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1_000, snapshot.getCount());
+        assertEquals(500_500, snapshot.getMeanNanos());
+        assertEquals(1_000_000, snapshot.getMaxNanos());
+        assertEquals(500_000, snapshot.getValueAtPercentile(50), 500_000 / 16.0);
+        assertEquals(990_000, snapshot.getValueAtPercentile(99), 990_000 / 16.0);
+        assertEquals(1_000_000, snapshot.getValueAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAtPercentile(101));
+    }
+
+    @Test
+    @DisplayName("Should not lose samples recorded from several threads")
+    void shouldCountConcurrentSamples() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(200_000, histogram.snapshot().getCount());
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,145 @@
+package com.cleancode.metrics;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.OrderWork;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.Step;
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.RegistrationServices;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.security.PasswordHasher;
+import com.cleancode.security.PasswordHashingStage;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Processing Metrics Tests")
+class ProcessingMetricsTest {
+
+    private final ProcessingMetrics metrics = ProcessingMetrics.global();
+    private boolean wasEnabled;
+
+    @BeforeEach
+    void setUp() {
+        wasEnabled = metrics.isEnabled();
+        metrics.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        metrics.setEnabled(wasEnabled);
+        metrics.reset();
+    }
+
+    @Test
+    @DisplayName("Should time each order step and the user stages while enabled")
+    void shouldTimeStagesWhileEnabled() {
+        metrics.setEnabled(true);
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+        for (int i = 0; i < 10; i++) {
+            processor.processOrder(order("O" + i));
+        }
+        processor.runStep(Step.VALIDATE, new OrderWork(order("O10")));
+        new LongParameterListRefactored().createUser(registration());
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(11, snapshot.get(Stage.ORDER_VALIDATION).getCount());
+        assertEquals(10, snapshot.get(Stage.ORDER_SAVE).getCount());
+        assertEquals(1, snapshot.get(Stage.USER_VALIDATION).getCount());
+        assertEquals(1, snapshot.get(Stage.USER_CREATION).getCount());
+        assertEquals(0, snapshot.get(Stage.CUSTOMER_PROCESSING).getCount());
+        assertTrue(snapshot.get(Stage.ORDER_TOTAL).getMaxNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Should time asynchronous user creation apart from password hashing")
+    void shouldTimeAsyncUserCreation() {
+        metrics.setEnabled(true);
+        try (PasswordHashingStage hashing = new PasswordHashingStage(
+                new PasswordHasher(1_000), Duration.ofMillis(1), 1_000, 1, 16)) {
+            new LongParameterListRefactored(RegistrationServices.builder().passwordHashing(hashing).build())
+                .createUserAsync(registration()).join();
+        }
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.get(Stage.USER_VALIDATION).getCount());
+        assertEquals(1, snapshot.get(Stage.PASSWORD_HASHING).getCount());
+        assertEquals(1, snapshot.get(Stage.USER_CREATION).getCount());
+    }
+
+    @Test
+    @DisplayName("Should record nothing and skip the clock while disabled")
+    void shouldRecordNothingWhileDisabled() {
+        metrics.setEnabled(false);
+        new LongMethodRefactored(1, order -> { }).processOrder(order("O1"));
+
+        assertEquals(0, metrics.start());
+        assertEquals(0, metrics.snapshot().get(Stage.ORDER_VALIDATION).getCount());
+    }
+
+    @Test
+    @DisplayName("Should export the stages that recorded samples as text and JSON")
+    void shouldExportTextAndJson() {
+        ProcessingMetrics local = new ProcessingMetrics(true);
+        local.record(Stage.ORDER_SAVE, 2_000);
+        local.record(Stage.ORDER_SAVE, 4_000);
+
+        MetricsSnapshot snapshot = local.snapshot();
+        String text = snapshot.toText();
+        assertTrue(text.startsWith("stage"));
+        assertTrue(text.contains("order_save"));
+        assertFalse(text.contains("order_total"));
+        assertEquals("{\"order_save\":{\"count\":2,\"meanNanos\":3000,\"p50Nanos\":2047,\"p90Nanos\":4000," +
+            "\"p99Nanos\":4000,\"p999Nanos\":4000,\"maxNanos\":4000}}", snapshot.toJson());
+    }
+
+    @Test
+    @DisplayName("Should emit a Flight Recorder event per stage with samples")
+    void shouldEmitFlightRecorderEvents(@TempDir Path directory) throws Exception {
+        ProcessingMetrics local = new ProcessingMetrics(true);
+        local.record(Stage.USER_CREATION, 10_000);
+        Path dump = directory.resolve("metrics.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(StageLatencyEvent.class);
+            recording.start();
+            local.snapshot().commitFlightRecorderEvents();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+            .filter(event -> event.getEventType().getName().equals("com.cleancode.StageLatency"))
+            .toList();
+        assertEquals(1, events.size());
+        assertEquals("user_creation", events.get(0).getString("stage"));
+        assertEquals(1, events.get(0).getLong("count"));
+        assertEquals(10_000, events.get(0).getDuration("max").toNanos());
+    }
+
+    private static Order order(String orderId) {
+        Order order = new Order(orderId, new Customer("C1", "John Doe", "john@example.com", false));
+        order.addItem(new OrderItem("P1", "Cable", 20.00, 3));
+        return order;
+    }
+
+    private static LongParameterListRefactored.UserRegistrationData registration() {
+        LongParameterListRefactored.Address address = new LongParameterListRefactored.Address(
+            "456 Oak Ave", "Los Angeles", "CA", "90210", "USA");
+        return new LongParameterListRefactored.UserRegistrationData("Jane", "Smith", "jane@example.com",
+            "555-987-6543", address, LocalDate.of(1985, 8, 20), "password456", true);
+    }
+}
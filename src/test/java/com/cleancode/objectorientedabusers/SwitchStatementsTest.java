@@ -2,6 +2,8 @@ package com.cleancode.objectorientedabusers;
 
 import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsSmell;
 import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsRefactored;
+import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsTableDriven;
+import com.cleancode.objectorientedabusers.switchstatements.CustomerType;
 import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsRefactored.Customer;
 import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsRefactored.RegularCustomer;
 import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsRefactored.PremiumCustomer;
@@ -18,11 +20,13 @@ class SwitchStatementsTest {
     
     private SwitchStatementsSmell switchStatementsSmell;
     private SwitchStatementsRefactored switchStatementsRefactored;
+    private SwitchStatementsTableDriven switchStatementsTableDriven;
     
     @BeforeEach
     void setUp() {
         switchStatementsSmell = new SwitchStatementsSmell();
         switchStatementsRefactored = new SwitchStatementsRefactored();
+        switchStatementsTableDriven = new SwitchStatementsTableDriven();
     }
     
     @Nested
@@ -96,6 +100,34 @@ class SwitchStatementsTest {
         }
     }
     
+    @Nested
+    @DisplayName("Switch Statements Table Driven Tests")
+    class SwitchStatementsTableDrivenTests {
+        
+        @Test
+        @DisplayName("Should resolve type strings to customer types")
+        void shouldResolveTypeStrings() {
+            assertEquals(CustomerType.REGULAR, CustomerType.resolve("REGULAR"));
+            assertEquals(CustomerType.PREMIUM, CustomerType.resolve(new String("PREMIUM")));
+            assertEquals(CustomerType.VIP, CustomerType.resolve("VIP"));
+            assertEquals(CustomerType.UNKNOWN, CustomerType.resolve("UNKNOWN"));
+            assertEquals(CustomerType.UNKNOWN, CustomerType.resolve("vip"));
+            assertEquals(CustomerType.UNKNOWN, CustomerType.resolve(""));
+            assertEquals(CustomerType.UNKNOWN, CustomerType.resolve(null));
+        }
+        
+        @Test
+        @DisplayName("Should match the switch version for known and unknown types")
+        void shouldMatchSwitchVersion() {
+            for (String customerType : new String[] {"REGULAR", "PREMIUM", "VIP", "UNKNOWN", "GUEST"}) {
+                assertEquals(switchStatementsSmell.calculateDiscount(customerType, 150.0),
+                    switchStatementsTableDriven.calculateDiscount(customerType, 150.0), 1e-9);
+                assertEquals(switchStatementsSmell.getWelcomeMessage(customerType),
+                    switchStatementsTableDriven.getWelcomeMessage(customerType));
+            }
+        }
+    }
+    
     @Test
     @DisplayName("Should produce same results for both approaches")
     void shouldProduceSameResultsForBothApproaches() {
@@ -0,0 +1,192 @@
+package com.cleancode.persistence;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Async Batching Order Repository Tests")
+class AsyncBatchingOrderRepositoryTest {
+    
+    private static Order order(int id) {
+        return new Order("O" + id, new Customer("C" + id, "Customer " + id, "c" + id + "@example.com", false));
+    }
+    
+    /**
+     * Records the size of every batch it receives.
+     */
+    private static class RecordingRepository implements OrderRepository {
+        final List<Order> saved = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        
+        @Override
+        public void save(Order order) {
+            saved.add(order);
+        }
+        
+        @Override
+        public void saveAll(List<Order> orders) {
+            batchSizes.add(orders.size());
+            saved.addAll(orders);
+        }
+    }
+    
+    @Test
+    @DisplayName("Should write full batches of the configured size")
+    void shouldWriteFullBatches() {
+        RecordingRepository delegate = new RecordingRepository();
+        AsyncBatchingOrderRepository repository =
+            AsyncBatchingOrderRepository.start(delegate, 10, Duration.ofSeconds(10), 100);
+        
+        for (int i = 0; i < 30; i++) {
+            repository.save(order(i));
+        }
+        repository.close();
+        
+        assertEquals(30, delegate.saved.size());
+        assertEquals("O0", delegate.saved.get(0).getOrderId());
+        assertEquals("O29", delegate.saved.get(29).getOrderId());
+        assertTrue(delegate.batchSizes.stream().allMatch(size -> size <= 10));
+    }
+    
+    @Test
+    @DisplayName("Should flush a partial batch after the max delay")
+    void shouldFlushPartialBatchAfterMaxDelay() throws InterruptedException {
+        RecordingRepository delegate = new RecordingRepository();
+        try (AsyncBatchingOrderRepository repository =
+                 AsyncBatchingOrderRepository.start(delegate, 100, Duration.ofMillis(20), 100)) {
+            repository.save(order(1));
+            
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (delegate.saved.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            
+            assertEquals(1, delegate.saved.size());
+            assertEquals(0, repository.pendingCount());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should write everything saved before flush returns")
+    void shouldWriteEverythingBeforeFlushReturns() {
+        RecordingRepository delegate = new RecordingRepository();
+        try (AsyncBatchingOrderRepository repository =
+                 AsyncBatchingOrderRepository.start(delegate, 1000, Duration.ofSeconds(30), 1000)) {
+            for (int i = 0; i < 5; i++) {
+                repository.save(order(i));
+            }
+            
+            repository.flush();
+            
+            assertEquals(5, delegate.saved.size());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should block callers when the queue is full")
+    void shouldApplyBackPressureWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        OrderRepository slowDelegate = order -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AsyncBatchingOrderRepository repository =
+            AsyncBatchingOrderRepository.start(slowDelegate, 1, Duration.ofMillis(1), 1);
+        repository.save(order(1)); // taken by the writer, which then blocks
+        
+        AtomicBoolean thirdSaved = new AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            repository.save(order(2)); // fills the queue
+            repository.save(order(3)); // must wait
+            thirdSaved.set(true);
+        });
+        producer.start();
+        producer.join(200);
+        
+        assertFalse(thirdSaved.get());
+        
+        release.countDown();
+        producer.join(5000);
+        assertTrue(thirdSaved.get());
+        repository.close();
+        assertEquals(0, repository.pendingCount());
+    }
+    
+    @Test
+    @DisplayName("Should report delegate failures and reject saves after close")
+    void shouldReportFailuresAndRejectSavesAfterClose() {
+        OrderRepository failing = order -> {
+            throw new IllegalStateException("disk full");
+        };
+        AsyncBatchingOrderRepository repository =
+            AsyncBatchingOrderRepository.start(failing, 10, Duration.ofMillis(5), 10);
+        repository.save(order(1));
+        
+        IllegalStateException exception = assertThrows(IllegalStateException.class, repository::flush);
+        assertEquals("disk full", exception.getCause().getMessage());
+        
+        repository.close();
+        assertThrows(IllegalStateException.class, () -> repository.save(order(2)));
+    }
+    
+    @Test
+    @DisplayName("Should write or reject every save that races with close, never drop it")
+    void shouldNotDropSavesRacingClose() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            RecordingRepository delegate = new RecordingRepository();
+            AsyncBatchingOrderRepository repository =
+                AsyncBatchingOrderRepository.start(delegate, 8, Duration.ofMillis(1), 64);
+            AtomicInteger accepted = new AtomicInteger();
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread producer = new Thread(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        try {
+                            repository.save(order(i));
+                            accepted.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            return;
+                        }
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+            repository.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            
+            assertEquals(accepted.get(), delegate.saved.size());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should print a batch with a single console write")
+    void shouldPrintBatchToConsole() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ConsoleOrderRepository console = new ConsoleOrderRepository(new PrintStream(output, true));
+        
+        console.saveAll(List.of(order(1), order(2)));
+        
+        assertEquals("Order processed and saved: O1" + System.lineSeparator()
+            + "Order processed and saved: O2" + System.lineSeparator(), output.toString());
+    }
+}
@@ -0,0 +1,154 @@
+package com.cleancode.persistence;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Journal Tests")
+class OrderJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    private static Order order(String orderId, int items) {
+        Order order = new Order(orderId, new Customer("C-" + orderId, "Jane Smith", "jane@example.com", true));
+        for (int i = 0; i < items; i++) {
+            order.addItem(new OrderItem("P" + i, "Product " + i, 10.5 + i, 1 + i));
+        }
+        return order;
+    }
+    
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should rebuild orders by replaying the journal")
+    void shouldRebuildOrdersByReplayingJournal() {
+        Order order = order("O001", 3);
+        order.setTotal(59.85);
+        order.setStatus(OrderStatus.PROCESSED);
+        
+        try (OrderJournal journal = new OrderJournal(directory, 4096)) {
+            journal.append(order);
+            journal.append(order("O002", 1));
+            journal.commit();
+        }
+        
+        Map<String, Order> replayed = OrderJournal.replay(directory);
+        
+        assertEquals(List.of("O001", "O002"), List.copyOf(replayed.keySet()));
+        Order restored = replayed.get("O001");
+        assertEquals(59.85, restored.getTotal());
+        assertEquals(OrderStatus.PROCESSED, restored.getStatus());
+        assertEquals("C-O001", restored.getCustomer().getCustomerId());
+        assertTrue(restored.getCustomer().isPremium());
+        assertEquals(3, restored.itemCount());
+        assertEquals("Product 2", restored.getItem(2).getProductName());
+        assertEquals(12.5, restored.getItem(2).getPrice());
+        assertEquals(3, restored.getItem(2).getQuantity());
+        assertEquals(order.getSubtotal(), restored.getSubtotal(), 0.0001);
+    }
+    
+    @Test
+    @DisplayName("Should keep the latest snapshot of an order")
+    void shouldKeepLatestSnapshotOfOrder() {
+        Order order = order("O001", 1);
+        try (OrderJournal journal = new OrderJournal(directory, 4096)) {
+            journal.append(order);
+            order.setStatus(OrderStatus.PROCESSED);
+            journal.append(order);
+        }
+        
+        assertEquals(OrderStatus.PROCESSED, OrderJournal.replay(directory).get("O001").getStatus());
+    }
+    
+    @Test
+    @DisplayName("Should roll over to new segments and continue after reopening")
+    void shouldRollOverAndContinueAfterReopening() throws IOException {
+        try (OrderJournal journal = new OrderJournal(directory, 1024)) {
+            for (int i = 0; i < 20; i++) {
+                journal.append(order("O" + i, 2));
+            }
+        }
+        int segmentsAfterFirstRun = segments().size();
+        assertTrue(segmentsAfterFirstRun > 1);
+        
+        try (OrderJournal journal = new OrderJournal(directory, 1024)) {
+            journal.append(order("O20", 2));
+        }
+        
+        Map<String, Order> replayed = OrderJournal.replay(directory);
+        assertEquals(21, replayed.size());
+        assertTrue(replayed.containsKey("O20"));
+    }
+    
+    @Test
+    @DisplayName("Should stop replaying at a torn record")
+    void shouldStopReplayingAtTornRecord() throws IOException {
+        try (OrderJournal journal = new OrderJournal(directory, 4096)) {
+            journal.append(order("O001", 1));
+            journal.append(order("O002", 1));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Corrupt the last byte of the second record's payload
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 4);
+            int firstLength = header.flip().getInt();
+            int secondStart = 4 + 8 + firstLength;
+            header.clear();
+            channel.read(header, secondStart);
+            int secondLength = header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F}), secondStart + 8 + secondLength - 1);
+        }
+        
+        assertEquals(List.of("O001"), List.copyOf(OrderJournal.replay(directory).keySet()));
+        
+        // Reopening appends after the last valid record
+        try (OrderJournal journal = new OrderJournal(directory, 4096)) {
+            journal.append(order("O003", 1));
+        }
+        assertEquals(List.of("O001", "O003"), List.copyOf(OrderJournal.replay(directory).keySet()));
+    }
+    
+    @Test
+    @DisplayName("Should group-commit batches through the repository")
+    void shouldGroupCommitBatchesThroughRepository() {
+        try (OrderRepository repository = AsyncBatchingOrderRepository.start(
+                 new JournalOrderRepository(new OrderJournal(directory, 4096)))) {
+            for (int i = 0; i < 10; i++) {
+                repository.save(order("O" + i, 1));
+            }
+        }
+        
+        assertEquals(10, OrderJournal.replay(directory).size());
+    }
+    
+    @Test
+    @DisplayName("Should reject appends after close")
+    void shouldRejectAppendsAfterClose() {
+        OrderJournal journal = new OrderJournal(directory, 4096);
+        journal.close();
+        
+        assertThrows(IllegalStateException.class, () -> journal.append(order("O001", 1)));
+    }
+}
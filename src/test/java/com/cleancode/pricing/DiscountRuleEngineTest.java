@@ -0,0 +1,168 @@
+package com.cleancode.pricing;
+
+import com.cleancode.objectorientedabusers.switchstatements.SwitchStatementsRefactored;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Discount Rule Engine Tests")
+class DiscountRuleEngineTest {
+    
+    @Test
+    @DisplayName("Should reproduce the former hardcoded order discounts")
+    void shouldReproduceHardcodedOrderDiscounts() {
+        DiscountRuleEngine engine = DiscountRuleEngine.fromClasspath("discounts/order-discounts.rules");
+        
+        for (long cents : new long[] {0, 5000, 10000, 10001, 10500, 11112, 29999, 105997}) {
+            BigDecimal total = BigDecimal.valueOf(cents, 2);
+            BigDecimal premium = total.multiply(new BigDecimal("0.90")).setScale(2, RoundingMode.HALF_EVEN);
+            if (premium.compareTo(BigDecimal.valueOf(100)) > 0) {
+                premium = premium.multiply(new BigDecimal("0.95")).setScale(2, RoundingMode.HALF_EVEN);
+            }
+            BigDecimal regular = total.compareTo(BigDecimal.valueOf(100)) > 0
+                ? total.multiply(new BigDecimal("0.95")).setScale(2, RoundingMode.HALF_EVEN)
+                : total;
+            
+            assertEquals(premium.unscaledValue().longValueExact(), engine.apply(CustomerTier.PREMIUM, cents));
+            assertEquals(regular.unscaledValue().longValueExact(), engine.apply(CustomerTier.REGULAR, cents));
+        }
+    }
+    
+    @Test
+    @DisplayName("Should drive SwitchStatementsRefactored discounts from configured rules")
+    void shouldDriveSwitchStatementsRefactoredDiscounts() {
+        SwitchStatementsRefactored processor = new SwitchStatementsRefactored(
+            new DiscountRuleEngine(DiscountRuleParser.parse("REGULAR = 7%\nVIP = 20%, 10% over 1000")));
+        
+        assertEquals(7.0, processor.calculateDiscount(new SwitchStatementsRefactored.RegularCustomer("John"), 100.0), 1e-9);
+        assertEquals(0.0, processor.calculateDiscount(new SwitchStatementsRefactored.PremiumCustomer("Jane"), 100.0), 1e-9);
+        assertEquals(560.0,
+            processor.calculateDiscount(new SwitchStatementsRefactored.VipCustomer("Bob"), 2000.0), 1e-9);
+        
+        SwitchStatementsRefactored.Customer custom = new SwitchStatementsRefactored.Customer("Test") {
+            @Override
+            public double calculateDiscount(double amount) {
+                return amount * 0.20;
+            }
+            
+            @Override
+            public String getWelcomeMessage() {
+                return "Welcome!";
+            }
+        };
+        assertEquals(20.0, processor.calculateDiscount(custom, 100.0), 1e-9);
+    }
+    
+    @Test
+    @DisplayName("Should load the bundled customer discounts by default")
+    void shouldLoadBundledCustomerDiscounts() {
+        SwitchStatementsRefactored processor = new SwitchStatementsRefactored();
+        SwitchStatementsRefactored.Customer[] customers = {
+            new SwitchStatementsRefactored.RegularCustomer("John"),
+            new SwitchStatementsRefactored.PremiumCustomer("Jane"),
+            new SwitchStatementsRefactored.VipCustomer("Bob")
+        };
+        
+        for (SwitchStatementsRefactored.Customer customer : customers) {
+            for (long cents : new long[] {10_000, 25_040, 1_999}) {
+                assertEquals(customer.calculateDiscountCents(cents), processor.calculateDiscountCents(customer, cents));
+            }
+        }
+        assertEquals(1_500, processor.calculateDiscountCents(customers[2], 10_000));
+    }
+    
+    @Test
+    @DisplayName("Should report parse errors with the line number")
+    void shouldReportParseErrorsWithLineNumber() {
+        assertEquals("Discount rules line 2: unknown customer tier 'GOLD'",
+            assertThrows(IllegalArgumentException.class,
+                () -> DiscountRuleParser.parse("# tiers\nGOLD = 5%")).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> DiscountRuleParser.parse("VIP = 5"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountRuleParser.parse("VIP = 150%"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountRuleParser.parse("VIP = 5% under 10"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountRuleParser.parse("VIP = 5%\nVIP = 10%"));
+        
+        DiscountTable table = DiscountRuleParser.parse("premium = 10%, 5% over 100 # weekly promo\n\nVIP =");
+        assertEquals(2, table.rulesFor(CustomerTier.PREMIUM).size());
+        assertEquals(0, table.rulesFor(CustomerTier.VIP).size());
+        assertEquals(5000, table.apply(CustomerTier.VIP, 5000));
+        assertEquals(RoundingMode.HALF_EVEN, table.getRoundingMode());
+        assertThrows(IllegalArgumentException.class, () -> DiscountRuleParser.parse("VIP = 2.555%"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountRuleParser.parse("ROUNDING = SOMETIMES"));
+    }
+    
+    @Test
+    @DisplayName("Should round each discount step with the configured rounding mode")
+    void shouldRoundWithConfiguredMode() {
+        // 5% off $0.50 is $0.475
+        assertEquals(48, DiscountRuleParser.parse("REGULAR = 5%").apply(CustomerTier.REGULAR, 50));
+        assertEquals(47, DiscountRuleParser.parse("ROUNDING = FLOOR\nREGULAR = 5%").apply(CustomerTier.REGULAR, 50));
+        assertEquals(48, DiscountRuleParser.parse("rounding = ceiling\nREGULAR = 5%").apply(CustomerTier.REGULAR, 50));
+        // 10% off $0.45 is exactly $0.405, a tie
+        assertEquals(40, DiscountRuleParser.parse("ROUNDING = HALF_EVEN\nREGULAR = 10%").apply(CustomerTier.REGULAR, 45));
+        assertEquals(41, DiscountRuleParser.parse("ROUNDING = HALF_UP\nREGULAR = 10%").apply(CustomerTier.REGULAR, 45));
+    }
+    
+    @Test
+    @DisplayName("Should reload rules from a file and keep the old ones when the new file is invalid")
+    void shouldReloadRulesFromFile(@TempDir Path directory) throws IOException {
+        Path rules = directory.resolve("discounts.rules");
+        Files.writeString(rules, "REGULAR = 5%");
+        DiscountRuleEngine engine = DiscountRuleEngine.load(rules);
+        assertEquals(9500, engine.apply(CustomerTier.REGULAR, 10000));
+        
+        Files.writeString(rules, "REGULAR = 20%");
+        engine.reload(rules);
+        assertEquals(8000, engine.apply(CustomerTier.REGULAR, 10000));
+        
+        Files.writeString(rules, "REGULAR = twenty%");
+        assertThrows(IllegalArgumentException.class, () -> engine.reload(rules));
+        assertEquals(8000, engine.apply(CustomerTier.REGULAR, 10000));
+    }
+    
+    @Test
+    @DisplayName("Should never expose a half-loaded rule set during reloads")
+    void shouldNeverExposeHalfLoadedRuleSet() throws InterruptedException {
+        // Each rule set applies two rules; a mixed evaluation would produce a third result
+        DiscountTable first = DiscountRuleParser.parse("VIP = 10%, 10%");
+        DiscountTable second = DiscountRuleParser.parse("VIP = 50%, 50%");
+        DiscountRuleEngine engine = new DiscountRuleEngine(first);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger unexpected = new AtomicInteger();
+        
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (running.get()) {
+                    long result = engine.apply(CustomerTier.VIP, 10000);
+                    if (result != 8100 && result != 2500) {
+                        unexpected.incrementAndGet();
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            engine.reload(i % 2 == 0 ? second : first);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        
+        assertEquals(0, unexpected.get());
+    }
+}
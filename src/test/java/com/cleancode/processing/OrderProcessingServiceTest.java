@@ -0,0 +1,160 @@
+package com.cleancode.processing;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.BatchResult;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.persistence.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Processing Service Tests")
+class OrderProcessingServiceTest {
+
+    @Test
+    @DisplayName("Should process a batch of orders on virtual threads")
+    void shouldProcessBatch() throws InterruptedException {
+        List<Order> orders = orders(200);
+        try (OrderProcessingService service = service(order -> { }, 8, Duration.ofSeconds(10))) {
+            BatchResult result = service.submitAll(orders).await();
+
+            assertEquals(200, result.getSuccessCount());
+            assertEquals(6000, orders.get(0).getTotalCents());
+            OrderProcessingService.Stats stats = service.stats();
+            assertEquals(200, stats.getSubmitted());
+            assertEquals(200, stats.getCompleted());
+            assertEquals(0, stats.getInFlight());
+            assertTrue(stats.getThroughputPerSecond() > 0);
+            assertFalse(stats.getMaxLatency().isNegative());
+        }
+    }
+
+    @Test
+    @DisplayName("Should never process more orders at once than the concurrency limit")
+    void shouldRespectConcurrencyLimit() throws InterruptedException {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        OrderRepository slowRepository = order -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            sleep(5);
+            active.decrementAndGet();
+        };
+        try (OrderProcessingService service = service(slowRepository, 4, Duration.ofSeconds(10))) {
+            BatchResult result = service.submitAll(orders(40)).await();
+
+            assertEquals(40, result.getSuccessCount());
+            assertTrue(peak.get() <= 4, "peak " + peak.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should time out a blocked order without interrupting its save, and abandon waiting ones")
+    void shouldTimeOutBlockedOrder() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+        List<Order> saved = new CopyOnWriteArrayList<>();
+        OrderRepository stuckRepository = order -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+            }
+            saved.add(order);
+        };
+        List<Order> orders = orders(2);
+        try (OrderProcessingService service = service(stuckRepository, 1, Duration.ofMillis(50))) {
+            CompletableFuture<Order> running = service.submit(orders.get(0));
+            CompletableFuture<Order> waiting = service.submit(orders.get(1));
+
+            ExecutionException failure = assertThrows(ExecutionException.class, running::get);
+            assertInstanceOf(TimeoutException.class, failure.getCause());
+            assertInstanceOf(TimeoutException.class, assertThrows(ExecutionException.class, waiting::get).getCause());
+            assertEquals(2, service.stats().getTimedOut());
+            release.countDown();
+        }
+        assertEquals(List.of(orders.get(0)), saved);
+        assertEquals(0, interrupted.get());
+        assertEquals(OrderStatus.PENDING, orders.get(1).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should cancel the unfinished orders of a batch when it is closed")
+    void shouldCancelUnfinishedOrdersOnClose() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Order> saved = new CopyOnWriteArrayList<>();
+        OrderRepository blockedRepository = order -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            saved.add(order);
+        };
+        try (OrderProcessingService service = service(blockedRepository, 2, Duration.ofSeconds(30))) {
+            OrderProcessingService.Batch batch;
+            try (OrderProcessingService.Batch started = service.submitAll(orders(10))) {
+                batch = started;
+            }
+
+            BatchResult result = batch.await();
+            assertEquals(10, result.getFailureCount());
+            assertInstanceOf(CancellationException.class, result.getFailures().get(0).getFailure());
+            assertEquals(10, service.stats().getCancelled());
+            release.countDown();
+        }
+        // Orders already inside processOrder finish their saves; the waiting ones are dropped
+        assertTrue(saved.size() <= 2, "saved " + saved.size());
+        assertTrue(saved.stream().allMatch(order -> order.getStatus() == OrderStatus.PROCESSED));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration and submissions after close")
+    void shouldRejectInvalidUse() {
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+        assertThrows(IllegalArgumentException.class, () -> new OrderProcessingService(processor, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new OrderProcessingService(processor, 1, Duration.ZERO));
+
+        OrderProcessingService service = new OrderProcessingService(processor, 1, Duration.ofSeconds(1));
+        service.close();
+        assertThrows(IllegalStateException.class, () -> service.submit(orders(1).get(0)));
+        assertThrows(IllegalArgumentException.class, () -> service.submitAll(null));
+    }
+
+    private static OrderProcessingService service(OrderRepository repository, int maxConcurrency, Duration timeout) {
+        return new OrderProcessingService(new LongMethodRefactored(1, repository), maxConcurrency, timeout);
+    }
+
+    private static List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("O" + i, new Customer("C" + i, "Customer " + i, "c" + i + "@example.com", false));
+            order.addItem(new OrderItem("P1", "Cable", 20.00, 3));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
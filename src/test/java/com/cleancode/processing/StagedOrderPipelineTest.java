@@ -0,0 +1,162 @@
+package com.cleancode.processing;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.bloaters.longmethod.LongMethodRefactored.Step;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import com.cleancode.persistence.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Staged Order Pipeline Tests")
+class StagedOrderPipelineTest {
+
+    @Test
+    @DisplayName("Should run every order through all stages and count them per stage")
+    void shouldProcessOrdersThroughStages() throws Exception {
+        List<Order> orders = orders(500);
+        AtomicInteger saves = new AtomicInteger();
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        StagedOrderPipeline pipeline = pipeline(order -> saves.incrementAndGet(), 16, Map.of(Step.SAVE, 4));
+        try (pipeline) {
+            for (Order order : orders) {
+                futures.add(pipeline.submit(order));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(500, saves.get());
+        assertEquals(OrderStatus.PROCESSED, orders.get(0).getStatus());
+        assertEquals(6000, orders.get(0).getTotalCents());
+        List<StagedOrderPipeline.StageStats> stats = pipeline.stats();
+        assertEquals(Step.values().length, stats.size());
+        for (StagedOrderPipeline.StageStats stage : stats) {
+            assertEquals(500, stage.getProcessed(), stage.toString());
+            assertEquals(0, stage.getQueueDepth());
+        }
+        assertEquals(4, stats.get(Step.SAVE.ordinal()).getWorkers());
+    }
+
+    @Test
+    @DisplayName("Should fail an order at the step that rejects it and keep processing the rest")
+    void shouldFailOrderAtRejectingStep() throws Exception {
+        Order empty = new Order("EMPTY", new Customer("C1", "John Doe", "john@example.com", false));
+        Order valid = orders(1).get(0);
+        StagedOrderPipeline pipeline = pipeline(order -> { }, 4, Map.of());
+        try (pipeline) {
+            CompletableFuture<Order> rejected = pipeline.submit(empty);
+            CompletableFuture<Order> accepted = pipeline.submit(valid);
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+            StagedOrderPipeline.StepFailedException stepFailure =
+                assertInstanceOf(StagedOrderPipeline.StepFailedException.class, failure.getCause());
+            assertEquals(Step.VALIDATE, stepFailure.getStep());
+            assertInstanceOf(IllegalArgumentException.class, stepFailure.getCause());
+            assertSame(valid, accepted.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, pipeline.stats().get(Step.VALIDATE.ordinal()).getFailed());
+        assertEquals(1, pipeline.stats().get(Step.SAVE.ordinal()).getProcessed());
+        assertEquals(OrderStatus.PENDING, empty.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should scale the slow save stage out and report it as the bottleneck")
+    void shouldScaleSlowStageAndReportBottleneck() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        OrderRepository slowRepository = order -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            sleep(2);
+            active.decrementAndGet();
+        };
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        StagedOrderPipeline pipeline = pipeline(slowRepository, 2, Map.of(Step.SAVE, 3));
+        try (pipeline) {
+            for (Order order : orders(60)) {
+                futures.add(pipeline.submit(order));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        }
+
+        assertTrue(peak.get() > 1 && peak.get() <= 3, "peak " + peak.get());
+        StagedOrderPipeline.StageStats bottleneck = pipeline.bottleneck();
+        assertEquals(Step.SAVE, bottleneck.getStep());
+        assertTrue(bottleneck.getMeanServiceTime().toMillis() >= 2);
+    }
+
+    @Test
+    @DisplayName("Should survive an error thrown by a step and still drain on close")
+    void shouldSurviveErrorInStep() {
+        AtomicInteger saves = new AtomicInteger();
+        OrderRepository failingOnce = order -> {
+            if (saves.getAndIncrement() == 0) {
+                throw new AssertionError("disk gone");
+            }
+        };
+        List<Order> orders = orders(3);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            StagedOrderPipeline pipeline = pipeline(failingOnce, 4, Map.of());
+            List<CompletableFuture<Order>> futures = new ArrayList<>();
+            try (pipeline) {
+                for (Order order : orders) {
+                    futures.add(pipeline.submit(order));
+                }
+            }
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> futures.get(0).get());
+            assertInstanceOf(AssertionError.class, failure.getCause().getCause());
+            assertSame(orders.get(2), futures.get(2).get());
+            assertEquals(1, pipeline.stats().get(Step.SAVE.ordinal()).getFailed());
+        });
+        assertEquals(3, saves.get());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration and submissions after close")
+    void shouldRejectInvalidUse() throws InterruptedException {
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+        assertThrows(IllegalArgumentException.class, () -> new StagedOrderPipeline(processor, 0));
+        assertThrows(IllegalArgumentException.class, () -> new StagedOrderPipeline(processor, 1, Map.of(Step.SAVE, 0)));
+
+        StagedOrderPipeline pipeline = new StagedOrderPipeline(processor, 1);
+        pipeline.close();
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(orders(1).get(0)));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.submit(null));
+    }
+
+    private static StagedOrderPipeline pipeline(OrderRepository repository, int queueCapacity, Map<Step, Integer> workers) {
+        return new StagedOrderPipeline(new LongMethodRefactored(1, repository), queueCapacity, workers);
+    }
+
+    private static List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("O" + i, new Customer("C" + i, "Customer " + i, "c" + i + "@example.com", false));
+            order.addItem(new OrderItem("P1", "Cable", 20.00, 3));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.domain.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order File Reader Tests")
+class OrderFileReaderTest {
+
+    @Test
+    @DisplayName("Should parse NDJSON orders across chunk boundaries")
+    void shouldParseNdjsonAcrossChunks() throws IOException {
+        String input = """
+            {"orderId":"O1","customer":{"customerId":"C1","name":"Jane \\"J\\" Smith","email":"jane@example.com","premium":true},"items":[{"productId":"P1","productName":"Caf\\u00e9 ☕","price":999.99,"quantity":1},{"productId":"P2","productName":"Mouse","price":"29.99","quantity":2}],"note":{"a":[1,null]}}
+
+            {"orderId":"O2","customer":null,"items":[]}\r
+            """;
+
+        List<Order> orders = readAll(reader(input, OrderFormat.NDJSON, 7));
+
+        assertEquals(2, orders.size());
+        Order first = orders.get(0);
+        assertEquals("Jane \"J\" Smith", first.getCustomer().getName());
+        assertTrue(first.isPremiumCustomer());
+        assertEquals("Café ☕", first.getItem(0).getProductName());
+        assertEquals(105997, first.getSubtotalCents());
+        assertNull(orders.get(1).getCustomer());
+        assertEquals(0, orders.get(1).itemCount());
+    }
+
+    @Test
+    @DisplayName("Should group consecutive CSV rows into orders")
+    void shouldGroupCsvRows() throws IOException {
+        String input = String.join("\n",
+            "quantity,price,productName,productId,premium,customerEmail,customerName,customerId,orderId",
+            "1,999.99,Laptop,P1,true,jane@example.com,\"Smith, Jane\",C1,O1",
+            "2,29.99,\"27\"\" \"\"Monitor\"\"\",P2,true,jane@example.com,\"Smith, Jane\",C1,O1",
+            ",,,,false,john@example.com,John Doe,C2,O2");
+
+        List<Order> orders = readAll(reader(input, OrderFormat.CSV, 16));
+
+        assertEquals(2, orders.size());
+        assertEquals("Smith, Jane", orders.get(0).getCustomer().getName());
+        assertEquals("27\" \"Monitor\"", orders.get(0).getItem(1).getProductName());
+        assertEquals(105997, orders.get(0).getSubtotalCents());
+        assertEquals(0, orders.get(1).itemCount());
+        assertFalse(orders.get(1).isPremiumCustomer());
+    }
+
+    @Test
+    @DisplayName("Should report malformed records by line and keep reading")
+    void shouldReportMalformedRecordsAndContinue() throws IOException {
+        String input = """
+            {"orderId":"O1"}
+            {"orderId":"O2",
+            {"orderId":"O3","items":[{"price":"abc"}]}
+            {"customer":null}
+            {"orderId":"O4"}
+            """;
+        OrderFileReader reader = reader(input, OrderFormat.NDJSON, 64);
+        List<String> errors = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        while (true) {
+            try {
+                Order order = reader.next();
+                if (order == null) {
+                    break;
+                }
+                orders.add(order);
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+        }
+
+        assertEquals(List.of("O1", "O4"), orders.stream().map(Order::getOrderId).toList());
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).startsWith("Line 2:"), errors.get(0));
+        assertTrue(errors.get(1).contains("Bad price"), errors.get(1));
+        assertTrue(errors.get(2).contains("no orderId"), errors.get(2));
+    }
+
+    @Test
+    @DisplayName("Should skip lines longer than the limit")
+    void shouldSkipOverlongLines() throws IOException {
+        String input = "{\"orderId\":\"O1\",\"padding\":\"" + "x".repeat(500) + "\"}\n{\"orderId\":\"O2\"}\n";
+        OrderFileReader reader = reader(input, OrderFormat.NDJSON, 32, 100);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(error.getMessage().contains("longer than 100 bytes"));
+        assertEquals("O2", reader.next().getOrderId());
+        assertNull(reader.next());
+        assertEquals(2, reader.lineNumber());
+    }
+
+    @Test
+    @DisplayName("Should enforce the line limit on lines that fit in one chunk")
+    void shouldSkipOverlongLinesWithinOneChunk() throws IOException {
+        String input = "{\"orderId\":\"O1\",\"padding\":\"" + "x".repeat(200) + "\"}\n{\"orderId\":\"O2\"}\n";
+        OrderFileReader reader = reader(input, OrderFormat.NDJSON, 4096, 100);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(error.getMessage().contains("longer than 100 bytes"));
+        assertEquals("O2", reader.next().getOrderId());
+        assertNull(reader.next());
+    }
+
+    private static OrderFileReader reader(String input, OrderFormat format, int chunkBytes) {
+        return reader(input, format, chunkBytes, OrderFileReader.DEFAULT_MAX_LINE_BYTES);
+    }
+
+    private static OrderFileReader reader(String input, OrderFormat format, int chunkBytes, int maxLineBytes) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        return new OrderFileReader(Channels.newChannel(new ByteArrayInputStream(bytes)), format, chunkBytes, maxLineBytes);
+    }
+
+    private static List<Order> readAll(OrderFileReader reader) throws IOException {
+        List<Order> orders = new ArrayList<>();
+        for (Order order = reader.next(); order != null; order = reader.next()) {
+            orders.add(order);
+        }
+        return orders;
+    }
+}
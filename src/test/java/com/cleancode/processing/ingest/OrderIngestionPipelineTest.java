@@ -0,0 +1,104 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Ingestion Pipeline Tests")
+class OrderIngestionPipelineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should stream every order of a large file through the stages")
+    void shouldStreamLargeFile() throws IOException {
+        Path file = directory.resolve("orders.ndjson");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < 20_000; i++) {
+                writer.write("{\"orderId\":\"O" + i + "\",\"customer\":{\"customerId\":\"C" + i + "\",\"premium\":"
+                    + (i % 2 == 0) + "},\"items\":[{\"productId\":\"P1\",\"price\":\"20.00\",\"quantity\":3}]}\n");
+            }
+        }
+        ConcurrentHashMap<String, Long> saved = new ConcurrentHashMap<>();
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> {
+            assertEquals(OrderStatus.PROCESSED, order.getStatus());
+            saved.put(order.getOrderId(), order.getTotalCents());
+        });
+
+        OrderIngestionPipeline.IngestionResult result = new OrderIngestionPipeline(processor, 16).ingest(file);
+
+        assertEquals(20_000, result.getOrdersRead());
+        assertEquals(20_000, result.getOrdersProcessed());
+        assertEquals(0, result.getOrdersFailed());
+        assertEquals(20_000, saved.size());
+        assertEquals(5400, saved.get("O0"));
+        assertEquals(6000, saved.get("O1"));
+        assertTrue(result.getRecordsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Should count rejected records and failed orders without stopping")
+    void shouldCountRejectedAndFailed() throws IOException {
+        Path file = directory.resolve("orders.csv");
+        Files.write(file, List.of(
+            "orderId,customerId,customerName,customerEmail,premium,productId,productName,price,quantity",
+            "O1,C1,Jane,jane@example.com,true,P1,Laptop,999.99,1",
+            "O2,C2,John,john@example.com,false,,,,",
+            "O3,C3,John,john@example.com,false,P2,Mouse,abc,1",
+            "O4,,,,,P3,Cable,9.99,1",
+            "O5,C5,Ann,ann@example.com,false,P4,Dock,100.00,1"));
+        AtomicInteger saves = new AtomicInteger();
+
+        OrderIngestionPipeline.IngestionResult result = new OrderIngestionPipeline(
+            new LongMethodRefactored(1, order -> saves.incrementAndGet()), 1).ingest(file);
+
+        assertEquals(4, result.getOrdersRead());
+        assertEquals(1, result.getRecordsRejected());
+        assertEquals(2, result.getOrdersProcessed());
+        assertEquals(2, result.getOrdersFailed());
+        assertEquals(2, saves.get());
+        assertEquals(3, result.getErrors().size());
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.startsWith("Line 4:")), result.getErrors().toString());
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.contains("O2 failed at VALIDATE")));
+    }
+
+    @Test
+    @DisplayName("Should run the steps with the same result as processOrder")
+    void shouldMatchProcessOrder() {
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+        Order staged = sampleOrder();
+        Order direct = sampleOrder();
+
+        LongMethodRefactored.OrderWork work = new LongMethodRefactored.OrderWork(staged);
+        for (LongMethodRefactored.Step step : LongMethodRefactored.Step.values()) {
+            processor.runStep(step, work);
+        }
+        processor.processOrder(direct);
+
+        assertEquals(direct.getTotalCents(), staged.getTotalCents());
+        assertEquals(direct.getTotalCents(), work.getTotalCents());
+        assertEquals(OrderStatus.PROCESSED, staged.getStatus());
+    }
+
+    private static Order sampleOrder() {
+        Order order = new Order("O1", new Customer("C1", "Jane", "jane@example.com", true));
+        order.addItem(new OrderItem("P1", "Laptop", 999.99, 1));
+        return order;
+    }
+}
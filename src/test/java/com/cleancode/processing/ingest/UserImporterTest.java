@@ -0,0 +1,194 @@
+package com.cleancode.processing.ingest;
+
+import com.cleancode.bloaters.longparameterlist.LongParameterListRefactored;
+import com.cleancode.bloaters.longparameterlist.RegistrationServices;
+import com.cleancode.domain.User;
+import com.cleancode.domain.index.EmailIndex;
+import com.cleancode.domain.index.UserDirectory;
+import com.cleancode.persistence.UserRepository;
+import com.cleancode.security.PasswordHasher;
+import com.cleancode.security.PasswordHashingStage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("User Importer Tests")
+class UserImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should import every valid user of a large file in bounded batches")
+    void shouldImportLargeFileInBatches() throws IOException {
+        Path file = directory.resolve("users.ndjson");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < 5_000; i++) {
+                writer.write("{\"firstName\":\"First" + i + "\",\"lastName\":\"Last\",\"email\":\"user" + i
+                    + "@example.com\",\"phoneNumber\":\"555-0100\",\"address\":{\"street\":\"1 Main St\",\"city\":\"Boston\","
+                    + "\"state\":\"MA\",\"zipCode\":\"02108\",\"country\":\"USA\"},\"dateOfBirth\":\"1990-05-15\","
+                    + "\"password\":\"password123\",\"active\":" + (i % 2 == 0) + ",\"referrer\":[1,2]}\n");
+            }
+        }
+        Map<String, User> saved = new ConcurrentHashMap<>();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        UserRepository repository = batchingRepository(saved, batchSizes);
+
+        UserImporter.ImportResult result = new UserImporter(new LongParameterListRefactored(), repository, 4, 100)
+            .importFile(file);
+
+        assertEquals(5_000, result.getRowsRead());
+        assertEquals(0, result.getRowsRejected());
+        assertEquals(5_000, result.getUsersImported());
+        assertEquals(5_000, saved.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100), batchSizes.toString());
+        User user = saved.get("user42@example.com");
+        assertEquals("First42", user.getFirstName());
+        assertEquals("Boston", user.getCity());
+        assertEquals(LocalDate.of(1990, 5, 15), user.getDateOfBirth());
+        assertTrue(user.isActive());
+        assertTrue(result.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed and invalid rows with every problem and keep importing")
+    void shouldRejectBadRowsAndContinue() throws IOException {
+        Path file = directory.resolve("users.csv");
+        Files.write(file, List.of(
+            "email,firstName,lastName,phoneNumber,street,city,state,zipCode,country,dateOfBirth,password,active",
+            "jane@example.com,Jane,Smith,555-987-6543,\"456 Oak Ave, Apt 2\",Los Angeles,CA,90210,USA,1985-08-20,password456,true",
+            "not-an-email,,Smith,555-987-6543,,,,,,1985-08-20,short,true",
+            "",
+            "bob@example.com,Bob,Brown,555-111-2222,1 Elm St,Chicago,IL,60601,USA,20/01/1980,password789,false",
+            "\"carol@example.com,Carol",
+            "dave@example.com,Dave,Lee,555-333-4444,2 Pine St,Seattle,WA,98101,USA,1975-02-01,password000,true"));
+        Map<String, User> saved = new ConcurrentHashMap<>();
+
+        UserImporter.ImportResult result = new UserImporter(new LongParameterListRefactored(),
+            batchingRepository(saved, new ArrayList<>()), 2, 2).importFile(file);
+
+        assertEquals(5, result.getRowsRead());
+        assertEquals(3, result.getRowsRejected());
+        assertEquals(2, result.getUsersImported());
+        assertEquals("456 Oak Ave, Apt 2", saved.get("jane@example.com").getAddress());
+        assertTrue(saved.containsKey("dave@example.com"));
+        List<UserImporter.RowError> errors = result.getErrors();
+        assertEquals(List.of(3L, 5L, 6L), errors.stream().map(UserImporter.RowError::getLineNumber).toList());
+        assertEquals(List.of("First name is required", "Valid email is required", "Address is required",
+            "Password must be at least 8 characters"), errors.get(0).getMessages());
+        assertEquals("Line 5: Bad dateOfBirth '20/01/1980'", errors.get(1).toString());
+        assertEquals(List.of("Unterminated quoted field"), errors.get(2).getMessages());
+    }
+
+    @Test
+    @DisplayName("Should add imported users to the directory and give them ids")
+    void shouldAddImportedUsersToDirectory() throws IOException {
+        Path file = directory.resolve("users.csv");
+        Files.write(file, List.of(
+            "firstName,lastName,email,phoneNumber,street,city,state,zipCode,country,dateOfBirth,password,active",
+            "Jane,Smith,jane@example.com,555-987-6543,456 Oak Ave,Los Angeles,CA,90210,USA,1985-08-20,password456,true",
+            "Dave,Lee,dave@example.com,555-333-4444,2 Pine St,Seattle,WA,98101,USA,1975-02-01,password000,true",
+            "Jane,Smith,JANE@example.com,555-987-6543,456 Oak Ave,Los Angeles,CA,90210,USA,1985-08-20,password456,true"));
+        Map<String, User> saved = new ConcurrentHashMap<>();
+        UserDirectory users = new UserDirectory();
+
+        UserImporter.ImportResult result = new UserImporter(
+            new LongParameterListRefactored(RegistrationServices.builder().directory(users).build()),
+            batchingRepository(saved, new ArrayList<>()), 1, 10).importFile(file);
+
+        assertEquals(2, result.getUsersImported());
+        assertEquals(1, result.getRowsRejected());
+        assertEquals(4L, result.getErrors().get(0).getLineNumber());
+        assertEquals(2, users.size());
+        Long id = saved.get("dave@example.com").getId();
+        assertNotNull(id);
+        assertEquals("Dave", users.get(id).getFirstName());
+        assertEquals(users.findIdByEmail("jane@example.com"), saved.get("jane@example.com").getId());
+    }
+
+    @Test
+    @DisplayName("Should reject a row whose user cannot be built and keep importing")
+    void shouldRejectRowWhoseUserCannotBeBuilt() throws IOException {
+        Path file = directory.resolve("users.csv");
+        Files.write(file, List.of(
+            "firstName,lastName,email,phoneNumber,street,city,state,zipCode,country,dateOfBirth,password,active",
+            "Jane,Smith,jane@example.com,555-987-6543,456 Oak Ave,Los Angeles,CA,90210,USA,1985-08-20,unhashable,true",
+            "Dave,Lee,dave@example.com,555-333-4444,2 Pine St,Seattle,WA,98101,USA,1975-02-01,password000,true"));
+        Map<String, User> saved = new ConcurrentHashMap<>();
+        EmailIndex emails = new EmailIndex(100);
+
+        try (PasswordHashingStage hashing = new PasswordHashingStage(
+                new PasswordHasher(1_000), Duration.ofMillis(1), 1_000, 1, 16) {
+            @Override
+            public String hashNow(String password) {
+                if (password.equals("unhashable")) {
+                    throw new IllegalStateException("hasher unavailable");
+                }
+                return super.hashNow(password);
+            }
+        }) {
+            UserImporter.ImportResult result = new UserImporter(new LongParameterListRefactored(
+                RegistrationServices.builder().emailIndex(emails).passwordHashing(hashing).build()),
+                batchingRepository(saved, new ArrayList<>()), 1, 10).importFile(file);
+
+            assertEquals(2, result.getRowsRead());
+            assertEquals(1, result.getRowsRejected());
+            assertEquals(1, result.getUsersImported());
+            assertEquals("Line 2: hasher unavailable", result.getErrors().get(0).toString());
+            assertTrue(saved.containsKey("dave@example.com"));
+            assertFalse(emails.isRegistered("jane@example.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop and report a failing repository")
+    void shouldStopOnRepositoryFailure() throws IOException {
+        Path file = directory.resolve("users.csv");
+        Files.write(file, List.of(
+            "firstName,lastName,email,phoneNumber,street,city,state,zipCode,country,dateOfBirth,password,active",
+            "Jane,Smith,jane@example.com,555-987-6543,456 Oak Ave,Los Angeles,CA,90210,USA,1985-08-20,password456,true"));
+        UserRepository failing = user -> {
+            throw new IllegalStateException("disk full");
+        };
+
+        EmailIndex emails = new EmailIndex(100);
+        UserDirectory users = new UserDirectory();
+        UserImporter importer = new UserImporter(new LongParameterListRefactored(
+            RegistrationServices.builder().emailIndex(emails).directory(users).build()), failing, 1, 10);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> importer.importFile(file));
+        assertEquals("disk full", failure.getCause().getMessage());
+        assertFalse(emails.isRegistered("jane@example.com"));
+        assertEquals(0, users.size());
+        assertThrows(IllegalArgumentException.class, () -> importer.importFile(directory.resolve("users.txt")));
+    }
+
+    private static UserRepository batchingRepository(Map<String, User> saved, List<Integer> batchSizes) {
+        return new UserRepository() {
+            @Override
+            public void save(User user) {
+                assertNull(saved.put(user.getEmail(), user), "saved twice: " + user.getEmail());
+            }
+
+            @Override
+            public void saveAll(List<User> users) {
+                batchSizes.add(users.size());
+                users.forEach(this::save);
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.cleancode.processing.ring;
+
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Ring Buffer Tests")
+class OrderRingBufferTest {
+
+    @Test
+    @DisplayName("Should publish a claimed batch so a consumer sees all of it in one wait")
+    void shouldPublishClaimedBatch() {
+        OrderRingBuffer ring = new OrderRingBuffer(8, WaitStrategy.BUSY_SPIN);
+        SequenceBarrier barrier = ring.newBarrier();
+
+        long high = ring.next(3);
+        for (long sequence = high - 2; sequence <= high; sequence++) {
+            ring.get(sequence).setOrder(order("O" + sequence));
+        }
+        assertEquals(-1, ring.getCursor());
+        ring.publish(high);
+
+        assertEquals(2, high);
+        assertEquals(2, barrier.waitFor(0));
+        assertEquals("O1", ring.get(1).getOrder().getOrderId());
+    }
+
+    @Test
+    @DisplayName("Should reuse the same slots on every lap")
+    void shouldReuseSlots() {
+        OrderRingBuffer ring = new OrderRingBuffer(4, WaitStrategy.BUSY_SPIN);
+
+        assertSame(ring.get(1), ring.get(5));
+        assertSame(ring.get(0), ring.get(4_000));
+    }
+
+    @Test
+    @DisplayName("Should not let the producer lap the slowest consumer")
+    void shouldNotLapSlowestConsumer() throws Exception {
+        OrderRingBuffer ring = new OrderRingBuffer(4, WaitStrategy.PARK);
+        Sequence consumer = new Sequence(-1);
+        ring.addGatingSequences(consumer);
+        ring.publish(ring.next(4));
+
+        CompletableFuture<Long> blocked = CompletableFuture.supplyAsync(ring::next);
+        Thread.sleep(50);
+        assertFalse(blocked.isDone(), "the ring is full");
+
+        consumer.set(0);
+        assertEquals(4, blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should release a waiting consumer when its barrier is alerted")
+    void shouldReleaseAlertedConsumer() throws Exception {
+        OrderRingBuffer ring = new OrderRingBuffer(4, WaitStrategy.YIELD);
+        SequenceBarrier barrier = ring.newBarrier();
+
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> barrier.waitFor(0));
+        barrier.alert();
+
+        assertEquals(-1, waiting.get(5, TimeUnit.SECONDS));
+        assertTrue(barrier.isAlerted());
+    }
+
+    @Test
+    @DisplayName("Should reject sizes that are not powers of two and oversized claims")
+    void shouldRejectInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderRingBuffer(6, WaitStrategy.YIELD));
+        assertThrows(IllegalArgumentException.class, () -> new OrderRingBuffer(8, null));
+
+        OrderRingBuffer ring = new OrderRingBuffer(8, WaitStrategy.YIELD);
+        assertThrows(IllegalArgumentException.class, () -> ring.next(9));
+        assertThrows(IllegalArgumentException.class, () -> ring.next(0));
+    }
+
+    private static Order order(String orderId) {
+        return new Order(orderId, new Customer("C1", "John Doe", "john@example.com", false));
+    }
+}
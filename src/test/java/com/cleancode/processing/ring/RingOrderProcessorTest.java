@@ -0,0 +1,85 @@
+package com.cleancode.processing.ring;
+
+import com.cleancode.bloaters.longmethod.LongMethodRefactored;
+import com.cleancode.domain.Customer;
+import com.cleancode.domain.Order;
+import com.cleancode.domain.OrderItem;
+import com.cleancode.domain.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Ring Order Processor Tests")
+class RingOrderProcessorTest {
+
+    @Test
+    @DisplayName("Should process every published order exactly once with each wait strategy")
+    void shouldProcessEveryOrderOnce() throws InterruptedException {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            Set<String> saved = ConcurrentHashMap.newKeySet();
+            List<Order> orders = orders(10_000);
+            RingOrderProcessor ring = new RingOrderProcessor(new LongMethodRefactored(1, order ->
+                assertTrue(saved.add(order.getOrderId()), "saved twice: " + order.getOrderId())), 64, 3, waitStrategy);
+            try (ring) {
+                ring.publishAll(orders.subList(0, 5_000));
+                for (Order order : orders.subList(5_000, 10_000)) {
+                    ring.publish(order);
+                }
+                ring.awaitProcessed();
+
+                assertEquals(10_000, ring.getProcessed(), waitStrategy.name());
+                assertEquals(0, ring.getBacklog());
+            }
+            assertEquals(10_000, saved.size(), waitStrategy.name());
+            assertEquals(OrderStatus.PROCESSED, orders.get(9_999).getStatus());
+            assertEquals(6000, orders.get(0).getTotalCents());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report failed orders to the handler and keep processing")
+    void shouldReportFailedOrders() throws InterruptedException {
+        List<String> failures = new CopyOnWriteArrayList<>();
+        List<Order> orders = orders(100);
+        orders.add(50, new Order("EMPTY", new Customer("C1", "John Doe", "john@example.com", false)));
+        RingOrderProcessor ring = new RingOrderProcessor(new LongMethodRefactored(1, order -> { }), 16, 2,
+            WaitStrategy.PARK, (order, failure) -> failures.add(order.getOrderId() + ": " + failure.getMessage()));
+        try (ring) {
+            ring.publishAll(orders);
+        }
+
+        assertEquals(100, ring.getProcessed());
+        assertEquals(1, ring.getFailed());
+        assertEquals(List.of("EMPTY: Order must contain at least one item"), failures);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration and publishing after close")
+    void shouldRejectInvalidUse() throws InterruptedException {
+        LongMethodRefactored processor = new LongMethodRefactored(1, order -> { });
+        assertThrows(IllegalArgumentException.class, () -> new RingOrderProcessor(processor, 16, 0, WaitStrategy.PARK));
+        assertThrows(IllegalArgumentException.class, () -> new RingOrderProcessor(processor, 10, 1, WaitStrategy.PARK));
+
+        RingOrderProcessor ring = new RingOrderProcessor(processor, 16, 1, WaitStrategy.PARK);
+        ring.close();
+        assertThrows(IllegalStateException.class, () -> ring.publish(orders(1).get(0)));
+        assertThrows(IllegalArgumentException.class, () -> ring.publish(null));
+    }
+
+    private static List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("O" + i, new Customer("C" + i, "Customer " + i, "c" + i + "@example.com", false));
+            order.addItem(new OrderItem("P1", "Cable", 20.00, 3));
+            orders.add(order);
+        }
+        return orders;
+    }
+}
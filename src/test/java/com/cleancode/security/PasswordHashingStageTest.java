@@ -0,0 +1,84 @@
+package com.cleancode.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Password Hashing Tests")
+class PasswordHashingStageTest {
+
+    @Test
+    @DisplayName("Should verify salted hashes across work factors and flag weaker ones for rehashing")
+    void shouldHashAndVerify() {
+        PasswordHasher weak = new PasswordHasher(1_000);
+        PasswordHasher strong = new PasswordHasher(2_000);
+
+        String hash = weak.hash("password123");
+
+        assertTrue(hash.startsWith("pbkdf2-sha256$1000$"), hash);
+        assertNotEquals(hash, weak.hash("password123"));
+        assertTrue(strong.verify("password123", hash));
+        assertFalse(strong.verify("password124", hash));
+        assertTrue(strong.needsRehash(hash));
+        assertFalse(weak.needsRehash(hash));
+        assertThrows(IllegalArgumentException.class, () -> strong.verify("password123", "password123"));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(999));
+    }
+
+    @Test
+    @DisplayName("Should move the work factor towards the target hashing time, one bounded step at a time")
+    void shouldAdaptWorkFactor() {
+        try (PasswordHashingStage tooFast = new PasswordHashingStage(new PasswordHasher(1_000),
+                Duration.ofMillis(500), 1_000, 1, 10);
+             PasswordHashingStage tooSlow = new PasswordHashingStage(new PasswordHasher(4_000),
+                Duration.ofNanos(1), 1_500, 1, 10)) {
+            for (int i = 0; i < PasswordHashingStage.ADAPT_INTERVAL; i++) {
+                tooFast.hashNow("password123");
+                tooSlow.hashNow("password123");
+            }
+
+            assertEquals(2_000, tooFast.getHasher().getIterations());
+            assertEquals(2_000, tooSlow.getHasher().getIterations());
+            tooSlow.hashNow("password123");
+            for (int i = 0; i < PasswordHashingStage.ADAPT_INTERVAL; i++) {
+                tooSlow.hashNow("password123");
+            }
+            assertEquals(1_500, tooSlow.getHasher().getIterations());
+        }
+    }
+
+    @Test
+    @DisplayName("Should never calibrate the default stage below the security floor")
+    void shouldKeepDefaultWorkFactorAtFloor() {
+        assertEquals(PasswordHasher.DEFAULT_MIN_ITERATIONS, PasswordHasher.calibrated(Duration.ofNanos(1)).getIterations());
+        try (PasswordHashingStage stage = new PasswordHashingStage(Duration.ofNanos(1))) {
+            assertEquals(PasswordHasher.DEFAULT_MIN_ITERATIONS, stage.getHasher().getIterations());
+        }
+    }
+
+    @Test
+    @DisplayName("Should hash on its own threads and reject passwords beyond the queue")
+    void shouldRejectWhenQueueIsFull() {
+        PasswordHashingStage stage = new PasswordHashingStage(new PasswordHasher(200_000),
+            Duration.ofSeconds(1), 1_000, 1, 1);
+
+        CompletableFuture<String> running = stage.hash("password123");
+        CompletableFuture<String> queued = stage.hash("password456");
+        CompletableFuture<String> rejected = stage.hash("password789");
+
+        CompletionException failure = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertEquals(1, stage.getRejected());
+        stage.close();
+        assertTrue(stage.getHasher().verify("password123", running.join()));
+        assertTrue(stage.getHasher().verify("password456", queued.join()));
+        assertEquals(2, stage.getHashed());
+        assertThrows(IllegalStateException.class, () -> stage.hash("password000"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.cleancode.domain.batch;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of the line total kernel.
+ *
+ * Each step loads as many prices as fit in the preferred long vector and the same number of
+ * quantities from a half-width int vector, widens the quantities and multiplies lane by lane.
+ * A lane-wise multiply wraps on overflow, so a chunk with a price outside the int range, where
+ * the product could exceed a long, is computed by the exact scalar loop instead.
+ *
+ * Only {@link VectorSupport} creates this class, reflectively, after checking that the
+ * incubator module is present; loading it without the module fails. It is compiled by the
+ * {@code vector} build profile only.
+ */
+final class VectorBatchKernels implements BatchKernels {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    VectorBatchKernels() {
+        if (LONGS.length() < 2) {
+            throw new UnsupportedOperationException("No multi-lane long vectors on this platform");
+        }
+    }
+
+    @Override
+    public void lineTotals(long[] priceCents, int[] quantities, long[] lineTotals, int length) {
+        int lanes = LONGS.length();
+        int bound = LONGS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            LongVector price = LongVector.fromArray(LONGS, priceCents, i);
+            VectorMask<Long> outOfRange = price.compare(VectorOperators.GT, Integer.MAX_VALUE)
+                .or(price.compare(VectorOperators.LT, -Integer.MAX_VALUE));
+            if (outOfRange.anyTrue()) {
+                ScalarBatchKernels.INSTANCE.lineTotals(priceCents, quantities, lineTotals, i, i + lanes);
+                continue;
+            }
+            LongVector quantity = (LongVector) IntVector.fromArray(INTS, quantities, i)
+                .convertShape(VectorOperators.I2L, LONGS, 0);
+            price.mul(quantity).intoArray(lineTotals, i);
+        }
+        ScalarBatchKernels.INSTANCE.lineTotals(priceCents, quantities, lineTotals, i, length);
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + LONGS.length() + "x64";
+    }
+}